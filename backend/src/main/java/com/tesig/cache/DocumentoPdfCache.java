@@ -0,0 +1,289 @@
+package com.tesig.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.tesig.dto.DocumentoPdfDTO;
+import com.tesig.event.ConfiguracionEmpresaModificadaEvent;
+import com.tesig.event.TicketEstadoCambiadoEvent;
+import com.tesig.model.Ticket;
+import com.tesig.model.TipoDocumentoPdf;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Cache de PDFs generados a partir de tickets, con un nivel en memoria
+ * limitado por tamaño y un nivel en disco.
+ *
+ * La clave incluye el ticket, el tipo de documento y la versión de los datos
+ * que aparecen en el PDF (fecha de actualización del ticket y del cliente, y
+ * versión persistida de la configuración de empresa, ver
+ * {@link RecursosPdfRegistro}). El hash de la clave se usa como
+ * nombre de archivo y como ETag, por lo que un cliente con el documento vigente
+ * recibe 304 sin que se genere ni se lea el PDF.
+ *
+ * Las entradas de un ticket se eliminan cuando se confirma un cambio de estado
+ * y todas se descartan cuando cambia la configuración de la empresa. Al
+ * guardar una versión nueva de un documento se borran en disco las versiones
+ * anteriores del mismo ticket y tipo, que ya no se pueden pedir. Los archivos
+ * en disco se registran con su tamaño en orden de uso: al superar el máximo se
+ * borran los menos recientemente usados. El directorio se vacía al iniciar, ya
+ * que el registro empieza vacío.
+ */
+@Component
+@Slf4j
+public class DocumentoPdfCache {
+
+    private static final String EXTENSION = ".pdf";
+
+    private final RecursosPdfRegistro recursosPdfRegistro;
+    private final boolean habilitado;
+    private final Path directorio;
+    private final Cache<Clave, byte[]> memoria;
+    private final long maxBytesDisco;
+    /** Archivos en disco con su tamaño, del menos al más recientemente usado. Acceso sincronizado. */
+    private final LinkedHashMap<Path, Long> archivosEnDisco = new LinkedHashMap<>(16, 0.75f, true);
+    private long bytesEnDisco;
+    private volatile boolean discoDisponible;
+
+    public DocumentoPdfCache(
+            RecursosPdfRegistro recursosPdfRegistro,
+            @Value("${tesig.pdf.cache.enabled:true}") boolean habilitado,
+            @Value("${tesig.pdf.cache.memoria-max-mb:32}") long memoriaMaxMb,
+            @Value("${tesig.pdf.cache.directorio:${java.io.tmpdir}/tesig-pdf-cache}") String directorio,
+            @Value("${tesig.pdf.cache.disco-max-mb:512}") long discoMaxMb) {
+        this.recursosPdfRegistro = recursosPdfRegistro;
+        this.habilitado = habilitado;
+        this.directorio = Paths.get(directorio);
+        this.memoria = Caffeine.newBuilder()
+                .maximumWeight(memoriaMaxMb * 1024 * 1024)
+                .weigher((Clave clave, byte[] pdf) -> pdf.length)
+                .build();
+        this.maxBytesDisco = discoMaxMb * 1024 * 1024;
+    }
+
+    @PostConstruct
+    void inicializarDirectorio() {
+        if (!habilitado) {
+            return;
+        }
+        try {
+            Files.createDirectories(directorio);
+            eliminarArchivos("*" + EXTENSION);
+            discoDisponible = true;
+            log.info("Cache de PDFs en disco: {}", directorio.toAbsolutePath());
+        } catch (IOException e) {
+            log.warn("No se pudo preparar el directorio de cache de PDFs {}; solo se usará memoria: {}",
+                    directorio, e.getMessage());
+        }
+    }
+
+    public boolean isHabilitado() {
+        return habilitado;
+    }
+
+    /**
+     * Calcula el ETag del documento con los datos actuales del ticket, sin generarlo.
+     */
+    public String etag(Ticket ticket, TipoDocumentoPdf tipo) {
+        return clave(ticket, tipo).hash();
+    }
+
+    /**
+     * Obtiene el PDF del cache (memoria o disco) o lo genera y lo guarda.
+     * Las generaciones concurrentes del mismo documento se ejecutan una sola vez.
+     */
+    public DocumentoPdfDTO obtener(Ticket ticket, TipoDocumentoPdf tipo, Supplier<byte[]> generador) {
+        Clave clave = clave(ticket, tipo);
+        if (!habilitado) {
+            return enMemoria(clave, generador.get());
+        }
+
+        byte[] pdf = memoria.getIfPresent(clave);
+        if (pdf != null) {
+            return enMemoria(clave, pdf);
+        }
+
+        Path archivo = archivo(clave);
+        if (discoDisponible && enDisco(archivo) && Files.isReadable(archivo)) {
+            return DocumentoPdfDTO.builder()
+                    .contenido(new FileSystemResource(archivo))
+                    .etag(clave.hash())
+                    .tamanio(archivo.toFile().length())
+                    .build();
+        }
+
+        pdf = memoria.get(clave, k -> {
+            byte[] generado = generador.get();
+            guardarEnDisco(k, archivo, generado);
+            return generado;
+        });
+        return enMemoria(clave, pdf);
+    }
+
+    /**
+     * Elimina los documentos de un ticket una vez confirmado su cambio de estado.
+     * Se ejecuta antes que el pre-renderizado del nuevo documento.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onTicketEstadoCambiado(TicketEstadoCambiadoEvent event) {
+        if (event.ticketId() != null) {
+            invalidar(event.ticketId());
+        }
+    }
+
+    /**
+     * Descarta todos los documentos cuando cambian los datos de la empresa.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onConfiguracionModificada(ConfiguracionEmpresaModificadaEvent event) {
+        memoria.invalidateAll();
+        eliminarDeDisco(archivo -> true);
+        log.debug("Cache de PDFs descartado por cambio de configuración de empresa");
+    }
+
+    public void invalidar(Long ticketId) {
+        if (!habilitado) {
+            return;
+        }
+        memoria.asMap().keySet().removeIf(clave -> clave.ticketId().equals(ticketId));
+        String prefijo = ticketId + "-";
+        eliminarDeDisco(archivo -> archivo.getFileName().toString().startsWith(prefijo));
+    }
+
+    private Clave clave(Ticket ticket, TipoDocumentoPdf tipo) {
+        LocalDateTime actualizacionCliente = ticket.getCliente() != null ? ticket.getCliente().getUpdatedAt() : null;
+        String version = ticket.getUpdatedAt() + "|" + actualizacionCliente + "|"
+                + recursosPdfRegistro.obtener().version();
+        return new Clave(ticket.getId(), tipo, version);
+    }
+
+    private Path archivo(Clave clave) {
+        return directorio.resolve(clave.ticketId() + "-" + clave.tipo().name() + "-" + clave.hash() + EXTENSION);
+    }
+
+    private DocumentoPdfDTO enMemoria(Clave clave, byte[] pdf) {
+        return DocumentoPdfDTO.builder()
+                .contenido(new ByteArrayResource(pdf))
+                .etag(clave.hash())
+                .tamanio(pdf.length)
+                .build();
+    }
+
+    private void guardarEnDisco(Clave clave, Path archivo, byte[] pdf) {
+        if (!discoDisponible) {
+            return;
+        }
+        try {
+            // Escritura atómica: un lector nunca ve un archivo incompleto
+            Path temporal = Files.createTempFile(directorio, "pdf-", ".tmp");
+            Files.write(temporal, pdf);
+            Files.move(temporal, archivo, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            log.warn("No se pudo guardar el PDF {} en disco: {}", archivo.getFileName(), e.getMessage());
+            return;
+        }
+        registrarEnDisco(clave, archivo, pdf.length);
+    }
+
+    private boolean enDisco(Path archivo) {
+        synchronized (archivosEnDisco) {
+            return archivosEnDisco.get(archivo) != null;
+        }
+    }
+
+    /**
+     * Registra un archivo recién escrito: borra las versiones anteriores del mismo
+     * documento, que ya no se pueden pedir, y los archivos menos usados hasta
+     * volver a estar dentro del máximo.
+     */
+    private void registrarEnDisco(Clave clave, Path archivo, long tamanio) {
+        String prefijo = clave.ticketId() + "-" + clave.tipo().name() + "-";
+        synchronized (archivosEnDisco) {
+            eliminarDeDisco(otro -> !otro.equals(archivo) && otro.getFileName().toString().startsWith(prefijo));
+            // Si el archivo ya estaba (mismo documento regenerado), se reemplaza su tamaño
+            Long anterior = archivosEnDisco.put(archivo, tamanio);
+            bytesEnDisco += tamanio - (anterior != null ? anterior : 0L);
+            Iterator<Map.Entry<Path, Long>> menosUsados = archivosEnDisco.entrySet().iterator();
+            while (bytesEnDisco > maxBytesDisco && menosUsados.hasNext()) {
+                Map.Entry<Path, Long> entrada = menosUsados.next();
+                menosUsados.remove();
+                bytesEnDisco -= entrada.getValue();
+                eliminarArchivo(entrada.getKey());
+            }
+        }
+    }
+
+    private void eliminarDeDisco(Predicate<Path> condicion) {
+        synchronized (archivosEnDisco) {
+            Iterator<Map.Entry<Path, Long>> entradas = archivosEnDisco.entrySet().iterator();
+            while (entradas.hasNext()) {
+                Map.Entry<Path, Long> entrada = entradas.next();
+                if (condicion.test(entrada.getKey())) {
+                    entradas.remove();
+                    bytesEnDisco -= entrada.getValue();
+                    eliminarArchivo(entrada.getKey());
+                }
+            }
+        }
+    }
+
+    private void eliminarArchivo(Path archivo) {
+        try {
+            Files.deleteIfExists(archivo);
+        } catch (IOException e) {
+            log.warn("No se pudo eliminar el PDF {} del cache en disco: {}", archivo.getFileName(), e.getMessage());
+        }
+    }
+
+    private void eliminarArchivos(String patron) {
+        try (DirectoryStream<Path> archivos = Files.newDirectoryStream(directorio, patron)) {
+            for (Path archivo : archivos) {
+                Files.deleteIfExists(archivo);
+            }
+        } catch (IOException e) {
+            log.warn("No se pudieron eliminar PDFs del cache en disco ({}): {}", patron, e.getMessage());
+        }
+    }
+
+    /**
+     * Documento de un ticket en una versión determinada de sus datos.
+     */
+    record Clave(Long ticketId, TipoDocumentoPdf tipo, String version) {
+
+        String hash() {
+            try {
+                MessageDigest digest = MessageDigest.getInstance("SHA-256");
+                byte[] bytes = digest.digest((ticketId + "|" + tipo + "|" + version).getBytes(StandardCharsets.UTF_8));
+                return HexFormat.of().formatHex(bytes, 0, 16);
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 no disponible", e);
+            }
+        }
+    }
+}
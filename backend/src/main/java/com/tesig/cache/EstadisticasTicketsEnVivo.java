@@ -0,0 +1,167 @@
+package com.tesig.cache;
+
+import com.tesig.dto.ticket.TicketEstadisticasDTO;
+import com.tesig.event.TicketEstadoCambiadoEvent;
+import com.tesig.model.EstadoTicket;
+import com.tesig.repository.TicketRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Estadísticas de tickets calculadas con dos consultas agrupadas (por estado y
+ * por técnico) y, opcionalmente, mantenidas en memoria.
+ *
+ * Con {@code tesig.tickets.estadisticas.en-vivo.enabled} los contadores se cargan
+ * de la base de datos en la primera consulta y luego se actualizan con cada
+ * {@link TicketEstadoCambiadoEvent} confirmado, de modo que el dashboard no
+ * consulta la base de datos. Los contadores son por instancia: se recargan
+ * periódicamente para corregir cambios hechos por otras instancias o fuera del
+ * servicio de tickets.
+ */
+@Component
+@Slf4j
+public class EstadisticasTicketsEnVivo {
+
+    private final TicketRepository ticketRepository;
+    private final boolean enVivo;
+    private final Duration intervaloRecarga;
+
+    // Protegidos por this
+    private Contadores contadores;
+    private Instant ultimaCarga;
+
+    public EstadisticasTicketsEnVivo(
+            TicketRepository ticketRepository,
+            @Value("${tesig.tickets.estadisticas.en-vivo.enabled:false}") boolean enVivo,
+            @Value("${tesig.tickets.estadisticas.en-vivo.recarga-minutos:15}") long recargaMinutos) {
+        this.ticketRepository = ticketRepository;
+        this.enVivo = enVivo;
+        this.intervaloRecarga = Duration.ofMinutes(recargaMinutos);
+    }
+
+    /**
+     * Obtiene las estadísticas actuales de tickets.
+     */
+    public TicketEstadisticasDTO getEstadisticas() {
+        if (!enVivo) {
+            return cargar().toDTO();
+        }
+
+        synchronized (this) {
+            if (contadores == null || Instant.now().isAfter(ultimaCarga.plus(intervaloRecarga))) {
+                contadores = cargar();
+                ultimaCarga = Instant.now();
+            }
+            return contadores.toDTO();
+        }
+    }
+
+    /**
+     * Aplica la creación o el cambio de estado de un ticket a los contadores,
+     * una vez confirmada la transacción.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public synchronized void onTicketEstadoCambiado(TicketEstadoCambiadoEvent event) {
+        if (!enVivo || contadores == null) {
+            return;
+        }
+        contadores.aplicar(event);
+    }
+
+    /**
+     * Descarta los contadores en memoria; la próxima consulta los recarga.
+     */
+    public synchronized void invalidar() {
+        contadores = null;
+    }
+
+    private Contadores cargar() {
+        Contadores nuevos = new Contadores();
+
+        for (Object[] fila : ticketRepository.contarPorEstado()) {
+            EstadoTicket estado = (EstadoTicket) fila[0];
+            nuevos.porEstado.put(estado, ((Number) fila[1]).longValue());
+            // El promedio histórico solo considera tickets entregados
+            if (estado == EstadoTicket.ENTREGADO) {
+                nuevos.sumaDiasReparacion = fila[2] != null ? ((Number) fila[2]).doubleValue() : 0.0;
+                nuevos.ticketsConTiempoReparacion = fila[3] != null ? ((Number) fila[3]).longValue() : 0L;
+            }
+        }
+
+        for (Object[] fila : ticketRepository.countTicketsPorTecnico()) {
+            nuevos.porTecnico.merge((String) fila[0], ((Number) fila[1]).longValue(), Long::sum);
+        }
+
+        log.debug("Estadísticas de tickets cargadas desde la base de datos");
+        return nuevos;
+    }
+
+    /**
+     * Contadores mutables de tickets. No es thread-safe; el acceso se sincroniza
+     * en la clase contenedora.
+     */
+    private static final class Contadores {
+
+        private final Map<EstadoTicket, Long> porEstado = new EnumMap<>(EstadoTicket.class);
+        private final Map<String, Long> porTecnico = new HashMap<>();
+        private double sumaDiasReparacion;
+        private long ticketsConTiempoReparacion;
+
+        void aplicar(TicketEstadoCambiadoEvent event) {
+            if (event.estadoAnterior() != null) {
+                porEstado.merge(event.estadoAnterior(), -1L, Long::sum);
+            }
+            porEstado.merge(event.estadoNuevo(), 1L, Long::sum);
+
+            // El técnico solo se asigna al pasar de INGRESADO a diagnóstico
+            if (event.estadoAnterior() == EstadoTicket.INGRESADO && event.tecnicoAsignado() != null) {
+                porTecnico.merge(event.tecnicoAsignado(), 1L, Long::sum);
+            }
+
+            Double dias = event.diasReparacion();
+            if (event.estadoNuevo() == EstadoTicket.ENTREGADO && dias != null) {
+                sumaDiasReparacion += dias;
+                ticketsConTiempoReparacion++;
+            }
+        }
+
+        TicketEstadisticasDTO toDTO() {
+            long total = 0;
+            Map<String, Long> ticketsPorEstado = new HashMap<>();
+            for (EstadoTicket estado : EstadoTicket.values()) {
+                long cantidad = porEstado.getOrDefault(estado, 0L);
+                ticketsPorEstado.put(estado.getNombre(), cantidad);
+                total += cantidad;
+            }
+
+            long activos = total
+                    - porEstado.getOrDefault(EstadoTicket.ENTREGADO, 0L)
+                    - porEstado.getOrDefault(EstadoTicket.CANCELADO, 0L);
+
+            Map<String, Long> ticketsPorTecnico = new LinkedHashMap<>();
+            porTecnico.entrySet().stream()
+                    .sorted(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder()))
+                    .forEach(e -> ticketsPorTecnico.put(e.getKey(), e.getValue()));
+
+            return TicketEstadisticasDTO.builder()
+                    .totalTickets(total)
+                    .ticketsActivos(activos)
+                    .ticketsPorEstado(ticketsPorEstado)
+                    .ticketsPorTecnico(ticketsPorTecnico)
+                    .tiempoPromedioReparacion(ticketsConTiempoReparacion > 0
+                            ? sumaDiasReparacion / ticketsConTiempoReparacion : 0.0)
+                    .build();
+        }
+    }
+}
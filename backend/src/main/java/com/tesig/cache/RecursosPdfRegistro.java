@@ -0,0 +1,155 @@
+package com.tesig.cache;
+
+import com.tesig.event.ConfiguracionEmpresaModificadaEvent;
+import com.tesig.model.ConfiguracionEmpresa;
+import com.tesig.repository.ConfiguracionEmpresaRepository;
+import com.tesig.repository.projection.ConfiguracionVersionProjection;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+
+/**
+ * Recursos de los PDFs que dependen de la configuración de la empresa
+ * (encabezado, contacto, redes sociales, garantía y mensaje de agradecimiento).
+ *
+ * Se calculan una vez por versión de la configuración, en lugar de consultar
+ * {@link ConfiguracionEmpresa} y armar los textos en cada documento, y se
+ * descartan cuando se confirma un cambio de configuración.
+ *
+ * La versión de los recursos es el ID y la fecha de actualización de la
+ * configuración (persistidos), por lo que no cambia con un reinicio. Los
+ * cambios hechos por otra instancia se detectan comparando periódicamente esa
+ * versión con la de la BD; al detectarse uno se publica el mismo evento que
+ * tras un cambio local, para descartar también los PDFs generados.
+ */
+@Component
+@Slf4j
+public class RecursosPdfRegistro {
+
+    private static final int DIAS_GARANTIA_POR_DEFECTO = 30;
+    private static final String AGRADECIMIENTO_POR_DEFECTO = "¡Gracias por confiar en nosotros!";
+    private static final String VERSION_SIN_CONFIGURACION = "sin-configuracion";
+
+    private final ConfiguracionEmpresaRepository configuracionRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final String appName;
+
+    private volatile Recursos recursos;
+
+    public RecursosPdfRegistro(
+            ConfiguracionEmpresaRepository configuracionRepository,
+            ApplicationEventPublisher eventPublisher,
+            @Value("${tesig.app.name:TESIG}") String appName) {
+        this.configuracionRepository = configuracionRepository;
+        this.eventPublisher = eventPublisher;
+        this.appName = appName;
+    }
+
+    /**
+     * Obtiene los recursos de la configuración vigente, cargándolos si es necesario.
+     */
+    public Recursos obtener() {
+        Recursos actuales = recursos;
+        if (actuales == null) {
+            synchronized (this) {
+                if (recursos == null) {
+                    recursos = cargar();
+                }
+                actuales = recursos;
+            }
+        }
+        return actuales;
+    }
+
+    /**
+     * Descarta los recursos una vez confirmado el cambio de configuración.
+     * Sincronizado para no conservar una carga iniciada con la configuración anterior.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public synchronized void onConfiguracionModificada(ConfiguracionEmpresaModificadaEvent event) {
+        recursos = null;
+        log.debug("Recursos de PDF descartados por cambio de configuración de empresa");
+    }
+
+    /**
+     * Compara la versión de los recursos cargados con la de la configuración en la BD.
+     */
+    @Scheduled(fixedDelayString = "${tesig.pdf.recursos.verificacion-ms:30000}",
+            initialDelayString = "${tesig.pdf.recursos.verificacion-ms:30000}")
+    public void verificarVersion() {
+        Recursos actuales = recursos;
+        if (actuales == null) {
+            return;
+        }
+        ConfiguracionVersionProjection vigente = configuracionRepository.findFirstActiveVersion().orElse(null);
+        String version = vigente != null ? version(vigente.getId(), vigente.getUpdatedAt()) : VERSION_SIN_CONFIGURACION;
+        if (!version.equals(actuales.version())) {
+            log.info("Configuración de empresa modificada fuera de esta instancia; se descartan los recursos de PDF");
+            eventPublisher.publishEvent(new ConfiguracionEmpresaModificadaEvent(vigente != null ? vigente.getId() : null));
+        }
+    }
+
+    private Recursos cargar() {
+        ConfiguracionEmpresa config = configuracionRepository.findFirstActiveConfiguration().orElse(null);
+        if (config == null) {
+            return new Recursos(VERSION_SIN_CONFIGURACION, appName, "", "", "",
+                    DIAS_GARANTIA_POR_DEFECTO, AGRADECIMIENTO_POR_DEFECTO);
+        }
+
+        StringBuilder contacto = new StringBuilder();
+        if (config.getTelefonoPrincipal() != null && !config.getTelefonoPrincipal().isEmpty()) {
+            contacto.append("Tel: ").append(config.getTelefonoPrincipal());
+        }
+        if (config.getEmailContacto() != null && !config.getEmailContacto().isEmpty()) {
+            if (contacto.length() > 0) contacto.append(" | ");
+            contacto.append("Email: ").append(config.getEmailContacto());
+        }
+
+        StringBuilder redes = new StringBuilder();
+        if (config.getWhatsapp() != null) redes.append("WhatsApp: ").append(config.getWhatsapp()).append(" ");
+        if (config.getFacebookUrl() != null) redes.append("| Facebook: @").append(extractHandle(config.getFacebookUrl())).append(" ");
+        if (config.getInstagramUrl() != null) redes.append("| Instagram: @").append(extractHandle(config.getInstagramUrl()));
+
+        return new Recursos(
+                version(config.getId(), config.getUpdatedAt()),
+                config.getNombreEmpresa(),
+                config.getDireccionCompleta(),
+                contacto.toString(),
+                redes.toString().trim(),
+                config.getDiasGarantiaDefault() != null ? config.getDiasGarantiaDefault() : DIAS_GARANTIA_POR_DEFECTO,
+                config.getMensajeAgradecimiento() != null ? config.getMensajeAgradecimiento() : AGRADECIMIENTO_POR_DEFECTO
+        );
+    }
+
+    private static String version(Long id, LocalDateTime actualizacion) {
+        return id + "@" + actualizacion;
+    }
+
+    private String extractHandle(String url) {
+        // Extraer el último segmento de la URL como handle
+        String[] parts = url.split("/");
+        return parts.length > 0 ? parts[parts.length - 1] : url;
+    }
+
+    /**
+     * Textos de la empresa ya armados para los documentos. Las cadenas vacías
+     * indican que el bloque no se incluye.
+     *
+     * @param version Versión de la configuración de la que salen los textos
+     */
+    public record Recursos(
+            String version,
+            String nombreEmpresa,
+            String direccion,
+            String contacto,
+            String redesSociales,
+            int diasGarantia,
+            String mensajeAgradecimiento) {
+    }
+}
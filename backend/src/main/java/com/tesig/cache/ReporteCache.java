@@ -0,0 +1,125 @@
+package com.tesig.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.tesig.dto.ReporteFinancieroDTO;
+import com.tesig.dto.ReporteCacheEstadisticasDTO;
+import com.tesig.event.DatosFinancierosModificadosEvent;
+import com.tesig.model.AgrupacionPeriodo;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Cache de reportes financieros con límite de tamaño y TTL.
+ *
+ * Las entradas se invalidan cuando se confirma una transacción que modifica
+ * datos financieros de un día incluido en el período del reporte (ver
+ * {@link DatosFinancierosModificadosEvent}). Un contador de generación evita
+ * guardar un reporte calculado en paralelo con una invalidación.
+ *
+ * Los indicadores de inventario incluidos en el reporte reflejan el stock al
+ * momento del cálculo y se refrescan por TTL.
+ */
+@Component
+@Slf4j
+public class ReporteCache {
+
+    private final Cache<Clave, ReporteFinancieroDTO> cache;
+    private final boolean habilitado;
+    private final AtomicLong generacion = new AtomicLong();
+    private final AtomicLong invalidaciones = new AtomicLong();
+
+    public ReporteCache(
+            @Value("${tesig.reportes.cache.enabled:true}") boolean habilitado,
+            @Value("${tesig.reportes.cache.max-entradas:200}") long maxEntradas,
+            @Value("${tesig.reportes.cache.ttl-minutos:10}") long ttlMinutos) {
+        this.habilitado = habilitado;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxEntradas)
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutos))
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Obtiene el reporte del cache o lo calcula y lo guarda.
+     */
+    public ReporteFinancieroDTO obtener(LocalDate fechaInicio, LocalDate fechaFin, AgrupacionPeriodo agrupacion,
+                                        Supplier<ReporteFinancieroDTO> calculo) {
+        if (!habilitado) {
+            return calculo.get();
+        }
+
+        Clave clave = new Clave(fechaInicio, fechaFin, agrupacion);
+        ReporteFinancieroDTO reporte = cache.getIfPresent(clave);
+        if (reporte != null) {
+            return reporte;
+        }
+
+        long generacionInicial = generacion.get();
+        reporte = calculo.get();
+        if (generacion.get() == generacionInicial) {
+            cache.put(clave, reporte);
+        }
+        return reporte;
+    }
+
+    /**
+     * Invalida los reportes cuyo período se cruza con los días modificados,
+     * una vez confirmada la transacción que los modificó.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onDatosFinancierosModificados(DatosFinancierosModificadosEvent event) {
+        generacion.incrementAndGet();
+        boolean removidos = cache.asMap().keySet()
+                .removeIf(clave -> clave.intersecta(event.fechaInicio(), event.fechaFin()));
+        if (removidos) {
+            invalidaciones.incrementAndGet();
+            log.debug("Reportes en cache invalidados por {} ({} - {})",
+                    event.origen(), event.fechaInicio(), event.fechaFin());
+        }
+    }
+
+    /**
+     * Vacía el cache completo.
+     */
+    public void limpiar() {
+        generacion.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    public ReporteCacheEstadisticasDTO getEstadisticas() {
+        CacheStats stats = cache.stats();
+        return ReporteCacheEstadisticasDTO.builder()
+                .habilitado(habilitado)
+                .entradas(cache.estimatedSize())
+                .aciertos(stats.hitCount())
+                .fallos(stats.missCount())
+                .tasaAciertos(stats.hitRate())
+                .expulsiones(stats.evictionCount())
+                .invalidaciones(invalidaciones.get())
+                .build();
+    }
+
+    /**
+     * Clave del cache. Las tendencias cubren los períodos completos de los extremos,
+     * por lo que el rango afectado se amplía según la agrupación.
+     */
+    record Clave(LocalDate fechaInicio, LocalDate fechaFin, AgrupacionPeriodo agrupacion) {
+
+        boolean intersecta(LocalDate inicioModificado, LocalDate finModificado) {
+            LocalDate desde = agrupacion.inicioPeriodo(fechaInicio);
+            LocalDate hasta = agrupacion.siguientePeriodo(agrupacion.inicioPeriodo(fechaFin));
+            return !finModificado.isBefore(desde) && inicioModificado.isBefore(hasta);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.tesig.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.tesig.dto.UsuarioCacheEstadisticasDTO;
+import com.tesig.event.UsuarioModificadoEvent;
+import com.tesig.security.CustomUserDetails;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Cache de usuarios autenticados por email, con límite de tamaño y TTL.
+ *
+ * Evita consultar la BD en cada request cuando la autenticación carga el
+ * usuario con el UserDetailsService. Solo se guardan usuarios activos; la
+ * entrada de un usuario se invalida al confirmarse cualquier cambio sobre él
+ * (desactivación, baja, cambio de rol, email o contraseña, ver
+ * {@link UsuarioModificadoEvent}). Un contador de generación evita guardar un
+ * usuario leído en paralelo con una invalidación. El TTL acota el retraso con
+ * que se ven los cambios hechos por otra instancia.
+ */
+@Component
+@Slf4j
+public class UsuarioDetallesCache {
+
+    private final Cache<String, CustomUserDetails> cache;
+    private final boolean habilitado;
+    private final AtomicLong generacion = new AtomicLong();
+    private final AtomicLong invalidaciones = new AtomicLong();
+
+    public UsuarioDetallesCache(
+            @Value("${tesig.security.cache-usuarios.enabled:true}") boolean habilitado,
+            @Value("${tesig.security.cache-usuarios.max-entradas:500}") long maxEntradas,
+            @Value("${tesig.security.cache-usuarios.ttl-segundos:300}") long ttlSegundos) {
+        this.habilitado = habilitado;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxEntradas)
+                .expireAfterWrite(Duration.ofSeconds(ttlSegundos))
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Obtiene el usuario del cache o lo carga y lo guarda.
+     *
+     * @param email Email del usuario
+     * @param carga Carga desde la BD (lanza excepción si el usuario no existe o está inactivo)
+     */
+    public CustomUserDetails obtener(String email, Supplier<CustomUserDetails> carga) {
+        if (!habilitado) {
+            return carga.get();
+        }
+
+        CustomUserDetails usuario = cache.getIfPresent(email);
+        if (usuario != null) {
+            return usuario;
+        }
+
+        long generacionInicial = generacion.get();
+        usuario = carga.get();
+        if (generacion.get() == generacionInicial) {
+            cache.put(email, usuario);
+        }
+        return usuario;
+    }
+
+    /**
+     * Invalida el usuario modificado, una vez confirmada la transacción.
+     * Se busca también por ID porque el cambio puede ser del email.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onUsuarioModificado(UsuarioModificadoEvent event) {
+        generacion.incrementAndGet();
+        boolean removidos = cache.asMap().entrySet().removeIf(entrada ->
+                entrada.getKey().equals(event.email()) || entrada.getValue().getId().equals(event.usuarioId()));
+        if (removidos) {
+            invalidaciones.incrementAndGet();
+            log.debug("Usuario {} invalidado en cache", event.usuarioId());
+        }
+    }
+
+    /**
+     * Vacía el cache completo.
+     */
+    public void limpiar() {
+        generacion.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    public UsuarioCacheEstadisticasDTO getEstadisticas() {
+        CacheStats stats = cache.stats();
+        return UsuarioCacheEstadisticasDTO.builder()
+                .habilitado(habilitado)
+                .entradas(cache.estimatedSize())
+                .aciertos(stats.hitCount())
+                .fallos(stats.missCount())
+                .tasaAciertos(stats.hitRate())
+                .expulsiones(stats.evictionCount())
+                .invalidaciones(invalidaciones.get())
+                .build();
+    }
+}
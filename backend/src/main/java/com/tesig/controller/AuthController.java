@@ -1,6 +1,8 @@
 package com.tesig.controller;
 
 import com.tesig.dto.ApiResponse;
+import com.tesig.dto.LoginEstadisticasDTO;
+import com.tesig.dto.UsuarioCacheEstadisticasDTO;
 import com.tesig.dto.auth.LoginRequestDTO;
 import com.tesig.dto.auth.LoginResponseDTO;
 import com.tesig.dto.auth.RefreshTokenRequestDTO;
@@ -16,6 +18,7 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 /**
@@ -44,6 +47,10 @@ public class AuthController {
         @io.swagger.v3.oas.annotations.responses.ApiResponse(
             responseCode = "401",
             description = "Credenciales inválidas"
+        ),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "429",
+            description = "Demasiados intentos desde la IP o para la cuenta, o servicio de login saturado"
         )
     })
     @PostMapping("/login")
@@ -137,4 +144,35 @@ public class AuthController {
                 ApiResponse.success("Usuario autenticado", user)
         );
     }
+
+    @Operation(
+        summary = "Estadísticas del cache de usuarios",
+        description = "Retorna aciertos, fallos, tasa de aciertos, entradas e invalidaciones del cache de usuarios autenticados",
+        security = @SecurityRequirement(name = "Bearer Authentication")
+    )
+    @GetMapping("/cache/estadisticas")
+    @PreAuthorize("hasRole('ADMINISTRADOR')")
+    public ResponseEntity<ApiResponse<UsuarioCacheEstadisticasDTO>> getEstadisticasCacheUsuarios() {
+        log.info("GET /api/auth/cache/estadisticas");
+
+        return ResponseEntity.ok(
+                ApiResponse.success("Estadísticas del cache de usuarios", authService.getEstadisticasCacheUsuarios())
+        );
+    }
+
+    @Operation(
+        summary = "Estadísticas del login",
+        description = "Retorna los intentos rechazados por límite de IP, de cuenta o por saturación, " +
+                     "y los tiempos de espera en cola y de verificación de contraseñas",
+        security = @SecurityRequirement(name = "Bearer Authentication")
+    )
+    @GetMapping("/login/estadisticas")
+    @PreAuthorize("hasRole('ADMINISTRADOR')")
+    public ResponseEntity<ApiResponse<LoginEstadisticasDTO>> getEstadisticasLogin() {
+        log.info("GET /api/auth/login/estadisticas");
+
+        return ResponseEntity.ok(
+                ApiResponse.success("Estadísticas del login", authService.getEstadisticasLogin())
+        );
+    }
 }
@@ -1,6 +1,7 @@
 package com.tesig.controller;
 
 import com.tesig.dto.ApiResponse;
+import com.tesig.dto.CursorPageDTO;
 import com.tesig.dto.compra.CompraResponseDTO;
 import com.tesig.dto.compra.CrearCompraDTO;
 import com.tesig.service.ICompraService;
@@ -109,6 +110,25 @@ public class CompraController {
         );
     }
 
+    @Operation(
+        summary = "Listar compras por cursor",
+        description = "Paginación por cursor para scroll infinito: sin conteo total, usar nextCursor como 'after'"
+    )
+    @GetMapping("/scroll")
+    @PreAuthorize("hasAnyRole('ADMINISTRADOR', 'RECEPCIONISTA')")
+    public ResponseEntity<ApiResponse<CursorPageDTO<CompraResponseDTO>>> listarTodasDesde(
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "50") int size
+    ) {
+        log.info("GET /api/compras/scroll - Listar compras por cursor");
+
+        CursorPageDTO<CompraResponseDTO> compras = compraService.getAllAfter(after, size);
+
+        return ResponseEntity.ok(
+                ApiResponse.success("Compras obtenidas exitosamente", compras)
+        );
+    }
+
     @Operation(
         summary = "Eliminar compra",
         description = "Elimina una compra (soft delete). Solo compras pendientes pueden eliminarse."
@@ -1,6 +1,7 @@
 package com.tesig.controller;
 
 import com.tesig.dto.ApiResponse;
+import com.tesig.event.ConfiguracionEmpresaModificadaEvent;
 import com.tesig.model.ConfiguracionEmpresa;
 import com.tesig.repository.ConfiguracionEmpresaRepository;
 import io.swagger.v3.oas.annotations.Operation;
@@ -9,6 +10,7 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -28,6 +30,7 @@ import org.springframework.web.bind.annotation.*;
 public class ConfiguracionEmpresaController {
 
     private final ConfiguracionEmpresaRepository configuracionRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Operation(
         summary = "Obtener configuración activa",
@@ -71,6 +74,7 @@ public class ConfiguracionEmpresaController {
 
         config.setActivo(true);
         ConfiguracionEmpresa saved = configuracionRepository.save(config);
+        eventPublisher.publishEvent(new ConfiguracionEmpresaModificadaEvent(saved.getId()));
 
         return ResponseEntity.status(HttpStatus.CREATED)
                 .body(ApiResponse.success("Configuración creada exitosamente", saved));
@@ -125,6 +129,7 @@ public class ConfiguracionEmpresaController {
         existing.setLogoBase64(config.getLogoBase64());
 
         ConfiguracionEmpresa saved = configuracionRepository.save(existing);
+        eventPublisher.publishEvent(new ConfiguracionEmpresaModificadaEvent(saved.getId()));
 
         return ResponseEntity.ok(
                 ApiResponse.success("Configuración actualizada exitosamente", saved)
@@ -1,6 +1,7 @@
 package com.tesig.controller;
 
 import com.tesig.dto.ApiResponse;
+import com.tesig.dto.CursorPageDTO;
 import com.tesig.dto.gasto.CrearGastoDTO;
 import com.tesig.dto.gasto.GastoResponseDTO;
 import com.tesig.service.IGastoService;
@@ -130,6 +131,25 @@ public class GastoController {
         );
     }
 
+    @Operation(
+        summary = "Listar gastos por cursor",
+        description = "Paginación por cursor para scroll infinito: sin conteo total, usar nextCursor como 'after'"
+    )
+    @GetMapping("/scroll")
+    @PreAuthorize("hasAnyRole('ADMINISTRADOR', 'RECEPCIONISTA')")
+    public ResponseEntity<ApiResponse<CursorPageDTO<GastoResponseDTO>>> listarTodosDesde(
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "50") int size
+    ) {
+        log.info("GET /api/gastos/scroll - Listar gastos por cursor");
+
+        CursorPageDTO<GastoResponseDTO> gastos = gastoService.getAllAfter(after, size);
+
+        return ResponseEntity.ok(
+                ApiResponse.success("Gastos obtenidos exitosamente", gastos)
+        );
+    }
+
     @Operation(
         summary = "Eliminar gasto",
         description = "Elimina un gasto (soft delete). Solo accesible para ADMINISTRADOR."
@@ -167,6 +167,25 @@ public class PiezaController {
         );
     }
 
+    @Operation(
+        summary = "Listar piezas por cursor",
+        description = "Paginación por cursor para scroll infinito: sin conteo total, usar nextCursor como 'after'"
+    )
+    @GetMapping("/scroll")
+    @PreAuthorize("hasAnyRole('ADMINISTRADOR', 'RECEPCIONISTA', 'TECNICO')")
+    public ResponseEntity<ApiResponse<CursorPageDTO<PiezaResponseDTO>>> listarTodasDesde(
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "50") int size
+    ) {
+        log.info("GET /api/piezas/scroll - Listar piezas por cursor");
+
+        CursorPageDTO<PiezaResponseDTO> piezas = piezaService.listarTodasDesde(after, size);
+
+        return ResponseEntity.ok(
+                ApiResponse.success("Piezas obtenidas exitosamente", piezas)
+        );
+    }
+
     // ==================== BÚSQUEDAS ====================
 
     @Operation(
@@ -1,8 +1,12 @@
 package com.tesig.controller;
 
 import com.tesig.dto.ApiResponse;
+import com.tesig.dto.ReconstruccionResumenDTO;
+import com.tesig.dto.ReporteCacheEstadisticasDTO;
 import com.tesig.dto.ReporteFinancieroDTO;
+import com.tesig.model.AgrupacionPeriodo;
 import com.tesig.service.IReporteService;
+import com.tesig.service.IResumenFinancieroService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
@@ -30,13 +34,15 @@ import java.time.LocalDate;
 public class ReporteController {
 
     private final IReporteService reporteService;
+    private final IResumenFinancieroService resumenFinancieroService;
 
     // ==================== REPORTES FINANCIEROS ====================
 
     @Operation(
         summary = "Generar reporte financiero",
         description = "Genera un reporte financiero completo para el rango de fechas especificado. " +
-                     "Incluye ingresos, gastos, utilidad e indicadores de inventario."
+                     "Incluye ingresos, gastos, utilidad e indicadores de inventario. " +
+                     "Las tendencias se agrupan por DIA, SEMANA, MES o TRIMESTRE."
     )
     @GetMapping("/financiero")
     @PreAuthorize("hasRole('ADMINISTRADOR')")
@@ -44,11 +50,14 @@ public class ReporteController {
             @Parameter(description = "Fecha de inicio del período")
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaInicio,
             @Parameter(description = "Fecha de fin del período")
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaFin
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaFin,
+            @Parameter(description = "Agrupación de las tendencias (DIA, SEMANA, MES, TRIMESTRE)")
+            @RequestParam(defaultValue = "MES") AgrupacionPeriodo agrupacion
     ) {
-        log.info("GET /api/reportes/financiero?fechaInicio={}&fechaFin={}", fechaInicio, fechaFin);
+        log.info("GET /api/reportes/financiero?fechaInicio={}&fechaFin={}&agrupacion={}",
+                 fechaInicio, fechaFin, agrupacion);
 
-        ReporteFinancieroDTO reporte = reporteService.generarReporteFinanciero(fechaInicio, fechaFin);
+        ReporteFinancieroDTO reporte = reporteService.generarReporteFinanciero(fechaInicio, fechaFin, agrupacion);
 
         return ResponseEntity.ok(
                 ApiResponse.success("Reporte financiero generado exitosamente", reporte)
@@ -97,15 +106,55 @@ public class ReporteController {
             @Parameter(description = "Fecha de inicio")
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaInicio,
             @Parameter(description = "Fecha de fin")
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaFin
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaFin,
+            @Parameter(description = "Agrupación de las tendencias (DIA, SEMANA, MES, TRIMESTRE)")
+            @RequestParam(defaultValue = "MES") AgrupacionPeriodo agrupacion
     ) {
-        log.info("GET /api/reportes/financiero/comparativo?fechaInicio={}&fechaFin={}",
-                 fechaInicio, fechaFin);
+        log.info("GET /api/reportes/financiero/comparativo?fechaInicio={}&fechaFin={}&agrupacion={}",
+                 fechaInicio, fechaFin, agrupacion);
 
-        ReporteFinancieroDTO reporte = reporteService.getReporteComparativo(fechaInicio, fechaFin);
+        ReporteFinancieroDTO reporte = reporteService.getReporteComparativo(fechaInicio, fechaFin, agrupacion);
 
         return ResponseEntity.ok(
                 ApiResponse.success("Reporte comparativo generado", reporte)
         );
     }
+
+    @Operation(
+        summary = "Estadísticas del cache de reportes",
+        description = "Retorna aciertos, fallos, tasa de aciertos, entradas e invalidaciones del cache de reportes"
+    )
+    @GetMapping("/cache/estadisticas")
+    @PreAuthorize("hasRole('ADMINISTRADOR')")
+    public ResponseEntity<ApiResponse<ReporteCacheEstadisticasDTO>> getEstadisticasCache() {
+        log.info("GET /api/reportes/cache/estadisticas");
+
+        return ResponseEntity.ok(
+                ApiResponse.success("Estadísticas del cache de reportes", reporteService.getEstadisticasCache())
+        );
+    }
+
+    // ==================== RESUMEN DIARIO ====================
+
+    @Operation(
+        summary = "Reconstruir resumen financiero diario",
+        description = "Recalcula el resumen diario pre-agregado desde tickets, compras y gastos. " +
+                     "Si no se indican fechas se reconstruye todo el historial."
+    )
+    @PostMapping("/resumen-diario/reconstruir")
+    @PreAuthorize("hasRole('ADMINISTRADOR')")
+    public ResponseEntity<ApiResponse<ReconstruccionResumenDTO>> reconstruirResumenDiario(
+            @Parameter(description = "Fecha de inicio (opcional)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaInicio,
+            @Parameter(description = "Fecha de fin (opcional)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaFin
+    ) {
+        log.info("POST /api/reportes/resumen-diario/reconstruir?fechaInicio={}&fechaFin={}", fechaInicio, fechaFin);
+
+        ReconstruccionResumenDTO resultado = resumenFinancieroService.reconstruir(fechaInicio, fechaFin);
+
+        return ResponseEntity.ok(
+                ApiResponse.success("Resumen financiero diario reconstruido", resultado)
+        );
+    }
 }
@@ -1,17 +1,25 @@
 package com.tesig.controller;
 
+import com.tesig.dto.CursorPageDTO;
 import com.tesig.dto.common.ApiResponse;
 import com.tesig.dto.common.PaginatedResponseDTO;
 import com.tesig.dto.ticket.*;
+import com.tesig.model.FormatoExportacionPdf;
 import com.tesig.model.Ticket;
+import com.tesig.model.TipoDocumentoPdf;
 import com.tesig.repository.TicketRepository;
 import com.tesig.dto.AgregarPiezaTicketDTO;
+import com.tesig.dto.DocumentoPdfDTO;
+import com.tesig.dto.PrerenderizadoEstadisticasDTO;
 import com.tesig.dto.TicketPiezaResponseDTO;
 import com.tesig.dto.equipo.ActualizarEquipoDTO;
 import com.tesig.dto.equipo.CrearEquipoDTO;
 import com.tesig.dto.equipo.EquipoResponseDTO;
 import com.tesig.service.IEquipoService;
+import com.tesig.service.IExportacionPdfService;
 import com.tesig.service.IPDFService;
+import com.tesig.service.IPrerenderizadoPdfService;
+import com.tesig.service.ITicketBusquedaService;
 import com.tesig.service.ITicketPiezaService;
 import com.tesig.service.ITicketService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -23,13 +31,17 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
 import java.util.List;
 
 /**
@@ -56,10 +68,13 @@ import java.util.List;
 public class TicketController {
 
     private final ITicketService ticketService;
+    private final ITicketBusquedaService ticketBusquedaService;
     private final IPDFService pdfService;
     private final TicketRepository ticketRepository;
     private final ITicketPiezaService ticketPiezaService;
     private final IEquipoService equipoService;
+    private final IExportacionPdfService exportacionPdfService;
+    private final IPrerenderizadoPdfService prerenderizadoPdfService;
 
     // ==================== CONSULTAS ====================
 
@@ -74,6 +89,19 @@ public class TicketController {
         return ResponseEntity.ok(ApiResponse.success(result, "Tickets obtenidos exitosamente"));
     }
 
+    @GetMapping("/scroll")
+    @PreAuthorize("hasAnyRole('ADMINISTRADOR', 'RECEPCIONISTA', 'TECNICO')")
+    @Operation(summary = "Listar tickets por cursor",
+               description = "Paginación por cursor para scroll infinito: sin conteo total, usar nextCursor como 'after'")
+    public ResponseEntity<ApiResponse<CursorPageDTO<TicketDTO>>> findAllAfter(
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "50") int size
+    ) {
+        log.info("GET /api/tickets/scroll - Listando tickets por cursor");
+        CursorPageDTO<TicketDTO> result = ticketService.findAllAfter(after, size);
+        return ResponseEntity.ok(ApiResponse.success(result, "Tickets obtenidos exitosamente"));
+    }
+
     @GetMapping("/{id}")
     @PreAuthorize("hasAnyRole('ADMINISTRADOR', 'RECEPCIONISTA', 'TECNICO')")
     @Operation(summary = "Obtener ticket por ID", description = "Obtiene un ticket específico por su ID")
@@ -141,11 +169,34 @@ public class TicketController {
 
     @GetMapping("/buscar")
     @PreAuthorize("hasAnyRole('ADMINISTRADOR', 'RECEPCIONISTA', 'TECNICO')")
-    @Operation(summary = "Buscar tickets", description = "Búsqueda general por número, equipo, marca, modelo, cliente")
-    public ResponseEntity<ApiResponse<List<TicketDTO>>> search(@RequestParam String q) {
+    @Operation(summary = "Buscar tickets",
+               description = "Búsqueda por número, equipo, marca, modelo, falla o cliente. Resultados paginados por relevancia")
+    public ResponseEntity<ApiResponse<TicketBusquedaPageDTO>> search(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size
+    ) {
         log.info("GET /api/tickets/buscar?q={} - Buscando tickets", q);
-        List<TicketDTO> tickets = ticketService.search(q);
-        return ResponseEntity.ok(ApiResponse.success(tickets, "Búsqueda completada exitosamente"));
+        TicketBusquedaPageDTO resultados = ticketBusquedaService.buscar(q, page, size);
+        return ResponseEntity.ok(ApiResponse.success(resultados, "Búsqueda completada exitosamente"));
+    }
+
+    @GetMapping("/buscar/estadisticas")
+    @PreAuthorize("hasRole('ADMINISTRADOR')")
+    @Operation(summary = "Métricas de búsqueda", description = "Cantidad de búsquedas y latencia promedio, máxima y última")
+    public ResponseEntity<ApiResponse<TicketBusquedaEstadisticasDTO>> getEstadisticasBusqueda() {
+        log.info("GET /api/tickets/buscar/estadisticas - Obteniendo métricas de búsqueda");
+        return ResponseEntity.ok(
+                ApiResponse.success(ticketBusquedaService.getEstadisticas(), "Métricas de búsqueda obtenidas"));
+    }
+
+    @GetMapping("/documentos/prerenderizado/estadisticas")
+    @PreAuthorize("hasRole('ADMINISTRADOR')")
+    @Operation(summary = "Métricas de pre-renderizado", description = "Cola, latencia y fallos de la generación de PDFs en segundo plano")
+    public ResponseEntity<ApiResponse<PrerenderizadoEstadisticasDTO>> getEstadisticasPrerenderizado() {
+        log.info("GET /api/tickets/documentos/prerenderizado/estadisticas - Obteniendo métricas de pre-renderizado");
+        return ResponseEntity.ok(
+                ApiResponse.success(prerenderizadoPdfService.getEstadisticas(), "Métricas de pre-renderizado obtenidas"));
     }
 
     @GetMapping("/estadisticas")
@@ -350,22 +401,13 @@ public class TicketController {
             summary = "Descargar ticket en PDF",
             description = "Genera y descarga el ticket en formato PDF con código QR para consulta"
     )
-    public ResponseEntity<byte[]> descargarTicketPDF(@PathVariable Long id) {
+    public ResponseEntity<?> descargarTicketPDF(@PathVariable Long id, WebRequest request) {
         log.info("GET /api/tickets/{}/pdf - Generando PDF del ticket", id);
 
         Ticket ticket = ticketRepository.findByIdAndDeletedAtIsNull(id)
                 .orElseThrow(() -> new RuntimeException("Ticket no encontrado con ID: " + id));
 
-        byte[] pdfBytes = pdfService.generarTicketPDF(ticket);
-
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_PDF);
-        headers.setContentDispositionFormData("attachment", "Ticket-" + ticket.getNumeroTicket() + ".pdf");
-        headers.setContentLength(pdfBytes.length);
-
-        return ResponseEntity.ok()
-                .headers(headers)
-                .body(pdfBytes);
+        return responderDocumento(ticket, TipoDocumentoPdf.TICKET, request);
     }
 
     @GetMapping("/{id}/presupuesto-pdf")
@@ -374,22 +416,13 @@ public class TicketController {
             summary = "Descargar presupuesto en PDF",
             description = "Genera y descarga el presupuesto del ticket en formato PDF"
     )
-    public ResponseEntity<byte[]> descargarPresupuestoPDF(@PathVariable Long id) {
+    public ResponseEntity<?> descargarPresupuestoPDF(@PathVariable Long id, WebRequest request) {
         log.info("GET /api/tickets/{}/presupuesto-pdf - Generando PDF del presupuesto", id);
 
         Ticket ticket = ticketRepository.findByIdAndDeletedAtIsNull(id)
                 .orElseThrow(() -> new RuntimeException("Ticket no encontrado con ID: " + id));
 
-        byte[] pdfBytes = pdfService.generarPresupuestoPDF(ticket);
-
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_PDF);
-        headers.setContentDispositionFormData("attachment", "Presupuesto-" + ticket.getNumeroTicket() + ".pdf");
-        headers.setContentLength(pdfBytes.length);
-
-        return ResponseEntity.ok()
-                .headers(headers)
-                .body(pdfBytes);
+        return responderDocumento(ticket, TipoDocumentoPdf.PRESUPUESTO, request);
     }
 
     @GetMapping("/{id}/comprobante-entrega-pdf")
@@ -398,22 +431,78 @@ public class TicketController {
             summary = "Descargar comprobante de entrega en PDF",
             description = "Genera y descarga el comprobante de entrega del ticket en formato PDF con detalle de trabajo, costos, descuentos y garantía"
     )
-    public ResponseEntity<byte[]> descargarComprobanteEntregaPDF(@PathVariable Long id) {
+    public ResponseEntity<?> descargarComprobanteEntregaPDF(@PathVariable Long id, WebRequest request) {
         log.info("GET /api/tickets/{}/comprobante-entrega-pdf - Generando PDF del comprobante de entrega", id);
 
         Ticket ticket = ticketRepository.findByIdAndDeletedAtIsNull(id)
                 .orElseThrow(() -> new RuntimeException("Ticket no encontrado con ID: " + id));
 
-        byte[] pdfBytes = pdfService.generarComprobanteEntregaPDF(ticket);
+        return responderDocumento(ticket, TipoDocumentoPdf.COMPROBANTE_ENTREGA, request);
+    }
+
+    @PostMapping("/documentos/exportar")
+    @PreAuthorize("hasAnyRole('ADMINISTRADOR', 'RECEPCIONISTA')")
+    @Operation(
+            summary = "Exportar documentos de varios tickets",
+            description = "Genera los PDFs de los tickets indicados por IDs o por filtro (estado, fechas de ingreso, técnico) " +
+                    "y los envía a medida que se generan como un ZIP o como un único PDF"
+    )
+    public ResponseEntity<StreamingResponseBody> exportarDocumentos(@Valid @RequestBody ExportarDocumentosDTO exportarDTO) {
+        log.info("POST /api/tickets/documentos/exportar - Exportando {} en formato {}",
+                exportarDTO.getTipo(), exportarDTO.getFormato());
+
+        List<Long> ticketIds = exportacionPdfService.resolverTickets(exportarDTO);
+        FormatoExportacionPdf formato = exportarDTO.getFormato() != null ? exportarDTO.getFormato() : FormatoExportacionPdf.ZIP;
+
+        StreamingResponseBody cuerpo = salida ->
+                exportacionPdfService.exportar(ticketIds, exportarDTO.getTipo(), formato, salida);
+
+        String nombreArchivo = exportarDTO.getTipo().getPrefijoArchivo() + "-" + LocalDate.now()
+                + (formato == FormatoExportacionPdf.ZIP ? ".zip" : ".pdf");
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(formato == FormatoExportacionPdf.ZIP
+                ? MediaType.parseMediaType("application/zip")
+                : MediaType.APPLICATION_PDF);
+        headers.setContentDispositionFormData("attachment", nombreArchivo);
+
+        return ResponseEntity.ok()
+                .headers(headers)
+                .body(cuerpo);
+    }
+
+    /**
+     * Responde 304 si el cliente ya tiene la versión vigente del documento.
+     * De lo contrario lo envía desde el cache de PDFs o, si el cache está
+     * deshabilitado, lo genera directamente sobre la respuesta.
+     */
+    private ResponseEntity<?> responderDocumento(Ticket ticket, TipoDocumentoPdf tipo, WebRequest request) {
+        String etag = pdfService.calcularEtag(ticket, tipo);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
 
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_PDF);
-        headers.setContentDispositionFormData("attachment", "ComprobanteEntrega-" + ticket.getNumeroTicket() + ".pdf");
-        headers.setContentLength(pdfBytes.length);
+        headers.setContentDispositionFormData("attachment", tipo.nombreArchivo(ticket.getNumeroTicket()));
+
+        if (!pdfService.isCacheDocumentosHabilitado()) {
+            StreamingResponseBody cuerpo = salida -> pdfService.escribirDocumento(ticket, tipo, salida);
+            return ResponseEntity.ok()
+                    .headers(headers)
+                    .eTag(etag)
+                    .cacheControl(CacheControl.noCache().cachePrivate())
+                    .body(cuerpo);
+        }
+
+        DocumentoPdfDTO documento = pdfService.obtenerDocumento(ticket, tipo);
+        headers.setContentLength(documento.getTamanio());
 
         return ResponseEntity.ok()
                 .headers(headers)
-                .body(pdfBytes);
+                .eTag(documento.getEtag())
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(documento.getContenido());
     }
 
     // ==================== GESTIÓN DE PIEZAS ====================
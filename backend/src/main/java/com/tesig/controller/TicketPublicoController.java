@@ -1,10 +1,14 @@
 package com.tesig.controller;
 
 import com.tesig.dto.ApiResponse;
+import com.tesig.dto.DocumentoPdfDTO;
 import com.tesig.dto.TicketConsultaPublicaDTO;
+import com.tesig.exception.ResourceNotFoundException;
 import com.tesig.model.Ticket;
+import com.tesig.model.TipoDocumentoPdf;
 import com.tesig.repository.TicketRepository;
 import com.tesig.service.IPDFService;
+import com.tesig.service.IQRCodeService;
 import com.tesig.service.ITicketPublicoService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -14,10 +18,16 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.Duration;
 
 /**
  * Controlador público para consulta de tickets.
@@ -38,6 +48,13 @@ public class TicketPublicoController {
     private final ITicketPublicoService ticketPublicoService;
     private final IPDFService pdfService;
     private final TicketRepository ticketRepository;
+    private final IQRCodeService qrCodeService;
+
+    @Value("${tesig.app.public-url:http://localhost:3000}")
+    private String publicUrl;
+
+    @Value("${tesig.app.ticket-consultation-path:/consulta}")
+    private String consultationPath;
 
     @Operation(
         summary = "Consultar estado de ticket",
@@ -98,24 +115,67 @@ public class TicketPublicoController {
                      "para tenerlo impreso."
     )
     @GetMapping("/{numeroTicket}/pdf")
-    public ResponseEntity<byte[]> descargarTicketPDF(
+    public ResponseEntity<?> descargarTicketPDF(
             @Parameter(description = "Número único del ticket", example = "TKT-2024-00001")
-            @PathVariable String numeroTicket
+            @PathVariable String numeroTicket,
+            WebRequest request
     ) {
         log.info("GET /publico/tickets/{}/pdf - Descargando PDF público", numeroTicket);
 
         Ticket ticket = ticketRepository.findByNumeroTicketAndDeletedAtIsNull(numeroTicket)
                 .orElseThrow(() -> new RuntimeException("Ticket no encontrado: " + numeroTicket));
 
-        byte[] pdfBytes = pdfService.generarTicketPDF(ticket);
+        // El cliente que reabre su enlace con la versión vigente recibe 304 sin generar el PDF
+        String etag = pdfService.calcularEtag(ticket, TipoDocumentoPdf.TICKET);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
 
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_PDF);
         headers.setContentDispositionFormData("attachment", "Ticket-" + numeroTicket + ".pdf");
-        headers.setContentLength(pdfBytes.length);
+
+        if (!pdfService.isCacheDocumentosHabilitado()) {
+            StreamingResponseBody cuerpo = salida -> pdfService.escribirTicketPDF(ticket, salida);
+            return ResponseEntity.ok()
+                    .headers(headers)
+                    .eTag(etag)
+                    .cacheControl(CacheControl.noCache())
+                    .body(cuerpo);
+        }
+
+        DocumentoPdfDTO documento = pdfService.obtenerDocumento(ticket, TipoDocumentoPdf.TICKET);
+        headers.setContentLength(documento.getTamanio());
 
         return ResponseEntity.ok()
                 .headers(headers)
-                .body(pdfBytes);
+                .eTag(documento.getEtag())
+                .cacheControl(CacheControl.noCache())
+                .body(documento.getContenido());
+    }
+
+    @Operation(
+        summary = "Código QR del ticket en SVG",
+        description = "Retorna el código QR de consulta del ticket como imagen SVG vectorial. " +
+                     "No requiere autenticación."
+    )
+    @GetMapping(value = "/{numeroTicket}/qr", produces = "image/svg+xml")
+    public ResponseEntity<String> obtenerCodigoQR(
+            @Parameter(description = "Número único del ticket", example = "TKT-2024-00001")
+            @PathVariable String numeroTicket
+    ) {
+        log.info("GET /publico/tickets/{}/qr - Código QR del ticket", numeroTicket);
+
+        if (!ticketPublicoService.existeTicket(numeroTicket)) {
+            throw new ResourceNotFoundException("Ticket no encontrado: " + numeroTicket);
+        }
+
+        String svg = qrCodeService.generarQRCodeSVG(publicUrl + consultationPath + "/" + numeroTicket);
+
+        // El contenido solo depende del número de ticket
+        return ResponseEntity.ok()
+                .contentType(MediaType.valueOf("image/svg+xml"))
+                .cacheControl(CacheControl.maxAge(Duration.ofDays(1)).cachePublic())
+                .body(svg);
     }
 }
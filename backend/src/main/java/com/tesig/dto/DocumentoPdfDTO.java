@@ -0,0 +1,29 @@
+package com.tesig.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.core.io.Resource;
+
+/**
+ * PDF generado (o recuperado del cache) listo para enviarse en la respuesta HTTP.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DocumentoPdfDTO {
+
+    /**
+     * Contenido del PDF: archivo del cache en disco o bytes en memoria
+     */
+    private Resource contenido;
+
+    /**
+     * Identificador de la versión del documento, usado como ETag
+     */
+    private String etag;
+
+    private long tamanio;
+}
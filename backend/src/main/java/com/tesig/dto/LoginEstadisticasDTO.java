@@ -0,0 +1,40 @@
+package com.tesig.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO con las métricas de la verificación de credenciales del login.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LoginEstadisticasDTO {
+
+    private int hilos;
+
+    /**
+     * Verificaciones esperando un hilo libre
+     */
+    private int enCola;
+    private int capacidadCola;
+    private long verificaciones;
+
+    /**
+     * Intentos rechazados por el límite de la IP o de la cuenta, antes de verificar la contraseña
+     */
+    private long rechazadosPorIp;
+    private long rechazadosPorCuenta;
+
+    /**
+     * Intentos rechazados por cola llena o por esperar más que el tiempo máximo
+     */
+    private long rechazadosPorCapacidad;
+    private double esperaPromedioMs;
+    private double esperaMaximaMs;
+    private double verificacionPromedioMs;
+    private double verificacionMaximaMs;
+}
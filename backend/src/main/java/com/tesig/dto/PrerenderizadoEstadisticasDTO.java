@@ -0,0 +1,33 @@
+package com.tesig.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO con las métricas del pre-renderizado de documentos PDF.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PrerenderizadoEstadisticasDTO {
+
+    private boolean habilitado;
+
+    /**
+     * Documentos esperando un hilo libre
+     */
+    private int enCola;
+    private int capacidadCola;
+    private long renderizados;
+    private long fallidos;
+
+    /**
+     * Documentos no encolados por cola llena (se generan al descargarlos)
+     */
+    private long descartados;
+    private double tiempoPromedioMs;
+    private double tiempoMaximoMs;
+}
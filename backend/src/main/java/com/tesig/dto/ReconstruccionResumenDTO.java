@@ -0,0 +1,24 @@
+package com.tesig.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Resultado de la reconstrucción del resumen financiero diario.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReconstruccionResumenDTO {
+
+    private LocalDate fechaInicio;
+    private LocalDate fechaFin;
+    private Integer bloquesProcesados;
+    private Integer diasConMovimientos;
+    private Long duracionMs;
+}
@@ -0,0 +1,33 @@
+package com.tesig.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Datos de un recordatorio de recogida: el ticket que espera, su cliente y
+ * el umbral de espera que lo origina.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecordatorioRecogidaDTO {
+
+    private Long ticketId;
+    private String numeroTicket;
+    private String tipoEquipo;
+    private String nombreCliente;
+    private String emailCliente;
+
+    /**
+     * Días que el equipo lleva listo para entrega
+     */
+    private int diasEspera;
+
+    /**
+     * Umbral de espera configurado que se cumplió (un recordatorio por umbral)
+     */
+    private int umbralDias;
+}
@@ -0,0 +1,24 @@
+package com.tesig.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Estadísticas del cache de reportes financieros.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReporteCacheEstadisticasDTO {
+
+    private Boolean habilitado;
+    private Long entradas;
+    private Long aciertos;
+    private Long fallos;
+    private Double tasaAciertos;
+    private Long expulsiones;
+    private Long invalidaciones;
+}
@@ -0,0 +1,42 @@
+package com.tesig.dto.ticket;
+
+import com.tesig.model.EstadoTicket;
+import com.tesig.model.FormatoExportacionPdf;
+import com.tesig.model.TipoDocumentoPdf;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * DTO para exportar en lote los documentos PDF de varios tickets.
+ *
+ * Los tickets se indican con una lista de IDs o con un filtro (estado, rango
+ * de fechas de ingreso y técnico); si se envían IDs el filtro se ignora.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ExportarDocumentosDTO {
+
+    @NotNull(message = "El tipo de documento es obligatorio")
+    private TipoDocumentoPdf tipo;
+
+    @Builder.Default
+    private FormatoExportacionPdf formato = FormatoExportacionPdf.ZIP;
+
+    private List<Long> ticketIds;
+
+    private EstadoTicket estado;
+
+    private LocalDate fechaDesde;
+
+    private LocalDate fechaHasta;
+
+    private Long tecnicoId;
+}
@@ -0,0 +1,29 @@
+package com.tesig.dto.ticket;
+
+import com.tesig.model.EstadoTicket;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO de un resultado de búsqueda de tickets.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TicketBusquedaDTO {
+
+    private Long id;
+    private String numeroTicket;
+    private String tipoEquipo;
+    private String marca;
+    private String modelo;
+    private EstadoTicket estado;
+    private String cliente;
+    private LocalDateTime createdAt;
+    private Double relevancia;
+}
@@ -0,0 +1,26 @@
+package com.tesig.dto.ticket;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO con las métricas de latencia de la búsqueda de tickets.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TicketBusquedaEstadisticasDTO {
+
+    /**
+     * TRIGRAMA (índices pg_trgm) o COINCIDENCIA (LIKE sin índice)
+     */
+    private String modo;
+    private long busquedas;
+    private long busquedasLentas;
+    private double tiempoPromedioMs;
+    private double tiempoMaximoMs;
+    private double ultimoTiempoMs;
+}
@@ -0,0 +1,25 @@
+package com.tesig.dto.ticket;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Página de resultados de búsqueda de tickets, ordenados por relevancia.
+ * No incluye total de elementos para no pagar un conteo por cada búsqueda.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TicketBusquedaPageDTO {
+
+    private List<TicketBusquedaDTO> content;
+    private int page;
+    private int size;
+    private boolean hasNext;
+    private long tiempoMs;
+}
@@ -0,0 +1,11 @@
+package com.tesig.event;
+
+/**
+ * Evento publicado cuando se crea o actualiza la configuración de la empresa.
+ * Los documentos que incluyen datos de la empresa (encabezados, logo) deben
+ * regenerarse.
+ *
+ * @param configuracionId ID de la configuración guardada
+ */
+public record ConfiguracionEmpresaModificadaEvent(Long configuracionId) {
+}
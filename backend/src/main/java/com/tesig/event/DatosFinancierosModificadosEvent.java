@@ -0,0 +1,19 @@
+package com.tesig.event;
+
+import java.time.LocalDate;
+
+/**
+ * Evento publicado cuando cambian datos financieros de un rango de días:
+ * ticket entregado, compra recibida, gasto creado/actualizado/eliminado o
+ * reconstrucción del resumen diario.
+ *
+ * @param fechaInicio Primer día afectado
+ * @param fechaFin Último día afectado
+ * @param origen Descripción del cambio (para logs)
+ */
+public record DatosFinancierosModificadosEvent(LocalDate fechaInicio, LocalDate fechaFin, String origen) {
+
+    public static DatosFinancierosModificadosEvent delDia(LocalDate fecha, String origen) {
+        return new DatosFinancierosModificadosEvent(fecha, fecha, origen);
+    }
+}
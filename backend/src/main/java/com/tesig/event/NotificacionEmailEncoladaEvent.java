@@ -0,0 +1,10 @@
+package com.tesig.event;
+
+/**
+ * Evento publicado al encolar una notificación por email. Tras el commit
+ * despierta al despachador para no esperar a la siguiente pasada periódica.
+ *
+ * @param ticketId ID del ticket notificado
+ */
+public record NotificacionEmailEncoladaEvent(Long ticketId) {
+}
@@ -0,0 +1,50 @@
+package com.tesig.event;
+
+import com.tesig.model.EstadoTicket;
+import com.tesig.model.Ticket;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Evento publicado cuando un ticket se crea o cambia de estado.
+ *
+ * @param ticketId ID del ticket (null si aún no fue persistido)
+ * @param numeroTicket Número del ticket
+ * @param estadoAnterior Estado previo (null al crear el ticket)
+ * @param estadoNuevo Estado resultante
+ * @param tecnicoAsignado Nombre completo del técnico asignado al momento del cambio
+ * @param createdAt Fecha de ingreso del ticket
+ * @param fechaEntrega Fecha de entrega (solo al pasar a ENTREGADO)
+ */
+public record TicketEstadoCambiadoEvent(
+        Long ticketId,
+        String numeroTicket,
+        EstadoTicket estadoAnterior,
+        EstadoTicket estadoNuevo,
+        String tecnicoAsignado,
+        LocalDateTime createdAt,
+        LocalDateTime fechaEntrega) {
+
+    public static TicketEstadoCambiadoEvent de(Ticket ticket, EstadoTicket estadoAnterior) {
+        return new TicketEstadoCambiadoEvent(
+                ticket.getId(),
+                ticket.getNumeroTicket(),
+                estadoAnterior,
+                ticket.getEstado(),
+                ticket.getTecnicoAsignado() != null ? ticket.getTecnicoAsignado().getNombreCompleto() : null,
+                ticket.getCreatedAt(),
+                ticket.getFechaEntrega()
+        );
+    }
+
+    /**
+     * Días entre el ingreso y la entrega, o null si falta alguna de las fechas.
+     */
+    public Double diasReparacion() {
+        if (createdAt == null || fechaEntrega == null) {
+            return null;
+        }
+        return Duration.between(createdAt, fechaEntrega).toSeconds() / 86400.0;
+    }
+}
@@ -0,0 +1,12 @@
+package com.tesig.event;
+
+import java.time.LocalDateTime;
+
+/**
+ * Evento publicado cuando se revoca un access token o se invalida un refresh token.
+ *
+ * @param jti Identificador del token
+ * @param fechaExpiracion Expiración del token (hasta cuándo hay que rechazarlo)
+ */
+public record TokenRevocadoEvent(String jti, LocalDateTime fechaExpiracion) {
+}
@@ -0,0 +1,35 @@
+package com.tesig.event;
+
+import com.tesig.model.Usuario;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * Listener JPA de Usuario: publica {@link UsuarioModificadoEvent} en cada
+ * alta, modificación (activación, rol, baja lógica) o eliminación, sin
+ * importar desde dónde se haga el cambio.
+ *
+ * Hibernate lo obtiene del contexto de Spring, por eso puede inyectar el
+ * publicador de eventos.
+ */
+@Component
+@RequiredArgsConstructor
+public class UsuarioEntityListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    @PostPersist
+    @PostUpdate
+    public void onGuardado(Usuario usuario) {
+        eventPublisher.publishEvent(UsuarioModificadoEvent.de(usuario));
+    }
+
+    @PostRemove
+    public void onEliminado(Usuario usuario) {
+        eventPublisher.publishEvent(UsuarioModificadoEvent.eliminado(usuario));
+    }
+}
@@ -0,0 +1,28 @@
+package com.tesig.event;
+
+import com.tesig.model.Rol;
+import com.tesig.model.Usuario;
+
+/**
+ * Evento publicado cuando se crea, modifica o elimina un usuario.
+ *
+ * @param usuarioId ID del usuario
+ * @param email Email del usuario
+ * @param rol Rol resultante
+ * @param habilitado Si el usuario está activo y no eliminado
+ */
+public record UsuarioModificadoEvent(Long usuarioId, String email, Rol rol, boolean habilitado) {
+
+    public static UsuarioModificadoEvent de(Usuario usuario) {
+        return new UsuarioModificadoEvent(
+                usuario.getId(),
+                usuario.getEmail(),
+                usuario.getRol(),
+                Boolean.TRUE.equals(usuario.getActivo()) && !usuario.isDeleted()
+        );
+    }
+
+    public static UsuarioModificadoEvent eliminado(Usuario usuario) {
+        return new UsuarioModificadoEvent(usuario.getId(), usuario.getEmail(), usuario.getRol(), false);
+    }
+}
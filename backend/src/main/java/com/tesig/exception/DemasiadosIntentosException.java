@@ -0,0 +1,20 @@
+package com.tesig.exception;
+
+/**
+ * Excepción para solicitudes rechazadas por exceder un límite de tasa o de capacidad.
+ *
+ * Se traduce en una respuesta 429 con el encabezado Retry-After.
+ */
+public class DemasiadosIntentosException extends RuntimeException {
+
+    private final long segundosReintento;
+
+    public DemasiadosIntentosException(String message, long segundosReintento) {
+        super(message);
+        this.segundosReintento = Math.max(1, segundosReintento);
+    }
+
+    public long getSegundosReintento() {
+        return segundosReintento;
+    }
+}
@@ -0,0 +1,67 @@
+package com.tesig.model;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * Tamaño de los períodos en que se agrupan las tendencias de los reportes.
+ * Cada valor corresponde a una unidad de date_trunc de PostgreSQL.
+ */
+public enum AgrupacionPeriodo {
+    DIA("Día", "day", DateTimeFormatter.ofPattern("dd MMM yyyy")),
+    SEMANA("Semana", "week", DateTimeFormatter.ofPattern("'Sem.' dd MMM yyyy")),
+    MES("Mes", "month", DateTimeFormatter.ofPattern("MMM yyyy")),
+    TRIMESTRE("Trimestre", "quarter", DateTimeFormatter.ofPattern("'T'q yyyy"));
+
+    private final String nombre;
+    private final String unidadSql;
+    private final DateTimeFormatter formatoEtiqueta;
+
+    AgrupacionPeriodo(String nombre, String unidadSql, DateTimeFormatter formatoEtiqueta) {
+        this.nombre = nombre;
+        this.unidadSql = unidadSql;
+        this.formatoEtiqueta = formatoEtiqueta;
+    }
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    public String getUnidadSql() {
+        return unidadSql;
+    }
+
+    /**
+     * Obtiene el inicio del período que contiene la fecha (equivalente a date_trunc).
+     * Las semanas inician en lunes, igual que en PostgreSQL.
+     */
+    public LocalDate inicioPeriodo(LocalDate fecha) {
+        return switch (this) {
+            case DIA -> fecha;
+            case SEMANA -> fecha.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MES -> fecha.withDayOfMonth(1);
+            case TRIMESTRE -> fecha.withMonth(((fecha.getMonthValue() - 1) / 3) * 3 + 1).withDayOfMonth(1);
+        };
+    }
+
+    /**
+     * Obtiene el inicio del período siguiente.
+     */
+    public LocalDate siguientePeriodo(LocalDate inicioPeriodo) {
+        return switch (this) {
+            case DIA -> inicioPeriodo.plusDays(1);
+            case SEMANA -> inicioPeriodo.plusWeeks(1);
+            case MES -> inicioPeriodo.plusMonths(1);
+            case TRIMESTRE -> inicioPeriodo.plusMonths(3);
+        };
+    }
+
+    /**
+     * Etiqueta legible del período para mostrar en los reportes.
+     */
+    public String etiqueta(LocalDate inicioPeriodo) {
+        return inicioPeriodo.format(formatoEtiqueta);
+    }
+}
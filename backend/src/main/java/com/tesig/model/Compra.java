@@ -17,7 +17,9 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "compras")
+@Table(name = "compras", indexes = {
+        @Index(name = "idx_compra_fecha_compra_id", columnList = "fecha_compra, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
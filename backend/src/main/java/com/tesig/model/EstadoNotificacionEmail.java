@@ -0,0 +1,15 @@
+package com.tesig.model;
+
+/**
+ * Estados de una notificación por email en la bandeja de salida.
+ */
+public enum EstadoNotificacionEmail {
+    /** Esperando envío (nueva o pendiente de reintento) */
+    PENDIENTE,
+    /** Reclamada por el despachador; se reintenta si el envío no termina dentro del bloqueo */
+    ENVIANDO,
+    /** Entregada al servidor SMTP */
+    ENVIADA,
+    /** Agotó los reintentos (no se vuelve a intentar) */
+    FALLIDA
+}
@@ -0,0 +1,16 @@
+package com.tesig.model;
+
+/**
+ * Formato de salida de la exportación de documentos de varios tickets.
+ */
+public enum FormatoExportacionPdf {
+    /**
+     * Un archivo ZIP con un PDF por ticket
+     */
+    ZIP,
+
+    /**
+     * Un solo PDF con los documentos de todos los tickets, uno tras otro
+     */
+    PDF_UNICO
+}
@@ -15,7 +15,9 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "gastos")
+@Table(name = "gastos", indexes = {
+        @Index(name = "idx_gasto_fecha_id", columnList = "fecha, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
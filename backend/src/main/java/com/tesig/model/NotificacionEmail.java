@@ -0,0 +1,89 @@
+package com.tesig.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Notificación por email en la bandeja de salida (outbox).
+ *
+ * Se inserta en la misma transacción que el cambio del ticket, con el
+ * contenido ya renderizado, y la envía en segundo plano el despachador de
+ * emails. La clave de deduplicación (tipo, ticket y destinatario) evita
+ * encolar dos veces el mismo aviso al mismo cliente.
+ *
+ * @author TESIG System
+ */
+@Entity
+@Table(name = "notificaciones_email",
+        uniqueConstraints = @UniqueConstraint(name = "uk_notificacion_email_clave",
+                columnNames = "clave_deduplicacion"),
+        indexes = {
+                @Index(name = "idx_notificacion_email_estado_proximo", columnList = "estado, proximo_intento"),
+                @Index(name = "idx_notificacion_email_enviada", columnList = "enviada_at")
+        })
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class NotificacionEmail {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 30)
+    private TipoNotificacionEmail tipo;
+
+    @Column(name = "ticket_id")
+    private Long ticketId;
+
+    @Column(nullable = false, length = 150)
+    private String destinatario;
+
+    @Column(nullable = false, length = 300)
+    private String asunto;
+
+    /**
+     * Cuerpo HTML ya renderizado
+     */
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String contenido;
+
+    @Column(name = "clave_deduplicacion", length = 250)
+    private String claveDeduplicacion;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private EstadoNotificacionEmail estado;
+
+    /**
+     * Intentos de envío realizados
+     */
+    @Column(nullable = false)
+    private Integer intentos;
+
+    /**
+     * Momento a partir del cual puede (re)intentarse el envío. Mientras la
+     * notificación está ENVIANDO indica el fin del bloqueo del despachador.
+     */
+    @Column(name = "proximo_intento", nullable = false)
+    private LocalDateTime proximoIntento;
+
+    @Column(name = "ultimo_error", length = 500)
+    private String ultimoError;
+
+    @Column(name = "enviada_at")
+    private LocalDateTime enviadaAt;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
@@ -24,7 +24,8 @@ import java.time.LocalDateTime;
         @Index(name = "idx_pieza_nombre", columnList = "nombre"),
         @Index(name = "idx_pieza_categoria", columnList = "categoria"),
         @Index(name = "idx_pieza_stock", columnList = "stock"),
-        @Index(name = "idx_pieza_deleted_at", columnList = "deleted_at")
+        @Index(name = "idx_pieza_deleted_at", columnList = "deleted_at"),
+        @Index(name = "idx_pieza_nombre_id", columnList = "nombre, id")
 })
 @Data
 @NoArgsConstructor
@@ -0,0 +1,43 @@
+package com.tesig.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Registro de un recordatorio de recogida encolado para un ticket.
+ *
+ * Hay una fila por ticket y umbral de espera (ej: 3, 7, 15 días). El motor de
+ * recordatorios excluye en la consulta los tickets que ya tienen un registro
+ * del umbral procesado o de uno mayor, por lo que volver a ejecutarlo no
+ * repite avisos ni vuelve a recorrer los tickets ya avisados.
+ *
+ * @author TESIG System
+ */
+@Entity
+@Table(name = "recordatorios_recogida",
+        uniqueConstraints = @UniqueConstraint(name = "uk_recordatorio_recogida_ticket_umbral",
+                columnNames = {"ticket_id", "umbral_dias"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RecordatorioRecogida {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "ticket_id", nullable = false)
+    private Long ticketId;
+
+    @Column(name = "umbral_dias", nullable = false)
+    private Integer umbralDias;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
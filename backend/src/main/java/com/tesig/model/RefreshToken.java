@@ -3,16 +3,28 @@ package com.tesig.model;
 import jakarta.persistence.*;
 import lombok.*;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.LocalDateTime;
+import java.util.HexFormat;
 
 /**
  * Entidad para almacenar refresh tokens.
  * Permite invalidar tokens en logout y controlar sesiones activas.
+ *
+ * Los tokens se buscan por el hash SHA-256 del valor (clave de largo fijo)
+ * en lugar del valor completo, por lo que la unicidad la garantiza el índice
+ * de token_hash. El valor en texto plano no se guarda: la columna token solo
+ * conserva el de tokens anteriores hasta que se completa su hash al iniciar
+ * (ver RevocacionTokenServiceImpl). El jti identifica al token en el filtro
+ * de revocación.
  */
 @Entity
 @Table(name = "refresh_tokens", indexes = {
-    @Index(name = "idx_refresh_token", columnList = "token"),
-    @Index(name = "idx_refresh_token_usuario", columnList = "usuario_id")
+    @Index(name = "idx_refresh_token_hash", columnList = "token_hash", unique = true),
+    @Index(name = "idx_refresh_token_usuario", columnList = "usuario_id"),
+    @Index(name = "idx_refresh_token_expiracion", columnList = "fecha_expiracion")
 })
 @Getter
 @Setter
@@ -21,9 +33,15 @@ import java.time.LocalDateTime;
 @Builder
 public class RefreshToken extends BaseEntity {
 
-    @Column(nullable = false, unique = true, length = 500)
+    @Column(length = 500)
     private String token;
 
+    @Column(name = "token_hash", length = 64)
+    private String tokenHash;
+
+    @Column(length = 36)
+    private String jti;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "usuario_id", nullable = false)
     private Usuario usuario;
@@ -54,4 +72,16 @@ public class RefreshToken extends BaseEntity {
     public void invalidate() {
         this.activo = false;
     }
+
+    /**
+     * Hash SHA-256 (hex) del valor del token, usado para buscarlo.
+     */
+    public static String hashToken(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
 }
@@ -0,0 +1,130 @@
+package com.tesig.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Resumen financiero pre-agregado por día y sucursal.
+ *
+ * Se mantiene de forma incremental al entregar tickets, recibir compras y
+ * registrar gastos, de modo que los reportes de cualquier rango de fechas
+ * suman pocas filas en lugar de recorrer las tablas transaccionales.
+ *
+ * @author TESIG System
+ */
+@Entity
+@Table(name = "resumen_financiero_diario",
+        uniqueConstraints = @UniqueConstraint(name = "uk_resumen_diario_fecha_sucursal",
+                columnNames = {"fecha", "codigo_sucursal"}),
+        indexes = @Index(name = "idx_resumen_diario_fecha", columnList = "fecha"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ResumenFinancieroDiario {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private LocalDate fecha;
+
+    @Column(name = "codigo_sucursal", nullable = false, length = 4)
+    private String codigoSucursal;
+
+    // ==================== INGRESOS ====================
+
+    @Column(name = "ingresos_mano_obra", nullable = false, precision = 12, scale = 2)
+    @Builder.Default
+    private BigDecimal ingresosManoObra = BigDecimal.ZERO;
+
+    @Column(name = "ingresos_piezas", nullable = false, precision = 12, scale = 2)
+    @Builder.Default
+    private BigDecimal ingresosPiezas = BigDecimal.ZERO;
+
+    @Column(nullable = false, precision = 12, scale = 2)
+    @Builder.Default
+    private BigDecimal descuentos = BigDecimal.ZERO;
+
+    /**
+     * Suma del total final de los tickets (con descuento si aplica), usado en tendencias
+     */
+    @Column(name = "ingresos_total_final", nullable = false, precision = 12, scale = 2)
+    @Builder.Default
+    private BigDecimal ingresosTotalFinal = BigDecimal.ZERO;
+
+    @Column(name = "tickets_entregados", nullable = false)
+    @Builder.Default
+    private Integer ticketsEntregados = 0;
+
+    // ==================== GASTOS ====================
+
+    @Column(name = "compras_total", nullable = false, precision = 12, scale = 2)
+    @Builder.Default
+    private BigDecimal comprasTotal = BigDecimal.ZERO;
+
+    @Column(name = "gastos_operativos", nullable = false, precision = 12, scale = 2)
+    @Builder.Default
+    private BigDecimal gastosOperativos = BigDecimal.ZERO;
+
+    @ElementCollection
+    @CollectionTable(name = "resumen_financiero_diario_gastos",
+            joinColumns = @JoinColumn(name = "resumen_id"))
+    @MapKeyEnumerated(EnumType.STRING)
+    @MapKeyColumn(name = "categoria", length = 30)
+    @Column(name = "monto", nullable = false, precision = 12, scale = 2)
+    @Builder.Default
+    private Map<Gasto.CategoriaGasto, BigDecimal> gastosPorCategoria = new EnumMap<>(Gasto.CategoriaGasto.class);
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+
+    // ==================== MÉTODOS DE NEGOCIO ====================
+
+    /**
+     * Suma los importes de un ticket entregado
+     */
+    public void acumularTicket(BigDecimal manoObra, BigDecimal piezas, BigDecimal descuento, BigDecimal totalFinal) {
+        this.ingresosManoObra = this.ingresosManoObra.add(manoObra);
+        this.ingresosPiezas = this.ingresosPiezas.add(piezas);
+        this.descuentos = this.descuentos.add(descuento);
+        this.ingresosTotalFinal = this.ingresosTotalFinal.add(totalFinal);
+        this.ticketsEntregados++;
+    }
+
+    /**
+     * Suma el total de una compra recibida
+     */
+    public void acumularCompra(BigDecimal total) {
+        this.comprasTotal = this.comprasTotal.add(total);
+    }
+
+    /**
+     * Suma un monto de gasto (negativo para revertir) en su categoría
+     */
+    public void acumularGasto(Gasto.CategoriaGasto categoria, BigDecimal monto) {
+        this.gastosOperativos = this.gastosOperativos.add(monto);
+        BigDecimal nuevoMonto = gastosPorCategoria.getOrDefault(categoria, BigDecimal.ZERO).add(monto);
+        if (nuevoMonto.signum() == 0) {
+            gastosPorCategoria.remove(categoria);
+        } else {
+            gastosPorCategoria.put(categoria, nuevoMonto);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.tesig.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Contador de numeración de documentos por prefijo y día.
+ *
+ * Cada fila guarda el último valor reservado para un prefijo (ej: TES-MAT)
+ * en una fecha. Las reservas se hacen con un upsert atómico, por lo que varias
+ * instancias de la aplicación pueden numerar sin colisiones.
+ *
+ * @author TESIG System
+ */
+@Entity
+@Table(name = "secuencias_documento",
+        uniqueConstraints = @UniqueConstraint(name = "uk_secuencia_documento_prefijo_fecha",
+                columnNames = {"prefijo", "fecha"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SecuenciaDocumento {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 30)
+    private String prefijo;
+
+    @Column(nullable = false)
+    private LocalDate fecha;
+
+    /**
+     * Último valor reservado (incluye bloques pre-asignados aún no usados)
+     */
+    @Column(name = "ultimo_valor", nullable = false)
+    private Long ultimoValor;
+}
@@ -0,0 +1,27 @@
+package com.tesig.model;
+
+/**
+ * Series de documentos numerados con el formato {EMPRESA}-{SERIE}-{yyyyMMdd}-{NNNN}.
+ * Ejemplo: TES-CMP-20251118-0001
+ */
+public enum SerieDocumento {
+    COMPRA("Compra", "CMP"),
+    GASTO("Gasto", "GST"),
+    COMPROBANTE("Comprobante", "CPB");
+
+    private final String nombre;
+    private final String codigo;
+
+    SerieDocumento(String nombre, String codigo) {
+        this.nombre = nombre;
+        this.codigo = codigo;
+    }
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    public String getCodigo() {
+        return codigo;
+    }
+}
@@ -14,7 +14,9 @@ import java.util.List;
 @Table(name = "tickets", indexes = {
     @Index(name = "idx_ticket_numero", columnList = "numero_ticket"),
     @Index(name = "idx_ticket_estado", columnList = "estado"),
-    @Index(name = "idx_ticket_cliente", columnList = "cliente_id")
+    @Index(name = "idx_ticket_cliente", columnList = "cliente_id"),
+    @Index(name = "idx_ticket_created_at_id", columnList = "created_at, id"),
+    @Index(name = "idx_ticket_estado_listo_entrega", columnList = "estado, fecha_listo_entrega, id")
 })
 @Getter
 @Setter
@@ -97,6 +99,12 @@ public class Ticket extends BaseEntity {
     @Column(name = "resultado_pruebas", columnDefinition = "TEXT")
     private String resultadoPruebas;
 
+    /**
+     * Momento en que el equipo quedó listo para entrega (inicio de la espera del cliente)
+     */
+    @Column(name = "fecha_listo_entrega")
+    private LocalDateTime fechaListoEntrega;
+
     // Entrega
     @Column(name = "fecha_entrega")
     private LocalDateTime fechaEntrega;
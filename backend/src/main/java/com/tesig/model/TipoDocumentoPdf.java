@@ -0,0 +1,27 @@
+package com.tesig.model;
+
+/**
+ * Documentos PDF que se generan a partir de un ticket.
+ */
+public enum TipoDocumentoPdf {
+    TICKET("Ticket"),
+    PRESUPUESTO("Presupuesto"),
+    COMPROBANTE_ENTREGA("ComprobanteEntrega");
+
+    private final String prefijoArchivo;
+
+    TipoDocumentoPdf(String prefijoArchivo) {
+        this.prefijoArchivo = prefijoArchivo;
+    }
+
+    public String getPrefijoArchivo() {
+        return prefijoArchivo;
+    }
+
+    /**
+     * Nombre del archivo descargado, por ejemplo "Presupuesto-TKT-2024-00001.pdf".
+     */
+    public String nombreArchivo(String numeroTicket) {
+        return prefijoArchivo + "-" + numeroTicket + ".pdf";
+    }
+}
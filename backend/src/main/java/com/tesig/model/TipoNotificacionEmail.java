@@ -0,0 +1,11 @@
+package com.tesig.model;
+
+/**
+ * Tipos de notificación por email enviados al cliente.
+ */
+public enum TipoNotificacionEmail {
+    TICKET_CREADO,
+    PRESUPUESTO_DISPONIBLE,
+    LISTO_PARA_ENTREGA,
+    RECORDATORIO_RECOGIDA
+}
@@ -0,0 +1,42 @@
+package com.tesig.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Access token revocado antes de su expiración (ej: al cerrar sesión).
+ *
+ * Se guarda solo el identificador del token (jti) y su expiración; pasada la
+ * expiración el token ya no es aceptado y la fila se purga. Los refresh tokens
+ * revocados no se registran aquí: su estado queda en {@link RefreshToken}.
+ *
+ * @author TESIG System
+ */
+@Entity
+@Table(name = "tokens_revocados",
+        uniqueConstraints = @UniqueConstraint(name = "uk_token_revocado_jti", columnNames = "jti"),
+        indexes = @Index(name = "idx_token_revocado_expiracion", columnList = "fecha_expiracion"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TokenRevocado {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 36)
+    private String jti;
+
+    @Column(name = "fecha_expiracion", nullable = false)
+    private LocalDateTime fechaExpiracion;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
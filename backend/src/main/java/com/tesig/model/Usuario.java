@@ -1,5 +1,6 @@
 package com.tesig.model;
 
+import com.tesig.event.UsuarioEntityListener;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
@@ -9,6 +10,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@EntityListeners(UsuarioEntityListener.class)
 @Table(name = "usuarios", indexes = {
     @Index(name = "idx_usuario_email", columnList = "email")
 })
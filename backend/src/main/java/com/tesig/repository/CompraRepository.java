@@ -1,6 +1,7 @@
 package com.tesig.repository;
 
 import com.tesig.model.Compra;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -28,12 +29,35 @@ public interface CompraRepository extends JpaRepository<Compra, Long> {
     @Query("SELECT c FROM Compra c WHERE c.id = :id AND c.deleted = false")
     Optional<Compra> findByIdAndNotDeleted(@Param("id") Long id);
 
+    /**
+     * Obtiene el mayor código de compra que cumple el patrón (ej: 'TES-CMP-20251118-%').
+     * El orden es numérico sobre la secuencia: con el mismo prefijo, un código más
+     * largo es mayor (MAX de texto ubicaría '-9999' después de '-10000').
+     */
+    @Query("SELECT c.codigoCompra FROM Compra c WHERE c.codigoCompra LIKE :patron " +
+           "ORDER BY LENGTH(c.codigoCompra) DESC, c.codigoCompra DESC LIMIT 1")
+    Optional<String> findMaxCodigoCompraLike(@Param("patron") String patron);
+
     /**
      * Encuentra todas las compras no eliminadas con paginación
      */
     @Query("SELECT c FROM Compra c WHERE c.deleted = false ORDER BY c.fechaCompra DESC")
     Page<Compra> findAllNotDeleted(Pageable pageable);
 
+    /**
+     * Primera página por cursor: compras no eliminadas ordenadas por (fechaCompra, id) descendente
+     */
+    @Query("SELECT c FROM Compra c WHERE c.deleted = false ORDER BY c.fechaCompra DESC, c.id DESC")
+    List<Compra> findPrimerasPorCursor(Limit limite);
+
+    /**
+     * Página siguiente a la posición (fechaCompra, id) del cursor
+     */
+    @Query("SELECT c FROM Compra c WHERE c.deleted = false AND " +
+           "(c.fechaCompra < :fecha OR (c.fechaCompra = :fecha AND c.id < :id)) " +
+           "ORDER BY c.fechaCompra DESC, c.id DESC")
+    List<Compra> findSiguientesPorCursor(@Param("fecha") LocalDate fecha, @Param("id") Long id, Limit limite);
+
     /**
      * Busca compras por proveedor
      */
@@ -58,6 +82,15 @@ public interface CompraRepository extends JpaRepository<Compra, Long> {
     @Query("SELECT COALESCE(SUM(c.total), 0) FROM Compra c WHERE c.fechaCompra BETWEEN :fechaInicio AND :fechaFin AND c.estado = :estado AND c.deleted = false")
     BigDecimal sumTotalByFechaAndEstado(@Param("fechaInicio") LocalDate fechaInicio, @Param("fechaFin") LocalDate fechaFin, @Param("estado") Compra.EstadoCompra estado);
 
+    /**
+     * Calcula el total de compras por período (date_trunc sobre fecha_compra).
+     * Retorna una lista de arrays donde [0] = inicio del período, [1] = total
+     */
+    @Query(value = "SELECT date_trunc(:unidad, CAST(c.fecha_compra AS timestamp)) AS periodo, COALESCE(SUM(c.total), 0) AS total " +
+           "FROM compras c WHERE c.fecha_compra BETWEEN :fechaInicio AND :fechaFin AND c.estado = :estado AND c.deleted = false " +
+           "GROUP BY 1 ORDER BY 1", nativeQuery = true)
+    List<Object[]> sumTotalPorPeriodo(@Param("unidad") String unidad, @Param("fechaInicio") LocalDate fechaInicio, @Param("fechaFin") LocalDate fechaFin, @Param("estado") String estado);
+
     /**
      * Encuentra compras pendientes de recepción
      */
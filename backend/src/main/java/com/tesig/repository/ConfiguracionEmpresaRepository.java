@@ -1,6 +1,7 @@
 package com.tesig.repository;
 
 import com.tesig.model.ConfiguracionEmpresa;
+import com.tesig.repository.projection.ConfiguracionVersionProjection;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
@@ -40,4 +41,11 @@ public interface ConfiguracionEmpresaRepository extends JpaRepository<Configurac
      */
     @Query("SELECT c FROM ConfiguracionEmpresa c WHERE c.activo = true ORDER BY c.id ASC LIMIT 1")
     Optional<ConfiguracionEmpresa> findFirstActiveConfiguration();
+
+    /**
+     * Obtiene la versión (ID y fecha de actualización) de la primera configuración activa
+     */
+    @Query("SELECT c.id AS id, c.updatedAt AS updatedAt FROM ConfiguracionEmpresa c " +
+           "WHERE c.activo = true ORDER BY c.id ASC LIMIT 1")
+    Optional<ConfiguracionVersionProjection> findFirstActiveVersion();
 }
@@ -1,6 +1,7 @@
 package com.tesig.repository;
 
 import com.tesig.model.Gasto;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -28,6 +29,20 @@ public interface GastoRepository extends JpaRepository<Gasto, Long> {
     @Query("SELECT g FROM Gasto g WHERE g.deleted = false ORDER BY g.fecha DESC")
     Page<Gasto> findAllNotDeleted(Pageable pageable);
 
+    /**
+     * Primera página por cursor: gastos no eliminados ordenados por (fecha, id) descendente
+     */
+    @Query("SELECT g FROM Gasto g WHERE g.deleted = false ORDER BY g.fecha DESC, g.id DESC")
+    List<Gasto> findPrimerosPorCursor(Limit limite);
+
+    /**
+     * Página siguiente a la posición (fecha, id) del cursor
+     */
+    @Query("SELECT g FROM Gasto g WHERE g.deleted = false AND " +
+           "(g.fecha < :fecha OR (g.fecha = :fecha AND g.id < :id)) " +
+           "ORDER BY g.fecha DESC, g.id DESC")
+    List<Gasto> findSiguientesPorCursor(@Param("fecha") LocalDate fecha, @Param("id") Long id, Limit limite);
+
     /**
      * Busca gastos por categoría
      */
@@ -52,6 +67,29 @@ public interface GastoRepository extends JpaRepository<Gasto, Long> {
     @Query("SELECT COALESCE(SUM(g.monto), 0) FROM Gasto g WHERE g.fecha BETWEEN :fechaInicio AND :fechaFin AND g.categoria = :categoria AND g.deleted = false")
     BigDecimal sumMontoByFechaAndCategoria(@Param("fechaInicio") LocalDate fechaInicio, @Param("fechaFin") LocalDate fechaFin, @Param("categoria") Gasto.CategoriaGasto categoria);
 
+    /**
+     * Suma los gastos de un rango de fechas agrupados por categoría.
+     * Retorna una lista de arrays donde [0] = CategoriaGasto, [1] = monto total
+     */
+    @Query("SELECT g.categoria, SUM(g.monto) FROM Gasto g WHERE g.fecha BETWEEN :fechaInicio AND :fechaFin AND g.deleted = false GROUP BY g.categoria")
+    List<Object[]> sumMontoByFechaGroupByCategoria(@Param("fechaInicio") LocalDate fechaInicio, @Param("fechaFin") LocalDate fechaFin);
+
+    /**
+     * Calcula el total de gastos por período (date_trunc sobre fecha).
+     * Retorna una lista de arrays donde [0] = inicio del período, [1] = monto total
+     */
+    @Query(value = "SELECT date_trunc(:unidad, CAST(g.fecha AS timestamp)) AS periodo, COALESCE(SUM(g.monto), 0) AS total " +
+           "FROM gastos g WHERE g.fecha BETWEEN :fechaInicio AND :fechaFin AND g.deleted = false " +
+           "GROUP BY 1 ORDER BY 1", nativeQuery = true)
+    List<Object[]> sumMontoPorPeriodo(@Param("unidad") String unidad, @Param("fechaInicio") LocalDate fechaInicio, @Param("fechaFin") LocalDate fechaFin);
+
+    /**
+     * Suma los gastos por día y categoría (usado para reconstruir el resumen diario).
+     * Retorna una lista de arrays donde [0] = fecha, [1] = CategoriaGasto, [2] = monto total
+     */
+    @Query("SELECT g.fecha, g.categoria, SUM(g.monto) FROM Gasto g WHERE g.fecha BETWEEN :fechaInicio AND :fechaFin AND g.deleted = false GROUP BY g.fecha, g.categoria")
+    List<Object[]> sumMontoPorDiaYCategoria(@Param("fechaInicio") LocalDate fechaInicio, @Param("fechaFin") LocalDate fechaFin);
+
     /**
      * Busca gastos por proveedor
      */
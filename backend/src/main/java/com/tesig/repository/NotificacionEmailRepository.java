@@ -0,0 +1,108 @@
+package com.tesig.repository;
+
+import com.tesig.model.EstadoNotificacionEmail;
+import com.tesig.model.NotificacionEmail;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repositorio de la bandeja de salida de emails.
+ *
+ * @author TESIG System
+ */
+@Repository
+public interface NotificacionEmailRepository extends JpaRepository<NotificacionEmail, Long> {
+
+    /**
+     * Encola una notificación si no existe otra con la misma clave de
+     * deduplicación. Debe ejecutarse dentro de la transacción del cambio que
+     * la origina.
+     *
+     * @return 1 si se encoló, 0 si ya existía
+     */
+    @Modifying
+    @Query(value = "INSERT INTO notificaciones_email " +
+           "(tipo, ticket_id, destinatario, asunto, contenido, clave_deduplicacion, estado, intentos, " +
+           "proximo_intento, created_at, updated_at) " +
+           "VALUES (:tipo, :ticketId, :destinatario, :asunto, :contenido, :clave, 'PENDIENTE', 0, " +
+           ":ahora, :ahora, :ahora) " +
+           "ON CONFLICT (clave_deduplicacion) DO NOTHING", nativeQuery = true)
+    int encolar(
+        @Param("tipo") String tipo,
+        @Param("ticketId") Long ticketId,
+        @Param("destinatario") String destinatario,
+        @Param("asunto") String asunto,
+        @Param("contenido") String contenido,
+        @Param("clave") String clave,
+        @Param("ahora") LocalDateTime ahora
+    );
+
+    /**
+     * Reclama un lote de notificaciones listas para enviar: las marca como
+     * ENVIANDO, suma un intento y las bloquea hasta bloqueoHasta. Las filas
+     * reclamadas por otra instancia se saltan (SKIP LOCKED), y las que quedaron
+     * ENVIANDO con el bloqueo vencido se vuelven a reclamar.
+     * Debe ejecutarse en una transacción de escritura propia.
+     *
+     * @param ahora Momento actual
+     * @param bloqueoHasta Fin del bloqueo del envío
+     * @param lote Cantidad máxima de notificaciones
+     * @return Notificaciones reclamadas
+     */
+    @Query(value = "UPDATE notificaciones_email SET estado = 'ENVIANDO', intentos = intentos + 1, " +
+           "proximo_intento = :bloqueoHasta, updated_at = :ahora " +
+           "WHERE id IN (SELECT id FROM notificaciones_email " +
+           "WHERE estado IN ('PENDIENTE', 'ENVIANDO') AND proximo_intento <= :ahora " +
+           "ORDER BY proximo_intento LIMIT :lote FOR UPDATE SKIP LOCKED) " +
+           "RETURNING *", nativeQuery = true)
+    List<NotificacionEmail> reclamarPendientes(
+        @Param("ahora") LocalDateTime ahora,
+        @Param("bloqueoHasta") LocalDateTime bloqueoHasta,
+        @Param("lote") int lote
+    );
+
+    /**
+     * Marca un grupo de notificaciones como enviadas
+     */
+    @Modifying
+    @Query("UPDATE NotificacionEmail n SET n.estado = :estado, n.enviadaAt = :ahora, " +
+           "n.ultimoError = null, n.updatedAt = :ahora WHERE n.id IN :ids")
+    int marcarEnviadas(
+        @Param("ids") List<Long> ids,
+        @Param("estado") EstadoNotificacionEmail estado,
+        @Param("ahora") LocalDateTime ahora
+    );
+
+    /**
+     * Registra un envío fallido: vuelve a PENDIENTE con el próximo intento
+     * calculado, o pasa a FALLIDA si agotó los reintentos
+     */
+    @Modifying
+    @Query("UPDATE NotificacionEmail n SET n.estado = :estado, n.proximoIntento = :proximoIntento, " +
+           "n.ultimoError = :error, n.updatedAt = :ahora WHERE n.id = :id")
+    int registrarFallo(
+        @Param("id") Long id,
+        @Param("estado") EstadoNotificacionEmail estado,
+        @Param("proximoIntento") LocalDateTime proximoIntento,
+        @Param("error") String error,
+        @Param("ahora") LocalDateTime ahora
+    );
+
+    /**
+     * Elimina un lote de notificaciones enviadas antes del límite.
+     * Debe ejecutarse en una transacción de escritura propia.
+     *
+     * @return Filas eliminadas (menos que el lote indica que no quedan más)
+     */
+    @Modifying
+    @Query(value = "DELETE FROM notificaciones_email WHERE id IN (" +
+           "SELECT id FROM notificaciones_email WHERE estado = 'ENVIADA' AND enviada_at < :limite " +
+           "ORDER BY id LIMIT :lote)", nativeQuery = true)
+    int purgarEnviadas(@Param("limite") LocalDateTime limite, @Param("lote") int lote);
+}
@@ -1,6 +1,8 @@
 package com.tesig.repository;
 
 import com.tesig.model.Pieza;
+import com.tesig.repository.projection.ResumenInventarioProjection;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -55,6 +57,20 @@ public interface PiezaRepository extends JpaRepository<Pieza, Long> {
     @Query("SELECT p FROM Pieza p WHERE p.deletedAt IS NULL")
     Page<Pieza> findAllActive(Pageable pageable);
 
+    /**
+     * Primera página por cursor: piezas activas ordenadas por (nombre, id)
+     */
+    @Query("SELECT p FROM Pieza p WHERE p.deletedAt IS NULL ORDER BY p.nombre ASC, p.id ASC")
+    List<Pieza> findPrimerasActivasPorCursor(Limit limite);
+
+    /**
+     * Página siguiente a la posición (nombre, id) del cursor
+     */
+    @Query("SELECT p FROM Pieza p WHERE p.deletedAt IS NULL AND " +
+           "(p.nombre > :nombre OR (p.nombre = :nombre AND p.id > :id)) " +
+           "ORDER BY p.nombre ASC, p.id ASC")
+    List<Pieza> findSiguientesActivasPorCursor(@Param("nombre") String nombre, @Param("id") Long id, Limit limite);
+
     /**
      * Busca piezas que necesitan reabastecimiento (stock <= stockMinimo)
      */
@@ -112,4 +128,13 @@ public interface PiezaRepository extends JpaRepository<Pieza, Long> {
      * Verifica si existe una pieza con el código dado
      */
     boolean existsByCodigoAndDeletedAtIsNull(String codigo);
+
+    /**
+     * Calcula los indicadores de inventario (valor, sin stock, stock bajo) en una sola consulta
+     */
+    @Query("SELECT COALESCE(SUM(p.precioCosto * p.stock), 0) AS valorInventario, " +
+           "COALESCE(SUM(CASE WHEN p.stock = 0 THEN 1 ELSE 0 END), 0) AS piezasSinStock, " +
+           "COALESCE(SUM(CASE WHEN p.stock > 0 AND p.stock <= p.stockMinimo THEN 1 ELSE 0 END), 0) AS piezasStockBajo " +
+           "FROM Pieza p WHERE p.deletedAt IS NULL")
+    ResumenInventarioProjection resumenInventario();
 }
@@ -0,0 +1,35 @@
+package com.tesig.repository;
+
+import com.tesig.model.RecordatorioRecogida;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Repositorio del registro de recordatorios de recogida enviados.
+ *
+ * @author TESIG System
+ */
+@Repository
+public interface RecordatorioRecogidaRepository extends JpaRepository<RecordatorioRecogida, Long> {
+
+    /**
+     * Registra el recordatorio del ticket para el umbral si aún no existe.
+     * Debe ejecutarse en la misma transacción que encola el email.
+     *
+     * @return 1 si se registró, 0 si ya existía
+     */
+    @Modifying
+    @Query(value = "INSERT INTO recordatorios_recogida (ticket_id, umbral_dias, created_at) " +
+           "VALUES (:ticketId, :umbralDias, :ahora) " +
+           "ON CONFLICT (ticket_id, umbral_dias) DO NOTHING", nativeQuery = true)
+    int registrar(
+        @Param("ticketId") Long ticketId,
+        @Param("umbralDias") int umbralDias,
+        @Param("ahora") LocalDateTime ahora
+    );
+}
@@ -15,7 +15,72 @@ import java.util.Optional;
 @Repository
 public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
 
-    Optional<RefreshToken> findByToken(String token);
+    /**
+     * Busca el refresh token por el hash de su valor (ver {@link RefreshToken#hashToken(String)}).
+     */
+    Optional<RefreshToken> findByTokenHash(String tokenHash);
+
+    /**
+     * Indica si el refresh token con ese jti fue invalidado.
+     */
+    boolean existsByJtiAndActivoFalse(String jti);
+
+    /**
+     * Identificadores de los refresh tokens invalidados que aún no expiraron.
+     */
+    @Query("SELECT rt.jti FROM RefreshToken rt WHERE rt.activo = false AND rt.jti IS NOT NULL " +
+           "AND rt.fechaExpiracion > :ahora")
+    List<String> findJtiRevocadosVigentes(@Param("ahora") LocalDateTime ahora);
+
+    /**
+     * Elimina la restricción única sobre token creada por versiones anteriores
+     * (su nombre lo generó Hibernate, por eso se busca en pg_constraint).
+     */
+    @Modifying
+    @Query(value = "DO $$ DECLARE restriccion record; BEGIN " +
+           "FOR restriccion IN SELECT con.conname FROM pg_constraint con " +
+           "JOIN pg_class c ON c.oid = con.conrelid " +
+           "JOIN pg_attribute a ON a.attrelid = con.conrelid AND a.attnum = ANY (con.conkey) " +
+           "WHERE c.relname = 'refresh_tokens' AND con.contype = 'u' " +
+           "AND a.attname = 'token' AND array_length(con.conkey, 1) = 1 LOOP " +
+           "EXECUTE format('ALTER TABLE refresh_tokens DROP CONSTRAINT %I', restriccion.conname); " +
+           "END LOOP; END $$", nativeQuery = true)
+    void eliminarRestriccionUnicaToken();
+
+    /**
+     * Permite token nulo en las tablas creadas cuando la columna era obligatoria
+     * (ddl-auto=update no relaja NOT NULL).
+     */
+    @Modifying
+    @Query(value = "ALTER TABLE refresh_tokens ALTER COLUMN token DROP NOT NULL", nativeQuery = true)
+    void permitirTokenNulo();
+
+    /**
+     * Completa el hash de los tokens guardados antes de que existiera la columna.
+     */
+    @Modifying
+    @Query(value = "UPDATE refresh_tokens SET token_hash = encode(sha256(convert_to(token, 'UTF8')), 'hex') " +
+           "WHERE token_hash IS NULL", nativeQuery = true)
+    int completarTokenHash();
+
+    /**
+     * Borra el valor en texto plano de los tokens que ya tienen hash.
+     */
+    @Modifying
+    @Query(value = "UPDATE refresh_tokens SET token = NULL WHERE token IS NOT NULL AND token_hash IS NOT NULL",
+           nativeQuery = true)
+    int eliminarTokensEnTextoPlano();
+
+    /**
+     * Elimina un lote de refresh tokens expirados.
+     *
+     * @return Filas eliminadas (menos que el lote indica que no quedan más)
+     */
+    @Modifying
+    @Query(value = "DELETE FROM refresh_tokens WHERE id IN (" +
+           "SELECT id FROM refresh_tokens WHERE fecha_expiracion < :limite ORDER BY id LIMIT :lote)",
+           nativeQuery = true)
+    int purgarExpirados(@Param("limite") LocalDateTime limite, @Param("lote") int lote);
 
     @Query("SELECT rt FROM RefreshToken rt WHERE rt.usuario.id = :usuarioId AND rt.activo = true AND rt.deletedAt IS NULL")
     List<RefreshToken> findActiveTokensByUsuarioId(@Param("usuarioId") Long usuarioId);
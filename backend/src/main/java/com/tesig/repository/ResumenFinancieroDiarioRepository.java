@@ -0,0 +1,99 @@
+package com.tesig.repository;
+
+import com.tesig.model.ResumenFinancieroDiario;
+import com.tesig.repository.projection.ResumenIngresosProjection;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repositorio para el resumen financiero diario pre-agregado.
+ *
+ * @author TESIG System
+ */
+@Repository
+public interface ResumenFinancieroDiarioRepository extends JpaRepository<ResumenFinancieroDiario, Long> {
+
+    // ==================== MANTENIMIENTO INCREMENTAL ====================
+
+    /**
+     * Crea la fila del día/sucursal si aún no existe (upsert atómico sin bloqueo de tabla)
+     */
+    @Modifying
+    @Query(value = "INSERT INTO resumen_financiero_diario " +
+           "(fecha, codigo_sucursal, ingresos_mano_obra, ingresos_piezas, descuentos, ingresos_total_final, " +
+           "tickets_entregados, compras_total, gastos_operativos, updated_at) " +
+           "VALUES (:fecha, :codigoSucursal, 0, 0, 0, 0, 0, 0, 0, now()) " +
+           "ON CONFLICT (fecha, codigo_sucursal) DO NOTHING", nativeQuery = true)
+    void insertarSiNoExiste(@Param("fecha") LocalDate fecha, @Param("codigoSucursal") String codigoSucursal);
+
+    /**
+     * Obtiene la fila del día/sucursal bloqueándola para actualización
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM ResumenFinancieroDiario r WHERE r.fecha = :fecha AND r.codigoSucursal = :codigoSucursal")
+    Optional<ResumenFinancieroDiario> findForUpdate(@Param("fecha") LocalDate fecha, @Param("codigoSucursal") String codigoSucursal);
+
+    /**
+     * Obtiene las filas de un rango de fechas (usado por la reconstrucción)
+     */
+    List<ResumenFinancieroDiario> findByFechaBetween(LocalDate fechaInicio, LocalDate fechaFin);
+
+    // ==================== CONSULTAS DE REPORTES ====================
+
+    /**
+     * Suma los ingresos de un rango de fechas
+     */
+    @Query("SELECT COALESCE(SUM(r.ingresosManoObra), 0) AS manoObra, " +
+           "COALESCE(SUM(r.ingresosPiezas), 0) AS piezas, " +
+           "COALESCE(SUM(r.descuentos), 0) AS descuentos, " +
+           "COALESCE(SUM(r.ticketsEntregados), 0) AS tickets " +
+           "FROM ResumenFinancieroDiario r WHERE r.fecha BETWEEN :fechaInicio AND :fechaFin")
+    ResumenIngresosProjection sumIngresos(@Param("fechaInicio") LocalDate fechaInicio, @Param("fechaFin") LocalDate fechaFin);
+
+    /**
+     * Suma el total de compras recibidas de un rango de fechas
+     */
+    @Query("SELECT COALESCE(SUM(r.comprasTotal), 0) FROM ResumenFinancieroDiario r WHERE r.fecha BETWEEN :fechaInicio AND :fechaFin")
+    BigDecimal sumCompras(@Param("fechaInicio") LocalDate fechaInicio, @Param("fechaFin") LocalDate fechaFin);
+
+    /**
+     * Suma los gastos por categoría de un rango de fechas.
+     * Retorna una lista de arrays donde [0] = CategoriaGasto, [1] = monto total
+     */
+    @Query("SELECT KEY(g), SUM(VALUE(g)) FROM ResumenFinancieroDiario r JOIN r.gastosPorCategoria g " +
+           "WHERE r.fecha BETWEEN :fechaInicio AND :fechaFin GROUP BY KEY(g)")
+    List<Object[]> sumGastosPorCategoria(@Param("fechaInicio") LocalDate fechaInicio, @Param("fechaFin") LocalDate fechaFin);
+
+    /**
+     * Totales por día (todas las sucursales) para armar tendencias.
+     * Retorna una lista de arrays donde [0] = fecha, [1] = ingresos (total final),
+     * [2] = tickets entregados, [3] = gastos (compras + operativos)
+     */
+    @Query("SELECT r.fecha, SUM(r.ingresosTotalFinal), SUM(r.ticketsEntregados), SUM(r.comprasTotal + r.gastosOperativos) " +
+           "FROM ResumenFinancieroDiario r WHERE r.fecha BETWEEN :fechaInicio AND :fechaFin " +
+           "GROUP BY r.fecha ORDER BY r.fecha")
+    List<Object[]> sumPorDia(@Param("fechaInicio") LocalDate fechaInicio, @Param("fechaFin") LocalDate fechaFin);
+
+    // ==================== RECONSTRUCCIÓN ====================
+
+    /**
+     * Rango de fechas con movimientos en el historial (tickets entregados, compras recibidas y gastos).
+     * Retorna una fila donde [0] = fecha mínima, [1] = fecha máxima
+     */
+    @Query(value = "SELECT MIN(x.dia), MAX(x.dia) FROM (" +
+           "SELECT CAST(t.fecha_entrega AS date) AS dia FROM tickets t " +
+           "WHERE t.estado = 'ENTREGADO' AND t.fecha_entrega IS NOT NULL AND t.deleted_at IS NULL " +
+           "UNION ALL SELECT c.fecha_compra FROM compras c WHERE c.estado = 'RECIBIDA' AND c.deleted = false " +
+           "UNION ALL SELECT g.fecha FROM gastos g WHERE g.deleted = false) x", nativeQuery = true)
+    List<Object[]> findRangoHistorico();
+}
@@ -0,0 +1,51 @@
+package com.tesig.repository;
+
+import com.tesig.model.SecuenciaDocumento;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+
+/**
+ * Repositorio de contadores de numeración de documentos.
+ *
+ * @author TESIG System
+ */
+@Repository
+public interface SecuenciaDocumentoRepository extends JpaRepository<SecuenciaDocumento, Long> {
+
+    /**
+     * Reserva un bloque de valores para el prefijo y día con un upsert atómico.
+     * Si el contador no existe se crea partiendo de valorInicial.
+     * Debe ejecutarse en una transacción de escritura propia para liberar
+     * el bloqueo de la fila al terminar (ver SecuenciaServiceImpl); por eso
+     * exige una transacción existente en lugar de abrir una.
+     *
+     * No lleva @Modifying a propósito: con @Modifying Spring Data ejecuta la
+     * sentencia con executeUpdate y devuelve la cantidad de filas afectadas,
+     * no el valor del RETURNING. Sin él se ejecuta como consulta y devuelve
+     * esa fila, que es la escritura misma.
+     *
+     * @param prefijo Prefijo del documento
+     * @param fecha Día de la numeración
+     * @param valorInicial Último valor ya usado (solo se aplica al crear el contador)
+     * @param cantidad Cantidad de valores a reservar
+     * @return Último valor del bloque reservado (el bloque es [retorno - cantidad + 1, retorno])
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    @Query(value = "INSERT INTO secuencias_documento (prefijo, fecha, ultimo_valor) " +
+           "VALUES (:prefijo, :fecha, :valorInicial + :cantidad) " +
+           "ON CONFLICT (prefijo, fecha) " +
+           "DO UPDATE SET ultimo_valor = secuencias_documento.ultimo_valor + :cantidad " +
+           "RETURNING ultimo_valor", nativeQuery = true)
+    Long reservar(
+        @Param("prefijo") String prefijo,
+        @Param("fecha") LocalDate fecha,
+        @Param("valorInicial") long valorInicial,
+        @Param("cantidad") int cantidad
+    );
+}
@@ -2,9 +2,16 @@ package com.tesig.repository;
 
 import com.tesig.model.EstadoTicket;
 import com.tesig.model.Ticket;
+import com.tesig.repository.projection.ResumenIngresosProjection;
+import com.tesig.repository.projection.TicketBusquedaProjection;
+import com.tesig.repository.projection.TicketRecordatorioProjection;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -24,6 +31,32 @@ import java.util.Optional;
 @Repository
 public interface TicketRepository extends JpaRepository<Ticket, Long> {
 
+    /**
+     * Texto indexado para la búsqueda de tickets (índice GIN pg_trgm sobre esta expresión).
+     * La consulta debe usar exactamente la misma expresión para que PostgreSQL use el índice.
+     */
+    String TEXTO_BUSQUEDA_TICKET = "(t.numero_ticket || ' ' || t.tipo_equipo || ' ' || t.marca || ' ' || " +
+            "coalesce(t.modelo, '') || ' ' || t.falla_reportada)";
+
+    /**
+     * Texto indexado para buscar tickets por cliente (índice GIN pg_trgm en clientes).
+     */
+    String TEXTO_BUSQUEDA_CLIENTE = "(c.nombre || ' ' || c.apellido)";
+
+    /**
+     * Tickets que esperan ser recogidos desde antes de :limite, con email de contacto
+     * y sin recordatorio registrado para :umbralDias o un umbral mayor.
+     */
+    String SELECT_RECORDATORIO = "SELECT t.id AS id, t.numeroTicket AS numeroTicket, t.tipoEquipo AS tipoEquipo, " +
+            "CONCAT(c.nombre, ' ', c.apellido) AS nombreCliente, c.email AS emailCliente, " +
+            "t.fechaListoEntrega AS fechaListoEntrega " +
+            "FROM Ticket t JOIN t.cliente c " +
+            "WHERE t.estado = com.tesig.model.EstadoTicket.LISTO_ENTREGA AND t.deletedAt IS NULL " +
+            "AND t.fechaListoEntrega <= :limite " +
+            "AND c.email IS NOT NULL AND c.email <> '' " +
+            "AND NOT EXISTS (SELECT 1 FROM RecordatorioRecogida r " +
+            "WHERE r.ticketId = t.id AND r.umbralDias >= :umbralDias) ";
+
     // ==================== BÚSQUEDAS BÁSICAS ====================
 
     /**
@@ -46,36 +79,79 @@ public interface TicketRepository extends JpaRepository<Ticket, Long> {
      */
     boolean existsByNumeroTicket(String numeroTicket);
 
+    /**
+     * Obtiene el mayor número de ticket con el prefijo dado (ej: 'TES-MAT-20251118-%').
+     * Usado para inicializar el contador de secuencia de un día con tickets previos.
+     * El orden es numérico sobre la secuencia: con el mismo prefijo, un número más
+     * largo es mayor (MAX de texto ubicaría '-9999' después de '-10000').
+     */
+    @Query("SELECT t.numeroTicket FROM Ticket t WHERE t.numeroTicket LIKE :patron " +
+           "ORDER BY LENGTH(t.numeroTicket) DESC, t.numeroTicket DESC LIMIT 1")
+    Optional<String> findMaxNumeroTicketLike(@Param("patron") String patron);
+
     // ==================== BÚSQUEDAS CON PAGINACIÓN ====================
 
+    // Las búsquedas paginadas cargan cliente, técnico y usuario de ingreso en la misma
+    // consulta (LEFT JOIN) para que TicketMapper.toDTO no dispare una consulta por fila.
+    // Cada página ejecuta exactamente dos sentencias: datos y conteo.
+
     /**
      * Obtiene todos los tickets no eliminados con paginación.
      */
+    @EntityGraph(attributePaths = {"cliente", "tecnicoAsignado", "usuarioIngreso"})
     Page<Ticket> findByDeletedAtIsNull(Pageable pageable);
 
     /**
      * Busca tickets por cliente con paginación.
      */
+    @EntityGraph(attributePaths = {"cliente", "tecnicoAsignado", "usuarioIngreso"})
     Page<Ticket> findByClienteIdAndDeletedAtIsNull(Long clienteId, Pageable pageable);
 
     /**
      * Busca tickets por técnico asignado con paginación.
      */
+    @EntityGraph(attributePaths = {"cliente", "tecnicoAsignado", "usuarioIngreso"})
     Page<Ticket> findByTecnicoAsignadoIdAndDeletedAtIsNull(Long tecnicoId, Pageable pageable);
 
     /**
      * Busca tickets por estado con paginación.
      */
+    @EntityGraph(attributePaths = {"cliente", "tecnicoAsignado", "usuarioIngreso"})
     Page<Ticket> findByEstadoAndDeletedAtIsNull(EstadoTicket estado, Pageable pageable);
 
     /**
      * Busca tickets activos (no entregados ni cancelados) con paginación.
      */
-    @Query("SELECT t FROM Ticket t WHERE t.deletedAt IS NULL AND " +
+    @EntityGraph(attributePaths = {"cliente", "tecnicoAsignado", "usuarioIngreso"})
+    @Query(value = "SELECT t FROM Ticket t WHERE t.deletedAt IS NULL AND " +
            "t.estado NOT IN (com.tesig.model.EstadoTicket.ENTREGADO, com.tesig.model.EstadoTicket.CANCELADO) " +
-           "ORDER BY t.createdAt DESC")
+           "ORDER BY t.createdAt DESC",
+           countQuery = "SELECT COUNT(t) FROM Ticket t WHERE t.deletedAt IS NULL AND " +
+           "t.estado NOT IN (com.tesig.model.EstadoTicket.ENTREGADO, com.tesig.model.EstadoTicket.CANCELADO)")
     Page<Ticket> findActivosAndDeletedAtIsNull(Pageable pageable);
 
+    // ==================== PAGINACIÓN POR CURSOR ====================
+
+    /**
+     * Primera página por cursor: tickets no eliminados ordenados por (createdAt, id) descendente.
+     */
+    @EntityGraph(attributePaths = {"cliente", "tecnicoAsignado", "usuarioIngreso"})
+    @Query("SELECT t FROM Ticket t WHERE t.deletedAt IS NULL ORDER BY t.createdAt DESC, t.id DESC")
+    List<Ticket> findPrimerosPorCursor(Limit limite);
+
+    /**
+     * Página siguiente a la posición (createdAt, id) del cursor.
+     */
+    @EntityGraph(attributePaths = {"cliente", "tecnicoAsignado", "usuarioIngreso"})
+    @Query("SELECT t FROM Ticket t WHERE t.deletedAt IS NULL AND " +
+           "(t.createdAt < :createdAt OR (t.createdAt = :createdAt AND t.id < :id)) " +
+           "ORDER BY t.createdAt DESC, t.id DESC")
+    List<Ticket> findSiguientesPorCursor(
+        @Param("createdAt") LocalDateTime createdAt,
+        @Param("id") Long id,
+        Limit limite
+    );
+
     // ==================== BÚSQUEDAS SIN PAGINACIÓN ====================
 
     /**
@@ -116,38 +192,127 @@ public interface TicketRepository extends JpaRepository<Ticket, Long> {
     );
 
     /**
-     * Búsqueda general por múltiples campos.
-     * Busca en: número de ticket, tipo de equipo, marca, modelo, falla reportada.
+     * Búsqueda por trigramas (requiere la extensión pg_trgm y sus índices).
+     * Filtra con ILIKE sobre las expresiones indexadas (tickets y clientes por separado,
+     * unidas con UNION para que cada rama use su índice) y ordena por coincidencia exacta
+     * de número de ticket, luego por similitud de palabras.
+     *
+     * @param query Texto buscado
+     * @param patron Patrón ILIKE ('%texto%' con comodines escapados)
      */
-    @Query("SELECT t FROM Ticket t WHERE t.deletedAt IS NULL AND " +
-           "(LOWER(t.numeroTicket) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
-           "LOWER(t.tipoEquipo) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
-           "LOWER(t.marca) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
-           "LOWER(t.modelo) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
-           "LOWER(t.fallaReportada) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
-           "LOWER(t.cliente.nombre) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
-           "LOWER(t.cliente.apellido) LIKE LOWER(CONCAT('%', :query, '%'))) " +
-           "ORDER BY t.createdAt DESC")
-    List<Ticket> search(@Param("query") String query);
+    @Query(value = "SELECT t.id AS id, t.numero_ticket AS numeroTicket, t.tipo_equipo AS tipoEquipo, " +
+            "t.marca AS marca, t.modelo AS modelo, t.estado AS estado, " +
+            TEXTO_BUSQUEDA_CLIENTE + " AS cliente, t.created_at AS createdAt, " +
+            "GREATEST(word_similarity(:query, " + TEXTO_BUSQUEDA_TICKET + "), " +
+            "word_similarity(:query, " + TEXTO_BUSQUEDA_CLIENTE + ")) AS relevancia " +
+            "FROM tickets t JOIN clientes c ON c.id = t.cliente_id " +
+            "WHERE t.id IN (" +
+            "SELECT t.id FROM tickets t WHERE t.deleted_at IS NULL AND " + TEXTO_BUSQUEDA_TICKET + " ILIKE :patron " +
+            "UNION " +
+            "SELECT t.id FROM tickets t JOIN clientes c ON c.id = t.cliente_id " +
+            "WHERE t.deleted_at IS NULL AND " + TEXTO_BUSQUEDA_CLIENTE + " ILIKE :patron) " +
+            "ORDER BY (upper(t.numero_ticket) = upper(:query)) DESC, relevancia DESC, t.created_at DESC, t.id DESC",
+            nativeQuery = true)
+    Slice<TicketBusquedaProjection> buscarPorTrigramas(
+        @Param("query") String query,
+        @Param("patron") String patron,
+        Pageable pageable
+    );
 
-    // ==================== CONTADORES Y ESTADÍSTICAS ====================
+    /**
+     * Búsqueda por coincidencia parcial sin índices de texto.
+     * Se usa cuando la extensión pg_trgm no está disponible.
+     *
+     * @param patron Patrón LIKE en minúsculas ('%texto%' con comodines escapados)
+     */
+    @Query("SELECT t.id AS id, t.numeroTicket AS numeroTicket, t.tipoEquipo AS tipoEquipo, " +
+           "t.marca AS marca, t.modelo AS modelo, t.estado AS estado, " +
+           "CONCAT(c.nombre, ' ', c.apellido) AS cliente, t.createdAt AS createdAt, 0.0 AS relevancia " +
+           "FROM Ticket t JOIN t.cliente c WHERE t.deletedAt IS NULL AND " +
+           "(LOWER(t.numeroTicket) LIKE :patron ESCAPE '\\' OR " +
+           "LOWER(t.tipoEquipo) LIKE :patron ESCAPE '\\' OR " +
+           "LOWER(t.marca) LIKE :patron ESCAPE '\\' OR " +
+           "LOWER(t.modelo) LIKE :patron ESCAPE '\\' OR " +
+           "LOWER(t.fallaReportada) LIKE :patron ESCAPE '\\' OR " +
+           "LOWER(c.nombre) LIKE :patron ESCAPE '\\' OR " +
+           "LOWER(c.apellido) LIKE :patron ESCAPE '\\') " +
+           "ORDER BY t.createdAt DESC, t.id DESC")
+    Slice<TicketBusquedaProjection> buscarPorCoincidencia(@Param("patron") String patron, Pageable pageable);
+
+    // ==================== EXPORTACIÓN DE DOCUMENTOS ====================
 
     /**
-     * Cuenta todos los tickets no eliminados.
+     * IDs de los tickets que cumplen el filtro de exportación, en orden de ingreso.
+     * Los parámetros nulos no filtran.
      */
-    Long countByDeletedAtIsNull();
+    @Query("SELECT t.id FROM Ticket t LEFT JOIN t.tecnicoAsignado tec WHERE t.deletedAt IS NULL " +
+           "AND (:estado IS NULL OR t.estado = :estado) " +
+           "AND (:desde IS NULL OR t.createdAt >= :desde) " +
+           "AND (:hasta IS NULL OR t.createdAt < :hasta) " +
+           "AND (:tecnicoId IS NULL OR tec.id = :tecnicoId) " +
+           "ORDER BY t.createdAt ASC, t.id ASC")
+    List<Long> findIdsParaExportacion(@Param("estado") EstadoTicket estado,
+                                      @Param("desde") LocalDateTime desde,
+                                      @Param("hasta") LocalDateTime hasta,
+                                      @Param("tecnicoId") Long tecnicoId,
+                                      Limit limit);
+
+    // ==================== RECORDATORIOS DE RECOGIDA ====================
 
     /**
-     * Cuenta tickets activos (no entregados ni cancelados).
+     * Completa la fecha de listo para entrega de los tickets que llegaron a
+     * LISTO_ENTREGA antes de que existiera la columna (usa la última modificación).
+     *
+     * @return Cantidad de tickets actualizados
      */
-    @Query("SELECT COUNT(t) FROM Ticket t WHERE t.deletedAt IS NULL AND " +
-           "t.estado NOT IN (com.tesig.model.EstadoTicket.ENTREGADO, com.tesig.model.EstadoTicket.CANCELADO)")
-    Long countActivos();
+    @Modifying
+    @Query("UPDATE Ticket t SET t.fechaListoEntrega = t.updatedAt " +
+           "WHERE t.estado = com.tesig.model.EstadoTicket.LISTO_ENTREGA AND t.fechaListoEntrega IS NULL")
+    int completarFechaListoEntrega();
+
+    /**
+     * Primer bloque de tickets listos para entrega desde antes de limite que aún no
+     * recibieron el recordatorio del umbral (ni uno mayor), ordenados por
+     * (fechaListoEntrega, id). Recorre el índice idx_ticket_estado_listo_entrega.
+     */
+    @Query(SELECT_RECORDATORIO + "ORDER BY t.fechaListoEntrega ASC, t.id ASC")
+    List<TicketRecordatorioProjection> findParaRecordatorio(
+        @Param("limite") LocalDateTime limite,
+        @Param("umbralDias") int umbralDias,
+        Limit limit
+    );
+
+    /**
+     * Bloque siguiente a la posición (fechaListoEntrega, id) del cursor.
+     */
+    @Query(SELECT_RECORDATORIO +
+           "AND (t.fechaListoEntrega > :fecha OR (t.fechaListoEntrega = :fecha AND t.id > :id)) " +
+           "ORDER BY t.fechaListoEntrega ASC, t.id ASC")
+    List<TicketRecordatorioProjection> findParaRecordatorioSiguientes(
+        @Param("limite") LocalDateTime limite,
+        @Param("umbralDias") int umbralDias,
+        @Param("fecha") LocalDateTime fecha,
+        @Param("id") Long id,
+        Limit limit
+    );
+
+    // ==================== CONTADORES Y ESTADÍSTICAS ====================
 
     /**
-     * Cuenta tickets por estado.
+     * Cuenta los tickets no eliminados agrupados por estado, junto con los datos
+     * para el tiempo promedio de reparación, en un solo recorrido de la tabla.
+     * Retorna una lista de arrays donde [0] = EstadoTicket, [1] = cantidad de tickets,
+     * [2] = suma de días entre ingreso y entrega, [3] = cantidad de tickets con fecha de entrega
      */
-    Long countByEstadoAndDeletedAtIsNull(EstadoTicket estado);
+    @Query("SELECT t.estado, COUNT(t), " +
+           "SUM(CASE WHEN t.fechaEntrega IS NOT NULL AND t.createdAt IS NOT NULL " +
+           "THEN CAST((EXTRACT(EPOCH FROM t.fechaEntrega) - EXTRACT(EPOCH FROM t.createdAt)) / 86400 AS double) " +
+           "ELSE 0.0 END), " +
+           "SUM(CASE WHEN t.fechaEntrega IS NOT NULL AND t.createdAt IS NOT NULL THEN 1 ELSE 0 END) " +
+           "FROM Ticket t " +
+           "WHERE t.deletedAt IS NULL " +
+           "GROUP BY t.estado")
+    List<Object[]> contarPorEstado();
 
     /**
      * Cuenta tickets agrupados por técnico.
@@ -160,17 +325,65 @@ public interface TicketRepository extends JpaRepository<Ticket, Long> {
            "ORDER BY COUNT(t) DESC")
     List<Object[]> countTicketsPorTecnico();
 
+    // ==================== REPORTES ====================
+
     /**
-     * Calcula el tiempo promedio de reparación en días.
-     * Solo considera tickets entregados que tienen fecha de creación y entrega.
+     * Agrega los ingresos de los tickets entregados en el rango [desde, hasta).
+     * Retorna una sola fila calculada en la base de datos (SUM/COUNT).
      */
-    @Query("SELECT AVG(CAST((EXTRACT(EPOCH FROM t.fechaEntrega) - EXTRACT(EPOCH FROM t.createdAt)) / 86400 AS double)) " +
+    @Query("SELECT COALESCE(SUM(t.presupuestoManoObra), 0) AS manoObra, " +
+           "COALESCE(SUM(t.presupuestoPiezas), 0) AS piezas, " +
+           "COALESCE(SUM(t.descuentoMonto), 0) AS descuentos, " +
+           "COUNT(t) AS tickets " +
            "FROM Ticket t " +
            "WHERE t.deletedAt IS NULL " +
            "AND t.estado = com.tesig.model.EstadoTicket.ENTREGADO " +
-           "AND t.createdAt IS NOT NULL " +
-           "AND t.fechaEntrega IS NOT NULL")
-    Double calcularTiempoPromedioReparacion();
+           "AND t.fechaEntrega >= :desde AND t.fechaEntrega < :hasta")
+    ResumenIngresosProjection resumenIngresosEntregados(
+        @Param("desde") LocalDateTime desde,
+        @Param("hasta") LocalDateTime hasta
+    );
+
+    /**
+     * Agrega los ingresos de tickets entregados por período (date_trunc sobre fecha_entrega).
+     * Retorna una lista de arrays donde [0] = inicio del período, [1] = total final, [2] = cantidad de tickets
+     */
+    @Query(value = "SELECT date_trunc(:unidad, t.fecha_entrega) AS periodo, " +
+           "COALESCE(SUM(CASE WHEN t.total_con_descuento > 0 THEN t.total_con_descuento " +
+           "ELSE COALESCE(t.presupuesto_total, 0) END), 0) AS total, " +
+           "COUNT(*) AS tickets " +
+           "FROM tickets t " +
+           "WHERE t.deleted_at IS NULL " +
+           "AND t.estado = 'ENTREGADO' " +
+           "AND t.fecha_entrega >= :desde AND t.fecha_entrega < :hasta " +
+           "GROUP BY 1 ORDER BY 1", nativeQuery = true)
+    List<Object[]> sumIngresosEntregadosPorPeriodo(
+        @Param("unidad") String unidad,
+        @Param("desde") LocalDateTime desde,
+        @Param("hasta") LocalDateTime hasta
+    );
+
+    /**
+     * Agrega los importes de tickets entregados por día (usado para reconstruir el resumen diario).
+     * Retorna una lista de arrays donde [0] = día, [1] = mano de obra, [2] = piezas,
+     * [3] = descuentos, [4] = total final, [5] = cantidad de tickets
+     */
+    @Query(value = "SELECT CAST(t.fecha_entrega AS date) AS dia, " +
+           "COALESCE(SUM(t.presupuesto_mano_obra), 0), " +
+           "COALESCE(SUM(t.presupuesto_piezas), 0), " +
+           "COALESCE(SUM(t.descuento_monto), 0), " +
+           "COALESCE(SUM(CASE WHEN t.total_con_descuento > 0 THEN t.total_con_descuento " +
+           "ELSE COALESCE(t.presupuesto_total, 0) END), 0), " +
+           "COUNT(*) " +
+           "FROM tickets t " +
+           "WHERE t.deleted_at IS NULL " +
+           "AND t.estado = 'ENTREGADO' " +
+           "AND t.fecha_entrega >= :desde AND t.fecha_entrega < :hasta " +
+           "GROUP BY 1 ORDER BY 1", nativeQuery = true)
+    List<Object[]> sumIngresosEntregadosPorDia(
+        @Param("desde") LocalDateTime desde,
+        @Param("hasta") LocalDateTime hasta
+    );
 
     // ==================== VALIDACIONES DE NEGOCIO ====================
 
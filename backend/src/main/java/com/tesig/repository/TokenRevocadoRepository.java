@@ -0,0 +1,54 @@
+package com.tesig.repository;
+
+import com.tesig.model.TokenRevocado;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repositorio de access tokens revocados.
+ *
+ * @author TESIG System
+ */
+@Repository
+public interface TokenRevocadoRepository extends JpaRepository<TokenRevocado, Long> {
+
+    /**
+     * Registra la revocación del token si aún no existe.
+     *
+     * @return 1 si se registró, 0 si ya estaba revocado
+     */
+    @Modifying
+    @Query(value = "INSERT INTO tokens_revocados (jti, fecha_expiracion, created_at) " +
+           "VALUES (:jti, :fechaExpiracion, :ahora) " +
+           "ON CONFLICT (jti) DO NOTHING", nativeQuery = true)
+    int registrar(
+        @Param("jti") String jti,
+        @Param("fechaExpiracion") LocalDateTime fechaExpiracion,
+        @Param("ahora") LocalDateTime ahora
+    );
+
+    boolean existsByJti(String jti);
+
+    /**
+     * Identificadores de los tokens revocados que aún no expiraron.
+     */
+    @Query("SELECT t.jti FROM TokenRevocado t WHERE t.fechaExpiracion > :ahora")
+    List<String> findJtiVigentes(@Param("ahora") LocalDateTime ahora);
+
+    /**
+     * Elimina un lote de revocaciones de tokens ya expirados.
+     *
+     * @return Filas eliminadas (menos que el lote indica que no quedan más)
+     */
+    @Modifying
+    @Query(value = "DELETE FROM tokens_revocados WHERE id IN (" +
+           "SELECT id FROM tokens_revocados WHERE fecha_expiracion < :limite ORDER BY id LIMIT :lote)",
+           nativeQuery = true)
+    int purgarExpirados(@Param("limite") LocalDateTime limite, @Param("lote") int lote);
+}
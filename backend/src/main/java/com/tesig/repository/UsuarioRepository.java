@@ -2,6 +2,7 @@ package com.tesig.repository;
 
 import com.tesig.model.Rol;
 import com.tesig.model.Usuario;
+import com.tesig.repository.projection.UsuarioAccesoProjection;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
@@ -21,4 +22,18 @@ public interface UsuarioRepository extends JpaRepository<Usuario, Long> {
     List<Usuario> findByRolAndActivo(Rol rol);
 
     boolean existsByEmail(String email);
+
+    /**
+     * Estado de acceso de todos los usuarios (incluidos inactivos y eliminados).
+     */
+    @Query("SELECT u.id AS id, u.email AS email, u.rol AS rol, u.activo AS activo, u.deletedAt AS deletedAt " +
+           "FROM Usuario u")
+    List<UsuarioAccesoProjection> findAllAccesos();
+
+    /**
+     * Estado de acceso de un usuario.
+     */
+    @Query("SELECT u.id AS id, u.email AS email, u.rol AS rol, u.activo AS activo, u.deletedAt AS deletedAt " +
+           "FROM Usuario u WHERE u.id = :id")
+    Optional<UsuarioAccesoProjection> findAccesoById(Long id);
 }
@@ -0,0 +1,16 @@
+package com.tesig.repository.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * Proyección con la identidad y la fecha de actualización de la configuración
+ * activa, para detectar cambios sin cargar la entidad.
+ *
+ * @author TESIG System
+ */
+public interface ConfiguracionVersionProjection {
+
+    Long getId();
+
+    LocalDateTime getUpdatedAt();
+}
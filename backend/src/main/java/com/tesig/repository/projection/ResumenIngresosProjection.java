@@ -0,0 +1,32 @@
+package com.tesig.repository.projection;
+
+import java.math.BigDecimal;
+
+/**
+ * Proyección con los agregados de ingresos de tickets entregados en un período.
+ * Se calcula completamente en la base de datos (SUM/COUNT), sin cargar entidades.
+ *
+ * @author TESIG System
+ */
+public interface ResumenIngresosProjection {
+
+    /**
+     * Suma del presupuesto de mano de obra
+     */
+    BigDecimal getManoObra();
+
+    /**
+     * Suma del presupuesto de piezas
+     */
+    BigDecimal getPiezas();
+
+    /**
+     * Suma de los descuentos aplicados
+     */
+    BigDecimal getDescuentos();
+
+    /**
+     * Cantidad de tickets entregados
+     */
+    Long getTickets();
+}
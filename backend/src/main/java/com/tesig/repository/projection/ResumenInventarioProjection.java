@@ -0,0 +1,26 @@
+package com.tesig.repository.projection;
+
+import java.math.BigDecimal;
+
+/**
+ * Proyección con los indicadores de inventario calculados en la base de datos.
+ *
+ * @author TESIG System
+ */
+public interface ResumenInventarioProjection {
+
+    /**
+     * Valor del inventario a precio de costo (SUM(precioCosto * stock))
+     */
+    BigDecimal getValorInventario();
+
+    /**
+     * Cantidad de piezas sin stock
+     */
+    Long getPiezasSinStock();
+
+    /**
+     * Cantidad de piezas con stock bajo (0 < stock <= stockMinimo)
+     */
+    Long getPiezasStockBajo();
+}
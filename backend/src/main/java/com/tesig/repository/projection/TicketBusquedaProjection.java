@@ -0,0 +1,38 @@
+package com.tesig.repository.projection;
+
+import com.tesig.model.EstadoTicket;
+
+import java.time.LocalDateTime;
+
+/**
+ * Proyección de un resultado de búsqueda de tickets.
+ * Solo las columnas que muestra la lista de resultados, sin cargar la entidad.
+ *
+ * @author TESIG System
+ */
+public interface TicketBusquedaProjection {
+
+    Long getId();
+
+    String getNumeroTicket();
+
+    String getTipoEquipo();
+
+    String getMarca();
+
+    String getModelo();
+
+    EstadoTicket getEstado();
+
+    /**
+     * Nombre y apellido del cliente
+     */
+    String getCliente();
+
+    LocalDateTime getCreatedAt();
+
+    /**
+     * Relevancia del resultado (0 a 1, similitud por trigramas)
+     */
+    Double getRelevancia();
+}
@@ -0,0 +1,27 @@
+package com.tesig.repository.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * Proyección de un ticket que espera ser recogido, con los datos que usa el
+ * recordatorio de recogida, sin cargar la entidad ni el cliente.
+ *
+ * @author TESIG System
+ */
+public interface TicketRecordatorioProjection {
+
+    Long getId();
+
+    String getNumeroTicket();
+
+    String getTipoEquipo();
+
+    /**
+     * Nombre y apellido del cliente
+     */
+    String getNombreCliente();
+
+    String getEmailCliente();
+
+    LocalDateTime getFechaListoEntrega();
+}
@@ -0,0 +1,24 @@
+package com.tesig.repository.projection;
+
+import com.tesig.model.Rol;
+
+import java.time.LocalDateTime;
+
+/**
+ * Proyección con los datos de un usuario que determinan si sus tokens
+ * siguen siendo válidos, sin cargar la entidad.
+ *
+ * @author TESIG System
+ */
+public interface UsuarioAccesoProjection {
+
+    Long getId();
+
+    String getEmail();
+
+    Rol getRol();
+
+    Boolean getActivo();
+
+    LocalDateTime getDeletedAt();
+}
@@ -0,0 +1,38 @@
+package com.tesig.security;
+
+import io.jsonwebtoken.Claims;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.Optional;
+
+/**
+ * Claims del access token verificado en el request actual.
+ *
+ * El filtro JWT verifica el token una sola vez y guarda sus claims como
+ * atributo del request; quien los necesite durante el request los lee de
+ * aquí en lugar de volver a parsear el token.
+ */
+public final class ClaimsSolicitud {
+
+    private static final String ATRIBUTO = ClaimsSolicitud.class.getName();
+
+    private ClaimsSolicitud() {
+    }
+
+    static void guardar(HttpServletRequest request, Claims claims) {
+        request.setAttribute(ATRIBUTO, claims);
+    }
+
+    /**
+     * @return Claims del token del request actual, vacío si no hay request o no se autenticó con JWT
+     */
+    public static Optional<Claims> obtener() {
+        RequestAttributes atributos = RequestContextHolder.getRequestAttributes();
+        if (atributos == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable((Claims) atributos.getAttribute(ATRIBUTO, RequestAttributes.SCOPE_REQUEST));
+    }
+}
@@ -2,6 +2,7 @@ package com.tesig.security;
 
 import com.tesig.model.Rol;
 import com.tesig.model.Usuario;
+import io.jsonwebtoken.Claims;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -46,6 +47,31 @@ public class CustomUserDetails implements UserDetails {
                 .build();
     }
 
+    /**
+     * Constructor desde los claims de un access token verificado, sin leer la BD.
+     * No incluye la contraseña.
+     *
+     * @return null si el token no trae los claims necesarios (ej: emitido por una versión anterior)
+     */
+    public static CustomUserDetails fromClaims(Claims claims) {
+        Long id = claims.get("userId", Long.class);
+        String rol = claims.get("rol", String.class);
+        String nombre = claims.get("given_name", String.class);
+        String apellido = claims.get("family_name", String.class);
+        if (id == null || rol == null || nombre == null || apellido == null || claims.getSubject() == null) {
+            return null;
+        }
+
+        return CustomUserDetails.builder()
+                .id(id)
+                .email(claims.getSubject())
+                .nombre(nombre)
+                .apellido(apellido)
+                .rol(Rol.valueOf(rol))
+                .activo(true)
+                .build();
+    }
+
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
         // Spring Security usa el prefijo ROLE_ por convención
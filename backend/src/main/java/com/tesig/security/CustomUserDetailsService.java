@@ -1,5 +1,6 @@
 package com.tesig.security;
 
+import com.tesig.cache.UsuarioDetallesCache;
 import com.tesig.model.Usuario;
 import com.tesig.repository.UsuarioRepository;
 import lombok.RequiredArgsConstructor;
@@ -8,11 +9,13 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 /**
  * Servicio para cargar usuarios desde la base de datos.
  * Implementa UserDetailsService de Spring Security.
+ *
+ * Los usuarios activos quedan en {@link UsuarioDetallesCache}: un acierto no
+ * consulta la BD ni abre una transacción.
  */
 @Service
 @RequiredArgsConstructor
@@ -20,10 +23,14 @@ import org.springframework.transaction.annotation.Transactional;
 public class CustomUserDetailsService implements UserDetailsService {
 
     private final UsuarioRepository usuarioRepository;
+    private final UsuarioDetallesCache usuarioDetallesCache;
 
     @Override
-    @Transactional(readOnly = true)
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
+        return usuarioDetallesCache.obtener(email, () -> cargarUsuario(email));
+    }
+
+    private CustomUserDetails cargarUsuario(String email) {
         log.debug("Cargando usuario por email: {}", email);
 
         Usuario usuario = usuarioRepository.findByEmail(email)
@@ -0,0 +1,117 @@
+package com.tesig.security;
+
+import com.tesig.event.UsuarioModificadoEvent;
+import com.tesig.model.Rol;
+import com.tesig.repository.UsuarioRepository;
+import com.tesig.repository.projection.UsuarioAccesoProjection;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Estado de acceso de los usuarios en memoria, para validar tokens sin leer la BD.
+ *
+ * Guarda por usuario el email, el rol y si está habilitado (activo y no
+ * eliminado). Un token deja de aceptarse cuando el usuario se desactiva o
+ * elimina, o cuando su rol o email ya no coinciden con los del token. Se
+ * actualiza al confirmarse cada cambio de un Usuario (ver
+ * {@link UsuarioModificadoEvent}) y se recarga completo periódicamente, lo
+ * que acota el retraso con que se ven los cambios hechos por otra instancia.
+ * Recarga y cambios se aplican de a uno, para que una recarga leída antes de
+ * un cambio no pise el estado que ese cambio dejó. Un usuario que no existe
+ * se recuerda como no habilitado hasta la próxima recarga o cambio, para no
+ * consultar la BD en cada request con su token.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class EstadoAccesoUsuarios {
+
+    private static final Acceso INEXISTENTE = new Acceso(null, null, false);
+
+    private final UsuarioRepository usuarioRepository;
+
+    private final Map<Long, Acceso> accesos = new ConcurrentHashMap<>();
+    private volatile boolean cargado;
+
+    /**
+     * Verifica que el usuario del token siga habilitado con el mismo email y rol.
+     *
+     * @param usuarioId ID del usuario (claim userId)
+     * @param email Email del usuario (subject)
+     * @param rol Rol del usuario (claim rol)
+     * @return true si el token sigue vigente para el usuario
+     */
+    public boolean permiteAcceso(Long usuarioId, String email, Rol rol) {
+        if (!cargado) {
+            synchronized (this) {
+                if (!cargado) {
+                    recargar();
+                }
+            }
+        }
+        Acceso acceso = accesos.get(usuarioId);
+        if (acceso == null) {
+            // Usuario creado después de la última recarga (ej: en otra instancia)
+            acceso = usuarioRepository.findAccesoById(usuarioId)
+                    .map(EstadoAccesoUsuarios::toAcceso)
+                    .orElse(INEXISTENTE);
+            // La recarga descarta la entrada negativa; un cambio confirmado la reemplaza
+            Acceso previo = accesos.putIfAbsent(usuarioId, acceso);
+            if (previo != null) {
+                acceso = previo;
+            }
+        }
+        return acceso.habilitado() && acceso.rol() == rol && acceso.email().equalsIgnoreCase(email);
+    }
+
+    /**
+     * Actualiza el estado del usuario una vez confirmada la transacción que lo modificó.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public synchronized void onUsuarioModificado(UsuarioModificadoEvent event) {
+        if (event.usuarioId() == null) {
+            return;
+        }
+        accesos.put(event.usuarioId(), new Acceso(event.email(), event.rol(), event.habilitado()));
+        log.debug("Estado de acceso actualizado para usuario {}: rol {}, habilitado {}",
+                event.usuarioId(), event.rol(), event.habilitado());
+    }
+
+    /**
+     * Recarga el estado de todos los usuarios (la tabla tiene pocas filas).
+     */
+    @Scheduled(fixedDelayString = "${tesig.security.estado-usuarios.recarga-ms:60000}",
+            initialDelayString = "${tesig.security.estado-usuarios.recarga-ms:60000}")
+    public synchronized void recargar() {
+        List<UsuarioAccesoProjection> usuarios = usuarioRepository.findAllAccesos();
+        Set<Long> ids = new HashSet<>();
+        for (UsuarioAccesoProjection usuario : usuarios) {
+            accesos.put(usuario.getId(), toAcceso(usuario));
+            ids.add(usuario.getId());
+        }
+        accesos.keySet().retainAll(ids);
+        cargado = true;
+        log.debug("Estado de acceso recargado: {} usuarios", ids.size());
+    }
+
+    private static Acceso toAcceso(UsuarioAccesoProjection usuario) {
+        return new Acceso(
+                usuario.getEmail(),
+                usuario.getRol(),
+                Boolean.TRUE.equals(usuario.getActivo()) && usuario.getDeletedAt() == null
+        );
+    }
+
+    private record Acceso(String email, Rol rol, boolean habilitado) {
+    }
+}
@@ -67,6 +67,15 @@ public interface IJwtService {
      */
     <T> T extractClaim(String token, Function<Claims, T> claimsResolver);
 
+    /**
+     * Parsea el token y verifica su firma y expiración.
+     *
+     * @param token JWT
+     * @return Claims del token verificado
+     * @throws io.jsonwebtoken.JwtException si el token es inválido o expiró
+     */
+    Claims verifyToken(String token);
+
     /**
      * Valida si el token es válido para el usuario.
      *
@@ -76,6 +85,15 @@ public interface IJwtService {
      */
     boolean isTokenValid(String token, UserDetails userDetails);
 
+    /**
+     * Valida los claims de un token ya verificado contra el usuario, sin volver a parsearlo.
+     *
+     * @param claims Claims obtenidos con {@link #verifyToken(String)}
+     * @param userDetails Detalles del usuario
+     * @return true si es válido, false en caso contrario
+     */
+    boolean isTokenValid(Claims claims, UserDetails userDetails);
+
     /**
      * Verifica si el token ha expirado.
      *
@@ -0,0 +1,49 @@
+package com.tesig.security;
+
+import com.tesig.model.RefreshToken;
+import io.jsonwebtoken.Claims;
+
+/**
+ * Servicio de revocación de tokens JWT.
+ *
+ * Responsabilidades:
+ * - Verificar en O(1) si un token fue revocado antes de su expiración
+ * - Revocar access tokens (logout)
+ * - Purgar los refresh tokens y revocaciones ya expirados
+ */
+public interface IRevocacionTokenService {
+
+    /**
+     * Verifica si el token fue revocado.
+     *
+     * @param claims Claims del token verificado
+     * @return true si el token fue revocado
+     */
+    boolean estaRevocado(Claims claims);
+
+    /**
+     * Revoca un access token hasta su expiración.
+     *
+     * @param claims Claims del token verificado
+     */
+    void revocarAccessToken(Claims claims);
+
+    /**
+     * Registra en memoria un refresh token recién invalidado (su estado queda en la BD).
+     *
+     * @param refreshToken Refresh token invalidado
+     */
+    void registrarRefreshTokenRevocado(RefreshToken refreshToken);
+
+    /**
+     * Reconstruye el filtro de revocados desde la BD, descartando los expirados.
+     */
+    void reconstruirFiltro();
+
+    /**
+     * Elimina en lotes los refresh tokens y las revocaciones expirados.
+     *
+     * @return Cantidad de filas eliminadas
+     */
+    int purgarExpirados();
+}
@@ -1,11 +1,12 @@
 package com.tesig.security;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -19,15 +20,38 @@ import java.io.IOException;
 
 /**
  * Filtro JWT que intercepta cada request para validar el token.
- * Se ejecuta una vez por cada request.
+ * Se ejecuta una vez por cada request y parsea el token una sola vez;
+ * los claims verificados quedan disponibles en {@link ClaimsSolicitud}.
+ *
+ * En modo stateless el usuario autenticado se arma con los claims del token
+ * y solo se verifica en memoria que siga habilitado con el mismo rol (ver
+ * {@link EstadoAccesoUsuarios}), sin consultar la BD en cada request. Los
+ * tokens sin los claims necesarios y el modo no stateless cargan el usuario
+ * con el UserDetailsService. Los tokens revocados (ej: tras un logout) se
+ * descartan con {@link IRevocacionTokenService}.
  */
 @Component
-@RequiredArgsConstructor
 @Slf4j
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final IJwtService jwtService;
     private final UserDetailsService userDetailsService;
+    private final EstadoAccesoUsuarios estadoAccesoUsuarios;
+    private final IRevocacionTokenService revocacionTokenService;
+    private final boolean autenticacionStateless;
+
+    public JwtAuthenticationFilter(
+            IJwtService jwtService,
+            UserDetailsService userDetailsService,
+            EstadoAccesoUsuarios estadoAccesoUsuarios,
+            IRevocacionTokenService revocacionTokenService,
+            @Value("${tesig.security.autenticacion-stateless:true}") boolean autenticacionStateless) {
+        this.jwtService = jwtService;
+        this.userDetailsService = userDetailsService;
+        this.estadoAccesoUsuarios = estadoAccesoUsuarios;
+        this.revocacionTokenService = revocacionTokenService;
+        this.autenticacionStateless = autenticacionStateless;
+    }
 
     @Override
     protected void doFilterInternal(
@@ -48,15 +72,16 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         try {
             // Extraer el token (quitar "Bearer ")
             final String jwt = authHeader.substring(7);
-            final String userEmail = jwtService.extractEmail(jwt);
+            final Claims claims = jwtService.verifyToken(jwt);
+            final String userEmail = claims.getSubject();
 
-            // Si el email existe y el usuario no está ya autenticado
-            if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                // Cargar usuario de la BD
-                UserDetails userDetails = userDetailsService.loadUserByUsername(userEmail);
+            // Si el email existe, el token no fue revocado y el usuario no está ya autenticado
+            if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null
+                    && !estaRevocado(claims, userEmail)) {
+                UserDetails userDetails = cargarUsuario(claims, userEmail);
 
                 // Validar el token
-                if (jwtService.isTokenValid(jwt, userDetails)) {
+                if (userDetails != null && jwtService.isTokenValid(claims, userDetails)) {
                     // Crear authentication token
                     UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                             userDetails,
@@ -71,11 +96,12 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
                     // Establecer en el contexto de seguridad
                     SecurityContextHolder.getContext().setAuthentication(authToken);
+                    ClaimsSolicitud.guardar(request, claims);
 
                     log.debug("Usuario autenticado: {} - Rol: {}",
                             userEmail,
                             userDetails.getAuthorities());
-                } else {
+                } else if (userDetails != null) {
                     log.warn("Token inválido para usuario: {}", userEmail);
                 }
             }
@@ -88,4 +114,33 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         // Continuar con la cadena de filtros
         filterChain.doFilter(request, response);
     }
+
+    /**
+     * Usuario autenticado del token: desde los claims en modo stateless o desde la BD.
+     *
+     * @return null si el usuario fue desactivado o cambió de rol después de emitirse el token
+     */
+    private UserDetails cargarUsuario(Claims claims, String userEmail) {
+        if (autenticacionStateless) {
+            CustomUserDetails userDetails = CustomUserDetails.fromClaims(claims);
+            if (userDetails != null) {
+                if (!estadoAccesoUsuarios.permiteAcceso(userDetails.getId(), userEmail, userDetails.getRol())) {
+                    log.warn("Usuario deshabilitado o con otro rol desde la emisión del token: {}", userEmail);
+                    return null;
+                }
+                return userDetails;
+            }
+        }
+
+        // Cargar usuario de la BD
+        return userDetailsService.loadUserByUsername(userEmail);
+    }
+
+    private boolean estaRevocado(Claims claims, String userEmail) {
+        if (revocacionTokenService.estaRevocado(claims)) {
+            log.warn("Token revocado para usuario: {}", userEmail);
+            return true;
+        }
+        return false;
+    }
 }
@@ -1,25 +1,32 @@
 package com.tesig.security;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
-import java.security.Key;
+import javax.crypto.SecretKey;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
  * Implementación del servicio JWT usando jjwt library.
+ *
+ * La clave HMAC se decodifica una sola vez al iniciar y el parser, que es
+ * inmutable y thread-safe, se reutiliza en todas las verificaciones.
  */
 @Service
 @Slf4j
@@ -34,6 +41,17 @@ public class JwtServiceImpl implements IJwtService {
     @Value("${jwt.refresh-expiration}")
     private Long refreshTokenExpiration; // En milisegundos
 
+    private SecretKey signInKey;
+    private JwtParser parser;
+
+    @PostConstruct
+    void inicializar() {
+        signInKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secretKey));
+        parser = Jwts.parser()
+                .verifyWith(signInKey)
+                .build();
+    }
+
     @Override
     public String generateAccessToken(UserDetails userDetails) {
         Map<String, Object> extraClaims = buildExtraClaims(userDetails);
@@ -64,29 +82,41 @@ public class JwtServiceImpl implements IJwtService {
 
     @Override
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
+        final Claims claims = verifyToken(token);
         return claimsResolver.apply(claims);
     }
 
+    @Override
+    public Claims verifyToken(String token) {
+        // Verifica firma y expiración en un solo parseo
+        return parser.parseSignedClaims(token).getPayload();
+    }
+
     @Override
     public boolean isTokenValid(String token, UserDetails userDetails) {
         try {
-            final String email = extractEmail(token);
-            boolean emailMatches = email.equals(userDetails.getUsername());
-            boolean notExpired = !isTokenExpired(token);
-
-            return emailMatches && notExpired;
+            return isTokenValid(verifyToken(token), userDetails);
         } catch (Exception e) {
             log.error("Error validando token: {}", e.getMessage());
             return false;
         }
     }
 
+    @Override
+    public boolean isTokenValid(Claims claims, UserDetails userDetails) {
+        String email = claims.getSubject();
+        boolean emailMatches = email != null && email.equals(userDetails.getUsername());
+        boolean notExpired = !claims.getExpiration().before(new Date());
+
+        return emailMatches && notExpired;
+    }
+
     @Override
     public boolean isTokenExpired(String token) {
         try {
-            return extractExpiration(token).before(new Date());
-        } catch (Exception e) {
+            return verifyToken(token).getExpiration().before(new Date());
+        } catch (JwtException e) {
+            // El parser rechaza los tokens expirados
             log.error("Error verificando expiración del token: {}", e.getMessage());
             return true;
         }
@@ -108,7 +138,8 @@ public class JwtServiceImpl implements IJwtService {
                 .setSubject(userDetails.getUsername()) // Email
                 .setIssuedAt(now)
                 .setExpiration(expiryDate)
-                .signWith(getSignInKey(), SignatureAlgorithm.HS256)
+                .setId(UUID.randomUUID().toString()) // jti, para revocar el token
+                .signWith(signInKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
@@ -126,25 +157,11 @@ public class JwtServiceImpl implements IJwtService {
             claims.put("userId", customUser.getId());
             claims.put("nombre", customUser.getNombreCompleto());
             claims.put("rol", customUser.getRol());
+            // Permiten armar el usuario autenticado solo con los claims
+            claims.put("given_name", customUser.getNombre());
+            claims.put("family_name", customUser.getApellido());
         }
 
         return claims;
     }
-
-    private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSignInKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-    }
-
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
-    }
-
-    private Key getSignInKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secretKey);
-        return Keys.hmacShaKeyFor(keyBytes);
-    }
 }
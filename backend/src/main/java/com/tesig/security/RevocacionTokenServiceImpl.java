@@ -0,0 +1,240 @@
+package com.tesig.security;
+
+import com.tesig.event.TokenRevocadoEvent;
+import com.tesig.model.RefreshToken;
+import com.tesig.repository.RefreshTokenRepository;
+import com.tesig.repository.TokenRevocadoRepository;
+import com.tesig.util.FiltroBloom;
+import io.jsonwebtoken.Claims;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Implementación del servicio de revocación de tokens.
+ *
+ * Los jti de los tokens revocados y aún no expirados (access tokens en
+ * tokens_revocados y refresh tokens invalidados) se cargan en un filtro de
+ * Bloom en memoria. Un token que el filtro no contiene no fue revocado, sin
+ * consultar la BD; un positivo se confirma contra la BD, ya que puede ser un
+ * falso positivo. Las revocaciones hechas en esta instancia se registran al
+ * confirmarse su transacción (ver {@link TokenRevocadoEvent}), se conservan
+ * aparte hasta su expiración y se vuelven a agregar al reconstruir el filtro,
+ * que se reconstruye periódicamente para descartar los expirados y tomar las
+ * revocaciones hechas por otras instancias.
+ */
+@Service
+@Slf4j
+public class RevocacionTokenServiceImpl implements IRevocacionTokenService {
+
+    private final TokenRevocadoRepository tokenRevocadoRepository;
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transaccion;
+    private final TransactionTemplate transaccionLectura;
+    private final int elementosEsperados;
+    private final double tasaFalsosPositivos;
+    private final int tamanioLotePurga;
+
+    private final Map<String, LocalDateTime> revocadosLocales = new ConcurrentHashMap<>();
+    private final AtomicLong positivosConfirmados = new AtomicLong();
+    private final AtomicLong falsosPositivos = new AtomicLong();
+    private volatile FiltroBloom filtro;
+
+    public RevocacionTokenServiceImpl(
+            TokenRevocadoRepository tokenRevocadoRepository,
+            RefreshTokenRepository refreshTokenRepository,
+            ApplicationEventPublisher eventPublisher,
+            PlatformTransactionManager transactionManager,
+            @Value("${tesig.security.revocacion.elementos-esperados:10000}") int elementosEsperados,
+            @Value("${tesig.security.revocacion.tasa-falsos-positivos:0.01}") double tasaFalsosPositivos,
+            @Value("${tesig.security.revocacion.tamanio-lote-purga:1000}") int tamanioLotePurga) {
+        this.tokenRevocadoRepository = tokenRevocadoRepository;
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.eventPublisher = eventPublisher;
+        this.transaccion = new TransactionTemplate(transactionManager);
+        this.transaccionLectura = new TransactionTemplate(transactionManager);
+        this.transaccionLectura.setReadOnly(true);
+        this.elementosEsperados = Math.max(1, elementosEsperados);
+        this.tasaFalsosPositivos = tasaFalsosPositivos;
+        this.tamanioLotePurga = Math.max(1, tamanioLotePurga);
+    }
+
+    /**
+     * Adapta la tabla de refresh tokens de versiones anteriores: elimina la
+     * restricción única y el NOT NULL de token (el valor ya no se guarda),
+     * completa el hash de los tokens existentes y borra su texto plano.
+     * Se ejecuta al crear el bean, antes de que el servidor acepte requests,
+     * para que ningún login intente guardar un token sin valor en la columna
+     * todavía obligatoria.
+     */
+    @PostConstruct
+    public void migrarRefreshTokens() {
+        try {
+            transaccion.executeWithoutResult(status -> {
+                refreshTokenRepository.eliminarRestriccionUnicaToken();
+                refreshTokenRepository.permitirTokenNulo();
+            });
+            Integer completados = transaccion.execute(status -> refreshTokenRepository.completarTokenHash());
+            if (completados != null && completados > 0) {
+                log.info("Hash completado para {} refresh tokens", completados);
+            }
+            Integer eliminados = transaccion.execute(status -> refreshTokenRepository.eliminarTokensEnTextoPlano());
+            if (eliminados != null && eliminados > 0) {
+                log.info("Texto plano eliminado de {} refresh tokens", eliminados);
+            }
+        } catch (Exception e) {
+            log.error("No se pudo adaptar la tabla de refresh tokens al iniciar", e);
+        }
+    }
+
+    /**
+     * Al iniciar, construye el filtro.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void inicializar() {
+        try {
+            reconstruirFiltro();
+        } catch (Exception e) {
+            log.error("No se pudo construir el filtro de tokens revocados al iniciar", e);
+        }
+    }
+
+    @Override
+    public boolean estaRevocado(Claims claims) {
+        String jti = claims.getId();
+        if (jti == null) {
+            // Token emitido antes de que los tokens tuvieran jti
+            return false;
+        }
+        if (!obtenerFiltro().puedeContener(jti)) {
+            return false;
+        }
+        if (revocadosLocales.containsKey(jti)) {
+            return true;
+        }
+
+        boolean revocado = tokenRevocadoRepository.existsByJti(jti)
+                || refreshTokenRepository.existsByJtiAndActivoFalse(jti);
+        if (revocado) {
+            positivosConfirmados.incrementAndGet();
+            revocadosLocales.put(jti, aLocalDateTime(claims.getExpiration()));
+        } else {
+            falsosPositivos.incrementAndGet();
+        }
+        return revocado;
+    }
+
+    @Override
+    public void revocarAccessToken(Claims claims) {
+        String jti = claims.getId();
+        if (jti == null) {
+            return;
+        }
+        LocalDateTime expiracion = aLocalDateTime(claims.getExpiration());
+        transaccion.executeWithoutResult(status -> {
+            tokenRevocadoRepository.registrar(jti, expiracion, LocalDateTime.now());
+            eventPublisher.publishEvent(new TokenRevocadoEvent(jti, expiracion));
+        });
+    }
+
+    @Override
+    public void registrarRefreshTokenRevocado(RefreshToken refreshToken) {
+        if (refreshToken.getJti() != null) {
+            eventPublisher.publishEvent(new TokenRevocadoEvent(refreshToken.getJti(), refreshToken.getFechaExpiracion()));
+        }
+    }
+
+    /**
+     * Agrega el token al filtro una vez confirmada la transacción que lo revocó.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTokenRevocado(TokenRevocadoEvent event) {
+        // Primero en el mapa: una reconstrucción en curso lo vuelve a agregar al filtro nuevo
+        revocadosLocales.put(event.jti(), event.fechaExpiracion());
+        obtenerFiltro().agregar(event.jti());
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${tesig.security.revocacion.reconstruccion-ms:600000}",
+            initialDelayString = "${tesig.security.revocacion.reconstruccion-ms:600000}")
+    public synchronized void reconstruirFiltro() {
+        long inicio = System.nanoTime();
+        LocalDateTime ahora = LocalDateTime.now();
+        List<String> revocados = transaccionLectura.execute(status -> {
+            List<String> jtis = new ArrayList<>(tokenRevocadoRepository.findJtiVigentes(ahora));
+            jtis.addAll(refreshTokenRepository.findJtiRevocadosVigentes(ahora));
+            return jtis;
+        });
+        revocadosLocales.values().removeIf(expiracion -> expiracion.isBefore(ahora));
+
+        int cantidad = revocados.size() + revocadosLocales.size();
+        FiltroBloom nuevo = new FiltroBloom(Math.max(elementosEsperados, cantidad * 2), tasaFalsosPositivos);
+        revocados.forEach(nuevo::agregar);
+        filtro = nuevo;
+        // Revocaciones locales que pudieron no estar confirmadas al leer la BD
+        revocadosLocales.keySet().forEach(nuevo::agregar);
+
+        log.info("Filtro de tokens revocados reconstruido: {} tokens, {} KB, {} ms " +
+                        "(positivos confirmados: {}, falsos positivos: {})",
+                cantidad, nuevo.getCantidadBits() / 8 / 1024,
+                Duration.ofNanos(System.nanoTime() - inicio).toMillis(),
+                positivosConfirmados.get(), falsosPositivos.get());
+    }
+
+    @Override
+    @Scheduled(cron = "${tesig.security.revocacion.purga-cron:0 30 3 * * *}")
+    public int purgarExpirados() {
+        LocalDateTime limite = LocalDateTime.now();
+        int eliminados = 0;
+        int lote;
+        // Un lote por transacción para no retener bloqueos sobre muchas filas
+        do {
+            lote = transaccion.execute(status -> refreshTokenRepository.purgarExpirados(limite, tamanioLotePurga));
+            eliminados += lote;
+        } while (lote == tamanioLotePurga);
+        do {
+            lote = transaccion.execute(status -> tokenRevocadoRepository.purgarExpirados(limite, tamanioLotePurga));
+            eliminados += lote;
+        } while (lote == tamanioLotePurga);
+
+        log.info("Purga de tokens expirados: {} filas eliminadas", eliminados);
+        return eliminados;
+    }
+
+    private FiltroBloom obtenerFiltro() {
+        FiltroBloom actual = filtro;
+        if (actual == null) {
+            synchronized (this) {
+                if (filtro == null) {
+                    reconstruirFiltro();
+                }
+                actual = filtro;
+            }
+        }
+        return actual;
+    }
+
+    private static LocalDateTime aLocalDateTime(Date fecha) {
+        return LocalDateTime.ofInstant(fecha.toInstant(), ZoneId.systemDefault());
+    }
+}
@@ -0,0 +1,214 @@
+package com.tesig.security;
+
+import com.tesig.dto.LoginEstadisticasDTO;
+import com.tesig.exception.DemasiadosIntentosException;
+import com.tesig.util.LimitadorTasa;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.AuthenticationServiceException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Verificación de credenciales del login, protegida contra ráfagas de intentos.
+ *
+ * Cada intento pasa primero por dos limitadores de tasa (por IP y por cuenta),
+ * que rechazan los excesos sin tocar la BD ni calcular BCrypt. Los admitidos
+ * se verifican en un pool dedicado con cola acotada, de modo que la CPU que
+ * consume BCrypt queda limitada a sus hilos y una ráfaga no ocupa los hilos
+ * de Tomcat con trabajo de CPU: si la cola está llena, o la verificación no
+ * empieza dentro del tiempo máximo, el intento se rechaza como saturación.
+ * El permiso de la cuenta se devuelve cuando el login es exitoso o el intento
+ * no llegó a verificarse, de modo que solo los fallidos agotan su cubeta y un
+ * tercero no bloquea a un usuario con unas pocas requests válidas. La IP es la
+ * dirección remota de la conexión; detrás de un proxy, Tomcat la toma de
+ * X-Forwarded-For solo si el proxy está en la lista de confianza
+ * (server.tomcat.remoteip.internal-proxies).
+ */
+@Component
+@Slf4j
+public class VerificadorCredenciales {
+
+    private final AuthenticationManager authenticationManager;
+    private final LimitadorTasa limitePorIp;
+    private final LimitadorTasa limitePorCuenta;
+    private final int capacidadCola;
+    private final long tiempoMaximoMs;
+    private final ThreadPoolExecutor executor;
+
+    private final LongAdder verificaciones = new LongAdder();
+    private final LongAdder rechazadosPorIp = new LongAdder();
+    private final LongAdder rechazadosPorCuenta = new LongAdder();
+    private final LongAdder rechazadosPorCapacidad = new LongAdder();
+    private final LongAdder esperaTotalNanos = new LongAdder();
+    private final LongAccumulator esperaMaximaNanos = new LongAccumulator(Long::max, 0);
+    private final LongAdder verificacionTotalNanos = new LongAdder();
+    private final LongAccumulator verificacionMaximaNanos = new LongAccumulator(Long::max, 0);
+
+    public VerificadorCredenciales(
+            AuthenticationManager authenticationManager,
+            @Value("${tesig.security.login.hilos:2}") int hilos,
+            @Value("${tesig.security.login.capacidad-cola:20}") int capacidadCola,
+            @Value("${tesig.security.login.tiempo-maximo-ms:5000}") long tiempoMaximoMs,
+            @Value("${tesig.security.login.limite-ip.capacidad:20}") int capacidadIp,
+            @Value("${tesig.security.login.limite-ip.por-minuto:10}") int porMinutoIp,
+            @Value("${tesig.security.login.limite-cuenta.capacidad:5}") int capacidadCuenta,
+            @Value("${tesig.security.login.limite-cuenta.por-minuto:5}") int porMinutoCuenta,
+            @Value("${tesig.security.login.max-claves:100000}") long maxClaves) {
+        this.authenticationManager = authenticationManager;
+        this.limitePorIp = new LimitadorTasa(capacidadIp, porMinutoIp, maxClaves);
+        this.limitePorCuenta = new LimitadorTasa(capacidadCuenta, porMinutoCuenta, maxClaves);
+        this.capacidadCola = Math.max(1, capacidadCola);
+        this.tiempoMaximoMs = Math.max(1, tiempoMaximoMs);
+
+        AtomicInteger contador = new AtomicInteger();
+        int tamanioPool = Math.max(1, hilos);
+        this.executor = new ThreadPoolExecutor(tamanioPool, tamanioPool, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(this.capacidadCola),
+                tarea -> {
+                    Thread hilo = new Thread(tarea, "verificacion-login-" + contador.incrementAndGet());
+                    hilo.setDaemon(true);
+                    return hilo;
+                });
+    }
+
+    @PreDestroy
+    void detener() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Verifica email y contraseña con el AuthenticationManager en el pool de login.
+     *
+     * @param email Email ingresado
+     * @param password Contraseña ingresada
+     * @param ip IP del cliente
+     * @return Autenticación con el usuario verificado
+     * @throws DemasiadosIntentosException si se excede un límite o el pool está saturado
+     * @throws org.springframework.security.core.AuthenticationException si las credenciales no son válidas
+     */
+    public Authentication autenticar(String email, String password, String ip) {
+        long esperaIp = limitePorIp.intentarConsumir(ip != null ? ip : "");
+        if (esperaIp > 0) {
+            rechazadosPorIp.increment();
+            log.warn("Login rechazado por límite de intentos de la IP {}", ip);
+            throw new DemasiadosIntentosException(
+                    "Demasiados intentos de login. Intente nuevamente más tarde", aSegundos(esperaIp));
+        }
+        String cuenta = claveCuenta(email);
+        long esperaCuenta = limitePorCuenta.intentarConsumir(cuenta);
+        if (esperaCuenta > 0) {
+            rechazadosPorCuenta.increment();
+            log.warn("Login rechazado por límite de intentos de la cuenta {}", email);
+            throw new DemasiadosIntentosException(
+                    "Demasiados intentos de login. Intente nuevamente más tarde", aSegundos(esperaCuenta));
+        }
+
+        long encolado = System.nanoTime();
+        // Lo marca la tarea al empezar o quien la descarta antes: el primero decide si se verificó
+        AtomicBoolean tomada = new AtomicBoolean();
+        Future<Authentication> resultado;
+        try {
+            resultado = executor.submit(() -> tomada.compareAndSet(false, true)
+                    ? verificar(email, password, encolado)
+                    : null);
+        } catch (RejectedExecutionException e) {
+            limitePorCuenta.devolver(cuenta);
+            rechazadosPorCapacidad.increment();
+            log.warn("Login rechazado para {}: cola de verificación llena", email);
+            throw new DemasiadosIntentosException("Servicio de login saturado. Intente nuevamente", 1);
+        }
+
+        try {
+            Authentication autenticacion = resultado.get(tiempoMaximoMs, TimeUnit.MILLISECONDS);
+            limitePorCuenta.devolver(cuenta);
+            return autenticacion;
+        } catch (TimeoutException e) {
+            // Si no empezó, no llega a ejecutarse y se devuelve el permiso; si ya empezó, su resultado se descarta
+            descartar(resultado, tomada, cuenta);
+            rechazadosPorCapacidad.increment();
+            log.warn("Login rechazado para {}: verificación no completada en {} ms", email, tiempoMaximoMs);
+            throw new DemasiadosIntentosException("Servicio de login saturado. Intente nuevamente", 1);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw new AuthenticationServiceException("Error al verificar las credenciales", e.getCause());
+        } catch (InterruptedException e) {
+            descartar(resultado, tomada, cuenta);
+            Thread.currentThread().interrupt();
+            throw new AuthenticationServiceException("Verificación de credenciales interrumpida", e);
+        }
+    }
+
+    public LoginEstadisticasDTO getEstadisticas() {
+        long total = verificaciones.sum();
+        return LoginEstadisticasDTO.builder()
+                .hilos(executor.getCorePoolSize())
+                .enCola(executor.getQueue().size())
+                .capacidadCola(capacidadCola)
+                .verificaciones(total)
+                .rechazadosPorIp(rechazadosPorIp.sum())
+                .rechazadosPorCuenta(rechazadosPorCuenta.sum())
+                .rechazadosPorCapacidad(rechazadosPorCapacidad.sum())
+                .esperaPromedioMs(total > 0 ? aMilisegundos(esperaTotalNanos.sum()) / total : 0.0)
+                .esperaMaximaMs(aMilisegundos(esperaMaximaNanos.get()))
+                .verificacionPromedioMs(total > 0 ? aMilisegundos(verificacionTotalNanos.sum()) / total : 0.0)
+                .verificacionMaximaMs(aMilisegundos(verificacionMaximaNanos.get()))
+                .build();
+    }
+
+    private void descartar(Future<Authentication> resultado, AtomicBoolean tomada, String cuenta) {
+        boolean sinVerificar = tomada.compareAndSet(false, true);
+        resultado.cancel(true);
+        if (sinVerificar) {
+            limitePorCuenta.devolver(cuenta);
+        }
+    }
+
+    private Authentication verificar(String email, String password, long encolado) {
+        long inicio = System.nanoTime();
+        long espera = inicio - encolado;
+        esperaTotalNanos.add(espera);
+        esperaMaximaNanos.accumulate(espera);
+        try {
+            return authenticationManager.authenticate(new UsernamePasswordAuthenticationToken(email, password));
+        } finally {
+            long duracion = System.nanoTime() - inicio;
+            verificaciones.increment();
+            verificacionTotalNanos.add(duracion);
+            verificacionMaximaNanos.accumulate(duracion);
+        }
+    }
+
+    /**
+     * Clave del límite por cuenta: variantes de mayúsculas o espacios cuentan como la misma cuenta.
+     */
+    private static String claveCuenta(String email) {
+        return email != null ? email.trim().toLowerCase(Locale.ROOT) : "";
+    }
+
+    private static long aSegundos(long nanos) {
+        return TimeUnit.NANOSECONDS.toSeconds(nanos) + 1;
+    }
+
+    private static double aMilisegundos(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
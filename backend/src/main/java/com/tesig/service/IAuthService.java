@@ -1,5 +1,7 @@
 package com.tesig.service;
 
+import com.tesig.dto.LoginEstadisticasDTO;
+import com.tesig.dto.UsuarioCacheEstadisticasDTO;
 import com.tesig.dto.auth.LoginRequestDTO;
 import com.tesig.dto.auth.LoginResponseDTO;
 import com.tesig.dto.auth.RefreshTokenRequestDTO;
@@ -44,4 +46,18 @@ public interface IAuthService {
      * @return Información del usuario
      */
     UserInfoDTO getCurrentUser();
+
+    /**
+     * Obtiene las estadísticas del cache de usuarios autenticados.
+     *
+     * @return Aciertos, fallos, tasa de aciertos e invalidaciones
+     */
+    UsuarioCacheEstadisticasDTO getEstadisticasCacheUsuarios();
+
+    /**
+     * Obtiene las métricas de la verificación de credenciales del login.
+     *
+     * @return Rechazos por límite de intentos o saturación y tiempos de espera en cola y de verificación
+     */
+    LoginEstadisticasDTO getEstadisticasLogin();
 }
@@ -1,5 +1,6 @@
 package com.tesig.service;
 
+import com.tesig.dto.CursorPageDTO;
 import com.tesig.dto.compra.CompraResponseDTO;
 import com.tesig.dto.compra.CrearCompraDTO;
 import org.springframework.data.domain.Page;
@@ -25,6 +26,14 @@ public interface ICompraService {
      */
     Page<CompraResponseDTO> getAll(Pageable pageable);
 
+    /**
+     * Obtiene las compras paginadas por cursor (más recientes primero), sin conteo total
+     *
+     * @param after Cursor devuelto por la página anterior (null para la primera)
+     * @param size Tamaño de página (máximo {@value com.tesig.util.CursorPaginacion#TAMANIO_MAXIMO})
+     */
+    CursorPageDTO<CompraResponseDTO> getAllAfter(String after, int size);
+
     /**
      * Busca compras por proveedor
      */
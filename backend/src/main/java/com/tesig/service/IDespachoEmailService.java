@@ -0,0 +1,28 @@
+package com.tesig.service;
+
+/**
+ * Servicio que envía en segundo plano las notificaciones de la bandeja de
+ * salida de emails.
+ *
+ * Los servicios de negocio solo encolan (en su propia transacción); el envío
+ * SMTP, los reintentos con espera exponencial y el paso a FALLIDA de las
+ * notificaciones que agotan los intentos ocurren aquí, fuera de la petición.
+ */
+public interface IDespachoEmailService {
+
+    /**
+     * Envía las notificaciones pendientes cuyo próximo intento ya venció,
+     * por lotes, hasta vaciar la cola. Si ya hay una pasada en curso solo
+     * le pide una vuelta más.
+     *
+     * @return Cantidad de notificaciones procesadas (enviadas o fallidas)
+     */
+    int despacharPendientes();
+
+    /**
+     * Elimina por lotes las notificaciones enviadas antes del período de retención.
+     *
+     * @return Cantidad de notificaciones eliminadas
+     */
+    int purgarEnviadas();
+}
@@ -1,7 +1,12 @@
 package com.tesig.service;
 
+import com.tesig.dto.RecordatorioRecogidaDTO;
+import com.tesig.model.NotificacionEmail;
 import com.tesig.model.Ticket;
 
+import java.util.List;
+import java.util.Map;
+
 /**
  * Interface para el servicio de envío de emails.
  *
@@ -15,6 +20,11 @@ import com.tesig.model.Ticket;
  * 2. Presupuesto disponible (diagnóstico listo)
  * 3. Equipo listo para entrega
  * 4. Recordatorio de recogida
+ *
+ * Las notificaciones 1-4 se encolan en la bandeja de salida dentro de la
+ * transacción del llamador y se envían en segundo plano (IDespachoEmailService),
+ * por lo que no esperan al servidor SMTP. Un mismo aviso no se encola dos veces
+ * para el mismo ticket y destinatario.
  */
 public interface IEmailService {
 
@@ -65,7 +75,29 @@ public interface IEmailService {
     void enviarEmailRecordatorioRecogida(Ticket ticket, int diasEspera);
 
     /**
-     * Envía un email genérico.
+     * Renderiza la plantilla de recordatorio de recogida para varios tickets
+     * reutilizando la plantilla parseada y un mismo contexto. Puede invocarse
+     * desde varios hilos a la vez (el motor de recordatorios renderiza en paralelo).
+     *
+     * @param recordatorios Datos de los recordatorios
+     * @return Contenido HTML de cada recordatorio, en el mismo orden
+     */
+    List<String> renderizarRecordatoriosRecogida(List<RecordatorioRecogidaDTO> recordatorios);
+
+    /**
+     * Encola un recordatorio ya renderizado en la bandeja de salida, en la
+     * transacción del llamador. Se encola una sola vez por ticket, destinatario
+     * y umbral de espera.
+     *
+     * @param recordatorio Datos del recordatorio
+     * @param contenido Contenido HTML
+     * @return true si se encoló, false si ya estaba encolado
+     */
+    boolean encolarRecordatorioRecogida(RecordatorioRecogidaDTO recordatorio, String contenido);
+
+    /**
+     * Envía un email genérico de inmediato (síncrono).
+     * Lo usa el despachador de la bandeja de salida.
      *
      * @param destinatario Email del destinatario
      * @param asunto Asunto del email
@@ -73,6 +105,15 @@ public interface IEmailService {
      */
     void enviarEmail(String destinatario, String asunto, String contenido);
 
+    /**
+     * Envía un lote de notificaciones de la bandeja de salida por una misma
+     * conexión SMTP. El fallo de un mensaje no interrumpe el resto.
+     *
+     * @param notificaciones Notificaciones a enviar
+     * @return Errores por ID de notificación (vacío si se enviaron todas)
+     */
+    Map<Long, Exception> enviarNotificaciones(List<NotificacionEmail> notificaciones);
+
     /**
      * Verifica si el servicio de email está habilitado.
      *
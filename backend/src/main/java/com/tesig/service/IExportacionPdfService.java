@@ -0,0 +1,37 @@
+package com.tesig.service;
+
+import com.tesig.dto.ticket.ExportarDocumentosDTO;
+import com.tesig.model.FormatoExportacionPdf;
+import com.tesig.model.TipoDocumentoPdf;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * Exportación en lote de documentos PDF de tickets (cambio de turno, archivo).
+ */
+public interface IExportacionPdfService {
+
+    /**
+     * Resuelve los tickets a exportar a partir de la lista de IDs o del filtro.
+     * Se llama antes de empezar a escribir la respuesta para poder rechazar la
+     * solicitud con un error normal.
+     *
+     * @param solicitud IDs o filtro de tickets
+     * @return IDs de los tickets, en el orden en que se exportan
+     */
+    List<Long> resolverTickets(ExportarDocumentosDTO solicitud);
+
+    /**
+     * Genera los documentos en paralelo sobre un pool acotado y los escribe en
+     * orden en la salida, sin mantener todos en memoria.
+     *
+     * @param ticketIds Tickets a exportar (los eliminados se omiten)
+     * @param tipo Documento de cada ticket
+     * @param formato ZIP o PDF único
+     * @param salida Stream de la respuesta; no se cierra
+     */
+    void exportar(List<Long> ticketIds, TipoDocumentoPdf tipo, FormatoExportacionPdf formato,
+                  OutputStream salida) throws IOException;
+}
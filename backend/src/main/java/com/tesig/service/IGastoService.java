@@ -1,5 +1,6 @@
 package com.tesig.service;
 
+import com.tesig.dto.CursorPageDTO;
 import com.tesig.dto.gasto.CrearGastoDTO;
 import com.tesig.dto.gasto.GastoResponseDTO;
 import org.springframework.data.domain.Page;
@@ -31,6 +32,14 @@ public interface IGastoService {
      */
     Page<GastoResponseDTO> getAll(Pageable pageable);
 
+    /**
+     * Obtiene los gastos paginados por cursor (más recientes primero), sin conteo total
+     *
+     * @param after Cursor devuelto por la página anterior (null para la primera)
+     * @param size Tamaño de página (máximo {@value com.tesig.util.CursorPaginacion#TAMANIO_MAXIMO})
+     */
+    CursorPageDTO<GastoResponseDTO> getAllAfter(String after, int size);
+
     /**
      * Obtiene gastos por categoría
      */
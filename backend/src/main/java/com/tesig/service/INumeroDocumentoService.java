@@ -0,0 +1,32 @@
+package com.tesig.service;
+
+import com.tesig.model.SerieDocumento;
+
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Generación de números de documento por serie y día (compras, gastos, comprobantes).
+ * Cada número sale de un contador atómico en base de datos: costo constante
+ * e independiente de la cantidad de documentos existentes.
+ */
+public interface INumeroDocumentoService {
+
+    /**
+     * Genera el siguiente número de la serie para el día actual.
+     *
+     * @param serie Serie del documento
+     * @return Número con formato {EMPRESA}-{SERIE}-{yyyyMMdd}-{NNNN}
+     */
+    String generar(SerieDocumento serie);
+
+    /**
+     * Genera el siguiente número continuando la numeración de documentos previos al contador.
+     *
+     * @param serie Serie del documento
+     * @param ultimoNumeroConPatron Busca el mayor número existente que cumpla el patrón LIKE
+     *                              (ej: 'TES-CMP-20251118-%'); solo se invoca al inicializar el día
+     * @return Número con formato {EMPRESA}-{SERIE}-{yyyyMMdd}-{NNNN}
+     */
+    String generar(SerieDocumento serie, Function<String, Optional<String>> ultimoNumeroConPatron);
+}
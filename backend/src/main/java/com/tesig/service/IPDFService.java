@@ -1,6 +1,10 @@
 package com.tesig.service;
 
+import com.tesig.dto.DocumentoPdfDTO;
 import com.tesig.model.Ticket;
+import com.tesig.model.TipoDocumentoPdf;
+
+import java.io.OutputStream;
 
 /**
  * Interface para el servicio de generación de documentos PDF.
@@ -30,6 +34,14 @@ public interface IPDFService {
      */
     byte[] generarTicketPDF(Ticket ticket);
 
+    /**
+     * Escribe el PDF del ticket directamente en la salida, sin generarlo en memoria.
+     *
+     * @param ticket Ticket a imprimir
+     * @param salida Stream de destino; no se cierra
+     */
+    void escribirTicketPDF(Ticket ticket, OutputStream salida);
+
     /**
      * Genera un PDF con el presupuesto detallado.
      *
@@ -38,6 +50,14 @@ public interface IPDFService {
      */
     byte[] generarPresupuestoPDF(Ticket ticket);
 
+    /**
+     * Escribe el PDF del presupuesto directamente en la salida.
+     *
+     * @param ticket Ticket con presupuesto
+     * @param salida Stream de destino; no se cierra
+     */
+    void escribirPresupuestoPDF(Ticket ticket, OutputStream salida);
+
     /**
      * Genera un PDF del comprobante de entrega exitosa.
      *
@@ -56,4 +76,47 @@ public interface IPDFService {
      * @return Array de bytes del PDF
      */
     byte[] generarComprobanteEntregaPDF(Ticket ticket);
+
+    /**
+     * Escribe el PDF del comprobante de entrega directamente en la salida.
+     *
+     * @param ticket Ticket entregado
+     * @param salida Stream de destino; no se cierra
+     */
+    void escribirComprobanteEntregaPDF(Ticket ticket, OutputStream salida);
+
+    /**
+     * Escribe el documento indicado directamente en la salida, sin pasar por el cache.
+     * Usado para enviar el PDF a la respuesta HTTP a medida que se genera.
+     *
+     * @param ticket Ticket del documento
+     * @param tipo Tipo de documento
+     * @param salida Stream de destino; no se cierra
+     */
+    void escribirDocumento(Ticket ticket, TipoDocumentoPdf tipo, OutputStream salida);
+
+    /**
+     * Indica si los documentos se sirven desde el cache de PDFs o se generan
+     * directamente sobre la respuesta.
+     */
+    boolean isCacheDocumentosHabilitado();
+
+    /**
+     * Obtiene un documento del ticket desde el cache de PDFs, generándolo solo
+     * si no existe una versión vigente.
+     *
+     * @param ticket Ticket del documento
+     * @param tipo Tipo de documento
+     * @return PDF con su ETag
+     */
+    DocumentoPdfDTO obtenerDocumento(Ticket ticket, TipoDocumentoPdf tipo);
+
+    /**
+     * Calcula el ETag de la versión vigente de un documento sin generarlo.
+     *
+     * @param ticket Ticket del documento
+     * @param tipo Tipo de documento
+     * @return ETag (sin comillas)
+     */
+    String calcularEtag(Ticket ticket, TipoDocumentoPdf tipo);
 }
@@ -50,6 +50,14 @@ public interface IPiezaService {
      */
     Page<PiezaResponseDTO> listarTodas(Pageable pageable);
 
+    /**
+     * Lista las piezas activas paginadas por cursor (orden por nombre), sin conteo total
+     *
+     * @param after Cursor devuelto por la página anterior (null para la primera)
+     * @param size Tamaño de página (máximo {@value com.tesig.util.CursorPaginacion#TAMANIO_MAXIMO})
+     */
+    CursorPageDTO<PiezaResponseDTO> listarTodasDesde(String after, int size);
+
     // ==================== BÚSQUEDAS ====================
 
     /**
@@ -0,0 +1,16 @@
+package com.tesig.service;
+
+import com.tesig.dto.PrerenderizadoEstadisticasDTO;
+
+/**
+ * Generación en segundo plano de los documentos PDF de un ticket cuando pasa
+ * al estado en que se descargan (ticket al ingresar, presupuesto al
+ * presupuestar, comprobante al entregar), para servirlos desde el cache.
+ */
+public interface IPrerenderizadoPdfService {
+
+    /**
+     * Obtiene las métricas de cola, latencia y fallos del pre-renderizado
+     */
+    PrerenderizadoEstadisticasDTO getEstadisticas();
+}
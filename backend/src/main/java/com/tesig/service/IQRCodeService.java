@@ -1,5 +1,7 @@
 package com.tesig.service;
 
+import com.google.zxing.common.BitMatrix;
+
 import java.io.ByteArrayOutputStream;
 
 /**
@@ -38,4 +40,21 @@ public interface IQRCodeService {
      * @param outputStream Stream de salida
      */
     void generarQRCode(String contenido, int ancho, int alto, ByteArrayOutputStream outputStream);
+
+    /**
+     * Obtiene la matriz de módulos del código QR (un píxel por módulo, con margen),
+     * desde el cache si ya fue generada. La matriz es compartida: no debe modificarse.
+     *
+     * @param contenido Contenido del QR
+     * @return Matriz de módulos
+     */
+    BitMatrix generarMatriz(String contenido);
+
+    /**
+     * Genera el código QR como documento SVG vectorial, escalable sin pérdida.
+     *
+     * @param contenido Contenido del QR
+     * @return Documento SVG
+     */
+    String generarQRCodeSVG(String contenido);
 }
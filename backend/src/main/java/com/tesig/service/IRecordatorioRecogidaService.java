@@ -0,0 +1,19 @@
+package com.tesig.service;
+
+/**
+ * Servicio de recordatorios de recogida para equipos listos para entrega.
+ *
+ * Periódicamente busca los tickets en LISTO_ENTREGA que superaron alguno de
+ * los umbrales de espera configurados (ej: 3, 7 y 15 días) y encola un
+ * recordatorio por email por ticket y umbral. Los recordatorios encolados
+ * quedan registrados, por lo que volver a ejecutarlo es idempotente.
+ */
+public interface IRecordatorioRecogidaService {
+
+    /**
+     * Procesa todos los umbrales de espera.
+     *
+     * @return Cantidad de recordatorios encolados
+     */
+    int procesarRecordatorios();
+}
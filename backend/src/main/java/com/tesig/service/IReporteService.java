@@ -1,6 +1,8 @@
 package com.tesig.service;
 
+import com.tesig.dto.ReporteCacheEstadisticasDTO;
 import com.tesig.dto.ReporteFinancieroDTO;
+import com.tesig.model.AgrupacionPeriodo;
 
 import java.time.LocalDate;
 
@@ -11,6 +13,11 @@ public interface IReporteService {
      */
     ReporteFinancieroDTO generarReporteFinanciero(LocalDate fechaInicio, LocalDate fechaFin);
 
+    /**
+     * Genera reporte financiero con las tendencias agrupadas por día, semana, mes o trimestre
+     */
+    ReporteFinancieroDTO generarReporteFinanciero(LocalDate fechaInicio, LocalDate fechaFin, AgrupacionPeriodo agrupacion);
+
     /**
      * Genera reporte del mes actual
      */
@@ -25,4 +32,14 @@ public interface IReporteService {
      * Genera reporte comparativo con período anterior
      */
     ReporteFinancieroDTO getReporteComparativo(LocalDate fechaInicio, LocalDate fechaFin);
+
+    /**
+     * Genera reporte comparativo con las tendencias agrupadas por el período indicado
+     */
+    ReporteFinancieroDTO getReporteComparativo(LocalDate fechaInicio, LocalDate fechaFin, AgrupacionPeriodo agrupacion);
+
+    /**
+     * Obtiene las estadísticas del cache de reportes (aciertos, fallos, invalidaciones)
+     */
+    ReporteCacheEstadisticasDTO getEstadisticasCache();
 }
@@ -0,0 +1,39 @@
+package com.tesig.service;
+
+import com.tesig.dto.ReconstruccionResumenDTO;
+import com.tesig.model.Compra;
+import com.tesig.model.Gasto;
+import com.tesig.model.Ticket;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Mantenimiento del resumen financiero diario pre-agregado.
+ */
+public interface IResumenFinancieroService {
+
+    /**
+     * Acumula en el día de entrega los importes de un ticket entregado.
+     * La entrega no se revierte si el ticket se elimina después (hoy ningún
+     * flujo elimina tickets): un flujo que lo haga debe reconstruir el día de
+     * entrega, ya que la reconstrucción excluye los tickets eliminados.
+     */
+    void registrarEntregaTicket(Ticket ticket);
+
+    /**
+     * Acumula en la fecha de compra el total de una compra recibida
+     */
+    void registrarCompraRecibida(Compra compra);
+
+    /**
+     * Acumula un monto de gasto en su fecha y categoría (monto negativo para revertir)
+     */
+    void registrarGasto(LocalDate fecha, Gasto.CategoriaGasto categoria, BigDecimal monto);
+
+    /**
+     * Recalcula el resumen desde las tablas transaccionales, en bloques paralelos.
+     * Si no se indican fechas se usa todo el rango del historial.
+     */
+    ReconstruccionResumenDTO reconstruir(LocalDate fechaInicio, LocalDate fechaFin);
+}
@@ -0,0 +1,22 @@
+package com.tesig.service;
+
+import java.time.LocalDate;
+import java.util.function.LongSupplier;
+
+/**
+ * Asignación de números de secuencia por prefijo y día, única entre instancias.
+ */
+public interface ISecuenciaService {
+
+    /**
+     * Obtiene el siguiente valor de la secuencia del prefijo en la fecha.
+     * Los valores son únicos pero pueden tener huecos (bloques no usados al reiniciar).
+     *
+     * @param prefijo Prefijo del documento (ej: TES-MAT)
+     * @param fecha Día de la numeración
+     * @param ultimoExistente Último valor ya usado en datos previos al contador;
+     *                        solo se consulta la primera vez que la instancia usa el prefijo y día
+     * @return Siguiente valor
+     */
+    long siguiente(String prefijo, LocalDate fecha, LongSupplier ultimoExistente);
+}
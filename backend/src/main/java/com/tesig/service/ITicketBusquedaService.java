@@ -0,0 +1,25 @@
+package com.tesig.service;
+
+import com.tesig.dto.ticket.TicketBusquedaEstadisticasDTO;
+import com.tesig.dto.ticket.TicketBusquedaPageDTO;
+
+/**
+ * Búsqueda de tickets por texto (número, equipo, marca, modelo, falla, cliente).
+ */
+public interface ITicketBusquedaService {
+
+    /**
+     * Busca tickets y retorna una página de resultados ordenados por relevancia.
+     *
+     * @param query Texto buscado
+     * @param page Número de página (desde 0)
+     * @param size Tamaño de página (acotado por configuración)
+     * @return Página de resultados con el tiempo de la consulta
+     */
+    TicketBusquedaPageDTO buscar(String query, int page, int size);
+
+    /**
+     * Obtiene las métricas de latencia de las búsquedas
+     */
+    TicketBusquedaEstadisticasDTO getEstadisticas();
+}
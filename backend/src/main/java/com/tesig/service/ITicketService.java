@@ -1,5 +1,6 @@
 package com.tesig.service;
 
+import com.tesig.dto.CursorPageDTO;
 import com.tesig.dto.common.PaginatedResponseDTO;
 import com.tesig.dto.ticket.*;
 import org.springframework.data.domain.Pageable;
@@ -28,6 +29,15 @@ public interface ITicketService {
      */
     PaginatedResponseDTO<TicketDTO> findAll(Pageable pageable);
 
+    /**
+     * Obtiene los tickets paginados por cursor (más recientes primero), sin conteo total.
+     *
+     * @param after Cursor devuelto por la página anterior (null para la primera)
+     * @param size Tamaño de página (máximo {@value com.tesig.util.CursorPaginacion#TAMANIO_MAXIMO})
+     * @return Página con el cursor de la siguiente
+     */
+    CursorPageDTO<TicketDTO> findAllAfter(String after, int size);
+
     /**
      * Busca un ticket por ID.
      *
@@ -81,14 +91,6 @@ public interface ITicketService {
      */
     PaginatedResponseDTO<TicketDTO> findActivos(Pageable pageable);
 
-    /**
-     * Búsqueda general por múltiples campos.
-     *
-     * @param query Texto de búsqueda
-     * @return Lista de tickets que coinciden
-     */
-    List<TicketDTO> search(String query);
-
     /**
      * Obtiene estadísticas de tickets.
      *
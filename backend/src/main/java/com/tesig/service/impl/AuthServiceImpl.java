@@ -1,5 +1,8 @@
 package com.tesig.service.impl;
 
+import com.tesig.cache.UsuarioDetallesCache;
+import com.tesig.dto.LoginEstadisticasDTO;
+import com.tesig.dto.UsuarioCacheEstadisticasDTO;
 import com.tesig.dto.auth.LoginRequestDTO;
 import com.tesig.dto.auth.LoginResponseDTO;
 import com.tesig.dto.auth.RefreshTokenRequestDTO;
@@ -10,15 +13,18 @@ import com.tesig.model.Usuario;
 import com.tesig.repository.RefreshTokenRepository;
 import com.tesig.repository.UsuarioRepository;
 import com.tesig.security.CustomUserDetails;
+import com.tesig.security.ClaimsSolicitud;
 import com.tesig.security.IJwtService;
+import com.tesig.security.IRevocacionTokenService;
+import com.tesig.security.VerificadorCredenciales;
 import com.tesig.service.IAuthService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
@@ -35,27 +41,32 @@ import java.util.UUID;
 @Slf4j
 public class AuthServiceImpl implements IAuthService {
 
-    private final AuthenticationManager authenticationManager;
+    private final VerificadorCredenciales verificadorCredenciales;
     private final IJwtService jwtService;
     private final UsuarioRepository usuarioRepository;
     private final RefreshTokenRepository refreshTokenRepository;
+    private final UsuarioDetallesCache usuarioDetallesCache;
+    private final IRevocacionTokenService revocacionTokenService;
     private final HttpServletRequest request; // Para obtener IP y User-Agent
 
     @Value("${jwt.refresh-expiration}")
     private Long refreshTokenExpiration; // En milisegundos
 
+    /**
+     * Sin transacción propia: la verificación de la contraseña puede esperar en
+     * la cola del pool de login y no debe retener una conexión de la BD mientras
+     * tanto. El refresh token se guarda en la transacción del repositorio.
+     */
     @Override
-    @Transactional
     public LoginResponseDTO login(LoginRequestDTO loginRequest) {
         log.info("Intento de login para: {}", loginRequest.getEmail());
 
         try {
-            // Autenticar con Spring Security
-            Authentication authentication = authenticationManager.authenticate(
-                    new UsernamePasswordAuthenticationToken(
-                            loginRequest.getEmail(),
-                            loginRequest.getPassword()
-                    )
+            // Autenticar con Spring Security (límite de intentos y pool dedicado a BCrypt)
+            Authentication authentication = verificadorCredenciales.autenticar(
+                    loginRequest.getEmail(),
+                    loginRequest.getPassword(),
+                    getClientIP()
             );
 
             CustomUserDetails userDetails = (CustomUserDetails) authentication.getPrincipal();
@@ -102,8 +113,21 @@ public class AuthServiceImpl implements IAuthService {
 
         String refreshTokenValue = request.getRefreshToken();
 
-        // Buscar refresh token en BD
-        RefreshToken refreshToken = refreshTokenRepository.findByToken(refreshTokenValue)
+        // Validar el JWT primero (se parsea una sola vez, sin consultar la BD)
+        Claims refreshClaims;
+        try {
+            refreshClaims = jwtService.verifyToken(refreshTokenValue);
+        } catch (JwtException e) {
+            log.warn("Refresh token JWT inválido o expirado: {}", e.getMessage());
+            throw new BadCredentialsException("Refresh token expirado o inválido");
+        }
+        if (revocacionTokenService.estaRevocado(refreshClaims)) {
+            log.warn("Refresh token revocado para usuario: {}", refreshClaims.getSubject());
+            throw new BadCredentialsException("Refresh token expirado o inválido");
+        }
+
+        // Buscar refresh token en BD por el hash del valor
+        RefreshToken refreshToken = refreshTokenRepository.findByTokenHash(RefreshToken.hashToken(refreshTokenValue))
                 .orElseThrow(() -> {
                     log.warn("Refresh token no encontrado");
                     return new BadCredentialsException("Refresh token inválido");
@@ -114,17 +138,17 @@ public class AuthServiceImpl implements IAuthService {
             log.warn("Refresh token inválido o expirado");
             refreshToken.invalidate();
             refreshTokenRepository.save(refreshToken);
+            revocacionTokenService.registrarRefreshTokenRevocado(refreshToken);
             throw new BadCredentialsException("Refresh token expirado o inválido");
         }
 
-        // Validar el JWT
-        String email = jwtService.extractEmail(refreshTokenValue);
+        String email = refreshClaims.getSubject();
         Usuario usuario = usuarioRepository.findByEmail(email)
                 .orElseThrow(() -> new ResourceNotFoundException("Usuario", "email", email));
 
         CustomUserDetails userDetails = CustomUserDetails.fromUsuario(usuario);
 
-        if (!jwtService.isTokenValid(refreshTokenValue, userDetails)) {
+        if (!jwtService.isTokenValid(refreshClaims, userDetails)) {
             log.warn("Refresh token JWT inválido para usuario: {}", email);
             throw new BadCredentialsException("Refresh token inválido");
         }
@@ -138,6 +162,7 @@ public class AuthServiceImpl implements IAuthService {
         // Invalidar el refresh token anterior
         refreshToken.invalidate();
         refreshTokenRepository.save(refreshToken);
+        revocacionTokenService.registrarRefreshTokenRevocado(refreshToken);
 
         // Crear y guardar nuevo refresh token
         RefreshToken newRefreshToken = createRefreshToken(usuario, newRefreshTokenValue);
@@ -165,15 +190,19 @@ public class AuthServiceImpl implements IAuthService {
     public void logout(String refreshTokenValue) {
         log.info("Solicitud de logout");
 
+        // Revocar el access token con el que se hizo el logout
+        ClaimsSolicitud.obtener().ifPresent(revocacionTokenService::revocarAccessToken);
+
         if (refreshTokenValue == null || refreshTokenValue.isBlank()) {
             log.warn("Logout sin refresh token");
             return;
         }
 
-        refreshTokenRepository.findByToken(refreshTokenValue)
+        refreshTokenRepository.findByTokenHash(RefreshToken.hashToken(refreshTokenValue))
                 .ifPresent(refreshToken -> {
                     refreshToken.invalidate();
                     refreshTokenRepository.save(refreshToken);
+                    revocacionTokenService.registrarRefreshTokenRevocado(refreshToken);
                     log.info("Refresh token invalidado para usuario: {}", refreshToken.getUsuario().getEmail());
                 });
 
@@ -195,6 +224,16 @@ public class AuthServiceImpl implements IAuthService {
         return UserInfoDTO.fromUserDetails(userDetails);
     }
 
+    @Override
+    public UsuarioCacheEstadisticasDTO getEstadisticasCacheUsuarios() {
+        return usuarioDetallesCache.getEstadisticas();
+    }
+
+    @Override
+    public LoginEstadisticasDTO getEstadisticasLogin() {
+        return verificadorCredenciales.getEstadisticas();
+    }
+
     // Métodos privados helpers
 
     private RefreshToken createRefreshToken(Usuario usuario, String tokenValue) {
@@ -202,7 +241,8 @@ public class AuthServiceImpl implements IAuthService {
                 .plusSeconds(refreshTokenExpiration / 1000);
 
         return RefreshToken.builder()
-                .token(tokenValue)
+                .tokenHash(RefreshToken.hashToken(tokenValue))
+                .jti(jwtService.extractClaim(tokenValue, Claims::getId))
                 .usuario(usuario)
                 .fechaExpiracion(expiresAt)
                 .activo(true)
@@ -211,12 +251,13 @@ public class AuthServiceImpl implements IAuthService {
                 .build();
     }
 
+    /**
+     * IP del cliente. No se lee X-Forwarded-For directamente porque el cliente
+     * puede falsearlo: Tomcat reemplaza la dirección remota con ese header solo
+     * cuando la conexión viene de un proxy de confianza (ver application.yml).
+     */
     private String getClientIP() {
-        String xfHeader = request.getHeader("X-Forwarded-For");
-        if (xfHeader == null || xfHeader.isEmpty()) {
-            return request.getRemoteAddr();
-        }
-        return xfHeader.split(",")[0];
+        return request.getRemoteAddr();
     }
 
     private String getUserAgent() {
@@ -1,5 +1,6 @@
 package com.tesig.service.impl;
 
+import com.tesig.dto.CursorPageDTO;
 import com.tesig.dto.compra.CompraResponseDTO;
 import com.tesig.dto.compra.CrearCompraDTO;
 import com.tesig.exception.ResourceNotFoundException;
@@ -8,6 +9,9 @@ import com.tesig.mapper.CompraMapper;
 import com.tesig.model.*;
 import com.tesig.repository.*;
 import com.tesig.service.ICompraService;
+import com.tesig.service.INumeroDocumentoService;
+import com.tesig.service.IResumenFinancieroService;
+import com.tesig.util.CursorPaginacion;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -16,7 +20,6 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -30,11 +33,14 @@ public class CompraServiceImpl implements ICompraService {
     private final PiezaRepository piezaRepository;
     private final MovimientoInventarioRepository movimientoRepository;
     private final CompraMapper compraMapper;
+    private final IResumenFinancieroService resumenFinancieroService;
+    private final INumeroDocumentoService numeroDocumentoService;
 
     @Override
     public CompraResponseDTO crear(CrearCompraDTO dto) {
         Compra compra = compraMapper.toEntity(dto);
-        compra.setCodigoCompra(generarCodigoCompra());
+        compra.setCodigoCompra(numeroDocumentoService.generar(
+                SerieDocumento.COMPRA, compraRepository::findMaxCodigoCompraLike));
         compra.setEstado(Compra.EstadoCompra.PENDIENTE);
 
         BigDecimal total = BigDecimal.ZERO;
@@ -76,6 +82,19 @@ public class CompraServiceImpl implements ICompraService {
                 .map(compraMapper::toDTO);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDTO<CompraResponseDTO> getAllAfter(String after, int size) {
+        CursorPaginacion.Cursor cursor = CursorPaginacion.decodificar(after);
+        List<Compra> compras = cursor == null
+                ? compraRepository.findPrimerasPorCursor(CursorPaginacion.limiteConsulta(size))
+                : compraRepository.findSiguientesPorCursor(
+                        cursor.valorComoFecha(), cursor.id(), CursorPaginacion.limiteConsulta(size));
+
+        return CursorPaginacion.construirPagina(compras, size, compraMapper::toDTO,
+                compra -> CursorPaginacion.codificar(compra.getFechaCompra(), compra.getId()));
+    }
+
     @Override
     @Transactional(readOnly = true)
     public Page<CompraResponseDTO> buscarPorProveedor(String proveedor, Pageable pageable) {
@@ -140,6 +159,9 @@ public class CompraServiceImpl implements ICompraService {
 
         compra.setEstado(Compra.EstadoCompra.RECIBIDA);
         Compra saved = compraRepository.save(compra);
+
+        // Acumular el costo en el resumen financiero diario (misma transacción)
+        resumenFinancieroService.registrarCompraRecibida(saved);
         return compraMapper.toDTO(saved);
     }
 
@@ -169,16 +191,4 @@ public class CompraServiceImpl implements ICompraService {
         compra.setDeleted(true);
         compraRepository.save(compra);
     }
-
-    private String generarCodigoCompra() {
-        String fecha = LocalDate.now().format(DateTimeFormatter.ofPattern("yyyyMMdd"));
-        String prefijo = "TES-CMP-" + fecha + "-";
-
-        // Buscar última compra del día
-        long count = compraRepository.findAll().stream()
-                .filter(c -> c.getCodigoCompra() != null && c.getCodigoCompra().startsWith(prefijo))
-                .count();
-
-        return prefijo + String.format("%04d", count + 1);
-    }
 }
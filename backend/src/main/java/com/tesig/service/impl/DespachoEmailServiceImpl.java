@@ -0,0 +1,298 @@
+package com.tesig.service.impl;
+
+import com.tesig.event.NotificacionEmailEncoladaEvent;
+import com.tesig.model.EstadoNotificacionEmail;
+import com.tesig.model.NotificacionEmail;
+import com.tesig.repository.NotificacionEmailRepository;
+import com.tesig.service.IDespachoEmailService;
+import com.tesig.service.IEmailService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Implementación del despachador de la bandeja de salida de emails.
+ *
+ * Cada pasada reclama un lote de notificaciones en una transacción corta
+ * (SKIP LOCKED, por lo que varias instancias pueden despachar a la vez), lo
+ * reparte en un grupo por hilo del pool de envío (cada grupo viaja por una sola
+ * conexión SMTP) sin conexión a la base de datos tomada, y registra el
+ * resultado en transacciones cortas. Un envío fallido
+ * se reintenta con espera exponencial hasta max-intentos; después queda FALLIDA.
+ *
+ * Las pasadas se disparan tras el commit de cada notificación encolada y
+ * periódicamente, para los reintentos y lo que haya quedado de un reinicio.
+ * Todas corren en el hilo del despachador: la pasada periódica solo la
+ * encola, para que un servidor SMTP lento no retenga el hilo del scheduler.
+ * Las notificaciones enviadas se eliminan una vez vencida la retención; las
+ * FALLIDA se conservan para su diagnóstico.
+ */
+@Service
+@Slf4j
+public class DespachoEmailServiceImpl implements IDespachoEmailService {
+
+    private static final int LONGITUD_MAXIMA_ERROR = 500;
+
+    private final NotificacionEmailRepository notificacionRepository;
+    private final IEmailService emailService;
+    private final TransactionTemplate transactionTemplate;
+    private final int lote;
+    private final int maxIntentos;
+    private final Duration esperaInicial;
+    private final Duration esperaMaxima;
+    private final Duration bloqueo;
+    private final Duration retencionEnviadas;
+    private final int tamanioLotePurga;
+
+    /** Hilo que ejecuta las pasadas disparadas por notificaciones encoladas */
+    private final ThreadPoolExecutor disparador;
+    /** Envíos SMTP en paralelo (concurrencia acotada por hilos) */
+    private final ThreadPoolExecutor envios;
+
+    private final AtomicBoolean enEjecucion = new AtomicBoolean();
+    private final AtomicBoolean solicitado = new AtomicBoolean();
+
+    public DespachoEmailServiceImpl(
+            NotificacionEmailRepository notificacionRepository,
+            IEmailService emailService,
+            PlatformTransactionManager transactionManager,
+            @Value("${tesig.notifications.email.outbox.hilos:2}") int hilos,
+            @Value("${tesig.notifications.email.outbox.lote:20}") int lote,
+            @Value("${tesig.notifications.email.outbox.max-intentos:6}") int maxIntentos,
+            @Value("${tesig.notifications.email.outbox.espera-inicial-segundos:30}") long esperaInicialSegundos,
+            @Value("${tesig.notifications.email.outbox.espera-maxima-minutos:60}") long esperaMaximaMinutos,
+            @Value("${tesig.notifications.email.outbox.bloqueo-minutos:5}") long bloqueoMinutos,
+            @Value("${tesig.notifications.email.outbox.retencion-enviadas-dias:30}") long retencionEnviadasDias,
+            @Value("${tesig.notifications.email.outbox.tamanio-lote-purga:1000}") int tamanioLotePurga) {
+        this.notificacionRepository = notificacionRepository;
+        this.emailService = emailService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.lote = Math.max(1, lote);
+        this.maxIntentos = Math.max(1, maxIntentos);
+        this.esperaInicial = Duration.ofSeconds(esperaInicialSegundos);
+        this.esperaMaxima = Duration.ofMinutes(esperaMaximaMinutos);
+        this.bloqueo = Duration.ofMinutes(bloqueoMinutos);
+        this.retencionEnviadas = Duration.ofDays(Math.max(1, retencionEnviadasDias));
+        this.tamanioLotePurga = Math.max(1, tamanioLotePurga);
+
+        // Una pasada en curso y, como mucho, otra esperando: el resto se descarta
+        this.disparador = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(1), hiloDaemon("despacho-email"),
+                new ThreadPoolExecutor.DiscardPolicy());
+
+        int tamanioPool = Math.max(1, hilos);
+        this.envios = new ThreadPoolExecutor(tamanioPool, tamanioPool, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), hiloDaemon("envio-email"));
+    }
+
+    @PreDestroy
+    void detener() {
+        disparador.shutdownNow();
+        envios.shutdownNow();
+    }
+
+    /**
+     * Despacha en cuanto se confirma la transacción que encoló la notificación.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onNotificacionEncolada(NotificacionEmailEncoladaEvent event) {
+        disparar();
+    }
+
+    /**
+     * Pasada periódica: reintentos vencidos y notificaciones cuyo disparo se perdió.
+     * Se encola en el despachador y retorna sin esperar los envíos.
+     */
+    @Scheduled(fixedDelayString = "${tesig.notifications.email.outbox.intervalo-ms:30000}",
+            initialDelayString = "${tesig.notifications.email.outbox.intervalo-ms:30000}")
+    public void despacharPeriodicamente() {
+        disparar();
+    }
+
+    @Override
+    @Scheduled(cron = "${tesig.notifications.email.outbox.purga-cron:0 0 4 * * *}")
+    public int purgarEnviadas() {
+        LocalDateTime limite = LocalDateTime.now().minus(retencionEnviadas);
+        int eliminadas = 0;
+        Integer lote;
+        // Un lote por transacción para no retener bloqueos sobre muchas filas
+        do {
+            lote = transactionTemplate.execute(status ->
+                    notificacionRepository.purgarEnviadas(limite, tamanioLotePurga));
+            eliminadas += lote != null ? lote : 0;
+        } while (lote != null && lote == tamanioLotePurga);
+
+        log.info("Purga de la bandeja de salida: {} emails enviados antes de {} eliminados", eliminadas, limite);
+        return eliminadas;
+    }
+
+    @Override
+    public int despacharPendientes() {
+        if (!emailService.isEmailEnabled()) {
+            return 0;
+        }
+
+        solicitado.set(true);
+        if (!enEjecucion.compareAndSet(false, true)) {
+            return 0;
+        }
+
+        int procesadas = 0;
+        try {
+            while (solicitado.getAndSet(false)) {
+                int reclamadas;
+                do {
+                    reclamadas = despacharLote();
+                    procesadas += reclamadas;
+                } while (reclamadas == lote);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.error("Error al despachar la bandeja de salida de emails", e);
+        } finally {
+            enEjecucion.set(false);
+        }
+        return procesadas;
+    }
+
+    /**
+     * Reclama un lote y espera a que terminen todos sus envíos.
+     *
+     * @return Cantidad de notificaciones reclamadas
+     */
+    private int despacharLote() throws InterruptedException {
+        LocalDateTime ahora = LocalDateTime.now();
+        List<NotificacionEmail> notificaciones = transactionTemplate.execute(status ->
+                notificacionRepository.reclamarPendientes(ahora, ahora.plus(bloqueo), lote));
+        if (notificaciones == null || notificaciones.isEmpty()) {
+            return 0;
+        }
+
+        // Un grupo por hilo: cada grupo viaja por una sola conexión SMTP
+        int grupos = Math.min(envios.getCorePoolSize(), notificaciones.size());
+        int tamanioGrupo = (notificaciones.size() + grupos - 1) / grupos;
+        List<Callable<Void>> tareas = new ArrayList<>(grupos);
+        for (int desde = 0; desde < notificaciones.size(); desde += tamanioGrupo) {
+            List<NotificacionEmail> grupo = notificaciones.subList(desde,
+                    Math.min(desde + tamanioGrupo, notificaciones.size()));
+            tareas.add(() -> {
+                enviar(grupo);
+                return null;
+            });
+        }
+        envios.invokeAll(tareas);
+        return notificaciones.size();
+    }
+
+    private void enviar(List<NotificacionEmail> grupo) {
+        Map<Long, Exception> fallos;
+        try {
+            fallos = emailService.enviarNotificaciones(grupo);
+        } catch (Exception e) {
+            fallos = new HashMap<>();
+            for (NotificacionEmail notificacion : grupo) {
+                fallos.put(notificacion.getId(), e);
+            }
+        }
+
+        List<Long> enviadas = new ArrayList<>(grupo.size());
+        for (NotificacionEmail notificacion : grupo) {
+            Exception error = fallos.get(notificacion.getId());
+            if (error == null) {
+                enviadas.add(notificacion.getId());
+                log.info("Email {} enviado a: {} (intento {})",
+                        notificacion.getTipo(), notificacion.getDestinatario(), notificacion.getIntentos());
+            } else {
+                registrarFallo(notificacion, error);
+            }
+        }
+
+        if (!enviadas.isEmpty()) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> notificacionRepository.marcarEnviadas(
+                        enviadas, EstadoNotificacionEmail.ENVIADA, LocalDateTime.now()));
+            } catch (Exception e) {
+                // Quedan ENVIANDO y se reenvían al vencer el bloqueo
+                log.error("No se pudo marcar como enviados los emails {}", enviadas, e);
+            }
+        }
+    }
+
+    private void registrarFallo(NotificacionEmail notificacion, Exception error) {
+        LocalDateTime ahora = LocalDateTime.now();
+        boolean agotada = notificacion.getIntentos() >= maxIntentos;
+        EstadoNotificacionEmail estado = agotada ? EstadoNotificacionEmail.FALLIDA : EstadoNotificacionEmail.PENDIENTE;
+        LocalDateTime proximoIntento = agotada ? ahora : ahora.plus(espera(notificacion.getIntentos()));
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> notificacionRepository.registrarFallo(
+                    notificacion.getId(), estado, proximoIntento, mensajeError(error), ahora));
+        } catch (Exception e) {
+            // Queda ENVIANDO y se reintenta al vencer el bloqueo
+            log.error("No se pudo registrar el fallo del email ID {}", notificacion.getId(), e);
+        }
+
+        if (agotada) {
+            log.error("Email {} a {} descartado tras {} intentos: {}", notificacion.getTipo(),
+                    notificacion.getDestinatario(), notificacion.getIntentos(), error.getMessage());
+        } else {
+            log.warn("Error al enviar email {} a {} (intento {}), se reintenta a las {}: {}", notificacion.getTipo(),
+                    notificacion.getDestinatario(), notificacion.getIntentos(), proximoIntento, error.getMessage());
+        }
+    }
+
+    /**
+     * Espera exponencial antes del siguiente intento, limitada a espera-maxima.
+     */
+    Duration espera(int intentos) {
+        int exponente = Math.min(Math.max(0, intentos - 1), 20);
+        Duration espera = esperaInicial.multipliedBy(1L << exponente);
+        return espera.compareTo(esperaMaxima) > 0 ? esperaMaxima : espera;
+    }
+
+    private static String mensajeError(Exception error) {
+        Throwable causa = error.getCause() != null ? error.getCause() : error;
+        String mensaje = causa.getClass().getSimpleName() + ": " + causa.getMessage();
+        return mensaje.length() > LONGITUD_MAXIMA_ERROR ? mensaje.substring(0, LONGITUD_MAXIMA_ERROR) : mensaje;
+    }
+
+    private void disparar() {
+        try {
+            disparador.execute(this::despacharPendientes);
+        } catch (RejectedExecutionException e) {
+            log.debug("Despachador de emails detenido; las notificaciones quedan en la bandeja de salida");
+        }
+    }
+
+    private static ThreadFactory hiloDaemon(String prefijo) {
+        AtomicInteger contador = new AtomicInteger();
+        return tarea -> {
+            Thread hilo = new Thread(tarea, prefijo + "-" + contador.incrementAndGet());
+            hilo.setDaemon(true);
+            return hilo;
+        };
+    }
+}
@@ -1,28 +1,52 @@
 package com.tesig.service.impl;
 
+import com.tesig.dto.RecordatorioRecogidaDTO;
+import com.tesig.event.NotificacionEmailEncoladaEvent;
+import com.tesig.model.NotificacionEmail;
 import com.tesig.model.Ticket;
+import com.tesig.model.TipoNotificacionEmail;
+import com.tesig.repository.NotificacionEmailRepository;
 import com.tesig.service.IEmailService;
+import com.tesig.util.PoolConexionesSmtp;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
 import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
 import org.thymeleaf.context.Context;
 import org.thymeleaf.spring6.SpringTemplateEngine;
 
+import java.io.UnsupportedEncodingException;
 import java.math.BigDecimal;
 import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Implementación del servicio de envío de emails.
  *
  * Utiliza:
- * - JavaMailSender: Para envío de emails SMTP
- * - Thymeleaf: Para renderizar templates HTML
+ * - JavaMailSender: Para envío de emails SMTP (con pool de conexiones
+ *   reutilizadas entre envíos, ver PoolConexionesSmtp)
+ * - Thymeleaf: Para renderizar templates HTML (parseadas una vez y en cache
+ *   con spring.thymeleaf.cache; las partes comunes están en email/fragmentos)
+ *
+ * Las notificaciones de tickets no se envían en la petición: se renderizan y
+ * se encolan en la bandeja de salida (notificaciones_email) dentro de la
+ * transacción del ticket, y las envía DespachoEmailServiceImpl tras el commit.
  *
  * Aplicación de principios SOLID:
  * - Single Responsibility: Solo envía emails
@@ -36,6 +60,8 @@ public class EmailServiceImpl implements IEmailService {
 
     private final JavaMailSender mailSender;
     private final SpringTemplateEngine templateEngine;
+    private final NotificacionEmailRepository notificacionRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Value("${spring.mail.from:taller@tesig.com}")
     private String emailFrom;
@@ -55,8 +81,46 @@ public class EmailServiceImpl implements IEmailService {
     @Value("${tesig.notifications.email.enabled:true}")
     private boolean emailEnabled;
 
+    @Value("${tesig.notifications.email.smtp-pool.enabled:true}")
+    private boolean poolHabilitado;
+
+    @Value("${tesig.notifications.email.smtp-pool.conexiones:2}")
+    private int poolConexionesMaximas;
+
+    @Value("${tesig.notifications.email.smtp-pool.mensajes-por-conexion:100}")
+    private int poolMensajesPorConexion;
+
+    @Value("${tesig.notifications.email.smtp-pool.inactividad-maxima-segundos:30}")
+    private long poolInactividadMaximaSegundos;
+
+    /**
+     * Conexiones SMTP reutilizadas entre envíos (null si el pool está deshabilitado)
+     */
+    private PoolConexionesSmtp poolConexiones;
+
+    private static final String PLANTILLA_TICKET_CREADO = "email/ticket-creado";
+    private static final String PLANTILLA_PRESUPUESTO_DISPONIBLE = "email/presupuesto-disponible";
+    private static final String PLANTILLA_LISTO_PARA_ENTREGA = "email/listo-para-entrega";
+    private static final String PLANTILLA_RECORDATORIO_RECOGIDA = "email/recordatorio-recogida";
+
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
 
+    @PostConstruct
+    void iniciarPoolConexiones() {
+        if (poolHabilitado && mailSender instanceof JavaMailSenderImpl sender) {
+            poolConexiones = new PoolConexionesSmtp(sender.getSession(), sender.getProtocol(), sender.getHost(),
+                    sender.getPort(), sender.getUsername(), sender.getPassword(),
+                    poolConexionesMaximas, poolMensajesPorConexion, poolInactividadMaximaSegundos);
+        }
+    }
+
+    @PreDestroy
+    void cerrarPoolConexiones() {
+        if (poolConexiones != null) {
+            poolConexiones.close();
+        }
+    }
+
     @Override
     public void enviarEmailTicketCreado(Ticket ticket) {
         if (!emailEnabled) {
@@ -70,31 +134,19 @@ public class EmailServiceImpl implements IEmailService {
         }
 
         try {
-            Context context = new Context();
-            context.setVariable("nombreCliente", ticket.getCliente().getNombreCompleto());
-            context.setVariable("numeroTicket", ticket.getNumeroTicket());
-            context.setVariable("tipoEquipo", ticket.getTipoEquipo());
+            Context context = contextoTicket(ticket);
             context.setVariable("marca", ticket.getMarca());
             context.setVariable("modelo", ticket.getModelo() != null ? ticket.getModelo() : "N/A");
             context.setVariable("fechaIngreso", ticket.getCreatedAt().format(DATE_FORMATTER));
             context.setVariable("fallaReportada", ticket.getFallaReportada());
-            context.setVariable("urlConsulta", buildConsultationUrl(ticket.getNumeroTicket()));
-            context.setVariable("appName", appName);
 
-            String contenido = templateEngine.process("email/ticket-creado", context);
+            String contenido = templateEngine.process(PLANTILLA_TICKET_CREADO, context);
 
-            enviarEmail(
-                    ticket.getCliente().getEmail(),
-                    "Ticket " + ticket.getNumeroTicket() + " - Equipo recibido",
-                    contenido
-            );
-
-            log.info("Email de ticket creado enviado a: {} para ticket: {}",
-                    ticket.getCliente().getEmail(),
-                    ticket.getNumeroTicket());
+            encolar(TipoNotificacionEmail.TICKET_CREADO, ticket,
+                    "Ticket " + ticket.getNumeroTicket() + " - Equipo recibido", contenido);
 
         } catch (Exception e) {
-            log.error("Error al enviar email de ticket creado para ticket: {}", ticket.getNumeroTicket(), e);
+            log.error("Error al encolar email de ticket creado para ticket: {}", ticket.getNumeroTicket(), e);
         }
     }
 
@@ -111,32 +163,20 @@ public class EmailServiceImpl implements IEmailService {
         }
 
         try {
-            Context context = new Context();
-            context.setVariable("nombreCliente", ticket.getCliente().getNombreCompleto());
-            context.setVariable("numeroTicket", ticket.getNumeroTicket());
-            context.setVariable("tipoEquipo", ticket.getTipoEquipo());
+            Context context = contextoTicket(ticket);
             context.setVariable("diagnostico", ticket.getDiagnostico());
             context.setVariable("presupuestoManoObra", formatCurrency(ticket.getPresupuestoManoObra()));
             context.setVariable("presupuestoPiezas", formatCurrency(ticket.getPresupuestoPiezas()));
             context.setVariable("presupuestoTotal", formatCurrency(ticket.getPresupuestoTotal()));
             context.setVariable("tiempoEstimado", ticket.getTiempoEstimadoDias() + " días");
-            context.setVariable("urlConsulta", buildConsultationUrl(ticket.getNumeroTicket()));
-            context.setVariable("appName", appName);
-
-            String contenido = templateEngine.process("email/presupuesto-disponible", context);
 
-            enviarEmail(
-                    ticket.getCliente().getEmail(),
-                    "Presupuesto disponible - Ticket " + ticket.getNumeroTicket(),
-                    contenido
-            );
+            String contenido = templateEngine.process(PLANTILLA_PRESUPUESTO_DISPONIBLE, context);
 
-            log.info("Email de presupuesto disponible enviado a: {} para ticket: {}",
-                    ticket.getCliente().getEmail(),
-                    ticket.getNumeroTicket());
+            encolar(TipoNotificacionEmail.PRESUPUESTO_DISPONIBLE, ticket,
+                    "Presupuesto disponible - Ticket " + ticket.getNumeroTicket(), contenido);
 
         } catch (Exception e) {
-            log.error("Error al enviar email de presupuesto para ticket: {}", ticket.getNumeroTicket(), e);
+            log.error("Error al encolar email de presupuesto para ticket: {}", ticket.getNumeroTicket(), e);
         }
     }
 
@@ -153,29 +193,17 @@ public class EmailServiceImpl implements IEmailService {
         }
 
         try {
-            Context context = new Context();
-            context.setVariable("nombreCliente", ticket.getCliente().getNombreCompleto());
-            context.setVariable("numeroTicket", ticket.getNumeroTicket());
-            context.setVariable("tipoEquipo", ticket.getTipoEquipo());
+            Context context = contextoTicket(ticket);
             context.setVariable("marca", ticket.getMarca());
             context.setVariable("presupuestoTotal", formatCurrency(ticket.getPresupuestoTotal()));
-            context.setVariable("urlConsulta", buildConsultationUrl(ticket.getNumeroTicket()));
-            context.setVariable("appName", appName);
 
-            String contenido = templateEngine.process("email/listo-para-entrega", context);
+            String contenido = templateEngine.process(PLANTILLA_LISTO_PARA_ENTREGA, context);
 
-            enviarEmail(
-                    ticket.getCliente().getEmail(),
-                    "¡Su equipo está listo! - Ticket " + ticket.getNumeroTicket(),
-                    contenido
-            );
-
-            log.info("Email de listo para entrega enviado a: {} para ticket: {}",
-                    ticket.getCliente().getEmail(),
-                    ticket.getNumeroTicket());
+            encolar(TipoNotificacionEmail.LISTO_PARA_ENTREGA, ticket,
+                    "¡Su equipo está listo! - Ticket " + ticket.getNumeroTicket(), contenido);
 
         } catch (Exception e) {
-            log.error("Error al enviar email de listo para entrega para ticket: {}", ticket.getNumeroTicket(), e);
+            log.error("Error al encolar email de listo para entrega para ticket: {}", ticket.getNumeroTicket(), e);
         }
     }
 
@@ -192,32 +220,47 @@ public class EmailServiceImpl implements IEmailService {
         }
 
         try {
-            Context context = new Context();
-            context.setVariable("nombreCliente", ticket.getCliente().getNombreCompleto());
-            context.setVariable("numeroTicket", ticket.getNumeroTicket());
-            context.setVariable("tipoEquipo", ticket.getTipoEquipo());
-            context.setVariable("diasEspera", diasEspera);
-            context.setVariable("urlConsulta", buildConsultationUrl(ticket.getNumeroTicket()));
-            context.setVariable("appName", appName);
-
-            String contenido = templateEngine.process("email/recordatorio-recogida", context);
-
-            enviarEmail(
-                    ticket.getCliente().getEmail(),
-                    "Recordatorio: Su equipo está esperando - Ticket " + ticket.getNumeroTicket(),
-                    contenido
-            );
-
-            log.info("Email de recordatorio de recogida enviado a: {} para ticket: {} ({} días esperando)",
-                    ticket.getCliente().getEmail(),
-                    ticket.getNumeroTicket(),
-                    diasEspera);
+            RecordatorioRecogidaDTO recordatorio = RecordatorioRecogidaDTO.builder()
+                    .ticketId(ticket.getId())
+                    .numeroTicket(ticket.getNumeroTicket())
+                    .tipoEquipo(ticket.getTipoEquipo())
+                    .nombreCliente(ticket.getCliente().getNombreCompleto())
+                    .emailCliente(ticket.getCliente().getEmail())
+                    .diasEspera(diasEspera)
+                    .umbralDias(diasEspera)
+                    .build();
+
+            encolarRecordatorioRecogida(recordatorio, renderizarRecordatoriosRecogida(List.of(recordatorio)).get(0));
 
         } catch (Exception e) {
-            log.error("Error al enviar email de recordatorio para ticket: {}", ticket.getNumeroTicket(), e);
+            log.error("Error al encolar email de recordatorio para ticket: {}", ticket.getNumeroTicket(), e);
         }
     }
 
+    @Override
+    public List<String> renderizarRecordatoriosRecogida(List<RecordatorioRecogidaDTO> recordatorios) {
+        // Un solo contexto para todo el lote: cada recordatorio sobrescribe sus variables
+        Context context = new Context();
+        List<String> contenidos = new ArrayList<>(recordatorios.size());
+        for (RecordatorioRecogidaDTO recordatorio : recordatorios) {
+            asignarVariablesTicket(context, recordatorio.getNumeroTicket(), recordatorio.getNombreCliente(),
+                    recordatorio.getTipoEquipo());
+            context.setVariable("diasEspera", recordatorio.getDiasEspera());
+            contenidos.add(templateEngine.process(PLANTILLA_RECORDATORIO_RECOGIDA, context));
+        }
+        return contenidos;
+    }
+
+    @Override
+    public boolean encolarRecordatorioRecogida(RecordatorioRecogidaDTO recordatorio, String contenido) {
+        // Un recordatorio por umbral de espera
+        String clave = claveDeduplicacion(TipoNotificacionEmail.RECORDATORIO_RECOGIDA, recordatorio.getTicketId(),
+                recordatorio.getEmailCliente()) + ":" + recordatorio.getUmbralDias();
+        return encolar(TipoNotificacionEmail.RECORDATORIO_RECOGIDA, recordatorio.getTicketId(),
+                recordatorio.getNumeroTicket(), recordatorio.getEmailCliente(), clave,
+                "Recordatorio: Su equipo está esperando - Ticket " + recordatorio.getNumeroTicket(), contenido);
+    }
+
     @Override
     public void enviarEmail(String destinatario, String asunto, String contenido) {
         if (!emailEnabled) {
@@ -226,22 +269,16 @@ public class EmailServiceImpl implements IEmailService {
         }
 
         try {
-            MimeMessage message = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(
-                    message,
-                    MimeMessageHelper.MULTIPART_MODE_MIXED_RELATED,
-                    StandardCharsets.UTF_8.name()
-            );
-
-            helper.setFrom(emailFrom, emailFromName);
-            helper.setTo(destinatario);
-            helper.setSubject(asunto);
-            helper.setText(contenido, true); // true = es HTML
-
-            mailSender.send(message);
+            Map<Integer, Exception> fallos = enviarMensajes(List.of(crearMensaje(destinatario, asunto, contenido)));
+            if (!fallos.isEmpty()) {
+                throw fallos.get(0);
+            }
 
             log.debug("Email enviado exitosamente a: {} con asunto: {}", destinatario, asunto);
 
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Envío de email interrumpido", e);
         } catch (MessagingException e) {
             log.error("Error al enviar email a: {} con asunto: {}", destinatario, asunto, e);
             throw new RuntimeException("Error al enviar email", e);
@@ -251,11 +288,154 @@ public class EmailServiceImpl implements IEmailService {
         }
     }
 
+    @Override
+    public Map<Long, Exception> enviarNotificaciones(List<NotificacionEmail> notificaciones) {
+        Map<Long, Exception> fallos = new HashMap<>();
+        if (!emailEnabled || notificaciones.isEmpty()) {
+            return fallos;
+        }
+
+        List<MimeMessage> mensajes = new ArrayList<>(notificaciones.size());
+        List<Long> ids = new ArrayList<>(notificaciones.size());
+        for (NotificacionEmail notificacion : notificaciones) {
+            try {
+                mensajes.add(crearMensaje(notificacion.getDestinatario(), notificacion.getAsunto(),
+                        notificacion.getContenido()));
+                ids.add(notificacion.getId());
+            } catch (Exception e) {
+                fallos.put(notificacion.getId(), e);
+            }
+        }
+
+        try {
+            enviarMensajes(mensajes).forEach((indice, error) -> fallos.put(ids.get(indice), error));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            ids.forEach(id -> fallos.putIfAbsent(id, e));
+        }
+
+        log.debug("Lote de {} emails enviado ({} fallidos)", notificaciones.size(), fallos.size());
+        return fallos;
+    }
+
     @Override
     public boolean isEmailEnabled() {
         return emailEnabled;
     }
 
+    /**
+     * Contexto con las variables comunes a las plantillas de un ticket.
+     */
+    private Context contextoTicket(Ticket ticket) {
+        Context context = new Context();
+        asignarVariablesTicket(context, ticket.getNumeroTicket(), ticket.getCliente().getNombreCompleto(),
+                ticket.getTipoEquipo());
+        return context;
+    }
+
+    /**
+     * Asigna las variables que usan todas las plantillas: cliente, ticket,
+     * equipo, enlace de consulta y nombre de la aplicación.
+     */
+    private void asignarVariablesTicket(Context context, String numeroTicket, String nombreCliente, String tipoEquipo) {
+        context.setVariable("nombreCliente", nombreCliente);
+        context.setVariable("numeroTicket", numeroTicket);
+        context.setVariable("tipoEquipo", tipoEquipo);
+        context.setVariable("urlConsulta", buildConsultationUrl(numeroTicket));
+        context.setVariable("appName", appName);
+    }
+
+    /**
+     * Crea el mensaje HTML con el remitente configurado.
+     */
+    private MimeMessage crearMensaje(String destinatario, String asunto, String contenido)
+            throws MessagingException, UnsupportedEncodingException {
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(
+                message,
+                MimeMessageHelper.MULTIPART_MODE_MIXED_RELATED,
+                StandardCharsets.UTF_8.name()
+        );
+
+        helper.setFrom(emailFrom, emailFromName);
+        helper.setTo(destinatario);
+        helper.setSubject(asunto);
+        helper.setText(contenido, true); // true = es HTML
+        return message;
+    }
+
+    /**
+     * Envía los mensajes por una sola conexión: la del pool si está habilitado
+     * o, si no, la que abre JavaMailSender para el lote.
+     *
+     * @return Errores por índice del mensaje (vacío si se enviaron todos)
+     */
+    private Map<Integer, Exception> enviarMensajes(List<MimeMessage> mensajes) throws InterruptedException {
+        if (poolConexiones != null) {
+            return poolConexiones.enviar(mensajes);
+        }
+
+        Map<Integer, Exception> fallos = new HashMap<>();
+        try {
+            mailSender.send(mensajes.toArray(new MimeMessage[0]));
+        } catch (MailSendException e) {
+            for (int i = 0; i < mensajes.size(); i++) {
+                Exception error = e.getFailedMessages().get(mensajes.get(i));
+                if (error != null) {
+                    fallos.put(i, error);
+                }
+            }
+            if (fallos.isEmpty()) {
+                for (int i = 0; i < mensajes.size(); i++) {
+                    fallos.put(i, e);
+                }
+            }
+        } catch (MailException e) {
+            for (int i = 0; i < mensajes.size(); i++) {
+                fallos.put(i, e);
+            }
+        }
+        return fallos;
+    }
+
+    /**
+     * Encola la notificación con la clave de deduplicación por tipo, ticket y destinatario.
+     */
+    private void encolar(TipoNotificacionEmail tipo, Ticket ticket, String asunto, String contenido) {
+        String destinatario = ticket.getCliente().getEmail();
+        encolar(tipo, ticket.getId(), ticket.getNumeroTicket(), destinatario,
+                claveDeduplicacion(tipo, ticket.getId(), destinatario), asunto, contenido);
+    }
+
+    /**
+     * Encola la notificación en la bandeja de salida, salvo que ya exista
+     * una con la misma clave de deduplicación.
+     *
+     * @return true si se encoló, false si ya estaba encolada
+     */
+    private boolean encolar(TipoNotificacionEmail tipo, Long ticketId, String numeroTicket, String destinatario,
+                            String clave, String asunto, String contenido) {
+        destinatario = destinatario.trim();
+        int encoladas = notificacionRepository.encolar(tipo.name(), ticketId, destinatario, asunto,
+                contenido, clave, LocalDateTime.now());
+
+        if (encoladas == 0) {
+            log.debug("Email {} para ticket {} ya estaba encolado para: {}", tipo, numeroTicket, destinatario);
+            return false;
+        }
+
+        eventPublisher.publishEvent(new NotificacionEmailEncoladaEvent(ticketId));
+        log.info("Email {} encolado para: {} (ticket {})", tipo, destinatario, numeroTicket);
+        return true;
+    }
+
+    /**
+     * Clave de deduplicación de una notificación: tipo, ticket y destinatario.
+     */
+    private String claveDeduplicacion(TipoNotificacionEmail tipo, Long ticketId, String destinatario) {
+        return tipo.name() + ":" + ticketId + ":" + destinatario.trim().toLowerCase();
+    }
+
     /**
      * Construye la URL completa para consultar un ticket.
      *
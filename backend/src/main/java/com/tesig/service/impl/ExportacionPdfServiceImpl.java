@@ -0,0 +1,242 @@
+package com.tesig.service.impl;
+
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfReader;
+import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.kernel.utils.PdfMerger;
+import com.tesig.dto.DocumentoPdfDTO;
+import com.tesig.dto.ticket.ExportarDocumentosDTO;
+import com.tesig.exception.BusinessException;
+import com.tesig.model.FormatoExportacionPdf;
+import com.tesig.model.TipoDocumentoPdf;
+import com.tesig.repository.TicketRepository;
+import com.tesig.service.IExportacionPdfService;
+import com.tesig.service.IPDFService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Implementación de la exportación en lote de documentos PDF.
+ *
+ * Cada documento se obtiene en un hilo del pool (compartido por todas las
+ * exportaciones) dentro de su propia transacción de solo lectura, usando el
+ * cache de PDFs. Como máximo hay {@code documentos-en-vuelo} documentos
+ * generados o pendientes de escritura, de modo que la memoria no crece con
+ * el tamaño del lote.
+ */
+@Service
+@Slf4j
+public class ExportacionPdfServiceImpl implements IExportacionPdfService {
+
+    private final TicketRepository ticketRepository;
+    private final IPDFService pdfService;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService executor;
+    private final int documentosEnVuelo;
+    private final int maxDocumentos;
+
+    public ExportacionPdfServiceImpl(
+            TicketRepository ticketRepository,
+            IPDFService pdfService,
+            PlatformTransactionManager transactionManager,
+            @Value("${tesig.pdf.exportacion.hilos:4}") int hilos,
+            @Value("${tesig.pdf.exportacion.documentos-en-vuelo:8}") int documentosEnVuelo,
+            @Value("${tesig.pdf.exportacion.max-documentos:500}") int maxDocumentos) {
+        this.ticketRepository = ticketRepository;
+        this.pdfService = pdfService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.documentosEnVuelo = Math.max(1, documentosEnVuelo);
+        this.maxDocumentos = maxDocumentos;
+
+        AtomicInteger contador = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(Math.max(1, hilos), tarea -> {
+            Thread hilo = new Thread(tarea, "exportacion-pdf-" + contador.incrementAndGet());
+            hilo.setDaemon(true);
+            return hilo;
+        });
+    }
+
+    @PreDestroy
+    void detener() {
+        executor.shutdownNow();
+    }
+
+    @Override
+    public List<Long> resolverTickets(ExportarDocumentosDTO solicitud) {
+        List<Long> ids;
+        if (solicitud.getTicketIds() != null && !solicitud.getTicketIds().isEmpty()) {
+            ids = solicitud.getTicketIds().stream().distinct().toList();
+        } else {
+            if (solicitud.getFechaDesde() != null && solicitud.getFechaHasta() != null
+                    && solicitud.getFechaHasta().isBefore(solicitud.getFechaDesde())) {
+                throw new BusinessException("La fecha hasta no puede ser anterior a la fecha desde");
+            }
+            ids = ticketRepository.findIdsParaExportacion(
+                    solicitud.getEstado(),
+                    solicitud.getFechaDesde() != null ? solicitud.getFechaDesde().atStartOfDay() : null,
+                    solicitud.getFechaHasta() != null ? solicitud.getFechaHasta().plusDays(1).atStartOfDay() : null,
+                    solicitud.getTecnicoId(),
+                    Limit.of(maxDocumentos + 1));
+        }
+
+        if (ids.isEmpty()) {
+            throw new BusinessException("No hay tickets para exportar con el filtro indicado");
+        }
+        if (ids.size() > maxDocumentos) {
+            throw new BusinessException("La exportación supera el máximo de " + maxDocumentos + " documentos");
+        }
+
+        log.info("Exportación de documentos: {} tickets", ids.size());
+        return ids;
+    }
+
+    @Override
+    public void exportar(List<Long> ticketIds, TipoDocumentoPdf tipo, FormatoExportacionPdf formato,
+                         OutputStream salida) throws IOException {
+        long inicio = System.currentTimeMillis();
+        EscritorExportacion escritor = formato == FormatoExportacionPdf.PDF_UNICO
+                ? new EscritorPdfUnico(salida)
+                : new EscritorZip(salida);
+
+        Deque<Future<DocumentoExportado>> pendientes = new ArrayDeque<>();
+        Iterator<Long> ids = ticketIds.iterator();
+        int exportados = 0;
+        try {
+            while (ids.hasNext() || !pendientes.isEmpty()) {
+                while (ids.hasNext() && pendientes.size() < documentosEnVuelo) {
+                    Long ticketId = ids.next();
+                    pendientes.add(executor.submit(() -> generar(ticketId, tipo)));
+                }
+
+                // Se escribe en el orden solicitado aunque los documentos terminen en otro orden
+                DocumentoExportado documento = pendientes.poll().get();
+                if (documento != null) {
+                    escritor.escribir(documento);
+                    exportados++;
+                }
+            }
+            escritor.cerrar();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Exportación de documentos interrumpida", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Error al generar un documento de la exportación", e.getCause());
+        } finally {
+            pendientes.forEach(pendiente -> pendiente.cancel(true));
+        }
+
+        log.info("Exportación {} de {} documentos {} completada en {} ms",
+                formato, exportados, tipo, System.currentTimeMillis() - inicio);
+    }
+
+    private DocumentoExportado generar(Long ticketId, TipoDocumentoPdf tipo) {
+        return transactionTemplate.execute(status -> ticketRepository.findByIdAndDeletedAtIsNull(ticketId)
+                .map(ticket -> new DocumentoExportado(
+                        tipo.nombreArchivo(ticket.getNumeroTicket()),
+                        pdfService.obtenerDocumento(ticket, tipo)))
+                .orElseGet(() -> {
+                    log.warn("Ticket {} no encontrado; se omite de la exportación", ticketId);
+                    return null;
+                }));
+    }
+
+    private record DocumentoExportado(String nombreArchivo, DocumentoPdfDTO documento) {
+    }
+
+    private interface EscritorExportacion {
+        void escribir(DocumentoExportado documento) throws IOException;
+
+        void cerrar() throws IOException;
+    }
+
+    /**
+     * Un PDF por entrada. Los PDFs ya están comprimidos, por eso se usa el
+     * nivel de compresión más rápido.
+     */
+    private static final class EscritorZip implements EscritorExportacion {
+
+        private final ZipOutputStream zip;
+
+        EscritorZip(OutputStream salida) {
+            this.zip = new ZipOutputStream(salida);
+            this.zip.setLevel(Deflater.BEST_SPEED);
+        }
+
+        @Override
+        public void escribir(DocumentoExportado documento) throws IOException {
+            zip.putNextEntry(new ZipEntry(documento.nombreArchivo()));
+            try (InputStream contenido = documento.documento().getContenido().getInputStream()) {
+                contenido.transferTo(zip);
+            }
+            zip.closeEntry();
+        }
+
+        @Override
+        public void cerrar() throws IOException {
+            // finish() escribe el directorio central sin cerrar el stream de la respuesta
+            zip.finish();
+            zip.flush();
+        }
+    }
+
+    /**
+     * Concatena los documentos en un solo PDF. Las páginas se vuelcan a la
+     * salida después de copiar cada documento para no acumularlas en memoria.
+     */
+    private static final class EscritorPdfUnico implements EscritorExportacion {
+
+        private final PdfDocument destino;
+        private final PdfMerger merger;
+
+        EscritorPdfUnico(OutputStream salida) {
+            PdfWriter writer = new PdfWriter(salida);
+            writer.setCloseStream(false);
+            this.destino = new PdfDocument(writer);
+            this.merger = new PdfMerger(destino);
+        }
+
+        @Override
+        public void escribir(DocumentoExportado documento) throws IOException {
+            int primeraPagina = destino.getNumberOfPages() + 1;
+            try (InputStream contenido = documento.documento().getContenido().getInputStream()) {
+                PdfDocument origen = new PdfDocument(new PdfReader(contenido));
+                merger.merge(origen, 1, origen.getNumberOfPages());
+                origen.close();
+            }
+            for (int pagina = primeraPagina; pagina <= destino.getNumberOfPages(); pagina++) {
+                destino.getPage(pagina).flush();
+            }
+        }
+
+        @Override
+        public void cerrar() {
+            if (destino.getNumberOfPages() == 0) {
+                // Un PDF sin páginas no es válido (todos los tickets fueron eliminados)
+                destino.addNewPage();
+            }
+            destino.close();
+        }
+    }
+}
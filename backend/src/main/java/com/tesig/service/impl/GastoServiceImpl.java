@@ -1,5 +1,6 @@
 package com.tesig.service.impl;
 
+import com.tesig.dto.CursorPageDTO;
 import com.tesig.dto.gasto.CrearGastoDTO;
 import com.tesig.dto.gasto.GastoResponseDTO;
 import com.tesig.exception.ResourceNotFoundException;
@@ -7,6 +8,8 @@ import com.tesig.mapper.GastoMapper;
 import com.tesig.model.Gasto;
 import com.tesig.repository.GastoRepository;
 import com.tesig.service.IGastoService;
+import com.tesig.service.IResumenFinancieroService;
+import com.tesig.util.CursorPaginacion;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -26,11 +29,13 @@ public class GastoServiceImpl implements IGastoService {
 
     private final GastoRepository gastoRepository;
     private final GastoMapper gastoMapper;
+    private final IResumenFinancieroService resumenFinancieroService;
 
     @Override
     public GastoResponseDTO crear(CrearGastoDTO dto) {
         Gasto gasto = gastoMapper.toEntity(dto);
         Gasto saved = gastoRepository.save(gasto);
+        resumenFinancieroService.registrarGasto(saved.getFecha(), saved.getCategoria(), saved.getMonto());
         return gastoMapper.toDTO(saved);
     }
 
@@ -39,8 +44,16 @@ public class GastoServiceImpl implements IGastoService {
         Gasto gasto = gastoRepository.findByIdAndNotDeleted(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Gasto no encontrado: " + id));
 
+        // Valores previos para revertirlos del resumen financiero diario
+        LocalDate fechaAnterior = gasto.getFecha();
+        Gasto.CategoriaGasto categoriaAnterior = gasto.getCategoria();
+        BigDecimal montoAnterior = gasto.getMonto();
+
         gastoMapper.updateEntity(dto, gasto);
         Gasto saved = gastoRepository.save(gasto);
+
+        resumenFinancieroService.registrarGasto(fechaAnterior, categoriaAnterior, montoAnterior.negate());
+        resumenFinancieroService.registrarGasto(saved.getFecha(), saved.getCategoria(), saved.getMonto());
         return gastoMapper.toDTO(saved);
     }
 
@@ -59,6 +72,19 @@ public class GastoServiceImpl implements IGastoService {
                 .map(gastoMapper::toDTO);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDTO<GastoResponseDTO> getAllAfter(String after, int size) {
+        CursorPaginacion.Cursor cursor = CursorPaginacion.decodificar(after);
+        List<Gasto> gastos = cursor == null
+                ? gastoRepository.findPrimerosPorCursor(CursorPaginacion.limiteConsulta(size))
+                : gastoRepository.findSiguientesPorCursor(
+                        cursor.valorComoFecha(), cursor.id(), CursorPaginacion.limiteConsulta(size));
+
+        return CursorPaginacion.construirPagina(gastos, size, gastoMapper::toDTO,
+                gasto -> CursorPaginacion.codificar(gasto.getFecha(), gasto.getId()));
+    }
+
     @Override
     @Transactional(readOnly = true)
     public Page<GastoResponseDTO> getByCategoria(String categoria, Pageable pageable) {
@@ -88,6 +114,7 @@ public class GastoServiceImpl implements IGastoService {
                 .orElseThrow(() -> new ResourceNotFoundException("Gasto no encontrado: " + id));
         gasto.setDeleted(true);
         gastoRepository.save(gasto);
+        resumenFinancieroService.registrarGasto(gasto.getFecha(), gasto.getCategoria(), gasto.getMonto().negate());
     }
 
     @Override
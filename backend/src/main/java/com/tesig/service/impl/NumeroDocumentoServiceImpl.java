@@ -0,0 +1,66 @@
+package com.tesig.service.impl;
+
+import com.tesig.model.ConfiguracionEmpresa;
+import com.tesig.model.SerieDocumento;
+import com.tesig.repository.ConfiguracionEmpresaRepository;
+import com.tesig.service.INumeroDocumentoService;
+import com.tesig.service.ISecuenciaService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Implementación de la numeración de documentos sobre ISecuenciaService.
+ * El prefijo de la secuencia es {EMPRESA}-{SERIE}, con un contador por día.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class NumeroDocumentoServiceImpl implements INumeroDocumentoService {
+
+    private static final String DEFAULT_EMPRESA = "TES";
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd");
+    private static final int LONGITUD_SECUENCIA = 4;
+
+    private final ISecuenciaService secuenciaService;
+    private final ConfiguracionEmpresaRepository configuracionRepository;
+
+    @Override
+    public String generar(SerieDocumento serie) {
+        return generar(serie, patron -> Optional.empty());
+    }
+
+    @Override
+    public String generar(SerieDocumento serie, Function<String, Optional<String>> ultimoNumeroConPatron) {
+        LocalDate hoy = LocalDate.now();
+        String prefijo = getCodigoEmpresa() + "-" + serie.getCodigo();
+        String fecha = hoy.format(DATE_FORMAT);
+
+        long secuencia = secuenciaService.siguiente(prefijo, hoy,
+                () -> ultimoNumeroConPatron.apply(prefijo + "-" + fecha + "-%")
+                        .map(this::extraerSecuencia)
+                        .orElse(0L));
+
+        String numero = prefijo + "-" + fecha + "-" + String.format("%0" + LONGITUD_SECUENCIA + "d", secuencia);
+        log.debug("Número de {} generado: {}", serie.getNombre(), numero);
+        return numero;
+    }
+
+    private String getCodigoEmpresa() {
+        return configuracionRepository.findFirstActiveConfiguration()
+                .map(ConfiguracionEmpresa::getCodigoEmpresa)
+                .filter(codigo -> !codigo.isBlank())
+                .map(String::toUpperCase)
+                .orElse(DEFAULT_EMPRESA);
+    }
+
+    private long extraerSecuencia(String numero) {
+        String secuencia = numero.substring(numero.lastIndexOf('-') + 1);
+        return secuencia.matches("\\d+") ? Long.parseLong(secuencia) : 0L;
+    }
+}
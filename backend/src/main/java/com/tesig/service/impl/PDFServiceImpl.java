@@ -1,10 +1,13 @@
 package com.tesig.service.impl;
 
-import com.itextpdf.io.image.ImageDataFactory;
+import com.google.zxing.common.BitMatrix;
 import com.itextpdf.kernel.colors.ColorConstants;
 import com.itextpdf.kernel.colors.DeviceRgb;
+import com.itextpdf.kernel.geom.Rectangle;
 import com.itextpdf.kernel.pdf.PdfDocument;
 import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.kernel.pdf.canvas.PdfCanvas;
+import com.itextpdf.kernel.pdf.xobject.PdfFormXObject;
 import com.itextpdf.layout.Document;
 import com.itextpdf.layout.borders.Border;
 import com.itextpdf.layout.borders.SolidBorder;
@@ -14,17 +17,20 @@ import com.itextpdf.layout.element.Paragraph;
 import com.itextpdf.layout.element.Table;
 import com.itextpdf.layout.properties.TextAlignment;
 import com.itextpdf.layout.properties.UnitValue;
-import com.tesig.model.ConfiguracionEmpresa;
+import com.tesig.cache.DocumentoPdfCache;
+import com.tesig.cache.RecursosPdfRegistro;
+import com.tesig.dto.DocumentoPdfDTO;
 import com.tesig.model.Ticket;
-import com.tesig.repository.ConfiguracionEmpresaRepository;
+import com.tesig.model.TipoDocumentoPdf;
 import com.tesig.service.IPDFService;
 import com.tesig.service.IQRCodeService;
+import com.tesig.util.PoolBuferes;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
@@ -44,7 +50,8 @@ import java.time.format.DateTimeFormatter;
 public class PDFServiceImpl implements IPDFService {
 
     private final IQRCodeService qrCodeService;
-    private final ConfiguracionEmpresaRepository configuracionRepository;
+    private final RecursosPdfRegistro recursosPdfRegistro;
+    private final DocumentoPdfCache documentoPdfCache;
 
     @Value("${tesig.app.name:TESIG}")
     private String appName;
@@ -55,15 +62,57 @@ public class PDFServiceImpl implements IPDFService {
     @Value("${tesig.app.ticket-consultation-path:/consulta}")
     private String consultationPath;
 
+    // Buffers reutilizados cuando el PDF debe quedar en memoria (cache, exportación)
+    private final PoolBuferes buferes = new PoolBuferes(8, 64 * 1024, 4 * 1024 * 1024);
+
+    private static final float TAMANIO_QR = 200f; // puntos, igual que la imagen PNG anterior
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
     private static final DeviceRgb COLOR_PRIMARY = new DeviceRgb(76, 175, 80); // Verde
     private static final DeviceRgb COLOR_SECONDARY = new DeviceRgb(33, 33, 33); // Gris oscuro
+    private static final DeviceRgb COLOR_FONDO_TOTAL = new DeviceRgb(240, 240, 240);
+    private static final DeviceRgb COLOR_FONDO_GARANTIA = new DeviceRgb(232, 245, 233);
+    private static final DeviceRgb COLOR_FONDO_ADVERTENCIA = new DeviceRgb(255, 243, 205);
+    private static final DeviceRgb COLOR_BORDE_ADVERTENCIA = new DeviceRgb(255, 193, 7);
+
+    @Override
+    public DocumentoPdfDTO obtenerDocumento(Ticket ticket, TipoDocumentoPdf tipo) {
+        return documentoPdfCache.obtener(ticket, tipo, () -> switch (tipo) {
+            case TICKET -> generarTicketPDF(ticket);
+            case PRESUPUESTO -> generarPresupuestoPDF(ticket);
+            case COMPROBANTE_ENTREGA -> generarComprobanteEntregaPDF(ticket);
+        });
+    }
+
+    @Override
+    public void escribirDocumento(Ticket ticket, TipoDocumentoPdf tipo, OutputStream salida) {
+        switch (tipo) {
+            case TICKET -> escribirTicketPDF(ticket, salida);
+            case PRESUPUESTO -> escribirPresupuestoPDF(ticket, salida);
+            case COMPROBANTE_ENTREGA -> escribirComprobanteEntregaPDF(ticket, salida);
+        }
+    }
+
+    @Override
+    public boolean isCacheDocumentosHabilitado() {
+        return documentoPdfCache.isHabilitado();
+    }
+
+    @Override
+    public String calcularEtag(Ticket ticket, TipoDocumentoPdf tipo) {
+        return documentoPdfCache.etag(ticket, tipo);
+    }
 
     @Override
     public byte[] generarTicketPDF(Ticket ticket) {
+        return buferes.generar(salida -> escribirTicketPDF(ticket, salida));
+    }
+
+    @Override
+    public void escribirTicketPDF(Ticket ticket, OutputStream salida) {
         try {
-            ByteArrayOutputStream baos = new ByteArrayOutputStream();
-            PdfWriter writer = new PdfWriter(baos);
+            // iText escribe directamente en la salida; el stream lo cierra quien lo abrió
+            PdfWriter writer = new PdfWriter(salida);
+            writer.setCloseStream(false);
             PdfDocument pdf = new PdfDocument(writer);
             Document document = new Document(pdf);
 
@@ -94,8 +143,6 @@ public class PDFServiceImpl implements IPDFService {
             document.close();
             log.info("PDF del ticket {} generado exitosamente", ticket.getNumeroTicket());
 
-            return baos.toByteArray();
-
         } catch (Exception e) {
             log.error("Error al generar PDF del ticket: {}", ticket.getNumeroTicket(), e);
             throw new RuntimeException("Error al generar PDF del ticket", e);
@@ -104,9 +151,15 @@ public class PDFServiceImpl implements IPDFService {
 
     @Override
     public byte[] generarPresupuestoPDF(Ticket ticket) {
+        return buferes.generar(salida -> escribirPresupuestoPDF(ticket, salida));
+    }
+
+    @Override
+    public void escribirPresupuestoPDF(Ticket ticket, OutputStream salida) {
         try {
-            ByteArrayOutputStream baos = new ByteArrayOutputStream();
-            PdfWriter writer = new PdfWriter(baos);
+            // iText escribe directamente en la salida; el stream lo cierra quien lo abrió
+            PdfWriter writer = new PdfWriter(salida);
+            writer.setCloseStream(false);
             PdfDocument pdf = new PdfDocument(writer);
             Document document = new Document(pdf);
 
@@ -219,11 +272,11 @@ public class PDFServiceImpl implements IPDFService {
                 Cell totalLabelCell = createCell("TOTAL", false)
                         .setBold()
                         .setFontSize(14)
-                        .setBackgroundColor(new DeviceRgb(240, 240, 240));
+                        .setBackgroundColor(COLOR_FONDO_TOTAL);
                 Cell totalValueCell = createCell(formatCurrency(ticket.getPresupuestoTotal()), false)
                         .setBold()
                         .setFontSize(14)
-                        .setBackgroundColor(new DeviceRgb(240, 240, 240));
+                        .setBackgroundColor(COLOR_FONDO_TOTAL);
 
                 presupuestoTable.addCell(totalLabelCell);
                 presupuestoTable.addCell(totalValueCell);
@@ -244,7 +297,6 @@ public class PDFServiceImpl implements IPDFService {
             document.close();
 
             log.info("PDF de presupuesto del ticket {} generado exitosamente", ticket.getNumeroTicket());
-            return baos.toByteArray();
 
         } catch (Exception e) {
             log.error("Error al generar PDF de presupuesto del ticket: {}", ticket.getNumeroTicket(), e);
@@ -254,19 +306,25 @@ public class PDFServiceImpl implements IPDFService {
 
     @Override
     public byte[] generarComprobanteEntregaPDF(Ticket ticket) {
+        return buferes.generar(salida -> escribirComprobanteEntregaPDF(ticket, salida));
+    }
+
+    @Override
+    public void escribirComprobanteEntregaPDF(Ticket ticket, OutputStream salida) {
         try {
-            ByteArrayOutputStream baos = new ByteArrayOutputStream();
-            PdfWriter writer = new PdfWriter(baos);
+            // iText escribe directamente en la salida; el stream lo cierra quien lo abrió
+            PdfWriter writer = new PdfWriter(salida);
+            writer.setCloseStream(false);
             PdfDocument pdf = new PdfDocument(writer);
             Document document = new Document(pdf);
 
             document.setMargins(40, 40, 40, 40);
 
-            // Obtener configuración de empresa
-            ConfiguracionEmpresa config = configuracionRepository.findFirstActiveConfiguration().orElse(null);
+            // Recursos de la empresa (calculados una vez por versión de la configuración)
+            RecursosPdfRegistro.Recursos recursos = recursosPdfRegistro.obtener();
 
             // Encabezado con información de empresa
-            agregarEncabezadoEmpresa(document, config);
+            agregarEncabezadoEmpresa(document, recursos);
 
             // Título del documento
             Paragraph titulo = new Paragraph("COMPROBANTE DE ENTREGA")
@@ -404,13 +462,10 @@ public class PDFServiceImpl implements IPDFService {
             document.add(costosTable);
 
             // Información de garantía
-            int diasGarantia = config != null && config.getDiasGarantiaDefault() != null
-                    ? config.getDiasGarantiaDefault() : 30;
-
-            Paragraph garantia = new Paragraph("GARANTÍA: " + diasGarantia + " días a partir de la fecha de entrega")
+            Paragraph garantia = new Paragraph("GARANTÍA: " + recursos.diasGarantia() + " días a partir de la fecha de entrega")
                     .setFontSize(11)
                     .setBold()
-                    .setBackgroundColor(new DeviceRgb(232, 245, 233))
+                    .setBackgroundColor(COLOR_FONDO_GARANTIA)
                     .setPadding(10)
                     .setBorder(new SolidBorder(COLOR_PRIMARY, 1))
                     .setMarginTop(15)
@@ -431,11 +486,7 @@ public class PDFServiceImpl implements IPDFService {
             agregarSeccionFirmas(document);
 
             // Mensaje de agradecimiento
-            String mensajeAgradecimiento = config != null && config.getMensajeAgradecimiento() != null
-                    ? config.getMensajeAgradecimiento()
-                    : "¡Gracias por confiar en nosotros!";
-
-            Paragraph agradecimiento = new Paragraph(mensajeAgradecimiento)
+            Paragraph agradecimiento = new Paragraph(recursos.mensajeAgradecimiento())
                     .setFontSize(12)
                     .setBold()
                     .setTextAlignment(TextAlignment.CENTER)
@@ -444,11 +495,10 @@ public class PDFServiceImpl implements IPDFService {
             document.add(agradecimiento);
 
             // Footer con información de contacto
-            agregarFooterConContacto(document, config);
+            agregarFooterConContacto(document, recursos);
 
             document.close();
             log.info("PDF de comprobante de entrega del ticket {} generado exitosamente", ticket.getNumeroTicket());
-            return baos.toByteArray();
 
         } catch (Exception e) {
             log.error("Error al generar PDF de comprobante de entrega: {}", ticket.getNumeroTicket(), e);
@@ -458,13 +508,8 @@ public class PDFServiceImpl implements IPDFService {
 
     // ==================== MÉTODOS AUXILIARES ====================
 
-    private void agregarEncabezadoEmpresa(Document document, ConfiguracionEmpresa config) {
-        String nombreEmpresa = config != null ? config.getNombreEmpresa() : appName;
-        String direccion = config != null ? config.getDireccionCompleta() : "";
-        String telefono = config != null ? config.getTelefonoPrincipal() : "";
-        String email = config != null ? config.getEmailContacto() : "";
-
-        Paragraph header = new Paragraph(nombreEmpresa)
+    private void agregarEncabezadoEmpresa(Document document, RecursosPdfRegistro.Recursos recursos) {
+        Paragraph header = new Paragraph(recursos.nombreEmpresa())
                 .setFontSize(20)
                 .setBold()
                 .setFontColor(COLOR_PRIMARY)
@@ -472,22 +517,15 @@ public class PDFServiceImpl implements IPDFService {
                 .setMarginBottom(5);
         document.add(header);
 
-        if (!direccion.isEmpty()) {
-            Paragraph dir = new Paragraph(direccion)
+        if (!recursos.direccion().isEmpty()) {
+            Paragraph dir = new Paragraph(recursos.direccion())
                     .setFontSize(9)
                     .setTextAlignment(TextAlignment.CENTER);
             document.add(dir);
         }
 
-        StringBuilder contacto = new StringBuilder();
-        if (!telefono.isEmpty()) contacto.append("Tel: ").append(telefono);
-        if (!email.isEmpty()) {
-            if (contacto.length() > 0) contacto.append(" | ");
-            contacto.append("Email: ").append(email);
-        }
-
-        if (contacto.length() > 0) {
-            Paragraph cont = new Paragraph(contacto.toString())
+        if (!recursos.contacto().isEmpty()) {
+            Paragraph cont = new Paragraph(recursos.contacto())
                     .setFontSize(9)
                     .setTextAlignment(TextAlignment.CENTER)
                     .setMarginBottom(20);
@@ -552,7 +590,7 @@ public class PDFServiceImpl implements IPDFService {
         document.add(firmasTable);
     }
 
-    private void agregarFooterConContacto(Document document, ConfiguracionEmpresa config) {
+    private void agregarFooterConContacto(Document document, RecursosPdfRegistro.Recursos recursos) {
         Paragraph footer = new Paragraph("──────────────────────────────────────────")
                 .setFontSize(10)
                 .setTextAlignment(TextAlignment.CENTER)
@@ -560,18 +598,11 @@ public class PDFServiceImpl implements IPDFService {
                 .setMarginBottom(5);
         document.add(footer);
 
-        if (config != null) {
-            StringBuilder redes = new StringBuilder();
-            if (config.getWhatsapp() != null) redes.append("WhatsApp: ").append(config.getWhatsapp()).append(" ");
-            if (config.getFacebookUrl() != null) redes.append("| Facebook: @").append(extractHandle(config.getFacebookUrl())).append(" ");
-            if (config.getInstagramUrl() != null) redes.append("| Instagram: @").append(extractHandle(config.getInstagramUrl()));
-
-            if (redes.length() > 0) {
-                Paragraph redesParagraph = new Paragraph(redes.toString().trim())
-                        .setFontSize(8)
-                        .setTextAlignment(TextAlignment.CENTER);
-                document.add(redesParagraph);
-            }
+        if (!recursos.redesSociales().isEmpty()) {
+            Paragraph redesParagraph = new Paragraph(recursos.redesSociales())
+                    .setFontSize(8)
+                    .setTextAlignment(TextAlignment.CENTER);
+            document.add(redesParagraph);
         }
 
         Paragraph footerText = new Paragraph("Conserve este comprobante como constancia de entrega y garantía")
@@ -581,13 +612,6 @@ public class PDFServiceImpl implements IPDFService {
         document.add(footerText);
     }
 
-    private String extractHandle(String url) {
-        if (url == null) return "";
-        // Extraer el último segmento de la URL como handle
-        String[] parts = url.split("/");
-        return parts.length > 0 ? parts[parts.length - 1] : url;
-    }
-
     private void agregarEncabezado(Document document) {
         Paragraph header = new Paragraph(appName)
                 .setFontSize(20)
@@ -633,9 +657,9 @@ public class PDFServiceImpl implements IPDFService {
         Paragraph advertencia = new Paragraph("⚠ IMPORTANTE: Guarde este número. Lo necesitará para consultar el estado y recoger su equipo.")
                 .setFontSize(10)
                 .setItalic()
-                .setBackgroundColor(new DeviceRgb(255, 243, 205))
+                .setBackgroundColor(COLOR_FONDO_ADVERTENCIA)
                 .setPadding(10)
-                .setBorder(new SolidBorder(new DeviceRgb(255, 193, 7), 1))
+                .setBorder(new SolidBorder(COLOR_BORDE_ADVERTENCIA, 1))
                 .setMarginBottom(20);
         document.add(advertencia);
     }
@@ -645,11 +669,10 @@ public class PDFServiceImpl implements IPDFService {
             // Generar URL de consulta
             String urlConsulta = publicUrl + consultationPath + "/" + ticket.getNumeroTicket();
 
-            // Generar código QR
-            byte[] qrCodeBytes = qrCodeService.generarQRCode(urlConsulta, 200, 200);
-
-            // Agregar imagen QR al documento
-            Image qrImage = new Image(ImageDataFactory.create(qrCodeBytes))
+            // Dibujar el QR como rectángulos vectoriales (sin codificar ni decodificar PNG)
+            Image qrImage = new Image(crearQRVectorial(document.getPdfDocument(), qrCodeService.generarMatriz(urlConsulta)))
+                    .setWidth(TAMANIO_QR)
+                    .setHeight(TAMANIO_QR)
                     .setTextAlignment(TextAlignment.CENTER)
                     .setHorizontalAlignment(com.itextpdf.layout.properties.HorizontalAlignment.CENTER)
                     .setMarginBottom(10);
@@ -669,6 +692,36 @@ public class PDFServiceImpl implements IPDFService {
         }
     }
 
+    /**
+     * Crea un XObject con un rectángulo por cada tramo horizontal de módulos
+     * oscuros. El origen del PDF está abajo a la izquierda, por eso se invierte y.
+     */
+    private PdfFormXObject crearQRVectorial(PdfDocument pdf, BitMatrix matriz) {
+        int ancho = matriz.getWidth();
+        int alto = matriz.getHeight();
+
+        PdfFormXObject qr = new PdfFormXObject(new Rectangle(ancho, alto));
+        PdfCanvas canvas = new PdfCanvas(qr, pdf);
+        canvas.setFillColor(ColorConstants.BLACK);
+        for (int y = 0; y < alto; y++) {
+            int x = 0;
+            while (x < ancho) {
+                if (!matriz.get(x, y)) {
+                    x++;
+                    continue;
+                }
+                int inicio = x;
+                while (x < ancho && matriz.get(x, y)) {
+                    x++;
+                }
+                canvas.rectangle(inicio, alto - y - 1, x - inicio, 1);
+            }
+        }
+        canvas.fill();
+        canvas.release();
+        return qr;
+    }
+
     private void agregarInformacionCliente(Document document, Ticket ticket) {
         Paragraph titulo = new Paragraph("INFORMACIÓN DEL CLIENTE")
                 .setFontSize(14)
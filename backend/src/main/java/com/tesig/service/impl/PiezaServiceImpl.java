@@ -6,6 +6,7 @@ import com.tesig.mapper.PiezaMapper;
 import com.tesig.model.Pieza;
 import com.tesig.repository.PiezaRepository;
 import com.tesig.service.IPiezaService;
+import com.tesig.util.CursorPaginacion;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
@@ -140,6 +141,21 @@ public class PiezaServiceImpl implements IPiezaService {
         return piezas.map(piezaMapper::toResponseDTO);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDTO<PiezaResponseDTO> listarTodasDesde(String after, int size) {
+        log.debug("Listando piezas activas por cursor: after={}, size={}", after, size);
+
+        CursorPaginacion.Cursor cursor = CursorPaginacion.decodificar(after);
+        List<Pieza> piezas = cursor == null
+                ? piezaRepository.findPrimerasActivasPorCursor(CursorPaginacion.limiteConsulta(size))
+                : piezaRepository.findSiguientesActivasPorCursor(
+                        cursor.valor(), cursor.id(), CursorPaginacion.limiteConsulta(size));
+
+        return CursorPaginacion.construirPagina(piezas, size, piezaMapper::toResponseDTO,
+                pieza -> CursorPaginacion.codificar(pieza.getNombre(), pieza.getId()));
+    }
+
     // ==================== BÚSQUEDAS ====================
 
     @Override
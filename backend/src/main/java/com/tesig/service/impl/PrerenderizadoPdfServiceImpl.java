@@ -0,0 +1,152 @@
+package com.tesig.service.impl;
+
+import com.tesig.dto.PrerenderizadoEstadisticasDTO;
+import com.tesig.event.TicketEstadoCambiadoEvent;
+import com.tesig.model.EstadoTicket;
+import com.tesig.model.TipoDocumentoPdf;
+import com.tesig.repository.TicketRepository;
+import com.tesig.service.IPDFService;
+import com.tesig.service.IPrerenderizadoPdfService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Implementación del pre-renderizado de documentos PDF.
+ *
+ * Escucha los cambios de estado confirmados y encola la generación del
+ * documento correspondiente en un pool dedicado con cola acotada. El
+ * documento queda en el cache de PDFs (memoria y disco), de donde lo toma la
+ * descarga. Si la cola está llena el documento se descarta y se genera al
+ * descargarlo, como antes.
+ */
+@Service
+@Slf4j
+public class PrerenderizadoPdfServiceImpl implements IPrerenderizadoPdfService {
+
+    private final TicketRepository ticketRepository;
+    private final IPDFService pdfService;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean habilitado;
+    private final int capacidadCola;
+    private final ThreadPoolExecutor executor;
+
+    private final LongAdder renderizados = new LongAdder();
+    private final LongAdder fallidos = new LongAdder();
+    private final LongAdder descartados = new LongAdder();
+    private final LongAdder tiempoTotalNanos = new LongAdder();
+    private final LongAccumulator tiempoMaximoNanos = new LongAccumulator(Long::max, 0);
+
+    public PrerenderizadoPdfServiceImpl(
+            TicketRepository ticketRepository,
+            IPDFService pdfService,
+            PlatformTransactionManager transactionManager,
+            @Value("${tesig.pdf.prerenderizado.enabled:true}") boolean habilitado,
+            @Value("${tesig.pdf.prerenderizado.hilos:1}") int hilos,
+            @Value("${tesig.pdf.prerenderizado.capacidad-cola:200}") int capacidadCola) {
+        this.ticketRepository = ticketRepository;
+        this.pdfService = pdfService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.habilitado = habilitado;
+        this.capacidadCola = capacidadCola;
+
+        AtomicInteger contador = new AtomicInteger();
+        int tamanioPool = Math.max(1, hilos);
+        this.executor = new ThreadPoolExecutor(tamanioPool, tamanioPool, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, capacidadCola)),
+                tarea -> {
+                    Thread hilo = new Thread(tarea, "prerenderizado-pdf-" + contador.incrementAndGet());
+                    hilo.setDaemon(true);
+                    return hilo;
+                });
+    }
+
+    @PreDestroy
+    void detener() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Encola el documento que corresponde al nuevo estado. Se ejecuta después
+     * de la invalidación del cache de PDFs para no descartar el documento recién
+     * generado.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void onTicketEstadoCambiado(TicketEstadoCambiadoEvent event) {
+        TipoDocumentoPdf tipo = documentoDelEstado(event.estadoNuevo());
+        if (!habilitado || tipo == null || event.ticketId() == null || !pdfService.isCacheDocumentosHabilitado()) {
+            return;
+        }
+
+        try {
+            executor.execute(() -> renderizar(event.ticketId(), tipo));
+        } catch (RejectedExecutionException e) {
+            descartados.increment();
+            log.debug("Cola de pre-renderizado llena; {} del ticket {} se generará al descargarlo",
+                    tipo, event.numeroTicket());
+        }
+    }
+
+    @Override
+    public PrerenderizadoEstadisticasDTO getEstadisticas() {
+        long total = renderizados.sum();
+        return PrerenderizadoEstadisticasDTO.builder()
+                .habilitado(habilitado && pdfService.isCacheDocumentosHabilitado())
+                .enCola(executor.getQueue().size())
+                .capacidadCola(capacidadCola)
+                .renderizados(total)
+                .fallidos(fallidos.sum())
+                .descartados(descartados.sum())
+                .tiempoPromedioMs(total > 0 ? tiempoTotalNanos.sum() / (double) total / 1_000_000.0 : 0.0)
+                .tiempoMaximoMs(tiempoMaximoNanos.get() / 1_000_000.0)
+                .build();
+    }
+
+    private void renderizar(Long ticketId, TipoDocumentoPdf tipo) {
+        long inicio = System.nanoTime();
+        try {
+            boolean generado = Boolean.TRUE.equals(transactionTemplate.execute(status ->
+                    ticketRepository.findByIdAndDeletedAtIsNull(ticketId)
+                            .map(ticket -> pdfService.obtenerDocumento(ticket, tipo) != null)
+                            .orElse(false)));
+            if (generado) {
+                long duracion = System.nanoTime() - inicio;
+                renderizados.increment();
+                tiempoTotalNanos.add(duracion);
+                tiempoMaximoNanos.accumulate(duracion);
+            }
+        } catch (Exception e) {
+            fallidos.increment();
+            log.warn("Error al pre-renderizar {} del ticket ID {}: {}", tipo, ticketId, e.getMessage());
+        }
+    }
+
+    /**
+     * Documento que se descarga a continuación de cada estado.
+     */
+    private TipoDocumentoPdf documentoDelEstado(EstadoTicket estado) {
+        return switch (estado) {
+            case INGRESADO -> TipoDocumentoPdf.TICKET;
+            case PRESUPUESTADO -> TipoDocumentoPdf.PRESUPUESTO;
+            case ENTREGADO -> TipoDocumentoPdf.COMPROBANTE_ENTREGA;
+            default -> null;
+        };
+    }
+}
@@ -1,5 +1,7 @@
 package com.tesig.service.impl;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.google.zxing.BarcodeFormat;
 import com.google.zxing.EncodeHintType;
 import com.google.zxing.WriterException;
@@ -9,11 +11,13 @@ import com.google.zxing.qrcode.QRCodeWriter;
 import com.google.zxing.qrcode.decoder.ErrorCorrectionLevel;
 import com.tesig.service.IQRCodeService;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.util.HashMap;
+import java.util.Collections;
+import java.util.EnumMap;
 import java.util.Map;
 
 /**
@@ -21,6 +25,10 @@ import java.util.Map;
  *
  * Utiliza la librería ZXing (Zebra Crossing) de Google.
  *
+ * Las matrices de módulos se guardan en un cache acotado por contenido: el QR
+ * de un ticket no cambia, y el PDF y el SVG se dibujan a partir de la matriz
+ * sin volver a codificar.
+ *
  * Aplicación de principios SOLID:
  * - Single Responsibility: Solo genera códigos QR
  */
@@ -31,6 +39,18 @@ public class QRCodeServiceImpl implements IQRCodeService {
     private static final int DEFAULT_SIZE = 300;
     private static final String IMAGE_FORMAT = "PNG";
 
+    // Hints inmutables compartidos; QRCodeWriter no tiene estado y es seguro entre hilos
+    private static final Map<EncodeHintType, Object> HINTS = crearHints();
+    private static final QRCodeWriter QR_CODE_WRITER = new QRCodeWriter();
+
+    private final Cache<String, BitMatrix> matrices;
+
+    public QRCodeServiceImpl(@Value("${tesig.qr.cache.max-entradas:1000}") long maxEntradas) {
+        this.matrices = Caffeine.newBuilder()
+                .maximumSize(maxEntradas)
+                .build();
+    }
+
     @Override
     public byte[] generarQRCode(String contenido, int ancho, int alto) {
         try {
@@ -51,20 +71,13 @@ public class QRCodeServiceImpl implements IQRCodeService {
     @Override
     public void generarQRCode(String contenido, int ancho, int alto, ByteArrayOutputStream outputStream) {
         try {
-            // Configurar hints para el QR Code
-            Map<EncodeHintType, Object> hints = new HashMap<>();
-            hints.put(EncodeHintType.ERROR_CORRECTION, ErrorCorrectionLevel.H); // Máxima corrección de errores
-            hints.put(EncodeHintType.CHARACTER_SET, "UTF-8");
-            hints.put(EncodeHintType.MARGIN, 1); // Margen alrededor del QR
-
-            // Generar matriz de bits
-            QRCodeWriter qrCodeWriter = new QRCodeWriter();
-            BitMatrix bitMatrix = qrCodeWriter.encode(
+            // Generar matriz de bits escalada al tamaño pedido
+            BitMatrix bitMatrix = QR_CODE_WRITER.encode(
                     contenido,
                     BarcodeFormat.QR_CODE,
                     ancho,
                     alto,
-                    hints
+                    HINTS
             );
 
             // Escribir la imagen al output stream
@@ -80,4 +93,60 @@ public class QRCodeServiceImpl implements IQRCodeService {
             throw new RuntimeException("Error al escribir el código QR", e);
         }
     }
+
+    @Override
+    public BitMatrix generarMatriz(String contenido) {
+        return matrices.get(contenido, this::codificarMatriz);
+    }
+
+    @Override
+    public String generarQRCodeSVG(String contenido) {
+        BitMatrix matriz = generarMatriz(contenido);
+        int ancho = matriz.getWidth();
+        int alto = matriz.getHeight();
+
+        // Un solo path con un rectángulo por cada tramo horizontal de módulos oscuros
+        StringBuilder svg = new StringBuilder(ancho * alto * 2)
+                .append("<svg xmlns=\"http://www.w3.org/2000/svg\" viewBox=\"0 0 ")
+                .append(ancho).append(' ').append(alto)
+                .append("\" shape-rendering=\"crispEdges\">")
+                .append("<rect width=\"100%\" height=\"100%\" fill=\"#fff\"/>")
+                .append("<path fill=\"#000\" d=\"");
+        for (int y = 0; y < alto; y++) {
+            int x = 0;
+            while (x < ancho) {
+                if (!matriz.get(x, y)) {
+                    x++;
+                    continue;
+                }
+                int inicio = x;
+                while (x < ancho && matriz.get(x, y)) {
+                    x++;
+                }
+                svg.append('M').append(inicio).append(' ').append(y)
+                        .append('h').append(x - inicio).append("v1h-").append(x - inicio).append('z');
+            }
+        }
+        return svg.append("\"/></svg>").toString();
+    }
+
+    /**
+     * Codifica el contenido con un píxel por módulo (incluye el margen).
+     */
+    private BitMatrix codificarMatriz(String contenido) {
+        try {
+            return QR_CODE_WRITER.encode(contenido, BarcodeFormat.QR_CODE, 0, 0, HINTS);
+        } catch (WriterException e) {
+            log.error("Error de ZXing al generar código QR", e);
+            throw new RuntimeException("Error al codificar el código QR", e);
+        }
+    }
+
+    private static Map<EncodeHintType, Object> crearHints() {
+        Map<EncodeHintType, Object> hints = new EnumMap<>(EncodeHintType.class);
+        hints.put(EncodeHintType.ERROR_CORRECTION, ErrorCorrectionLevel.H); // Máxima corrección de errores
+        hints.put(EncodeHintType.CHARACTER_SET, "UTF-8");
+        hints.put(EncodeHintType.MARGIN, 1); // Margen alrededor del QR
+        return Collections.unmodifiableMap(hints);
+    }
 }
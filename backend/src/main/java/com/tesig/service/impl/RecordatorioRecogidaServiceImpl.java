@@ -0,0 +1,219 @@
+package com.tesig.service.impl;
+
+import com.tesig.dto.RecordatorioRecogidaDTO;
+import com.tesig.repository.RecordatorioRecogidaRepository;
+import com.tesig.repository.TicketRepository;
+import com.tesig.repository.projection.TicketRecordatorioProjection;
+import com.tesig.service.IEmailService;
+import com.tesig.service.IRecordatorioRecogidaService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Implementación del motor de recordatorios de recogida.
+ *
+ * Los umbrales se procesan de mayor a menor: un ticket que nunca recibió
+ * recordatorio y ya superó varios umbrales recibe solo el del mayor, y la
+ * consulta excluye los tickets con un recordatorio de ese umbral o uno mayor.
+ * Cada umbral se recorre por bloques con cursor (fechaListoEntrega, id) sobre
+ * una proyección, sin cargar entidades. Los recordatorios de un bloque se
+ * renderizan en paralelo (un render en lote por hilo) y se encolan en la
+ * bandeja de salida junto con su registro en una sola transacción; el envío
+ * lo hace el despachador de emails.
+ */
+@Service
+@Slf4j
+public class RecordatorioRecogidaServiceImpl implements IRecordatorioRecogidaService {
+
+    private final TicketRepository ticketRepository;
+    private final RecordatorioRecogidaRepository recordatorioRepository;
+    private final IEmailService emailService;
+    private final TransactionTemplate transaccionLectura;
+    private final TransactionTemplate transaccionEscritura;
+    private final boolean habilitado;
+    private final int[] umbralesDias;
+    private final int tamanioBloque;
+    private final ThreadPoolExecutor renderizado;
+
+    private final AtomicBoolean enEjecucion = new AtomicBoolean();
+
+    public RecordatorioRecogidaServiceImpl(
+            TicketRepository ticketRepository,
+            RecordatorioRecogidaRepository recordatorioRepository,
+            IEmailService emailService,
+            PlatformTransactionManager transactionManager,
+            @Value("${tesig.notifications.recordatorios.enabled:true}") boolean habilitado,
+            @Value("${tesig.notifications.recordatorios.umbrales-dias:3,7,15}") int[] umbralesDias,
+            @Value("${tesig.notifications.recordatorios.tamanio-bloque:200}") int tamanioBloque,
+            @Value("${tesig.notifications.recordatorios.hilos-renderizado:4}") int hilosRenderizado) {
+        this.ticketRepository = ticketRepository;
+        this.recordatorioRepository = recordatorioRepository;
+        this.emailService = emailService;
+        this.transaccionLectura = new TransactionTemplate(transactionManager);
+        this.transaccionLectura.setReadOnly(true);
+        this.transaccionEscritura = new TransactionTemplate(transactionManager);
+        this.habilitado = habilitado;
+        this.umbralesDias = Arrays.stream(umbralesDias)
+                .filter(umbral -> umbral > 0)
+                .boxed()
+                .sorted((a, b) -> Integer.compare(b, a))
+                .mapToInt(Integer::intValue)
+                .distinct()
+                .toArray();
+        this.tamanioBloque = Math.max(1, tamanioBloque);
+
+        AtomicInteger contador = new AtomicInteger();
+        int tamanioPool = Math.max(1, hilosRenderizado);
+        this.renderizado = new ThreadPoolExecutor(tamanioPool, tamanioPool, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(),
+                tarea -> {
+                    Thread hilo = new Thread(tarea, "recordatorio-recogida-" + contador.incrementAndGet());
+                    hilo.setDaemon(true);
+                    return hilo;
+                });
+    }
+
+    @PreDestroy
+    void detener() {
+        renderizado.shutdownNow();
+    }
+
+    @Scheduled(cron = "${tesig.notifications.recordatorios.cron:0 0 9 * * *}")
+    public void procesarPeriodicamente() {
+        procesarRecordatorios();
+    }
+
+    @Override
+    public int procesarRecordatorios() {
+        if (!habilitado || !emailService.isEmailEnabled()) {
+            return 0;
+        }
+        if (!enEjecucion.compareAndSet(false, true)) {
+            log.info("Recordatorios de recogida ya en ejecución");
+            return 0;
+        }
+
+        long inicio = System.nanoTime();
+        try {
+            transaccionEscritura.executeWithoutResult(status -> ticketRepository.completarFechaListoEntrega());
+
+            LocalDateTime ahora = LocalDateTime.now();
+            int encolados = 0;
+            for (int umbral : umbralesDias) {
+                encolados += procesarUmbral(umbral, ahora);
+            }
+
+            log.info("Recordatorios de recogida: {} encolados en {} ms", encolados,
+                    Duration.ofNanos(System.nanoTime() - inicio).toMillis());
+            return encolados;
+        } finally {
+            enEjecucion.set(false);
+        }
+    }
+
+    /**
+     * Recorre por bloques los tickets que superaron el umbral sin recordatorio.
+     */
+    private int procesarUmbral(int umbral, LocalDateTime ahora) {
+        LocalDateTime limite = ahora.minusDays(umbral);
+        int encolados = 0;
+        TicketRecordatorioProjection ultimo = null;
+        List<TicketRecordatorioProjection> bloque;
+
+        do {
+            TicketRecordatorioProjection cursor = ultimo;
+            bloque = transaccionLectura.execute(status -> cursor == null
+                    ? ticketRepository.findParaRecordatorio(limite, umbral, Limit.of(tamanioBloque))
+                    : ticketRepository.findParaRecordatorioSiguientes(limite, umbral,
+                            cursor.getFechaListoEntrega(), cursor.getId(), Limit.of(tamanioBloque)));
+            if (bloque == null || bloque.isEmpty()) {
+                break;
+            }
+
+            try {
+                encolados += procesarBloque(bloque, umbral, ahora);
+            } catch (Exception e) {
+                // Los tickets del bloque no quedan registrados y se reintentan en la próxima ejecución
+                log.error("Error al encolar recordatorios de {} días (bloque de {} tickets)", umbral, bloque.size(), e);
+            }
+            ultimo = bloque.get(bloque.size() - 1);
+        } while (bloque.size() == tamanioBloque);
+
+        return encolados;
+    }
+
+    /**
+     * Renderiza el bloque en paralelo (una parte por hilo, con el render en
+     * lote de la plantilla) y lo encola con su registro en una transacción.
+     */
+    private int procesarBloque(List<TicketRecordatorioProjection> bloque, int umbral, LocalDateTime ahora) {
+        List<RecordatorioRecogidaDTO> recordatorios = bloque.stream()
+                .map(ticket -> toDTO(ticket, umbral, ahora))
+                .toList();
+
+        int tamanioParte = (recordatorios.size() + renderizado.getCorePoolSize() - 1) / renderizado.getCorePoolSize();
+        List<List<RecordatorioRecogidaDTO>> partes = new ArrayList<>();
+        List<CompletableFuture<List<String>>> renderizados = new ArrayList<>();
+        for (int desde = 0; desde < recordatorios.size(); desde += tamanioParte) {
+            List<RecordatorioRecogidaDTO> parte = recordatorios.subList(desde,
+                    Math.min(desde + tamanioParte, recordatorios.size()));
+            partes.add(parte);
+            renderizados.add(CompletableFuture.supplyAsync(
+                    () -> emailService.renderizarRecordatoriosRecogida(parte), renderizado));
+        }
+
+        Integer encolados = transaccionEscritura.execute(status -> {
+            int total = 0;
+            for (int i = 0; i < partes.size(); i++) {
+                List<RecordatorioRecogidaDTO> parte = partes.get(i);
+                List<String> contenidos;
+                try {
+                    contenidos = renderizados.get(i).join();
+                } catch (Exception e) {
+                    log.error("Error al renderizar {} recordatorios de {} días", parte.size(), umbral, e);
+                    continue;
+                }
+
+                for (int j = 0; j < parte.size(); j++) {
+                    RecordatorioRecogidaDTO recordatorio = parte.get(j);
+                    if (emailService.encolarRecordatorioRecogida(recordatorio, contenidos.get(j))) {
+                        total++;
+                    }
+                    recordatorioRepository.registrar(recordatorio.getTicketId(), umbral, ahora);
+                }
+            }
+            return total;
+        });
+        return encolados != null ? encolados : 0;
+    }
+
+    private RecordatorioRecogidaDTO toDTO(TicketRecordatorioProjection ticket, int umbral, LocalDateTime ahora) {
+        return RecordatorioRecogidaDTO.builder()
+                .ticketId(ticket.getId())
+                .numeroTicket(ticket.getNumeroTicket())
+                .tipoEquipo(ticket.getTipoEquipo())
+                .nombreCliente(ticket.getNombreCliente())
+                .emailCliente(ticket.getEmailCliente())
+                .diasEspera((int) Duration.between(ticket.getFechaListoEntrega(), ahora).toDays())
+                .umbralDias(umbral)
+                .build();
+    }
+}
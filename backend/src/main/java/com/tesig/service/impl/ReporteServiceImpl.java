@@ -1,20 +1,23 @@
 package com.tesig.service.impl;
 
+import com.tesig.cache.ReporteCache;
+import com.tesig.dto.ReporteCacheEstadisticasDTO;
 import com.tesig.dto.ReporteFinancieroDTO;
 import com.tesig.model.*;
 import com.tesig.repository.*;
+import com.tesig.repository.projection.ResumenIngresosProjection;
+import com.tesig.repository.projection.ResumenInventarioProjection;
 import com.tesig.service.IReporteService;
+import com.tesig.util.ConsultaNativaUtils;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDate;
-import java.time.YearMonth;
-import java.time.format.DateTimeFormatter;
 import java.util.*;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -25,53 +28,70 @@ public class ReporteServiceImpl implements IReporteService {
     private final CompraRepository compraRepository;
     private final GastoRepository gastoRepository;
     private final PiezaRepository piezaRepository;
+    private final ResumenFinancieroDiarioRepository resumenDiarioRepository;
+    private final ReporteCache reporteCache;
+
+    /**
+     * Si está habilitado, los importes históricos se obtienen del resumen financiero
+     * diario pre-agregado en lugar de las tablas transaccionales.
+     */
+    @Value("${tesig.reportes.resumen-diario.enabled:true}")
+    private boolean resumenDiarioHabilitado;
 
     @Override
     public ReporteFinancieroDTO generarReporteFinanciero(LocalDate fechaInicio, LocalDate fechaFin) {
-        // Obtener tickets entregados en el período
-        List<Ticket> ticketsEntregados = ticketRepository.findAll().stream()
-                .filter(t -> t.getEstado() == EstadoTicket.ENTREGADO)
-                .filter(t -> t.getFechaEntrega() != null)
-                .filter(t -> !t.getFechaEntrega().toLocalDate().isBefore(fechaInicio))
-                .filter(t -> !t.getFechaEntrega().toLocalDate().isAfter(fechaFin))
-                .collect(Collectors.toList());
-
-        // Calcular ingresos
-        BigDecimal ingresosManoObra = ticketsEntregados.stream()
-                .map(t -> t.getPresupuestoManoObra() != null ? t.getPresupuestoManoObra() : BigDecimal.ZERO)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        BigDecimal ingresosPiezas = ticketsEntregados.stream()
-                .map(t -> t.getPresupuestoPiezas() != null ? t.getPresupuestoPiezas() : BigDecimal.ZERO)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        BigDecimal descuentosTotales = ticketsEntregados.stream()
-                .map(t -> t.getDescuentoMonto() != null ? t.getDescuentoMonto() : BigDecimal.ZERO)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        return generarReporteFinanciero(fechaInicio, fechaFin, AgrupacionPeriodo.MES);
+    }
+
+    @Override
+    public ReporteFinancieroDTO generarReporteFinanciero(LocalDate fechaInicio, LocalDate fechaFin,
+                                                         AgrupacionPeriodo agrupacion) {
+        return reporteCache.obtener(fechaInicio, fechaFin, agrupacion,
+                () -> calcularReporteFinanciero(fechaInicio, fechaFin, agrupacion));
+    }
+
+    @Override
+    public ReporteCacheEstadisticasDTO getEstadisticasCache() {
+        return reporteCache.getEstadisticas();
+    }
+
+    private ReporteFinancieroDTO calcularReporteFinanciero(LocalDate fechaInicio, LocalDate fechaFin,
+                                                           AgrupacionPeriodo agrupacion) {
+        // Ingresos de tickets entregados en el período (agregado en la base de datos)
+        ResumenIngresosProjection resumenIngresos = resumenDiarioHabilitado
+                ? resumenDiarioRepository.sumIngresos(fechaInicio, fechaFin)
+                : ticketRepository.resumenIngresosEntregados(
+                        fechaInicio.atStartOfDay(), fechaFin.plusDays(1).atStartOfDay());
+
+        BigDecimal ingresosManoObra = valorOCero(resumenIngresos.getManoObra());
+        BigDecimal ingresosPiezas = valorOCero(resumenIngresos.getPiezas());
+        BigDecimal descuentosTotales = valorOCero(resumenIngresos.getDescuentos());
+        long ticketsCompletados = resumenIngresos.getTickets() != null ? resumenIngresos.getTickets() : 0L;
 
         BigDecimal ingresosTotales = ingresosManoObra.add(ingresosPiezas).subtract(descuentosTotales);
 
         // Calcular gastos de compras
-        BigDecimal gastosCompras = compraRepository.sumTotalByFechaAndEstado(
-                fechaInicio, fechaFin, Compra.EstadoCompra.RECIBIDA);
+        BigDecimal gastosCompras = resumenDiarioHabilitado
+                ? resumenDiarioRepository.sumCompras(fechaInicio, fechaFin)
+                : compraRepository.sumTotalByFechaAndEstado(fechaInicio, fechaFin, Compra.EstadoCompra.RECIBIDA);
         if (gastosCompras == null) gastosCompras = BigDecimal.ZERO;
 
-        // Calcular gastos operativos
-        BigDecimal gastosOperativos = gastoRepository.sumMontoByFechaBetween(fechaInicio, fechaFin);
-        if (gastosOperativos == null) gastosOperativos = BigDecimal.ZERO;
-
-        BigDecimal gastosTotales = gastosCompras.add(gastosOperativos);
-
-        // Gastos por categoría
+        // Gastos operativos por categoría (una sola consulta agrupada)
         Map<String, BigDecimal> gastosPorCategoria = new HashMap<>();
-        for (Gasto.CategoriaGasto categoria : Gasto.CategoriaGasto.values()) {
-            BigDecimal montoCategoria = gastoRepository.sumMontoByFechaAndCategoria(
-                    fechaInicio, fechaFin, categoria);
+        BigDecimal gastosOperativos = BigDecimal.ZERO;
+        List<Object[]> gastosAgrupados = resumenDiarioHabilitado
+                ? resumenDiarioRepository.sumGastosPorCategoria(fechaInicio, fechaFin)
+                : gastoRepository.sumMontoByFechaGroupByCategoria(fechaInicio, fechaFin);
+        for (Object[] fila : gastosAgrupados) {
+            BigDecimal montoCategoria = (BigDecimal) fila[1];
             if (montoCategoria != null && montoCategoria.compareTo(BigDecimal.ZERO) > 0) {
-                gastosPorCategoria.put(categoria.name(), montoCategoria);
+                gastosPorCategoria.put(((Gasto.CategoriaGasto) fila[0]).name(), montoCategoria);
+                gastosOperativos = gastosOperativos.add(montoCategoria);
             }
         }
 
+        BigDecimal gastosTotales = gastosCompras.add(gastosOperativos);
+
         // Calcular utilidad
         BigDecimal utilidadBruta = ingresosTotales.subtract(gastosCompras);
         BigDecimal utilidadNeta = ingresosTotales.subtract(gastosTotales);
@@ -83,30 +103,21 @@ public class ReporteServiceImpl implements IReporteService {
 
         // Calcular ticket promedio
         BigDecimal ticketPromedio = BigDecimal.ZERO;
-        if (!ticketsEntregados.isEmpty()) {
+        if (ticketsCompletados > 0) {
             ticketPromedio = ingresosTotales.divide(
-                    BigDecimal.valueOf(ticketsEntregados.size()), 2, RoundingMode.HALF_UP);
+                    BigDecimal.valueOf(ticketsCompletados), 2, RoundingMode.HALF_UP);
         }
 
-        // Valor de inventario
-        BigDecimal valorInventario = piezaRepository.findAll().stream()
-                .filter(p -> !p.getDeleted())
-                .map(p -> p.getPrecioCosto().multiply(BigDecimal.valueOf(p.getStock())))
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        // Piezas con problemas de stock
-        long piezasSinStock = piezaRepository.findAll().stream()
-                .filter(p -> !p.getDeleted())
-                .filter(p -> p.getStock() == 0)
-                .count();
+        // Indicadores de inventario (una sola consulta)
+        ResumenInventarioProjection resumenInventario = piezaRepository.resumenInventario();
+        BigDecimal valorInventario = valorOCero(resumenInventario.getValorInventario());
+        long piezasSinStock = resumenInventario.getPiezasSinStock() != null ? resumenInventario.getPiezasSinStock() : 0L;
+        long piezasStockBajo = resumenInventario.getPiezasStockBajo() != null ? resumenInventario.getPiezasStockBajo() : 0L;
 
-        long piezasStockBajo = piezaRepository.findAll().stream()
-                .filter(p -> !p.getDeleted())
-                .filter(p -> p.getStock() > 0 && p.getStock() <= p.getStockMinimo())
-                .count();
-
-        // Tendencias mensuales (últimos 6 meses)
-        List<ReporteFinancieroDTO.ResumenMensual> tendencias = calcularTendenciasMensuales(fechaInicio, fechaFin);
+        // Tendencias por período (una consulta agrupada por tabla)
+        List<ReporteFinancieroDTO.ResumenMensual> tendencias = resumenDiarioHabilitado
+                ? calcularTendenciasDesdeResumen(fechaInicio, fechaFin, agrupacion)
+                : calcularTendencias(fechaInicio, fechaFin, agrupacion);
 
         return ReporteFinancieroDTO.builder()
                 .fechaInicio(fechaInicio)
@@ -114,7 +125,7 @@ public class ReporteServiceImpl implements IReporteService {
                 .ingresosTotales(ingresosTotales)
                 .ingresosManoObra(ingresosManoObra)
                 .ingresosPiezas(ingresosPiezas)
-                .ticketsCompletados(ticketsEntregados.size())
+                .ticketsCompletados((int) ticketsCompletados)
                 .ticketPromedio(ticketPromedio)
                 .gastosTotales(gastosTotales)
                 .gastosCompras(gastosCompras)
@@ -151,54 +162,91 @@ public class ReporteServiceImpl implements IReporteService {
         return generarReporteFinanciero(fechaInicio, fechaFin);
     }
 
-    private List<ReporteFinancieroDTO.ResumenMensual> calcularTendenciasMensuales(LocalDate fechaInicio, LocalDate fechaFin) {
-        List<ReporteFinancieroDTO.ResumenMensual> tendencias = new ArrayList<>();
-
-        YearMonth mesActual = YearMonth.from(fechaInicio);
-        YearMonth mesFin = YearMonth.from(fechaFin);
+    @Override
+    public ReporteFinancieroDTO getReporteComparativo(LocalDate fechaInicio, LocalDate fechaFin,
+                                                      AgrupacionPeriodo agrupacion) {
+        return generarReporteFinanciero(fechaInicio, fechaFin, agrupacion);
+    }
 
-        while (!mesActual.isAfter(mesFin)) {
-            LocalDate inicioMes = mesActual.atDay(1);
-            LocalDate finMes = mesActual.atEndOfMonth();
+    /**
+     * Calcula las tendencias con una consulta agrupada (date_trunc) por tabla origen:
+     * tickets entregados, compras recibidas y gastos. Los períodos sin movimientos
+     * se completan con cero para que la serie sea continua.
+     */
+    private List<ReporteFinancieroDTO.ResumenMensual> calcularTendencias(LocalDate fechaInicio, LocalDate fechaFin,
+                                                                        AgrupacionPeriodo agrupacion) {
+        // Los períodos de los extremos se consideran completos
+        LocalDate desde = agrupacion.inicioPeriodo(fechaInicio);
+        LocalDate hasta = agrupacion.siguientePeriodo(agrupacion.inicioPeriodo(fechaFin));
+        String unidad = agrupacion.getUnidadSql();
+
+        Map<LocalDate, BigDecimal> ingresosPorPeriodo = new HashMap<>();
+        Map<LocalDate, Integer> ticketsPorPeriodo = new HashMap<>();
+        for (Object[] fila : ticketRepository.sumIngresosEntregadosPorPeriodo(
+                unidad, desde.atStartOfDay(), hasta.atStartOfDay())) {
+            LocalDate periodo = ConsultaNativaUtils.aFecha(fila[0]);
+            ingresosPorPeriodo.put(periodo, ConsultaNativaUtils.aBigDecimal(fila[1]));
+            ticketsPorPeriodo.put(periodo, ((Number) fila[2]).intValue());
+        }
 
-            // Ingresos del mes
-            BigDecimal ingresosMes = ticketRepository.findAll().stream()
-                    .filter(t -> t.getEstado() == EstadoTicket.ENTREGADO)
-                    .filter(t -> t.getFechaEntrega() != null)
-                    .filter(t -> !t.getFechaEntrega().toLocalDate().isBefore(inicioMes))
-                    .filter(t -> !t.getFechaEntrega().toLocalDate().isAfter(finMes))
-                    .map(Ticket::getTotalFinal)
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
+        Map<LocalDate, BigDecimal> gastosPorPeriodo = new HashMap<>();
+        for (Object[] fila : compraRepository.sumTotalPorPeriodo(
+                unidad, desde, hasta.minusDays(1), Compra.EstadoCompra.RECIBIDA.name())) {
+            gastosPorPeriodo.merge(ConsultaNativaUtils.aFecha(fila[0]),
+                    ConsultaNativaUtils.aBigDecimal(fila[1]), BigDecimal::add);
+        }
+        for (Object[] fila : gastoRepository.sumMontoPorPeriodo(unidad, desde, hasta.minusDays(1))) {
+            gastosPorPeriodo.merge(ConsultaNativaUtils.aFecha(fila[0]),
+                    ConsultaNativaUtils.aBigDecimal(fila[1]), BigDecimal::add);
+        }
 
-            // Gastos del mes
-            BigDecimal gastosComprasMes = compraRepository.sumTotalByFechaAndEstado(
-                    inicioMes, finMes, Compra.EstadoCompra.RECIBIDA);
-            if (gastosComprasMes == null) gastosComprasMes = BigDecimal.ZERO;
+        return construirTendencias(desde, hasta, agrupacion, ingresosPorPeriodo, ticketsPorPeriodo, gastosPorPeriodo);
+    }
 
-            BigDecimal gastosOpMes = gastoRepository.sumMontoByFechaBetween(inicioMes, finMes);
-            if (gastosOpMes == null) gastosOpMes = BigDecimal.ZERO;
+    /**
+     * Calcula las tendencias agrupando en memoria las filas del resumen financiero
+     * diario (a lo sumo una por día del rango).
+     */
+    private List<ReporteFinancieroDTO.ResumenMensual> calcularTendenciasDesdeResumen(LocalDate fechaInicio, LocalDate fechaFin,
+                                                                                    AgrupacionPeriodo agrupacion) {
+        LocalDate desde = agrupacion.inicioPeriodo(fechaInicio);
+        LocalDate hasta = agrupacion.siguientePeriodo(agrupacion.inicioPeriodo(fechaFin));
+
+        Map<LocalDate, BigDecimal> ingresosPorPeriodo = new HashMap<>();
+        Map<LocalDate, Integer> ticketsPorPeriodo = new HashMap<>();
+        Map<LocalDate, BigDecimal> gastosPorPeriodo = new HashMap<>();
+        for (Object[] fila : resumenDiarioRepository.sumPorDia(desde, hasta.minusDays(1))) {
+            LocalDate periodo = agrupacion.inicioPeriodo((LocalDate) fila[0]);
+            ingresosPorPeriodo.merge(periodo, ConsultaNativaUtils.aBigDecimal(fila[1]), BigDecimal::add);
+            ticketsPorPeriodo.merge(periodo, ((Number) fila[2]).intValue(), Integer::sum);
+            gastosPorPeriodo.merge(periodo, ConsultaNativaUtils.aBigDecimal(fila[3]), BigDecimal::add);
+        }
 
-            BigDecimal gastosMes = gastosComprasMes.add(gastosOpMes);
+        return construirTendencias(desde, hasta, agrupacion, ingresosPorPeriodo, ticketsPorPeriodo, gastosPorPeriodo);
+    }
 
-            // Tickets del mes
-            int ticketsMes = (int) ticketRepository.findAll().stream()
-                    .filter(t -> t.getEstado() == EstadoTicket.ENTREGADO)
-                    .filter(t -> t.getFechaEntrega() != null)
-                    .filter(t -> !t.getFechaEntrega().toLocalDate().isBefore(inicioMes))
-                    .filter(t -> !t.getFechaEntrega().toLocalDate().isAfter(finMes))
-                    .count();
+    private List<ReporteFinancieroDTO.ResumenMensual> construirTendencias(LocalDate desde, LocalDate hasta,
+                                                                         AgrupacionPeriodo agrupacion,
+                                                                         Map<LocalDate, BigDecimal> ingresosPorPeriodo,
+                                                                         Map<LocalDate, Integer> ticketsPorPeriodo,
+                                                                         Map<LocalDate, BigDecimal> gastosPorPeriodo) {
+        List<ReporteFinancieroDTO.ResumenMensual> tendencias = new ArrayList<>();
+        for (LocalDate periodo = desde; periodo.isBefore(hasta); periodo = agrupacion.siguientePeriodo(periodo)) {
+            BigDecimal ingresos = ingresosPorPeriodo.getOrDefault(periodo, BigDecimal.ZERO);
+            BigDecimal gastos = gastosPorPeriodo.getOrDefault(periodo, BigDecimal.ZERO);
 
             tendencias.add(ReporteFinancieroDTO.ResumenMensual.builder()
-                    .mes(mesActual.format(DateTimeFormatter.ofPattern("MMM yyyy")))
-                    .ingresos(ingresosMes)
-                    .gastos(gastosMes)
-                    .utilidad(ingresosMes.subtract(gastosMes))
-                    .tickets(ticketsMes)
+                    .mes(agrupacion.etiqueta(periodo))
+                    .ingresos(ingresos)
+                    .gastos(gastos)
+                    .utilidad(ingresos.subtract(gastos))
+                    .tickets(ticketsPorPeriodo.getOrDefault(periodo, 0))
                     .build());
-
-            mesActual = mesActual.plusMonths(1);
         }
-
         return tendencias;
     }
+
+    private BigDecimal valorOCero(BigDecimal valor) {
+        return valor != null ? valor : BigDecimal.ZERO;
+    }
 }
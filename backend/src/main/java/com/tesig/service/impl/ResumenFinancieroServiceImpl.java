@@ -0,0 +1,293 @@
+package com.tesig.service.impl;
+
+import com.tesig.dto.ReconstruccionResumenDTO;
+import com.tesig.event.DatosFinancierosModificadosEvent;
+import com.tesig.exception.BusinessException;
+import com.tesig.model.Compra;
+import com.tesig.model.ConfiguracionEmpresa;
+import com.tesig.model.Gasto;
+import com.tesig.model.ResumenFinancieroDiario;
+import com.tesig.model.Ticket;
+import com.tesig.repository.CompraRepository;
+import com.tesig.repository.ConfiguracionEmpresaRepository;
+import com.tesig.repository.GastoRepository;
+import com.tesig.repository.ResumenFinancieroDiarioRepository;
+import com.tesig.repository.TicketRepository;
+import com.tesig.service.IResumenFinancieroService;
+import com.tesig.util.ConsultaNativaUtils;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Implementación del mantenimiento del resumen financiero diario.
+ *
+ * Mantenimiento incremental: cada evento (entrega, compra recibida, gasto)
+ * asegura la fila del día con un INSERT ... ON CONFLICT DO NOTHING, la bloquea
+ * (SELECT ... FOR UPDATE) y acumula los importes dentro de la misma transacción
+ * del servicio que lo invoca, de modo que el resumen y la operación se confirman
+ * o revierten juntos. Los gastos eliminados se revierten con un monto negativo;
+ * las compras recibidas no pueden cancelarse ni eliminarse, y los tickets no
+ * tienen flujo de eliminación, por lo que el resumen no descuenta tickets
+ * eliminados de forma lógica fuera de la aplicación hasta la siguiente
+ * reconstrucción del rango (que sí los excluye).
+ *
+ * Reconstrucción: divide el rango en bloques de días y recalcula cada bloque
+ * en su propia transacción sobre un pool de hilos acotado.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional
+public class ResumenFinancieroServiceImpl implements IResumenFinancieroService {
+
+    private static final String DEFAULT_SUCURSAL = "MAT";
+
+    private final ResumenFinancieroDiarioRepository resumenRepository;
+    private final TicketRepository ticketRepository;
+    private final CompraRepository compraRepository;
+    private final GastoRepository gastoRepository;
+    private final ConfiguracionEmpresaRepository configuracionRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${tesig.reportes.resumen-diario.enabled:true}")
+    private boolean resumenDiarioHabilitado;
+
+    @Value("${tesig.reportes.resumen-diario.dias-por-bloque:31}")
+    private int diasPorBloque;
+
+    @Value("${tesig.reportes.resumen-diario.hilos-reconstruccion:4}")
+    private int hilosReconstruccion;
+
+    // ==================== MANTENIMIENTO INCREMENTAL ====================
+
+    @Override
+    public void registrarEntregaTicket(Ticket ticket) {
+        if (ticket.getFechaEntrega() == null) {
+            log.warn("Ticket {} sin fecha de entrega, no se actualiza el resumen diario", ticket.getNumeroTicket());
+            return;
+        }
+
+        ResumenFinancieroDiario resumen = bloquearResumen(ticket.getFechaEntrega().toLocalDate());
+        resumen.acumularTicket(
+                valorOCero(ticket.getPresupuestoManoObra()),
+                valorOCero(ticket.getPresupuestoPiezas()),
+                valorOCero(ticket.getDescuentoMonto()),
+                ticket.getTotalFinal()
+        );
+        resumenRepository.save(resumen);
+
+        eventPublisher.publishEvent(DatosFinancierosModificadosEvent.delDia(
+                resumen.getFecha(), "entrega de ticket " + ticket.getNumeroTicket()));
+    }
+
+    @Override
+    public void registrarCompraRecibida(Compra compra) {
+        ResumenFinancieroDiario resumen = bloquearResumen(compra.getFechaCompra());
+        resumen.acumularCompra(valorOCero(compra.getTotal()));
+        resumenRepository.save(resumen);
+
+        eventPublisher.publishEvent(DatosFinancierosModificadosEvent.delDia(
+                resumen.getFecha(), "compra recibida " + compra.getCodigoCompra()));
+    }
+
+    @Override
+    public void registrarGasto(LocalDate fecha, Gasto.CategoriaGasto categoria, BigDecimal monto) {
+        if (monto == null || monto.signum() == 0) {
+            return;
+        }
+
+        ResumenFinancieroDiario resumen = bloquearResumen(fecha);
+        resumen.acumularGasto(categoria, monto);
+        resumenRepository.save(resumen);
+
+        eventPublisher.publishEvent(DatosFinancierosModificadosEvent.delDia(fecha, "gasto " + categoria));
+    }
+
+    // ==================== RECONSTRUCCIÓN ====================
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ReconstruccionResumenDTO reconstruir(LocalDate fechaInicio, LocalDate fechaFin) {
+        long inicio = System.currentTimeMillis();
+
+        if (fechaInicio == null || fechaFin == null) {
+            List<Object[]> rango = resumenRepository.findRangoHistorico();
+            if (rango.isEmpty() || rango.get(0)[0] == null) {
+                log.info("No hay movimientos en el historial, no se reconstruye el resumen diario");
+                return ReconstruccionResumenDTO.builder()
+                        .bloquesProcesados(0)
+                        .diasConMovimientos(0)
+                        .duracionMs(System.currentTimeMillis() - inicio)
+                        .build();
+            }
+            if (fechaInicio == null) {
+                fechaInicio = ConsultaNativaUtils.aFecha(rango.get(0)[0]);
+            }
+            if (fechaFin == null) {
+                fechaFin = ConsultaNativaUtils.aFecha(rango.get(0)[1]);
+            }
+        }
+
+        if (fechaFin.isBefore(fechaInicio)) {
+            throw new BusinessException("La fecha de fin no puede ser anterior a la fecha de inicio");
+        }
+
+        String codigoSucursal = getCodigoSucursal();
+        List<LocalDate[]> bloques = dividirEnBloques(fechaInicio, fechaFin);
+        log.info("Reconstruyendo resumen financiero diario de {} a {} en {} bloques",
+                fechaInicio, fechaFin, bloques.size());
+
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(hilosReconstruccion, bloques.size())));
+        int dias = 0;
+        try {
+            List<Future<Integer>> resultados = new ArrayList<>();
+            for (LocalDate[] bloque : bloques) {
+                resultados.add(executor.submit(() -> transactionTemplate.execute(
+                        status -> reconstruirBloque(bloque[0], bloque[1], codigoSucursal))));
+            }
+            for (Future<Integer> resultado : resultados) {
+                dias += resultado.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BusinessException("Reconstrucción del resumen financiero interrumpida", e);
+        } catch (ExecutionException e) {
+            throw new BusinessException("Error al reconstruir el resumen financiero: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        eventPublisher.publishEvent(new DatosFinancierosModificadosEvent(
+                fechaInicio, fechaFin, "reconstrucción del resumen diario"));
+
+        long duracion = System.currentTimeMillis() - inicio;
+        log.info("Resumen financiero diario reconstruido: {} días con movimientos en {} ms", dias, duracion);
+
+        return ReconstruccionResumenDTO.builder()
+                .fechaInicio(fechaInicio)
+                .fechaFin(fechaFin)
+                .bloquesProcesados(bloques.size())
+                .diasConMovimientos(dias)
+                .duracionMs(duracion)
+                .build();
+    }
+
+    /**
+     * Al iniciar, construye el resumen si la tabla está vacía (instalaciones nuevas
+     * o bases de datos con historial previo a esta funcionalidad).
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void reconstruirSiEstaVacio() {
+        if (!resumenDiarioHabilitado || resumenRepository.count() > 0) {
+            return;
+        }
+        try {
+            reconstruir(null, null);
+        } catch (Exception e) {
+            log.error("No se pudo construir el resumen financiero diario al iniciar", e);
+        }
+    }
+
+    // ==================== MÉTODOS HELPER PRIVADOS ====================
+
+    /**
+     * Recalcula un bloque de días: elimina las filas existentes y las vuelve a
+     * generar con consultas agrupadas por día sobre tickets, compras y gastos.
+     */
+    private int reconstruirBloque(LocalDate desde, LocalDate hasta, String codigoSucursal) {
+        resumenRepository.deleteAll(resumenRepository.findByFechaBetween(desde, hasta));
+        resumenRepository.flush();
+
+        Map<LocalDate, ResumenFinancieroDiario> resumenes = new TreeMap<>();
+
+        for (Object[] fila : ticketRepository.sumIngresosEntregadosPorDia(
+                desde.atStartOfDay(), hasta.plusDays(1).atStartOfDay())) {
+            ResumenFinancieroDiario resumen = resumenes.computeIfAbsent(
+                    ConsultaNativaUtils.aFecha(fila[0]), fecha -> nuevoResumen(fecha, codigoSucursal));
+            resumen.setIngresosManoObra(ConsultaNativaUtils.aBigDecimal(fila[1]));
+            resumen.setIngresosPiezas(ConsultaNativaUtils.aBigDecimal(fila[2]));
+            resumen.setDescuentos(ConsultaNativaUtils.aBigDecimal(fila[3]));
+            resumen.setIngresosTotalFinal(ConsultaNativaUtils.aBigDecimal(fila[4]));
+            resumen.setTicketsEntregados(((Number) fila[5]).intValue());
+        }
+
+        for (Object[] fila : compraRepository.sumTotalPorPeriodo(
+                "day", desde, hasta, Compra.EstadoCompra.RECIBIDA.name())) {
+            ResumenFinancieroDiario resumen = resumenes.computeIfAbsent(
+                    ConsultaNativaUtils.aFecha(fila[0]), fecha -> nuevoResumen(fecha, codigoSucursal));
+            resumen.setComprasTotal(ConsultaNativaUtils.aBigDecimal(fila[1]));
+        }
+
+        for (Object[] fila : gastoRepository.sumMontoPorDiaYCategoria(desde, hasta)) {
+            ResumenFinancieroDiario resumen = resumenes.computeIfAbsent(
+                    ConsultaNativaUtils.aFecha(fila[0]), fecha -> nuevoResumen(fecha, codigoSucursal));
+            resumen.acumularGasto((Gasto.CategoriaGasto) fila[1], ConsultaNativaUtils.aBigDecimal(fila[2]));
+        }
+
+        resumenRepository.saveAll(resumenes.values());
+        log.debug("Bloque {} - {} reconstruido: {} días", desde, hasta, resumenes.size());
+        return resumenes.size();
+    }
+
+    private List<LocalDate[]> dividirEnBloques(LocalDate fechaInicio, LocalDate fechaFin) {
+        int dias = Math.max(1, diasPorBloque);
+        List<LocalDate[]> bloques = new ArrayList<>();
+        for (LocalDate desde = fechaInicio; !desde.isAfter(fechaFin); desde = desde.plusDays(dias)) {
+            LocalDate hasta = desde.plusDays(dias - 1L);
+            bloques.add(new LocalDate[]{desde, hasta.isAfter(fechaFin) ? fechaFin : hasta});
+        }
+        return bloques;
+    }
+
+    /**
+     * Asegura que exista la fila del día para la sucursal activa y la bloquea para actualización.
+     */
+    private ResumenFinancieroDiario bloquearResumen(LocalDate fecha) {
+        String codigoSucursal = getCodigoSucursal();
+        resumenRepository.insertarSiNoExiste(fecha, codigoSucursal);
+        return resumenRepository.findForUpdate(fecha, codigoSucursal)
+                .orElseThrow(() -> new IllegalStateException(
+                        "No se pudo obtener el resumen diario de " + fecha + " para la sucursal " + codigoSucursal));
+    }
+
+    private ResumenFinancieroDiario nuevoResumen(LocalDate fecha, String codigoSucursal) {
+        return ResumenFinancieroDiario.builder()
+                .fecha(fecha)
+                .codigoSucursal(codigoSucursal)
+                .build();
+    }
+
+    private String getCodigoSucursal() {
+        return configuracionRepository.findFirstActiveConfiguration()
+                .map(ConfiguracionEmpresa::getCodigoSucursal)
+                .map(String::toUpperCase)
+                .orElse(DEFAULT_SUCURSAL);
+    }
+
+    private BigDecimal valorOCero(BigDecimal valor) {
+        return valor != null ? valor : BigDecimal.ZERO;
+    }
+}
@@ -0,0 +1,101 @@
+package com.tesig.service.impl;
+
+import com.tesig.repository.SecuenciaDocumentoRepository;
+import com.tesig.service.ISecuenciaService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Implementación de la asignación de secuencias sobre la tabla secuencias_documento.
+ *
+ * Cada reserva es un upsert atómico en una transacción propia (REQUIRES_NEW), de modo
+ * que el bloqueo de la fila del contador dura solo lo que el upsert y no toda la
+ * transacción que crea el documento. Con tamanio-bloque mayor a 1 cada instancia
+ * reserva bloques de valores y los entrega desde memoria; la exclusión es por
+ * prefijo y día, no global.
+ */
+@Service
+@Slf4j
+public class SecuenciaServiceImpl implements ISecuenciaService {
+
+    private final SecuenciaDocumentoRepository secuenciaRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int tamanioBloque;
+
+    private final Map<Clave, Bloque> bloques = new ConcurrentHashMap<>();
+
+    public SecuenciaServiceImpl(SecuenciaDocumentoRepository secuenciaRepository,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${tesig.numeracion.tamanio-bloque:1}") int tamanioBloque) {
+        this.secuenciaRepository = secuenciaRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.tamanioBloque = Math.max(1, tamanioBloque);
+    }
+
+    @Override
+    public long siguiente(String prefijo, LocalDate fecha, LongSupplier ultimoExistente) {
+        Clave clave = new Clave(prefijo, fecha);
+        Bloque bloque = bloques.get(clave);
+        if (bloque == null) {
+            // Primer uso del prefijo en el día: descartar los bloques de días anteriores
+            bloques.keySet().removeIf(otra -> otra.fecha().isBefore(fecha));
+            bloque = bloques.computeIfAbsent(clave, k -> new Bloque());
+        }
+
+        synchronized (bloque) {
+            if (!bloque.tieneDisponibles()) {
+                long valorInicial = bloque.inicializado ? 0 : ultimoExistente.getAsLong();
+                long ultimo = reservar(prefijo, fecha, valorInicial);
+                bloque.asignar(ultimo - tamanioBloque + 1, ultimo);
+            }
+            return bloque.tomar();
+        }
+    }
+
+    private long reservar(String prefijo, LocalDate fecha, long valorInicial) {
+        Long ultimo = transactionTemplate.execute(status ->
+                secuenciaRepository.reservar(prefijo, fecha, valorInicial, tamanioBloque));
+        if (ultimo == null) {
+            throw new IllegalStateException("No se pudo reservar la secuencia " + prefijo + " " + fecha);
+        }
+        log.debug("Secuencia {} {}: reservados {} valores hasta {}", prefijo, fecha, tamanioBloque, ultimo);
+        return ultimo;
+    }
+
+    private record Clave(String prefijo, LocalDate fecha) {
+    }
+
+    /**
+     * Rango de valores reservado por esta instancia. Se accede sincronizado sobre el bloque.
+     */
+    private static final class Bloque {
+
+        private boolean inicializado;
+        private long siguiente;
+        private long fin = -1;
+
+        boolean tieneDisponibles() {
+            return inicializado && siguiente <= fin;
+        }
+
+        void asignar(long desde, long hasta) {
+            this.siguiente = desde;
+            this.fin = hasta;
+            this.inicializado = true;
+        }
+
+        long tomar() {
+            return siguiente++;
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package com.tesig.service.impl;
+
+import com.tesig.dto.ticket.TicketBusquedaDTO;
+import com.tesig.dto.ticket.TicketBusquedaEstadisticasDTO;
+import com.tesig.dto.ticket.TicketBusquedaPageDTO;
+import com.tesig.exception.BusinessException;
+import com.tesig.repository.TicketRepository;
+import com.tesig.repository.projection.TicketBusquedaProjection;
+import com.tesig.service.ITicketBusquedaService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Implementación de la búsqueda de tickets.
+ *
+ * Con la extensión pg_trgm disponible, la búsqueda usa índices GIN de trigramas
+ * sobre el texto del ticket y el nombre del cliente, y ordena por similitud.
+ * Si la extensión no puede crearse, se usa la búsqueda por LIKE (sin índice).
+ * En ambos casos los resultados son proyecciones paginadas, sin cargar entidades.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional(readOnly = true)
+public class TicketBusquedaServiceImpl implements ITicketBusquedaService {
+
+    private static final String MODO_TRIGRAMA = "TRIGRAMA";
+    private static final String MODO_COINCIDENCIA = "COINCIDENCIA";
+
+    /**
+     * Las expresiones indexadas deben coincidir con TicketRepository.TEXTO_BUSQUEDA_TICKET
+     * y TEXTO_BUSQUEDA_CLIENTE (sin el alias de tabla).
+     */
+    private static final List<IndiceBusqueda> INDICES = List.of(
+            new IndiceBusqueda("idx_ticket_busqueda_trgm", "tickets USING gin " +
+                    "((numero_ticket || ' ' || tipo_equipo || ' ' || marca || ' ' || " +
+                    "coalesce(modelo, '') || ' ' || falla_reportada) gin_trgm_ops)"),
+            new IndiceBusqueda("idx_cliente_busqueda_trgm", "clientes USING gin " +
+                    "((nombre || ' ' || apellido) gin_trgm_ops)")
+    );
+
+    private static final String SQL_INDICE_VALIDO =
+            "SELECT i.indisvalid FROM pg_index i JOIN pg_class c ON c.oid = i.indexrelid WHERE c.relname = ?";
+
+    private final TicketRepository ticketRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${tesig.busqueda.trigramas.enabled:true}")
+    private boolean trigramasHabilitados;
+
+    @Value("${tesig.busqueda.tamanio-maximo:50}")
+    private int tamanioMaximo;
+
+    @Value("${tesig.busqueda.umbral-lento-ms:100}")
+    private long umbralLentoMs;
+
+    private volatile boolean trigramasDisponibles = false;
+
+    private final LongAdder busquedas = new LongAdder();
+    private final LongAdder busquedasLentas = new LongAdder();
+    private final LongAdder tiempoTotalNanos = new LongAdder();
+    private final AtomicLong tiempoMaximoNanos = new AtomicLong();
+    private final AtomicLong ultimoTiempoNanos = new AtomicLong();
+
+    // ==================== ÍNDICES ====================
+
+    /**
+     * Crea la extensión pg_trgm y los índices de búsqueda si no existen.
+     * CONCURRENTLY evita bloquear escrituras mientras se construyen sobre tablas grandes.
+     * Si una construcción concurrente anterior falló, el índice quedó marcado como
+     * inválido (no se usa en consultas) e IF NOT EXISTS lo saltaría siempre: se
+     * elimina y se vuelve a crear.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void prepararIndices() {
+        if (!trigramasHabilitados) {
+            log.info("Búsqueda por trigramas deshabilitada, se usará búsqueda por coincidencia");
+            return;
+        }
+
+        try {
+            jdbcTemplate.execute("CREATE EXTENSION IF NOT EXISTS pg_trgm");
+            for (IndiceBusqueda indice : INDICES) {
+                List<Boolean> valido = jdbcTemplate.queryForList(SQL_INDICE_VALIDO, Boolean.class, indice.nombre());
+                if (valido.contains(Boolean.FALSE)) {
+                    log.warn("Índice {} inválido por una construcción interrumpida, se reconstruye", indice.nombre());
+                    jdbcTemplate.execute("DROP INDEX CONCURRENTLY IF EXISTS " + indice.nombre());
+                }
+                jdbcTemplate.execute("CREATE INDEX CONCURRENTLY IF NOT EXISTS " + indice.nombre()
+                        + " ON " + indice.definicion());
+            }
+            trigramasDisponibles = true;
+            log.info("Índices de búsqueda por trigramas disponibles");
+        } catch (DataAccessException e) {
+            log.warn("No se pudo preparar la búsqueda por trigramas, se usará búsqueda por coincidencia: {}",
+                    e.getMessage());
+        }
+    }
+
+    // ==================== BÚSQUEDA ====================
+
+    @Override
+    public TicketBusquedaPageDTO buscar(String query, int page, int size) {
+        if (query == null || query.isBlank()) {
+            throw new BusinessException("Debe indicar un texto de búsqueda");
+        }
+
+        String texto = query.trim();
+        PageRequest pageRequest = PageRequest.of(Math.max(page, 0), Math.min(Math.max(size, 1), tamanioMaximo));
+        boolean porTrigramas = trigramasDisponibles;
+
+        long inicio = System.nanoTime();
+        Slice<TicketBusquedaProjection> resultados = porTrigramas
+                ? ticketRepository.buscarPorTrigramas(texto, "%" + escaparComodines(texto) + "%", pageRequest)
+                : ticketRepository.buscarPorCoincidencia(
+                        "%" + escaparComodines(texto.toLowerCase(Locale.ROOT)) + "%", pageRequest);
+        long duracion = System.nanoTime() - inicio;
+
+        registrarTiempo(duracion);
+        long tiempoMs = TimeUnit.NANOSECONDS.toMillis(duracion);
+        if (tiempoMs >= umbralLentoMs) {
+            busquedasLentas.increment();
+            // El texto puede tener datos de clientes (nombre, teléfono, email): solo su largo
+            log.warn("Búsqueda de tickets lenta ({} ms, modo {}, texto de {} caracteres)",
+                    tiempoMs, porTrigramas ? MODO_TRIGRAMA : MODO_COINCIDENCIA, texto.length());
+        } else {
+            log.debug("Búsqueda de tickets en {} ms (página {}, texto de {} caracteres)",
+                    tiempoMs, pageRequest.getPageNumber(), texto.length());
+        }
+
+        return TicketBusquedaPageDTO.builder()
+                .content(resultados.getContent().stream().map(this::toDTO).toList())
+                .page(resultados.getNumber())
+                .size(resultados.getSize())
+                .hasNext(resultados.hasNext())
+                .tiempoMs(tiempoMs)
+                .build();
+    }
+
+    @Override
+    public TicketBusquedaEstadisticasDTO getEstadisticas() {
+        long total = busquedas.sum();
+        return TicketBusquedaEstadisticasDTO.builder()
+                .modo(trigramasDisponibles ? MODO_TRIGRAMA : MODO_COINCIDENCIA)
+                .busquedas(total)
+                .busquedasLentas(busquedasLentas.sum())
+                .tiempoPromedioMs(total > 0 ? aMilisegundos(tiempoTotalNanos.sum()) / total : 0.0)
+                .tiempoMaximoMs(aMilisegundos(tiempoMaximoNanos.get()))
+                .ultimoTiempoMs(aMilisegundos(ultimoTiempoNanos.get()))
+                .build();
+    }
+
+    // ==================== MÉTODOS PRIVADOS ====================
+
+    private void registrarTiempo(long nanos) {
+        busquedas.increment();
+        tiempoTotalNanos.add(nanos);
+        ultimoTiempoNanos.set(nanos);
+        tiempoMaximoNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    private double aMilisegundos(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    /**
+     * Escapa los comodines de LIKE para buscar el texto literal.
+     */
+    private String escaparComodines(String texto) {
+        return texto.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    private TicketBusquedaDTO toDTO(TicketBusquedaProjection resultado) {
+        return TicketBusquedaDTO.builder()
+                .id(resultado.getId())
+                .numeroTicket(resultado.getNumeroTicket())
+                .tipoEquipo(resultado.getTipoEquipo())
+                .marca(resultado.getMarca())
+                .modelo(resultado.getModelo())
+                .estado(resultado.getEstado())
+                .cliente(resultado.getCliente())
+                .createdAt(resultado.getCreatedAt())
+                .relevancia(resultado.getRelevancia())
+                .build();
+    }
+
+    /**
+     * Índice de búsqueda por trigramas: nombre y definición a partir de ON.
+     */
+    private record IndiceBusqueda(String nombre, String definicion) {
+    }
+}
@@ -1,7 +1,10 @@
 package com.tesig.service.impl;
 
+import com.tesig.cache.EstadisticasTicketsEnVivo;
+import com.tesig.dto.CursorPageDTO;
 import com.tesig.dto.common.PaginatedResponseDTO;
 import com.tesig.dto.ticket.*;
+import com.tesig.event.TicketEstadoCambiadoEvent;
 import com.tesig.exception.BusinessException;
 import com.tesig.exception.ResourceNotFoundException;
 import com.tesig.mapper.TicketMapper;
@@ -10,12 +13,15 @@ import com.tesig.repository.ClienteRepository;
 import com.tesig.repository.TicketRepository;
 import com.tesig.repository.UsuarioRepository;
 import com.tesig.service.IEmailService;
+import com.tesig.service.IResumenFinancieroService;
 import com.tesig.service.ITicketPiezaService;
 import com.tesig.service.ITicketService;
+import com.tesig.util.CursorPaginacion;
 import com.tesig.util.NumeroTicketGenerator;
 import com.tesig.util.TicketEstadoValidator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.core.Authentication;
@@ -25,9 +31,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.stream.Collectors;
 
 /**
@@ -57,6 +61,9 @@ public class TicketServiceImpl implements ITicketService {
     private final TicketEstadoValidator estadoValidator;
     private final IEmailService emailService;
     private final ITicketPiezaService ticketPiezaService;
+    private final IResumenFinancieroService resumenFinancieroService;
+    private final EstadisticasTicketsEnVivo estadisticasEnVivo;
+    private final ApplicationEventPublisher eventPublisher;
 
     // ==================== CONSULTAS ====================
 
@@ -80,6 +87,20 @@ public class TicketServiceImpl implements ITicketService {
                 .build();
     }
 
+    @Override
+    public CursorPageDTO<TicketDTO> findAllAfter(String after, int size) {
+        log.debug("Buscando tickets por cursor: after={}, size={}", after, size);
+
+        CursorPaginacion.Cursor cursor = CursorPaginacion.decodificar(after);
+        List<Ticket> tickets = cursor == null
+                ? ticketRepository.findPrimerosPorCursor(CursorPaginacion.limiteConsulta(size))
+                : ticketRepository.findSiguientesPorCursor(
+                        cursor.valorComoFechaHora(), cursor.id(), CursorPaginacion.limiteConsulta(size));
+
+        return CursorPaginacion.construirPagina(tickets, size, ticketMapper::toDTO,
+                ticket -> CursorPaginacion.codificar(ticket.getCreatedAt(), ticket.getId()));
+    }
+
     @Override
     public TicketDTO findById(Long id) {
         log.debug("Buscando ticket con ID: {}", id);
@@ -137,7 +158,7 @@ public class TicketServiceImpl implements ITicketService {
             throw new BusinessException("El usuario especificado no es un técnico");
         }
 
-        Page<Ticket> page = ticketRepository.findByTecnicoIdAndDeletedAtIsNull(tecnicoId, pageable);
+        Page<Ticket> page = ticketRepository.findByTecnicoAsignadoIdAndDeletedAtIsNull(tecnicoId, pageable);
 
         List<TicketDTO> tickets = page.getContent().stream()
                 .map(ticketMapper::toDTO)
@@ -200,49 +221,11 @@ public class TicketServiceImpl implements ITicketService {
                 .build();
     }
 
-    @Override
-    public List<TicketDTO> search(String query) {
-        log.debug("Buscando tickets con query: {}", query);
-
-        List<Ticket> tickets = ticketRepository.search(query);
-
-        return tickets.stream()
-                .map(ticketMapper::toDTO)
-                .collect(Collectors.toList());
-    }
-
     @Override
     public TicketEstadisticasDTO getEstadisticas() {
         log.debug("Obteniendo estadísticas de tickets");
 
-        long totalTickets = ticketRepository.countByDeletedAtIsNull();
-        long ticketsActivos = ticketRepository.countActivos();
-
-        // Tickets por estado
-        Map<String, Long> ticketsPorEstado = new HashMap<>();
-        for (EstadoTicket estado : EstadoTicket.values()) {
-            long count = ticketRepository.countByEstadoAndDeletedAtIsNull(estado);
-            ticketsPorEstado.put(estado.getNombre(), count);
-        }
-
-        // Tickets por técnico
-        Map<String, Long> ticketsPorTecnico = ticketRepository.countTicketsPorTecnico()
-                .stream()
-                .collect(Collectors.toMap(
-                        result -> (String) result[0],
-                        result -> (Long) result[1]
-                ));
-
-        // Tiempo promedio de reparación (simplificado)
-        Double tiempoPromedio = ticketRepository.calcularTiempoPromedioReparacion();
-
-        return TicketEstadisticasDTO.builder()
-                .totalTickets(totalTickets)
-                .ticketsActivos(ticketsActivos)
-                .ticketsPorEstado(ticketsPorEstado)
-                .ticketsPorTecnico(ticketsPorTecnico)
-                .tiempoPromedioReparacion(tiempoPromedio != null ? tiempoPromedio : 0.0)
-                .build();
+        return estadisticasEnVivo.getEstadisticas();
     }
 
     // ==================== OPERACIONES DE ESTADO ====================
@@ -276,6 +259,7 @@ public class TicketServiceImpl implements ITicketService {
         ticket = ticketRepository.save(ticket);
 
         log.info("Ticket creado exitosamente: {}", numeroTicket);
+        eventPublisher.publishEvent(TicketEstadoCambiadoEvent.de(ticket, null));
 
         // Enviar notificación por email
         try {
@@ -596,6 +580,9 @@ public class TicketServiceImpl implements ITicketService {
 
         ticket = ticketRepository.save(ticket);
 
+        // Acumular ingresos en el resumen financiero diario (misma transacción)
+        resumenFinancieroService.registrarEntregaTicket(ticket);
+
         log.info("Ticket {} entregado exitosamente", ticket.getNumeroTicket());
         return ticketMapper.toDTO(ticket);
     }
@@ -693,6 +680,10 @@ public class TicketServiceImpl implements ITicketService {
         );
 
         ticket.setEstado(nuevoEstado);
+        if (nuevoEstado == EstadoTicket.LISTO_ENTREGA) {
+            ticket.setFechaListoEntrega(LocalDateTime.now());
+        }
+        eventPublisher.publishEvent(TicketEstadoCambiadoEvent.de(ticket, estadoActual));
     }
 
     /**
@@ -0,0 +1,61 @@
+package com.tesig.util;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+
+/**
+ * Conversiones de los valores que retornan las consultas agregadas (Object[]).
+ *
+ * Las consultas nativas pueden devolver tipos JDBC (Timestamp, Date) o tipos
+ * java.time según el driver y la versión de Hibernate; estos helpers los
+ * normalizan.
+ */
+public final class ConsultaNativaUtils {
+
+    private ConsultaNativaUtils() {
+    }
+
+    /**
+     * Convierte una fecha/fecha-hora de una consulta a LocalDate.
+     */
+    public static LocalDate aFecha(Object valor) {
+        if (valor instanceof LocalDate fecha) {
+            return fecha;
+        }
+        if (valor instanceof Date fecha) {
+            return fecha.toLocalDate();
+        }
+        if (valor instanceof Timestamp timestamp) {
+            return timestamp.toLocalDateTime().toLocalDate();
+        }
+        if (valor instanceof LocalDateTime fechaHora) {
+            return fechaHora.toLocalDate();
+        }
+        if (valor instanceof OffsetDateTime fechaHora) {
+            return fechaHora.toLocalDate();
+        }
+        if (valor instanceof Instant instante) {
+            return LocalDateTime.ofInstant(instante, ZoneId.systemDefault()).toLocalDate();
+        }
+        throw new IllegalStateException("Tipo de fecha no soportado: " + valor);
+    }
+
+    /**
+     * Convierte un valor numérico de una consulta a BigDecimal (null = cero).
+     */
+    public static BigDecimal aBigDecimal(Object valor) {
+        if (valor == null) {
+            return BigDecimal.ZERO;
+        }
+        if (valor instanceof BigDecimal decimal) {
+            return decimal;
+        }
+        return new BigDecimal(valor.toString());
+    }
+}
@@ -0,0 +1,129 @@
+package com.tesig.util;
+
+import com.tesig.dto.CursorPageDTO;
+import com.tesig.exception.BusinessException;
+import org.springframework.data.domain.Limit;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Utilidades para paginación por cursor (keyset).
+ *
+ * El cursor es opaco para el cliente: codifica en Base64 URL-safe el valor de la
+ * columna de ordenamiento y el ID de la última fila entregada. La siguiente página
+ * filtra las filas posteriores a esa posición en el orden (columna, id), sin OFFSET ni COUNT.
+ */
+public final class CursorPaginacion {
+
+    public static final int TAMANIO_POR_DEFECTO = 50;
+    public static final int TAMANIO_MAXIMO = 100;
+
+    private static final char SEPARADOR = '|';
+
+    private CursorPaginacion() {
+    }
+
+    /**
+     * Posición decodificada de un cursor.
+     *
+     * @param valor Valor de la columna de ordenamiento de la última fila
+     * @param id ID de la última fila (desempate)
+     */
+    public record Cursor(String valor, Long id) {
+
+        public LocalDateTime valorComoFechaHora() {
+            try {
+                return LocalDateTime.parse(valor);
+            } catch (DateTimeParseException e) {
+                throw cursorInvalido();
+            }
+        }
+
+        public LocalDate valorComoFecha() {
+            try {
+                return LocalDate.parse(valor);
+            } catch (DateTimeParseException e) {
+                throw cursorInvalido();
+            }
+        }
+    }
+
+    /**
+     * Codifica la posición de una fila como cursor opaco.
+     */
+    public static String codificar(Object valor, Long id) {
+        String texto = valor + String.valueOf(SEPARADOR) + id;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(texto.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodifica un cursor recibido del cliente.
+     *
+     * @return La posición, o null si no se envió cursor (primera página)
+     * @throws BusinessException si el cursor está mal formado
+     */
+    public static Cursor decodificar(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+
+        try {
+            String texto = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separador = texto.lastIndexOf(SEPARADOR);
+            if (separador < 0) {
+                throw cursorInvalido();
+            }
+            return new Cursor(texto.substring(0, separador), Long.parseLong(texto.substring(separador + 1)));
+        } catch (IllegalArgumentException e) {
+            throw cursorInvalido();
+        }
+    }
+
+    /**
+     * Límite de filas a consultar: una más que el tamaño de página para saber si hay siguiente.
+     */
+    public static Limit limiteConsulta(int size) {
+        return Limit.of(normalizarTamanio(size) + 1);
+    }
+
+    public static int normalizarTamanio(int size) {
+        if (size <= 0) {
+            return TAMANIO_POR_DEFECTO;
+        }
+        return Math.min(size, TAMANIO_MAXIMO);
+    }
+
+    /**
+     * Construye la respuesta a partir de las filas consultadas con {@link #limiteConsulta(int)}.
+     *
+     * @param filas Filas consultadas (hasta size + 1)
+     * @param size Tamaño de página solicitado
+     * @param mapper Conversión de entidad a DTO
+     * @param cursorDe Cursor que apunta a una fila
+     */
+    public static <E, T> CursorPageDTO<T> construirPagina(List<E> filas, int size,
+                                                          Function<E, T> mapper,
+                                                          Function<E, String> cursorDe) {
+        int tamanio = normalizarTamanio(size);
+        boolean hasNext = filas.size() > tamanio;
+        List<E> pagina = hasNext ? filas.subList(0, tamanio) : filas;
+
+        return CursorPageDTO.<T>builder()
+                .content(pagina.stream().map(mapper).toList())
+                .size(tamanio)
+                .nextCursor(hasNext ? cursorDe.apply(pagina.get(pagina.size() - 1)) : null)
+                .hasNext(hasNext)
+                .build();
+    }
+
+    private static BusinessException cursorInvalido() {
+        return new BusinessException("Cursor de paginación inválido");
+    }
+}
@@ -0,0 +1,94 @@
+package com.tesig.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Filtro de Bloom de tamaño fijo para cadenas, seguro para uso concurrente.
+ *
+ * Responde "seguro que no está" o "puede estar": no tiene falsos negativos y
+ * la tasa de falsos positivos queda cerca de la indicada mientras no se
+ * agreguen más elementos que los previstos. Los bits se guardan en un
+ * {@link AtomicLongArray} y se marcan con compare-and-set, sin bloqueos; las
+ * posiciones se derivan de un solo hash de 64 bits con doble hashing.
+ * No permite quitar elementos: para descartar los vencidos se construye uno nuevo.
+ */
+public class FiltroBloom {
+
+    private final AtomicLongArray bits;
+    private final long cantidadBits;
+    private final int cantidadHashes;
+
+    /**
+     * @param elementosEsperados Elementos previstos
+     * @param tasaFalsosPositivos Tasa de falsos positivos objetivo (ej: 0.01)
+     */
+    public FiltroBloom(int elementosEsperados, double tasaFalsosPositivos) {
+        long n = Math.max(1, elementosEsperados);
+        double p = Math.min(Math.max(tasaFalsosPositivos, 1e-9), 0.5);
+        long m = (long) Math.ceil(-n * Math.log(p) / (Math.log(2) * Math.log(2)));
+        int palabras = (int) Math.max(1, (m + 63) / 64);
+        this.bits = new AtomicLongArray(palabras);
+        this.cantidadBits = (long) palabras * 64;
+        this.cantidadHashes = (int) Math.max(1, Math.round((double) cantidadBits / n * Math.log(2)));
+    }
+
+    public void agregar(String valor) {
+        long hash = hash(valor);
+        long h1 = hash;
+        long h2 = (hash >>> 32) | 1;
+        for (int i = 0; i < cantidadHashes; i++) {
+            long bit = Math.floorMod(h1 + i * h2, cantidadBits);
+            int palabra = (int) (bit >>> 6);
+            long mascara = 1L << (bit & 63);
+            long actual;
+            do {
+                actual = bits.get(palabra);
+                if ((actual & mascara) != 0) {
+                    break;
+                }
+            } while (!bits.compareAndSet(palabra, actual, actual | mascara));
+        }
+    }
+
+    /**
+     * @return false si el valor seguro no fue agregado; true si puede haberlo sido
+     */
+    public boolean puedeContener(String valor) {
+        long hash = hash(valor);
+        long h1 = hash;
+        long h2 = (hash >>> 32) | 1;
+        for (int i = 0; i < cantidadHashes; i++) {
+            long bit = Math.floorMod(h1 + i * h2, cantidadBits);
+            if ((bits.get((int) (bit >>> 6)) & (1L << (bit & 63))) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public long getCantidadBits() {
+        return cantidadBits;
+    }
+
+    public int getCantidadHashes() {
+        return cantidadHashes;
+    }
+
+    /**
+     * FNV-1a de 64 bits sobre los bytes UTF-8, con mezcla final para repartir los bits altos.
+     */
+    private static long hash(String valor) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : valor.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
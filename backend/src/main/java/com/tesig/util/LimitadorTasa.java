@@ -0,0 +1,94 @@
+package com.tesig.util;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Limitador de tasa por clave con cubetas de tokens, sin bloqueos.
+ *
+ * Cada clave tiene una cubeta de {@code capacidad} permisos que se recarga a
+ * razón de {@code permisosPorMinuto}. La cubeta se guarda como un solo
+ * {@link AtomicLong}: el instante teórico en que quedaría llena otra vez
+ * (algoritmo GCRA, equivalente a la cubeta de tokens). Consumir un permiso es
+ * un compare-and-set sobre ese valor; un intento rechazado no lo modifica.
+ * Las claves se guardan en un cache acotado y se olvidan cuando la cubeta ya
+ * estaría llena, que equivale a no haberlas visto nunca.
+ */
+public class LimitadorTasa {
+
+    private final long intervaloNanos;
+    private final long rafagaNanos;
+    private final LongSupplier reloj;
+    private final Cache<String, AtomicLong> cubetas;
+
+    /**
+     * @param capacidad Permisos disponibles de una vez (ráfaga)
+     * @param permisosPorMinuto Permisos que se recuperan por minuto
+     * @param maxClaves Claves recordadas como máximo
+     */
+    public LimitadorTasa(int capacidad, int permisosPorMinuto, long maxClaves) {
+        this(capacidad, permisosPorMinuto, maxClaves, System::nanoTime);
+    }
+
+    LimitadorTasa(int capacidad, int permisosPorMinuto, long maxClaves, LongSupplier reloj) {
+        this.intervaloNanos = Duration.ofMinutes(1).toNanos() / Math.max(1, permisosPorMinuto);
+        this.rafagaNanos = intervaloNanos * Math.max(1, capacidad);
+        this.reloj = reloj;
+        this.cubetas = Caffeine.newBuilder()
+                .maximumSize(Math.max(1, maxClaves))
+                .expireAfterAccess(Duration.ofNanos(rafagaNanos))
+                .ticker(reloj::getAsLong)
+                .build();
+    }
+
+    /**
+     * Consume un permiso de la clave.
+     *
+     * @return 0 si se concedió; si no, los nanosegundos hasta el próximo permiso
+     */
+    public long intentarConsumir(String clave) {
+        AtomicLong llena = cubetas.get(clave, k -> new AtomicLong(reloj.getAsLong()));
+        while (true) {
+            long ahora = reloj.getAsLong();
+            long actual = llena.get();
+            long siguiente = (actual - ahora > 0 ? actual : ahora) + intervaloNanos;
+            long exceso = siguiente - ahora - rafagaNanos;
+            if (exceso > 0) {
+                return exceso;
+            }
+            if (llena.compareAndSet(actual, siguiente)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Devuelve un permiso consumido de la clave, sin superar la capacidad.
+     * Sirve para cobrar solo ciertos resultados (ej: los intentos fallidos).
+     */
+    public void devolver(String clave) {
+        AtomicLong llena = cubetas.getIfPresent(clave);
+        if (llena == null) {
+            return;
+        }
+        while (true) {
+            long ahora = reloj.getAsLong();
+            long actual = llena.get();
+            if (actual - ahora <= 0) {
+                return;
+            }
+            long anterior = actual - intervaloNanos;
+            if (llena.compareAndSet(actual, anterior - ahora > 0 ? anterior : ahora)) {
+                return;
+            }
+        }
+    }
+
+    public long getClaves() {
+        return cubetas.estimatedSize();
+    }
+}
@@ -3,11 +3,12 @@ package com.tesig.util;
 import com.tesig.model.ConfiguracionEmpresa;
 import com.tesig.repository.ConfiguracionEmpresaRepository;
 import com.tesig.repository.TicketRepository;
+import com.tesig.service.ISecuenciaService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
-import java.time.LocalDateTime;
+import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 
 /**
@@ -27,6 +28,10 @@ import java.time.format.DateTimeFormatter;
  * - Identificar la sucursal
  * - Escalar a múltiples talleres
  * - Mantener trazabilidad completa
+ *
+ * La secuencia diaria se obtiene de ISecuenciaService (contador en base de datos
+ * por prefijo y día), por lo que no hay bloqueo global y varias instancias de la
+ * aplicación generan números únicos.
  */
 @Component
 @RequiredArgsConstructor
@@ -35,6 +40,7 @@ public class NumeroTicketGenerator {
 
     private final TicketRepository ticketRepository;
     private final ConfiguracionEmpresaRepository configuracionRepository;
+    private final ISecuenciaService secuenciaService;
 
     private static final String DEFAULT_EMPRESA = "TES";
     private static final String DEFAULT_SUCURSAL = "MAT";
@@ -44,13 +50,13 @@ public class NumeroTicketGenerator {
     /**
      * Genera un número de ticket único.
      *
-     * Thread-safe mediante sincronización en el método.
+     * Thread-safe: la unicidad la garantiza el contador atómico en base de datos.
      *
      * @return Número de ticket único
      */
-    public synchronized String generate() {
-        LocalDateTime now = LocalDateTime.now();
-        String datePart = now.format(DATE_FORMAT);
+    public String generate() {
+        LocalDate today = LocalDate.now();
+        String datePart = today.format(DATE_FORMAT);
 
         // Obtener configuración de empresa
         ConfiguracionEmpresa config = getConfiguracion();
@@ -59,18 +65,11 @@ public class NumeroTicketGenerator {
                 ? config.getLongitudSecuencia()
                 : DEFAULT_SEQUENCE_LENGTH;
 
-        // Buscar el último ticket del día
-        int sequence = getNextSequence(prefix, datePart);
+        long sequence = secuenciaService.siguiente(prefix, today,
+                () -> getUltimaSecuenciaExistente(prefix, datePart));
 
         String numeroTicket = buildNumeroTicket(prefix, datePart, sequence, sequenceLength);
 
-        // Verificar que no exista (por seguridad)
-        while (ticketRepository.existsByNumeroTicket(numeroTicket)) {
-            log.warn("Número de ticket duplicado detectado: {}, generando nuevo", numeroTicket);
-            sequence++;
-            numeroTicket = buildNumeroTicket(prefix, datePart, sequence, sequenceLength);
-        }
-
         log.info("Número de ticket generado: {}", numeroTicket);
         return numeroTicket;
     }
@@ -98,21 +97,20 @@ public class NumeroTicketGenerator {
     }
 
     /**
-     * Obtiene el siguiente número de secuencia para el día.
+     * Obtiene la secuencia del último ticket existente del día.
+     * Solo se consulta al inicializar el contador del día, para continuar
+     * la numeración de tickets creados antes de que existiera el contador.
      *
      * @param prefix Prefijo del ticket
      * @param datePart Parte de fecha en formato yyyyMMdd
-     * @return Siguiente número de secuencia
+     * @return Última secuencia usada, o 0 si no hay tickets del día
      */
-    private int getNextSequence(String prefix, String datePart) {
-        // Buscar el último número de secuencia del día
-        String pattern = prefix + "-" + datePart + "-%";
-
-        // Contar tickets existentes con este patrón y sumar 1
-        // Este es un approach simplificado que funciona con existsByNumeroTicket
-        // Para alta concurrencia, considera usar una tabla de secuencias con locks optimistas
-
-        return 1;
+    private long getUltimaSecuenciaExistente(String prefix, String datePart) {
+        return ticketRepository.findMaxNumeroTicketLike(prefix + "-" + datePart + "-%")
+                .map(numero -> numero.substring(numero.lastIndexOf('-') + 1))
+                .filter(secuencia -> secuencia.matches("\\d+"))
+                .map(Long::parseLong)
+                .orElse(0L);
     }
 
     /**
@@ -124,7 +122,7 @@ public class NumeroTicketGenerator {
      * @param sequenceLength Longitud del número de secuencia
      * @return Número de ticket formateado
      */
-    private String buildNumeroTicket(String prefix, String datePart, int sequence, int sequenceLength) {
+    private String buildNumeroTicket(String prefix, String datePart, long sequence, int sequenceLength) {
         String sequenceStr = String.format("%0" + sequenceLength + "d", sequence);
         return prefix + "-" + datePart + "-" + sequenceStr;
     }
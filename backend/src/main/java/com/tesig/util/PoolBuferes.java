@@ -0,0 +1,48 @@
+package com.tesig.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.function.Consumer;
+
+/**
+ * Pool acotado de buffers reutilizables para generar documentos en memoria.
+ *
+ * Un {@link ByteArrayOutputStream} nuevo crece duplicando su arreglo interno
+ * varias veces por documento; al reutilizarlo con {@code reset()} conserva la
+ * capacidad alcanzada y solo queda la copia final de {@code toByteArray()}.
+ * Los buffers que superan la capacidad máxima no vuelven al pool para no
+ * retener memoria por un documento excepcionalmente grande.
+ */
+public class PoolBuferes {
+
+    private final BlockingQueue<ByteArrayOutputStream> libres;
+    private final int capacidadInicial;
+    private final int capacidadMaxima;
+
+    public PoolBuferes(int tamanioPool, int capacidadInicial, int capacidadMaxima) {
+        this.libres = new ArrayBlockingQueue<>(tamanioPool);
+        this.capacidadInicial = capacidadInicial;
+        this.capacidadMaxima = capacidadMaxima;
+    }
+
+    /**
+     * Ejecuta el escritor sobre un buffer del pool y retorna una copia del contenido.
+     */
+    public byte[] generar(Consumer<OutputStream> escritor) {
+        ByteArrayOutputStream buffer = libres.poll();
+        if (buffer == null) {
+            buffer = new ByteArrayOutputStream(capacidadInicial);
+        }
+        try {
+            escritor.accept(buffer);
+            return buffer.toByteArray();
+        } finally {
+            if (buffer.size() <= capacidadMaxima) {
+                buffer.reset();
+                libres.offer(buffer);
+            }
+        }
+    }
+}
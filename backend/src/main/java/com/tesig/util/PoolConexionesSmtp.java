@@ -0,0 +1,198 @@
+package com.tesig.util;
+
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.Session;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pool acotado de conexiones SMTP autenticadas.
+ *
+ * Abrir una sesión SMTP cuesta la conexión, el handshake TLS (STARTTLS) y la
+ * autenticación; enviando un mensaje por sesión ese costo domina el envío. El
+ * pool mantiene hasta {@code tamanio} conexiones abiertas y envía todos los
+ * mensajes de un lote por la misma conexión. Una conexión se descarta si el
+ * servidor la cerró, si estuvo inactiva más de lo configurado (los servidores
+ * cortan las sesiones ociosas) o si alcanzó el máximo de mensajes por sesión.
+ *
+ * Cada conexión la usa un solo hilo a la vez; si todas están ocupadas el envío
+ * espera a que se libere una.
+ */
+@Slf4j
+public class PoolConexionesSmtp implements AutoCloseable {
+
+    private final Session session;
+    private final String protocolo;
+    private final String host;
+    private final int puerto;
+    private final String usuario;
+    private final String password;
+    private final int mensajesPorConexion;
+    private final long inactividadMaximaNanos;
+
+    private final Semaphore permisos;
+    private final BlockingQueue<Conexion> libres;
+    private volatile boolean cerrado;
+
+    /**
+     * @param session Sesión con las propiedades SMTP (STARTTLS, timeouts)
+     * @param protocolo smtp o smtps
+     * @param host Servidor SMTP
+     * @param puerto Puerto (-1 para el de la sesión)
+     * @param usuario Usuario (null o vacío sin autenticación)
+     * @param password Contraseña
+     * @param tamanio Conexiones abiertas como máximo
+     * @param mensajesPorConexion Mensajes por sesión antes de reconectar
+     * @param inactividadMaximaSegundos Inactividad tras la cual la conexión no se reutiliza
+     */
+    public PoolConexionesSmtp(Session session, String protocolo, String host, int puerto, String usuario,
+                              String password, int tamanio, int mensajesPorConexion, long inactividadMaximaSegundos) {
+        this.session = session;
+        this.protocolo = protocolo;
+        this.host = host;
+        this.puerto = puerto;
+        this.usuario = usuario == null || usuario.isEmpty() ? null : usuario;
+        this.password = password == null || password.isEmpty() ? null : password;
+        this.mensajesPorConexion = Math.max(1, mensajesPorConexion);
+        this.inactividadMaximaNanos = TimeUnit.SECONDS.toNanos(inactividadMaximaSegundos);
+        this.permisos = new Semaphore(Math.max(1, tamanio));
+        this.libres = new ArrayBlockingQueue<>(Math.max(1, tamanio));
+    }
+
+    /**
+     * Envía los mensajes por una conexión del pool.
+     *
+     * Un destinatario rechazado solo falla su mensaje; si la conexión se
+     * corta, el mensaje en curso falla y el resto sigue por una conexión nueva.
+     *
+     * @param mensajes Mensajes a enviar
+     * @return Errores por índice del mensaje (vacío si se enviaron todos)
+     * @throws InterruptedException si se interrumpe la espera de una conexión
+     */
+    public Map<Integer, Exception> enviar(List<MimeMessage> mensajes) throws InterruptedException {
+        Map<Integer, Exception> fallos = new LinkedHashMap<>();
+        if (mensajes.isEmpty()) {
+            return fallos;
+        }
+        if (cerrado) {
+            throw new IllegalStateException("Pool de conexiones SMTP cerrado");
+        }
+
+        permisos.acquire();
+        Conexion conexion = null;
+        try {
+            for (int i = 0; i < mensajes.size(); i++) {
+                if (conexion == null || conexion.enviados >= mensajesPorConexion) {
+                    cerrar(conexion);
+                    conexion = null;
+                    try {
+                        conexion = obtenerConexion();
+                    } catch (MessagingException e) {
+                        // Sin conexión fallan todos los mensajes restantes
+                        for (int j = i; j < mensajes.size(); j++) {
+                            fallos.put(j, e);
+                        }
+                        break;
+                    }
+                }
+                try {
+                    enviar(conexion, mensajes.get(i));
+                } catch (SendFailedException e) {
+                    // Rechazo del destinatario: la conexión sigue siendo válida
+                    fallos.put(i, e);
+                } catch (MessagingException | RuntimeException e) {
+                    fallos.put(i, e);
+                    cerrar(conexion);
+                    conexion = null;
+                }
+            }
+        } finally {
+            devolver(conexion);
+            permisos.release();
+        }
+        return fallos;
+    }
+
+    /**
+     * Cierra las conexiones libres. Las que están en uso se cierran al devolverse.
+     */
+    @Override
+    public void close() {
+        cerrado = true;
+        Conexion conexion;
+        while ((conexion = libres.poll()) != null) {
+            cerrar(conexion);
+        }
+    }
+
+    private void enviar(Conexion conexion, MimeMessage mensaje) throws MessagingException {
+        if (mensaje.getSentDate() == null) {
+            mensaje.setSentDate(new Date());
+        }
+        mensaje.saveChanges();
+        conexion.transporte.sendMessage(mensaje, mensaje.getAllRecipients());
+        conexion.enviados++;
+        conexion.ultimoUsoNanos = System.nanoTime();
+    }
+
+    /**
+     * Toma una conexión libre que siga viva o abre una nueva.
+     */
+    private Conexion obtenerConexion() throws MessagingException {
+        Conexion conexion;
+        while ((conexion = libres.poll()) != null) {
+            boolean vencida = System.nanoTime() - conexion.ultimoUsoNanos > inactividadMaximaNanos;
+            // isConnected() envía NOOP al servidor para verificar la sesión
+            if (!vencida && conexion.enviados < mensajesPorConexion && conexion.transporte.isConnected()) {
+                return conexion;
+            }
+            cerrar(conexion);
+        }
+
+        Transport transporte = session.getTransport(protocolo);
+        transporte.connect(host, puerto, usuario, password);
+        log.debug("Conexión SMTP abierta con {}:{}", host, puerto);
+        return new Conexion(transporte);
+    }
+
+    private void devolver(Conexion conexion) {
+        if (conexion == null) {
+            return;
+        }
+        if (cerrado || conexion.enviados >= mensajesPorConexion || !libres.offer(conexion)) {
+            cerrar(conexion);
+        }
+    }
+
+    private void cerrar(Conexion conexion) {
+        if (conexion == null) {
+            return;
+        }
+        try {
+            conexion.transporte.close();
+        } catch (MessagingException e) {
+            log.debug("Error al cerrar conexión SMTP: {}", e.getMessage());
+        }
+    }
+
+    private static final class Conexion {
+        private final Transport transporte;
+        private int enviados;
+        private long ultimoUsoNanos = System.nanoTime();
+
+        private Conexion(Transport transporte) {
+            this.transporte = transporte;
+        }
+    }
+}
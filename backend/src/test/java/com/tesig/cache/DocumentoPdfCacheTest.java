@@ -0,0 +1,187 @@
+package com.tesig.cache;
+
+import com.tesig.dto.DocumentoPdfDTO;
+import com.tesig.event.ConfiguracionEmpresaModificadaEvent;
+import com.tesig.event.TicketEstadoCambiadoEvent;
+import com.tesig.model.EstadoTicket;
+import com.tesig.model.Ticket;
+import com.tesig.model.TipoDocumentoPdf;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitarios para DocumentoPdfCache.
+ */
+class DocumentoPdfCacheTest {
+
+    @TempDir
+    Path directorio;
+
+    private RecursosPdfRegistro recursosPdfRegistro;
+    private DocumentoPdfCache cache;
+    private Ticket ticket;
+    private AtomicInteger generaciones;
+    private Supplier<byte[]> generador;
+
+    @BeforeEach
+    void setUp() {
+        recursosPdfRegistro = mock(RecursosPdfRegistro.class);
+        when(recursosPdfRegistro.obtener()).thenReturn(recursos("1@2024-01-01T09:00"));
+        cache = new DocumentoPdfCache(recursosPdfRegistro, true, 1, directorio.toString(), 10);
+        cache.inicializarDirectorio();
+
+        ticket = new Ticket();
+        ticket.setId(7L);
+        ticket.setNumeroTicket("TKT-2024-00007");
+        ticket.setUpdatedAt(LocalDateTime.of(2024, 1, 1, 10, 0));
+
+        generaciones = new AtomicInteger();
+        generador = () -> {
+            generaciones.incrementAndGet();
+            return new byte[]{1, 2, 3};
+        };
+    }
+
+    @Test
+    @DisplayName("Debe generar el PDF una sola vez y reutilizarlo")
+    void obtener_MismaVersion_GeneraUnaVez() {
+        // Act
+        DocumentoPdfDTO primero = cache.obtener(ticket, TipoDocumentoPdf.TICKET, generador);
+        DocumentoPdfDTO segundo = cache.obtener(ticket, TipoDocumentoPdf.TICKET, generador);
+
+        // Assert
+        assertEquals(1, generaciones.get());
+        assertEquals(primero.getEtag(), segundo.getEtag());
+        assertEquals(primero.getEtag(), cache.etag(ticket, TipoDocumentoPdf.TICKET));
+        assertEquals(3L, segundo.getTamanio());
+    }
+
+    @Test
+    @DisplayName("Debe cambiar el ETag cuando el ticket se actualiza")
+    void etag_TicketActualizado_CambiaVersion() {
+        // Arrange
+        String etagInicial = cache.etag(ticket, TipoDocumentoPdf.TICKET);
+
+        // Act
+        ticket.setUpdatedAt(ticket.getUpdatedAt().plusMinutes(1));
+
+        // Assert
+        assertNotEquals(etagInicial, cache.etag(ticket, TipoDocumentoPdf.TICKET));
+        assertNotEquals(etagInicial, cache.etag(ticket, TipoDocumentoPdf.PRESUPUESTO));
+    }
+
+    @Test
+    @DisplayName("Debe eliminar los documentos del ticket al cambiar de estado")
+    void onTicketEstadoCambiado_EliminaDocumentos() {
+        // Arrange
+        cache.obtener(ticket, TipoDocumentoPdf.TICKET, generador);
+
+        // Act
+        cache.onTicketEstadoCambiado(new TicketEstadoCambiadoEvent(
+                7L, "TKT-2024-00007", EstadoTicket.INGRESADO, EstadoTicket.EN_DIAGNOSTICO, null, null, null));
+        cache.obtener(ticket, TipoDocumentoPdf.TICKET, generador);
+
+        // Assert
+        assertEquals(2, generaciones.get());
+    }
+
+    @Test
+    @DisplayName("Debe regenerar todos los documentos al cambiar la configuración")
+    void onConfiguracionModificada_CambiaEtag() {
+        // Arrange
+        String etagInicial = cache.obtener(ticket, TipoDocumentoPdf.TICKET, generador).getEtag();
+
+        // Act
+        when(recursosPdfRegistro.obtener()).thenReturn(recursos("1@2024-01-02T09:00"));
+        cache.onConfiguracionModificada(new ConfiguracionEmpresaModificadaEvent(1L));
+        String etagNuevo = cache.obtener(ticket, TipoDocumentoPdf.TICKET, generador).getEtag();
+
+        // Assert
+        assertNotEquals(etagInicial, etagNuevo);
+        assertEquals(2, generaciones.get());
+    }
+
+    @Test
+    @DisplayName("El ETag no debe cambiar con un reinicio si los datos no cambiaron")
+    void etag_NuevaInstancia_MismaVersion() {
+        // Arrange
+        String etagInicial = cache.etag(ticket, TipoDocumentoPdf.TICKET);
+
+        // Act
+        DocumentoPdfCache reiniciado = new DocumentoPdfCache(recursosPdfRegistro, true, 1, directorio.toString(), 10);
+
+        // Assert
+        assertEquals(etagInicial, reiniciado.etag(ticket, TipoDocumentoPdf.TICKET));
+    }
+
+    @Test
+    @DisplayName("Al guardar una versión nueva debe borrar del disco la anterior del mismo documento")
+    void obtener_NuevaVersion_EliminaVersionAnteriorEnDisco() throws Exception {
+        // Arrange
+        cache.obtener(ticket, TipoDocumentoPdf.TICKET, generador);
+        cache.obtener(ticket, TipoDocumentoPdf.PRESUPUESTO, generador);
+
+        // Act: cambio del ticket sin evento de estado (ej: se agregó una pieza)
+        ticket.setUpdatedAt(ticket.getUpdatedAt().plusMinutes(1));
+        String etagNuevo = cache.obtener(ticket, TipoDocumentoPdf.TICKET, generador).getEtag();
+
+        // Assert
+        List<String> tickets = archivos("7-TICKET-*.pdf");
+        assertEquals(List.of("7-TICKET-" + etagNuevo + ".pdf"), tickets);
+        assertEquals(1, archivos("7-PRESUPUESTO-*.pdf").size());
+    }
+
+    @Test
+    @DisplayName("Al superar el máximo en disco debe borrar los menos usados y seguir guardando")
+    void obtener_DiscoLleno_EliminaMenosUsados() throws Exception {
+        // Arrange: 1 MB en disco y documentos de 400 KB
+        DocumentoPdfCache chico = new DocumentoPdfCache(recursosPdfRegistro, true, 1, directorio.toString(), 1);
+        chico.inicializarDirectorio();
+        Supplier<byte[]> grande = () -> new byte[400 * 1024];
+
+        // Act
+        for (long id = 1; id <= 4; id++) {
+            chico.obtener(ticket(id), TipoDocumentoPdf.TICKET, grande);
+        }
+
+        // Assert
+        assertEquals(List.of("3-TICKET-", "4-TICKET-"),
+                archivos("*.pdf").stream().map(nombre -> nombre.substring(0, 9)).toList());
+    }
+
+    private Ticket ticket(Long id) {
+        Ticket otro = new Ticket();
+        otro.setId(id);
+        otro.setUpdatedAt(ticket.getUpdatedAt());
+        return otro;
+    }
+
+    private List<String> archivos(String patron) throws IOException {
+        List<String> nombres = new ArrayList<>();
+        try (DirectoryStream<Path> encontrados = Files.newDirectoryStream(directorio, patron)) {
+            encontrados.forEach(archivo -> nombres.add(archivo.getFileName().toString()));
+        }
+        Collections.sort(nombres);
+        return nombres;
+    }
+
+    private RecursosPdfRegistro.Recursos recursos(String version) {
+        return new RecursosPdfRegistro.Recursos(version, "TESIG", "", "", "", 30, "Gracias");
+    }
+}
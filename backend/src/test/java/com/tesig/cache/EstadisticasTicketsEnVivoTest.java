@@ -0,0 +1,83 @@
+package com.tesig.cache;
+
+import com.tesig.dto.ticket.TicketEstadisticasDTO;
+import com.tesig.event.TicketEstadoCambiadoEvent;
+import com.tesig.model.EstadoTicket;
+import com.tesig.repository.TicketRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitarios para EstadisticasTicketsEnVivo.
+ */
+@ExtendWith(MockitoExtension.class)
+class EstadisticasTicketsEnVivoTest {
+
+    @Mock
+    private TicketRepository ticketRepository;
+
+    @BeforeEach
+    void setUp() {
+        when(ticketRepository.contarPorEstado()).thenReturn(List.of(
+                new Object[]{EstadoTicket.INGRESADO, 3L, 0.0, 0L},
+                new Object[]{EstadoTicket.ENTREGADO, 2L, 6.0, 2L},
+                new Object[]{EstadoTicket.CANCELADO, 1L, 0.0, 0L}
+        ));
+        when(ticketRepository.countTicketsPorTecnico()).thenReturn(List.<Object[]>of(
+                new Object[]{"Carlos López", 2L}
+        ));
+    }
+
+    @Test
+    @DisplayName("Debe calcular las estadísticas con las consultas agrupadas")
+    void getEstadisticas_SinEnVivo_CalculaDesdeConsultasAgrupadas() {
+        // Arrange
+        EstadisticasTicketsEnVivo estadisticas = new EstadisticasTicketsEnVivo(ticketRepository, false, 15);
+
+        // Act
+        TicketEstadisticasDTO resultado = estadisticas.getEstadisticas();
+
+        // Assert
+        assertEquals(6L, resultado.getTotalTickets());
+        assertEquals(3L, resultado.getTicketsActivos());
+        assertEquals(3L, resultado.getTicketsPorEstado().get(EstadoTicket.INGRESADO.getNombre()));
+        assertEquals(0L, resultado.getTicketsPorEstado().get(EstadoTicket.EN_REPARACION.getNombre()));
+        assertEquals(2L, resultado.getTicketsPorTecnico().get("Carlos López"));
+        assertEquals(3.0, resultado.getTiempoPromedioReparacion());
+    }
+
+    @Test
+    @DisplayName("Debe actualizar los contadores en memoria sin volver a consultar")
+    void getEstadisticas_EnVivo_AplicaCambiosDeEstado() {
+        // Arrange
+        EstadisticasTicketsEnVivo estadisticas = new EstadisticasTicketsEnVivo(ticketRepository, true, 15);
+        estadisticas.getEstadisticas();
+        LocalDateTime ingreso = LocalDateTime.of(2024, 1, 1, 10, 0);
+
+        // Act
+        estadisticas.onTicketEstadoCambiado(new TicketEstadoCambiadoEvent(
+                1L, "TKT-1", EstadoTicket.INGRESADO, EstadoTicket.EN_DIAGNOSTICO, "Carlos López", ingreso, null));
+        estadisticas.onTicketEstadoCambiado(new TicketEstadoCambiadoEvent(
+                2L, "TKT-2", EstadoTicket.LISTO_ENTREGA, EstadoTicket.ENTREGADO, "Carlos López",
+                ingreso, ingreso.plusDays(9)));
+        TicketEstadisticasDTO resultado = estadisticas.getEstadisticas();
+
+        // Assert
+        assertEquals(2L, resultado.getTicketsPorEstado().get(EstadoTicket.INGRESADO.getNombre()));
+        assertEquals(1L, resultado.getTicketsPorEstado().get(EstadoTicket.EN_DIAGNOSTICO.getNombre()));
+        assertEquals(3L, resultado.getTicketsPorEstado().get(EstadoTicket.ENTREGADO.getNombre()));
+        assertEquals(3L, resultado.getTicketsPorTecnico().get("Carlos López"));
+        assertEquals(5.0, resultado.getTiempoPromedioReparacion());
+        verify(ticketRepository, times(1)).contarPorEstado();
+    }
+}
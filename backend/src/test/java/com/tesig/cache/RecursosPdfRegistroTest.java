@@ -0,0 +1,205 @@
+package com.tesig.cache;
+
+import com.tesig.event.ConfiguracionEmpresaModificadaEvent;
+import com.tesig.model.ConfiguracionEmpresa;
+import com.tesig.repository.ConfiguracionEmpresaRepository;
+import com.tesig.repository.projection.ConfiguracionVersionProjection;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitarios para RecursosPdfRegistro.
+ */
+@ExtendWith(MockitoExtension.class)
+class RecursosPdfRegistroTest {
+
+    @Mock
+    private ConfiguracionEmpresaRepository configuracionRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private RecursosPdfRegistro registro;
+    private ConfiguracionEmpresa config;
+
+    @BeforeEach
+    void setUp() {
+        registro = new RecursosPdfRegistro(configuracionRepository, eventPublisher, "TESIG");
+
+        config = new ConfiguracionEmpresa();
+        config.setId(1L);
+        config.setUpdatedAt(LocalDateTime.of(2024, 1, 1, 9, 0));
+        config.setNombreEmpresa("Reparaciones Express");
+        config.setTelefonoPrincipal("5512345678");
+        config.setEmailContacto("contacto@express.com");
+        config.setWhatsapp("5512345678");
+        config.setDiasGarantiaDefault(60);
+    }
+
+    @Test
+    @DisplayName("Debe consultar la configuración una sola vez")
+    void obtener_VariasVeces_ConsultaUnaVez() {
+        // Arrange
+        when(configuracionRepository.findFirstActiveConfiguration()).thenReturn(Optional.of(config));
+
+        // Act
+        registro.obtener();
+        RecursosPdfRegistro.Recursos recursos = registro.obtener();
+
+        // Assert
+        assertEquals("Reparaciones Express", recursos.nombreEmpresa());
+        assertEquals("Tel: 5512345678 | Email: contacto@express.com", recursos.contacto());
+        assertEquals("WhatsApp: 5512345678", recursos.redesSociales());
+        assertEquals(60, recursos.diasGarantia());
+        verify(configuracionRepository, times(1)).findFirstActiveConfiguration();
+    }
+
+    @Test
+    @DisplayName("Debe recargar los recursos al cambiar la configuración")
+    void onConfiguracionModificada_RecargaRecursos() {
+        // Arrange
+        when(configuracionRepository.findFirstActiveConfiguration()).thenReturn(Optional.of(config));
+        registro.obtener();
+        config.setNombreEmpresa("Express Norte");
+
+        // Act
+        registro.onConfiguracionModificada(new ConfiguracionEmpresaModificadaEvent(1L));
+        RecursosPdfRegistro.Recursos recursos = registro.obtener();
+
+        // Assert
+        assertEquals("Express Norte", recursos.nombreEmpresa());
+        verify(configuracionRepository, times(2)).findFirstActiveConfiguration();
+    }
+
+    @Test
+    @DisplayName("Debe usar valores por defecto sin configuración")
+    void obtener_SinConfiguracion_UsaValoresPorDefecto() {
+        // Arrange
+        when(configuracionRepository.findFirstActiveConfiguration()).thenReturn(Optional.empty());
+
+        // Act
+        RecursosPdfRegistro.Recursos recursos = registro.obtener();
+
+        // Assert
+        assertEquals("TESIG", recursos.nombreEmpresa());
+        assertEquals("", recursos.contacto());
+        assertEquals(30, recursos.diasGarantia());
+    }
+
+    @Test
+    @DisplayName("La versión debe salir del ID y la fecha de actualización de la configuración")
+    void obtener_Configuracion_VersionPersistida() {
+        // Arrange
+        when(configuracionRepository.findFirstActiveConfiguration()).thenReturn(Optional.of(config));
+
+        // Act
+        RecursosPdfRegistro.Recursos recursos = registro.obtener();
+
+        // Assert
+        assertEquals("1@2024-01-01T09:00", recursos.version());
+    }
+
+    @Test
+    @DisplayName("Debe publicar el cambio cuando otra instancia modificó la configuración")
+    void verificarVersion_ConfiguracionModificada_PublicaEvento() {
+        // Arrange
+        when(configuracionRepository.findFirstActiveConfiguration()).thenReturn(Optional.of(config));
+        registro.obtener();
+        when(configuracionRepository.findFirstActiveVersion())
+                .thenReturn(Optional.of(version(1L, LocalDateTime.of(2024, 1, 2, 9, 0))));
+
+        // Act
+        registro.verificarVersion();
+
+        // Assert
+        verify(eventPublisher).publishEvent(new ConfiguracionEmpresaModificadaEvent(1L));
+    }
+
+    @Test
+    @DisplayName("No debe publicar nada si la configuración no cambió")
+    void verificarVersion_MismaVersion_NoPublica() {
+        // Arrange
+        when(configuracionRepository.findFirstActiveConfiguration()).thenReturn(Optional.of(config));
+        registro.obtener();
+        when(configuracionRepository.findFirstActiveVersion())
+                .thenReturn(Optional.of(version(1L, LocalDateTime.of(2024, 1, 1, 9, 0))));
+
+        // Act
+        registro.verificarVersion();
+
+        // Assert
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+    }
+
+    @Test
+    @Tag("benchmark")
+    @DisplayName("Benchmark: documentos por segundo con los recursos en memoria frente a recargarlos en cada documento")
+    void benchmark_DocumentosPorSegundoConYSinRegistro(TestReporter reporter) {
+        // Arrange: repositorio sin registro de invocaciones, con y sin una latencia de consulta simulada
+        for (long latenciaMicros : new long[]{0, 500}) {
+            ConfiguracionEmpresaRepository repositorio = mock(ConfiguracionEmpresaRepository.class, withSettings().stubOnly());
+            when(repositorio.findFirstActiveConfiguration()).thenAnswer(invocation -> {
+                if (latenciaMicros > 0) {
+                    LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(latenciaMicros));
+                }
+                return Optional.of(config);
+            });
+            RecursosPdfRegistro registroBenchmark = new RecursosPdfRegistro(repositorio, eventPublisher, "TESIG");
+            ConfiguracionEmpresaModificadaEvent cambio = new ConfiguracionEmpresaModificadaEvent(1L);
+            int documentos = latenciaMicros > 0 ? 2_000 : 200_000;
+            for (int i = 0; i < documentos; i++) {
+                registroBenchmark.onConfiguracionModificada(cambio);
+                registroBenchmark.obtener();
+            }
+
+            // Act: sin registro, cada documento consulta la configuración y arma los textos
+            long inicio = System.nanoTime();
+            for (int i = 0; i < documentos; i++) {
+                registroBenchmark.onConfiguracionModificada(cambio);
+                assertNotNull(registroBenchmark.obtener().contacto());
+            }
+            double porSegundoSinRegistro = documentos / ((System.nanoTime() - inicio) / 1e9);
+
+            // Act: con registro, los recursos se reutilizan hasta el próximo cambio
+            inicio = System.nanoTime();
+            for (int i = 0; i < documentos; i++) {
+                assertNotNull(registroBenchmark.obtener().contacto());
+            }
+            double porSegundoConRegistro = documentos / ((System.nanoTime() - inicio) / 1e9);
+
+            reporter.publishEntry("Recursos de PDF con consulta de " + latenciaMicros + " microsegundos",
+                    String.format("sin registro %.0f documentos/s, con registro %.0f documentos/s",
+                            porSegundoSinRegistro, porSegundoConRegistro));
+        }
+    }
+
+    private ConfiguracionVersionProjection version(Long id, LocalDateTime actualizacion) {
+        return new ConfiguracionVersionProjection() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public LocalDateTime getUpdatedAt() {
+                return actualizacion;
+            }
+        };
+    }
+}
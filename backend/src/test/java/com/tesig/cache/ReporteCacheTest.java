@@ -0,0 +1,130 @@
+package com.tesig.cache;
+
+import com.tesig.dto.ReporteFinancieroDTO;
+import com.tesig.event.DatosFinancierosModificadosEvent;
+import com.tesig.model.AgrupacionPeriodo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitarios para ReporteCache.
+ */
+class ReporteCacheTest {
+
+    private static final LocalDate INICIO = LocalDate.of(2024, 1, 15);
+    private static final LocalDate FIN = LocalDate.of(2024, 2, 10);
+
+    private ReporteCache cache;
+    private AtomicInteger calculos;
+    private Supplier<ReporteFinancieroDTO> calculo;
+
+    @BeforeEach
+    void setUp() {
+        cache = new ReporteCache(true, 100, 10);
+        calculos = new AtomicInteger();
+        calculo = () -> {
+            calculos.incrementAndGet();
+            return ReporteFinancieroDTO.builder().build();
+        };
+    }
+
+    @Test
+    @DisplayName("Agrupado por día, solo deben afectarlo los cambios dentro del período")
+    void intersecta_AgrupacionDia_SoloDentroDelPeriodo() {
+        // Arrange
+        ReporteCache.Clave clave = new ReporteCache.Clave(INICIO, FIN, AgrupacionPeriodo.DIA);
+
+        // Act & Assert
+        assertTrue(clave.intersecta(INICIO, INICIO));
+        assertTrue(clave.intersecta(FIN, FIN));
+        assertTrue(clave.intersecta(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 3, 1)));
+        assertFalse(clave.intersecta(INICIO.minusDays(1), INICIO.minusDays(1)));
+        assertFalse(clave.intersecta(FIN.plusDays(1), FIN.plusDays(5)));
+    }
+
+    @Test
+    @DisplayName("Agrupado por mes, el período debe ampliarse a los meses completos de los extremos")
+    void intersecta_AgrupacionMes_AmpliaAMesesCompletos() {
+        // Arrange
+        ReporteCache.Clave clave = new ReporteCache.Clave(INICIO, FIN, AgrupacionPeriodo.MES);
+
+        // Act & Assert
+        assertTrue(clave.intersecta(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 1)));
+        assertTrue(clave.intersecta(LocalDate.of(2024, 2, 29), LocalDate.of(2024, 2, 29)));
+        assertTrue(clave.intersecta(LocalDate.of(2023, 12, 20), LocalDate.of(2024, 1, 3)));
+        assertFalse(clave.intersecta(LocalDate.of(2023, 12, 31), LocalDate.of(2023, 12, 31)));
+        assertFalse(clave.intersecta(LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 1)));
+    }
+
+    @Test
+    @DisplayName("Agrupado por semana, el período debe ampliarse desde el lunes de la primera semana")
+    void intersecta_AgrupacionSemana_AmpliaDesdeLunes() {
+        // Arrange: 2024-01-10 es miércoles y 2024-02-10 sábado
+        ReporteCache.Clave clave = new ReporteCache.Clave(
+                LocalDate.of(2024, 1, 10), FIN, AgrupacionPeriodo.SEMANA);
+
+        // Act & Assert
+        assertTrue(clave.intersecta(LocalDate.of(2024, 1, 8), LocalDate.of(2024, 1, 8)));
+        assertTrue(clave.intersecta(LocalDate.of(2024, 2, 11), LocalDate.of(2024, 2, 11)));
+        assertFalse(clave.intersecta(LocalDate.of(2024, 1, 7), LocalDate.of(2024, 1, 7)));
+        assertFalse(clave.intersecta(LocalDate.of(2024, 2, 12), LocalDate.of(2024, 2, 12)));
+    }
+
+    @Test
+    @DisplayName("Debe calcular el reporte una sola vez y reutilizarlo")
+    void obtener_MismoPeriodo_CalculaUnaVez() {
+        // Act
+        cache.obtener(INICIO, FIN, AgrupacionPeriodo.MES, calculo);
+        cache.obtener(INICIO, FIN, AgrupacionPeriodo.MES, calculo);
+
+        // Assert
+        assertEquals(1, calculos.get());
+        assertEquals(1L, cache.getEstadisticas().getEntradas());
+    }
+
+    @Test
+    @DisplayName("Debe invalidar solo los reportes cuyo período ampliado se cruza con el cambio")
+    void onDatosFinancierosModificados_InvalidaSoloPeriodosAfectados() {
+        // Arrange
+        cache.obtener(INICIO, FIN, AgrupacionPeriodo.DIA, calculo);
+        cache.obtener(INICIO, FIN, AgrupacionPeriodo.MES, calculo);
+
+        // Act: día anterior al inicio, dentro del primer mes
+        cache.onDatosFinancierosModificados(DatosFinancierosModificadosEvent.delDia(
+                LocalDate.of(2024, 1, 5), "Gasto creado"));
+        cache.obtener(INICIO, FIN, AgrupacionPeriodo.DIA, calculo);
+        cache.obtener(INICIO, FIN, AgrupacionPeriodo.MES, calculo);
+
+        // Assert: solo se recalcula el agrupado por mes
+        assertEquals(3, calculos.get());
+        assertEquals(1L, cache.getEstadisticas().getInvalidaciones());
+    }
+
+    @Test
+    @DisplayName("Un reporte calculado mientras ocurre una invalidación no debe guardarse")
+    void obtener_InvalidacionDuranteCalculo_NoGuardaReporte() {
+        // Arrange: el cambio se confirma mientras el reporte se está calculando
+        Supplier<ReporteFinancieroDTO> calculoConInvalidacion = () -> {
+            ReporteFinancieroDTO reporte = calculo.get();
+            cache.onDatosFinancierosModificados(DatosFinancierosModificadosEvent.delDia(INICIO, "Ticket entregado"));
+            return reporte;
+        };
+
+        // Act
+        ReporteFinancieroDTO desactualizado = cache.obtener(INICIO, FIN, AgrupacionPeriodo.DIA, calculoConInvalidacion);
+        ReporteFinancieroDTO recalculado = cache.obtener(INICIO, FIN, AgrupacionPeriodo.DIA, calculo);
+
+        // Assert
+        assertNotNull(desactualizado);
+        assertNotNull(recalculado);
+        assertEquals(2, calculos.get());
+        assertEquals(1L, cache.getEstadisticas().getEntradas());
+    }
+}
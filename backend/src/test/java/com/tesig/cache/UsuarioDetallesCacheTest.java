@@ -0,0 +1,140 @@
+package com.tesig.cache;
+
+import com.tesig.dto.UsuarioCacheEstadisticasDTO;
+import com.tesig.event.UsuarioModificadoEvent;
+import com.tesig.model.Rol;
+import com.tesig.security.CustomUserDetails;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitarios para UsuarioDetallesCache.
+ */
+class UsuarioDetallesCacheTest {
+
+    private UsuarioDetallesCache cache;
+    private AtomicInteger cargas;
+    private Supplier<CustomUserDetails> carga;
+
+    @BeforeEach
+    void setUp() {
+        cache = new UsuarioDetallesCache(true, 100, 300);
+        cargas = new AtomicInteger();
+        carga = () -> {
+            cargas.incrementAndGet();
+            return usuario(1L, "tecnico@tesig.com", Rol.TECNICO);
+        };
+    }
+
+    @Test
+    @DisplayName("Debe cargar el usuario una sola vez y registrar los aciertos")
+    void obtener_MismoEmail_CargaUnaVez() {
+        // Act
+        cache.obtener("tecnico@tesig.com", carga);
+        cache.obtener("tecnico@tesig.com", carga);
+        cache.obtener("tecnico@tesig.com", carga);
+
+        // Assert
+        assertEquals(1, cargas.get());
+        UsuarioCacheEstadisticasDTO estadisticas = cache.getEstadisticas();
+        assertEquals(1L, estadisticas.getEntradas());
+        assertEquals(2L, estadisticas.getAciertos());
+        assertEquals(1L, estadisticas.getFallos());
+        assertEquals(2.0 / 3, estadisticas.getTasaAciertos(), 0.001);
+    }
+
+    @Test
+    @DisplayName("Debe invalidar el usuario al modificarse")
+    void onUsuarioModificado_UsuarioEnCache_Invalida() {
+        // Arrange
+        cache.obtener("tecnico@tesig.com", carga);
+
+        // Act
+        cache.onUsuarioModificado(new UsuarioModificadoEvent(1L, "tecnico@tesig.com", Rol.TECNICO, false));
+        cache.obtener("tecnico@tesig.com", carga);
+
+        // Assert
+        assertEquals(2, cargas.get());
+        assertEquals(1L, cache.getEstadisticas().getInvalidaciones());
+    }
+
+    @Test
+    @DisplayName("Debe invalidar por ID cuando el cambio es del email")
+    void onUsuarioModificado_EmailCambiado_InvalidaPorId() {
+        // Arrange
+        cache.obtener("tecnico@tesig.com", carga);
+
+        // Act
+        cache.onUsuarioModificado(new UsuarioModificadoEvent(1L, "nuevo@tesig.com", Rol.TECNICO, true));
+        cache.obtener("tecnico@tesig.com", carga);
+
+        // Assert
+        assertEquals(2, cargas.get());
+    }
+
+    @Test
+    @DisplayName("No debe guardar un usuario leído en paralelo con una invalidación")
+    void obtener_InvalidacionDuranteCarga_NoGuarda() {
+        // Arrange
+        Supplier<CustomUserDetails> cargaConCambio = () -> {
+            cargas.incrementAndGet();
+            cache.onUsuarioModificado(new UsuarioModificadoEvent(1L, "tecnico@tesig.com", Rol.ADMINISTRADOR, true));
+            return usuario(1L, "tecnico@tesig.com", Rol.TECNICO);
+        };
+
+        // Act
+        cache.obtener("tecnico@tesig.com", cargaConCambio);
+        cache.obtener("tecnico@tesig.com", carga);
+
+        // Assert
+        assertEquals(2, cargas.get());
+    }
+
+    @Test
+    @DisplayName("No debe guardar los usuarios inexistentes o inactivos")
+    void obtener_CargaFallida_NoGuarda() {
+        // Arrange
+        Supplier<CustomUserDetails> cargaFallida = () -> {
+            cargas.incrementAndGet();
+            throw new UsernameNotFoundException("Usuario inactivo: tecnico@tesig.com");
+        };
+
+        // Act & Assert
+        assertThrows(UsernameNotFoundException.class, () -> cache.obtener("tecnico@tesig.com", cargaFallida));
+        assertThrows(UsernameNotFoundException.class, () -> cache.obtener("tecnico@tesig.com", cargaFallida));
+        assertEquals(2, cargas.get());
+        assertEquals(0L, cache.getEstadisticas().getEntradas());
+    }
+
+    @Test
+    @DisplayName("Deshabilitado debe cargar el usuario en cada llamada")
+    void obtener_Deshabilitado_CargaSiempre() {
+        // Arrange
+        UsuarioDetallesCache deshabilitado = new UsuarioDetallesCache(false, 100, 300);
+
+        // Act
+        deshabilitado.obtener("tecnico@tesig.com", carga);
+        deshabilitado.obtener("tecnico@tesig.com", carga);
+
+        // Assert
+        assertEquals(2, cargas.get());
+    }
+
+    private CustomUserDetails usuario(Long id, String email, Rol rol) {
+        return CustomUserDetails.builder()
+                .id(id)
+                .email(email)
+                .nombre("Juan")
+                .apellido("Pérez")
+                .rol(rol)
+                .activo(true)
+                .build();
+    }
+}
@@ -0,0 +1,201 @@
+package com.tesig.repository;
+
+import com.tesig.model.Cliente;
+import com.tesig.model.EstadoTicket;
+import com.tesig.model.Rol;
+import com.tesig.model.Ticket;
+import com.tesig.model.Usuario;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDateTime;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de integración para las búsquedas paginadas de tickets.
+ * Verifican que cada página se resuelve con una consulta de datos y una de conteo,
+ * sin cargas diferidas por fila al recorrer cliente, técnico y usuario de ingreso.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.sql.init.mode=never"
+})
+class TicketRepositoryTest {
+
+    private static final int TOTAL_TICKETS = 12;
+    private static final int TAMANIO_PAGINA = 5;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    private Statistics statistics;
+    private Cliente cliente;
+    private Usuario tecnico;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+
+        Usuario recepcionista = entityManager.persist(crearUsuario("recepcion@tesig.com", Rol.RECEPCIONISTA));
+        tecnico = entityManager.persist(crearUsuario("tecnico@tesig.com", Rol.TECNICO));
+
+        for (int i = 0; i < TOTAL_TICKETS; i++) {
+            // Un cliente distinto por ticket para que cada fila tenga asociaciones propias
+            Cliente clienteTicket = entityManager.persist(crearCliente(i));
+            if (i == 0) {
+                cliente = clienteTicket;
+            }
+
+            Ticket ticket = Ticket.builder()
+                    .numeroTicket(String.format("TES-T-%04d", i))
+                    .tipoEquipo("Laptop")
+                    .marca("HP")
+                    .fallaReportada("No enciende")
+                    .estado(i % 2 == 0 ? EstadoTicket.INGRESADO : EstadoTicket.EN_DIAGNOSTICO)
+                    .cliente(clienteTicket)
+                    .tecnicoAsignado(tecnico)
+                    .usuarioIngreso(recepcionista)
+                    .build();
+            ticket.setCreatedAt(LocalDateTime.now().minusMinutes(i));
+            entityManager.persist(ticket);
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    @DisplayName("findByDeletedAtIsNull: una página ejecuta solo consulta de datos y conteo")
+    void findByDeletedAtIsNull_PaginaConAsociaciones_DosSentencias() {
+        assertDosSentenciasPorPagina(() -> ticketRepository.findByDeletedAtIsNull(primeraPagina()));
+    }
+
+    @Test
+    @DisplayName("findByEstadoAndDeletedAtIsNull: una página ejecuta solo consulta de datos y conteo")
+    void findByEstadoAndDeletedAtIsNull_PaginaConAsociaciones_DosSentencias() {
+        assertDosSentenciasPorPagina(() ->
+                ticketRepository.findByEstadoAndDeletedAtIsNull(EstadoTicket.INGRESADO, primeraPagina()));
+    }
+
+    @Test
+    @DisplayName("findByTecnicoAsignadoIdAndDeletedAtIsNull: una página ejecuta solo consulta de datos y conteo")
+    void findByTecnicoAsignadoIdAndDeletedAtIsNull_PaginaConAsociaciones_DosSentencias() {
+        assertDosSentenciasPorPagina(() ->
+                ticketRepository.findByTecnicoAsignadoIdAndDeletedAtIsNull(tecnico.getId(), primeraPagina()));
+    }
+
+    @Test
+    @DisplayName("findActivosAndDeletedAtIsNull: una página ejecuta solo consulta de datos y conteo")
+    void findActivosAndDeletedAtIsNull_PaginaConAsociaciones_DosSentencias() {
+        assertDosSentenciasPorPagina(() ->
+                ticketRepository.findActivosAndDeletedAtIsNull(PageRequest.of(0, TAMANIO_PAGINA)));
+    }
+
+    @Test
+    @DisplayName("findByClienteIdAndDeletedAtIsNull: carga el cliente en la misma consulta")
+    void findByClienteIdAndDeletedAtIsNull_PaginaUnica_UnaSentencia() {
+        // Arrange
+        statistics.clear();
+
+        // Act
+        Page<Ticket> page = ticketRepository.findByClienteIdAndDeletedAtIsNull(cliente.getId(), primeraPagina());
+        page.getContent().forEach(this::recorrerAsociaciones);
+
+        // Assert: página única, Spring Data omite el conteo
+        assertEquals(1, page.getTotalElements());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @DisplayName("findMaxNumeroTicketLike: compara la secuencia como número, no como texto")
+    void findMaxNumeroTicketLike_SecuenciaSuperaAncho_RetornaMayorNumerico() {
+        // Arrange
+        for (String secuencia : new String[]{"0002", "9999", "10000"}) {
+            Ticket ticket = Ticket.builder()
+                    .numeroTicket("TES-MAT-20250101-" + secuencia)
+                    .tipoEquipo("Laptop")
+                    .marca("HP")
+                    .fallaReportada("No enciende")
+                    .estado(EstadoTicket.INGRESADO)
+                    .cliente(cliente)
+                    .tecnicoAsignado(tecnico)
+                    .usuarioIngreso(tecnico)
+                    .build();
+            ticket.setCreatedAt(LocalDateTime.now());
+            entityManager.persist(ticket);
+        }
+        entityManager.flush();
+
+        // Act
+        String maximo = ticketRepository.findMaxNumeroTicketLike("TES-MAT-20250101-%").orElseThrow();
+
+        // Assert
+        assertEquals("TES-MAT-20250101-10000", maximo);
+    }
+
+    private void assertDosSentenciasPorPagina(Supplier<Page<Ticket>> consulta) {
+        // Arrange
+        statistics.clear();
+
+        // Act
+        Page<Ticket> page = consulta.get();
+        page.getContent().forEach(this::recorrerAsociaciones);
+
+        // Assert
+        assertEquals(TAMANIO_PAGINA, page.getNumberOfElements());
+        assertTrue(page.getTotalElements() > TAMANIO_PAGINA);
+        assertEquals(2, statistics.getPrepareStatementCount(),
+                "Se esperaba una consulta de datos y una de conteo por página");
+    }
+
+    /**
+     * Recorre las mismas asociaciones que TicketMapper.toDTO.
+     */
+    private void recorrerAsociaciones(Ticket ticket) {
+        assertNotNull(ticket.getCliente().getNombreCompleto());
+        assertNotNull(ticket.getTecnicoAsignado().getNombreCompleto());
+        assertNotNull(ticket.getUsuarioIngreso().getRol().getNombre());
+    }
+
+    private PageRequest primeraPagina() {
+        return PageRequest.of(0, TAMANIO_PAGINA, Sort.by(Sort.Direction.DESC, "createdAt"));
+    }
+
+    private Cliente crearCliente(int indice) {
+        Cliente nuevo = Cliente.builder()
+                .nombre("Cliente" + indice)
+                .apellido("Prueba")
+                .telefono(String.format("09900%05d", indice))
+                .build();
+        nuevo.setCreatedAt(LocalDateTime.now());
+        return nuevo;
+    }
+
+    private Usuario crearUsuario(String email, Rol rol) {
+        Usuario usuario = Usuario.builder()
+                .nombre("Usuario")
+                .apellido("Prueba")
+                .email(email)
+                .password("hash")
+                .rol(rol)
+                .build();
+        usuario.setCreatedAt(LocalDateTime.now());
+        return usuario;
+    }
+}
@@ -0,0 +1,258 @@
+package com.tesig.security;
+
+import com.tesig.event.UsuarioModificadoEvent;
+import com.tesig.model.Rol;
+import com.tesig.repository.UsuarioRepository;
+import com.tesig.repository.projection.UsuarioAccesoProjection;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitarios para JwtAuthenticationFilter en modo stateless.
+ */
+@ExtendWith(MockitoExtension.class)
+class JwtAuthenticationFilterTest {
+
+    private static final String SECRET =
+            "dGVzaWctc2VjdXJlLWtleS1mb3ItZGV2ZWxvcG1lbnQtb25seS1kb25vdC11c2UtaW4tcHJvZHVjdGlvbg==";
+
+    @Mock
+    private UserDetailsService userDetailsService;
+
+    @Mock
+    private UsuarioRepository usuarioRepository;
+
+    @Mock
+    private IRevocacionTokenService revocacionTokenService;
+
+    private JwtServiceImpl jwtService;
+    private EstadoAccesoUsuarios estadoAccesoUsuarios;
+    private JwtAuthenticationFilter filter;
+    private CustomUserDetails tecnico;
+
+    @BeforeEach
+    void setUp() {
+        jwtService = new JwtServiceImpl();
+        ReflectionTestUtils.setField(jwtService, "secretKey", SECRET);
+        ReflectionTestUtils.setField(jwtService, "accessTokenExpiration", 86400000L);
+        ReflectionTestUtils.setField(jwtService, "refreshTokenExpiration", 86400000L);
+        jwtService.inicializar();
+
+        estadoAccesoUsuarios = new EstadoAccesoUsuarios(usuarioRepository);
+        filter = new JwtAuthenticationFilter(
+                jwtService, userDetailsService, estadoAccesoUsuarios, revocacionTokenService, true);
+
+        tecnico = CustomUserDetails.builder()
+                .id(1L)
+                .email("tecnico@tesig.com")
+                .nombre("Juan")
+                .apellido("Pérez")
+                .rol(Rol.TECNICO)
+                .activo(true)
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("Debe autenticar con los claims del token sin cargar el usuario de la BD")
+    void doFilter_TokenConClaims_AutenticaSinConsultarUsuario() throws Exception {
+        // Arrange
+        when(usuarioRepository.findAllAccesos()).thenReturn(List.of(acceso(1L, Rol.TECNICO, true, null)));
+
+        // Act
+        filtrar(jwtService.generateAccessToken(tecnico));
+        filtrar(jwtService.generateAccessToken(tecnico));
+
+        // Assert
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertNotNull(authentication);
+        CustomUserDetails principal = (CustomUserDetails) authentication.getPrincipal();
+        assertEquals(1L, principal.getId());
+        assertEquals("Juan Pérez", principal.getNombreCompleto());
+        assertEquals("ROLE_TECNICO", authentication.getAuthorities().iterator().next().getAuthority());
+        verify(usuarioRepository, times(1)).findAllAccesos();
+        verify(userDetailsService, never()).loadUserByUsername(any());
+    }
+
+    @Test
+    @DisplayName("No debe autenticar a un usuario desactivado después de emitido el token")
+    void doFilter_UsuarioDesactivado_NoAutentica() throws Exception {
+        // Arrange
+        when(usuarioRepository.findAllAccesos()).thenReturn(List.of(acceso(1L, Rol.TECNICO, true, null)));
+        String token = jwtService.generateAccessToken(tecnico);
+        filtrar(token);
+        SecurityContextHolder.clearContext();
+
+        // Act
+        estadoAccesoUsuarios.onUsuarioModificado(
+                new UsuarioModificadoEvent(1L, "tecnico@tesig.com", Rol.TECNICO, false));
+        filtrar(token);
+
+        // Assert
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    @Test
+    @DisplayName("No debe autenticar un token emitido con un rol anterior")
+    void doFilter_RolCambiado_NoAutentica() throws Exception {
+        // Arrange
+        when(usuarioRepository.findAllAccesos()).thenReturn(List.of(acceso(1L, Rol.RECEPCIONISTA, true, null)));
+
+        // Act
+        filtrar(jwtService.generateAccessToken(tecnico));
+
+        // Assert
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        verify(userDetailsService, never()).loadUserByUsername(any());
+    }
+
+    @Test
+    @DisplayName("No debe autenticar a un usuario eliminado")
+    void doFilter_UsuarioEliminado_NoAutentica() throws Exception {
+        // Arrange
+        when(usuarioRepository.findAllAccesos())
+                .thenReturn(List.of(acceso(1L, Rol.TECNICO, true, LocalDateTime.now())));
+
+        // Act
+        filtrar(jwtService.generateAccessToken(tecnico));
+
+        // Assert
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    @Test
+    @DisplayName("Un usuario inexistente debe consultarse en la BD una sola vez")
+    void doFilter_UsuarioInexistente_ConsultaUnaVez() throws Exception {
+        // Arrange
+        when(usuarioRepository.findAllAccesos()).thenReturn(List.of());
+        when(usuarioRepository.findAccesoById(1L)).thenReturn(Optional.empty());
+        String token = jwtService.generateAccessToken(tecnico);
+
+        // Act
+        filtrar(token);
+        filtrar(token);
+        filtrar(token);
+
+        // Assert
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        verify(usuarioRepository, times(1)).findAccesoById(1L);
+    }
+
+    @Test
+    @DisplayName("La recarga debe descartar la ausencia recordada de un usuario")
+    void doFilter_UsuarioCreadoTrasAusencia_AutenticaDespuesDeRecarga() throws Exception {
+        // Arrange
+        when(usuarioRepository.findAllAccesos())
+                .thenReturn(List.of())
+                .thenReturn(List.of(acceso(1L, Rol.TECNICO, true, null)));
+        when(usuarioRepository.findAccesoById(1L)).thenReturn(Optional.empty());
+        String token = jwtService.generateAccessToken(tecnico);
+        filtrar(token);
+
+        // Act
+        estadoAccesoUsuarios.recargar();
+        filtrar(token);
+
+        // Assert
+        assertNotNull(SecurityContextHolder.getContext().getAuthentication());
+        verify(usuarioRepository, times(1)).findAccesoById(1L);
+    }
+
+    @Test
+    @DisplayName("No debe autenticar un token revocado")
+    void doFilter_TokenRevocado_NoAutentica() throws Exception {
+        // Arrange
+        when(revocacionTokenService.estaRevocado(any())).thenReturn(true);
+
+        // Act
+        filtrar(jwtService.generateAccessToken(tecnico));
+
+        // Assert
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        verifyNoInteractions(usuarioRepository, userDetailsService);
+    }
+
+    @Test
+    @DisplayName("Un token sin los claims del usuario debe cargarlo de la BD")
+    void doFilter_TokenSinClaims_CargaUsuario() throws Exception {
+        // Arrange
+        String token = Jwts.builder()
+                .subject("tecnico@tesig.com")
+                .issuedAt(new Date())
+                .expiration(new Date(System.currentTimeMillis() + 60000))
+                .signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET)))
+                .compact();
+        when(userDetailsService.loadUserByUsername("tecnico@tesig.com")).thenReturn(tecnico);
+
+        // Act
+        filtrar(token);
+
+        // Assert
+        assertNotNull(SecurityContextHolder.getContext().getAuthentication());
+        verify(userDetailsService).loadUserByUsername("tecnico@tesig.com");
+        verifyNoInteractions(usuarioRepository);
+    }
+
+    private void filtrar(String token) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilterInternal(request, new MockHttpServletResponse(), new MockFilterChain());
+    }
+
+    private UsuarioAccesoProjection acceso(Long id, Rol rol, boolean activo, LocalDateTime deletedAt) {
+        return new UsuarioAccesoProjection() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getEmail() {
+                return "tecnico@tesig.com";
+            }
+
+            @Override
+            public Rol getRol() {
+                return rol;
+            }
+
+            @Override
+            public Boolean getActivo() {
+                return activo;
+            }
+
+            @Override
+            public LocalDateTime getDeletedAt() {
+                return deletedAt;
+            }
+        };
+    }
+}
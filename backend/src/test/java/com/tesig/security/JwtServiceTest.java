@@ -0,0 +1,142 @@
+package com.tesig.security;
+
+import com.tesig.model.Rol;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de JwtServiceImpl con la clave y el parser cacheados.
+ */
+class JwtServiceTest {
+
+    private static final String SECRET =
+            "dGVzaWctc2VjdXJlLWtleS1mb3ItZGV2ZWxvcG1lbnQtb25seS1kb25vdC11c2UtaW4tcHJvZHVjdGlvbg==";
+
+    private JwtServiceImpl jwtService;
+    private CustomUserDetails usuario;
+
+    @BeforeEach
+    void setUp() {
+        jwtService = crearJwtService(86400000L);
+        usuario = CustomUserDetails.builder()
+                .id(1L)
+                .email("tecnico@tesig.com")
+                .nombre("Juan")
+                .apellido("Pérez")
+                .rol(Rol.TECNICO)
+                .activo(true)
+                .build();
+    }
+
+    @Test
+    @DisplayName("Debe verificar el token y devolver sus claims")
+    void verifyToken_TokenValido_DevuelveClaims() {
+        // Arrange
+        String token = jwtService.generateAccessToken(usuario);
+
+        // Act
+        Claims claims = jwtService.verifyToken(token);
+
+        // Assert
+        assertEquals("tecnico@tesig.com", claims.getSubject());
+        assertEquals(1L, claims.get("userId", Long.class));
+        assertEquals("TECNICO", claims.get("rol", String.class));
+        assertTrue(jwtService.isTokenValid(claims, usuario));
+    }
+
+    @Test
+    @DisplayName("Debe rechazar un token con la firma alterada")
+    void verifyToken_FirmaAlterada_LanzaExcepcion() {
+        // Arrange
+        String token = jwtService.generateAccessToken(usuario);
+        String alterado = token.substring(0, token.length() - 2)
+                + (token.endsWith("AA") ? "BB" : "AA");
+
+        // Act & Assert
+        assertThrows(JwtException.class, () -> jwtService.verifyToken(alterado));
+        assertFalse(jwtService.isTokenValid(alterado, usuario));
+    }
+
+    @Test
+    @DisplayName("Debe rechazar un token expirado")
+    void verifyToken_TokenExpirado_LanzaExcepcion() {
+        // Arrange
+        String token = crearJwtService(-1000L).generateAccessToken(usuario);
+
+        // Act & Assert
+        assertThrows(ExpiredJwtException.class, () -> jwtService.verifyToken(token));
+        assertTrue(jwtService.isTokenExpired(token));
+    }
+
+    @Test
+    @DisplayName("Los claims no deben ser válidos para otro usuario")
+    void isTokenValid_OtroUsuario_RetornaFalse() {
+        // Arrange
+        Claims claims = jwtService.verifyToken(jwtService.generateAccessToken(usuario));
+        CustomUserDetails otro = CustomUserDetails.builder().email("otro@tesig.com").rol(Rol.ADMINISTRADOR).build();
+
+        // Act & Assert
+        assertFalse(jwtService.isTokenValid(claims, otro));
+    }
+
+    @Test
+    @Tag("benchmark")
+    @DisplayName("Benchmark: una verificación con parser cacheado frente a tres parseos con clave nueva")
+    void benchmark_VerificacionesPorSegundo(TestReporter reporter) {
+        // Arrange
+        int cantidad = 20_000;
+        String token = jwtService.generateAccessToken(usuario);
+        for (int i = 0; i < 2_000; i++) {
+            verificarComoAntes(token);
+            jwtService.verifyToken(token);
+        }
+
+        // Act: comportamiento anterior del filtro (clave y parser nuevos, tres parseos por request)
+        long inicio = System.nanoTime();
+        for (int i = 0; i < cantidad; i++) {
+            verificarComoAntes(token);
+        }
+        double antes = cantidad / ((System.nanoTime() - inicio) / 1e9);
+
+        // Act: un solo parseo con la clave y el parser cacheados
+        inicio = System.nanoTime();
+        for (int i = 0; i < cantidad; i++) {
+            jwtService.isTokenValid(jwtService.verifyToken(token), usuario);
+        }
+        double ahora = cantidad / ((System.nanoTime() - inicio) / 1e9);
+
+        reporter.publishEntry("JWT verificaciones/s (tres parseos, clave nueva)", String.format("%.0f", antes));
+        reporter.publishEntry("JWT verificaciones/s (parser cacheado)", String.format("%.0f", ahora));
+    }
+
+    private void verificarComoAntes(String token) {
+        for (int parseo = 0; parseo < 3; parseo++) {
+            JwtParser parser = Jwts.parser()
+                    .verifyWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET)))
+                    .build();
+            parser.parseSignedClaims(token).getPayload();
+        }
+    }
+
+    private JwtServiceImpl crearJwtService(long expiracion) {
+        JwtServiceImpl servicio = new JwtServiceImpl();
+        ReflectionTestUtils.setField(servicio, "secretKey", SECRET);
+        ReflectionTestUtils.setField(servicio, "accessTokenExpiration", expiracion);
+        ReflectionTestUtils.setField(servicio, "refreshTokenExpiration", expiracion);
+        servicio.inicializar();
+        return servicio;
+    }
+}
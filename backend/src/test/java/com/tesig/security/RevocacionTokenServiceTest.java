@@ -0,0 +1,188 @@
+package com.tesig.security;
+
+import com.tesig.event.TokenRevocadoEvent;
+import com.tesig.model.RefreshToken;
+import com.tesig.repository.RefreshTokenRepository;
+import com.tesig.repository.TokenRevocadoRepository;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitarios para RevocacionTokenService.
+ */
+@ExtendWith(MockitoExtension.class)
+class RevocacionTokenServiceTest {
+
+    @Mock
+    private TokenRevocadoRepository tokenRevocadoRepository;
+
+    @Mock
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private RevocacionTokenServiceImpl revocacionService;
+
+    @BeforeEach
+    void setUp() {
+        // Filtro para 1000 tokens con 1% de falsos positivos, purga en lotes de 2
+        revocacionService = new RevocacionTokenServiceImpl(tokenRevocadoRepository, refreshTokenRepository,
+                eventPublisher, transactionManager, 1000, 0.01, 2);
+    }
+
+    @Test
+    @DisplayName("Al iniciar debe relajar la columna token antes de completar el hash y borrar el texto plano")
+    void migrarRefreshTokens_TablaAnterior_EliminaTextoPlanoTrasCompletarHash() {
+        // Arrange
+        when(refreshTokenRepository.completarTokenHash()).thenReturn(3);
+        when(refreshTokenRepository.eliminarTokensEnTextoPlano()).thenReturn(3);
+
+        // Act
+        revocacionService.migrarRefreshTokens();
+
+        // Assert
+        InOrder orden = inOrder(refreshTokenRepository);
+        orden.verify(refreshTokenRepository).eliminarRestriccionUnicaToken();
+        orden.verify(refreshTokenRepository).permitirTokenNulo();
+        orden.verify(refreshTokenRepository).completarTokenHash();
+        orden.verify(refreshTokenRepository).eliminarTokensEnTextoPlano();
+    }
+
+    @Test
+    @DisplayName("Un token que no está en el filtro no debe consultar la BD")
+    void estaRevocado_TokenNoRevocado_NoConsultaBD() {
+        // Arrange
+        when(tokenRevocadoRepository.findJtiVigentes(any())).thenReturn(List.of("revocado-1"));
+        when(refreshTokenRepository.findJtiRevocadosVigentes(any())).thenReturn(List.of("revocado-2"));
+        revocacionService.reconstruirFiltro();
+
+        // Act
+        boolean revocado = revocacionService.estaRevocado(claims("vigente"));
+
+        // Assert
+        assertFalse(revocado);
+        verify(tokenRevocadoRepository, never()).existsByJti(any());
+        verify(refreshTokenRepository, never()).existsByJtiAndActivoFalse(any());
+    }
+
+    @Test
+    @DisplayName("Un positivo del filtro debe confirmarse en la BD una sola vez")
+    void estaRevocado_TokenRevocado_ConfirmaEnBD() {
+        // Arrange
+        when(tokenRevocadoRepository.findJtiVigentes(any())).thenReturn(List.of("revocado-1"));
+        when(refreshTokenRepository.findJtiRevocadosVigentes(any())).thenReturn(List.of());
+        when(tokenRevocadoRepository.existsByJti("revocado-1")).thenReturn(true);
+        revocacionService.reconstruirFiltro();
+
+        // Act
+        boolean primero = revocacionService.estaRevocado(claims("revocado-1"));
+        boolean segundo = revocacionService.estaRevocado(claims("revocado-1"));
+
+        // Assert
+        assertTrue(primero);
+        assertTrue(segundo);
+        verify(tokenRevocadoRepository, times(1)).existsByJti("revocado-1");
+    }
+
+    @Test
+    @DisplayName("Un token revocado en esta instancia debe rechazarse sin consultar la BD")
+    void onTokenRevocado_TokenRevocado_RechazaSinConsultarBD() {
+        // Arrange
+        when(tokenRevocadoRepository.findJtiVigentes(any())).thenReturn(List.of());
+        when(refreshTokenRepository.findJtiRevocadosVigentes(any())).thenReturn(List.of());
+        revocacionService.reconstruirFiltro();
+
+        // Act
+        revocacionService.onTokenRevocado(new TokenRevocadoEvent("logout-1", LocalDateTime.now().plusHours(1)));
+
+        // Assert
+        assertTrue(revocacionService.estaRevocado(claims("logout-1")));
+        verify(tokenRevocadoRepository, never()).existsByJti(any());
+    }
+
+    @Test
+    @DisplayName("La reconstrucción debe conservar las revocaciones locales no expiradas")
+    void reconstruirFiltro_RevocacionLocal_SeConserva() {
+        // Arrange
+        when(tokenRevocadoRepository.findJtiVigentes(any())).thenReturn(List.of());
+        when(refreshTokenRepository.findJtiRevocadosVigentes(any())).thenReturn(List.of());
+        revocacionService.reconstruirFiltro();
+        revocacionService.onTokenRevocado(new TokenRevocadoEvent("logout-1", LocalDateTime.now().plusHours(1)));
+        revocacionService.onTokenRevocado(new TokenRevocadoEvent("expirado-1", LocalDateTime.now().minusHours(1)));
+
+        // Act
+        revocacionService.reconstruirFiltro();
+
+        // Assert
+        assertTrue(revocacionService.estaRevocado(claims("logout-1")));
+        assertFalse(revocacionService.estaRevocado(claims("expirado-1")));
+    }
+
+    @Test
+    @DisplayName("Un token sin jti no debe considerarse revocado")
+    void estaRevocado_SinJti_RetornaFalse() {
+        // Act & Assert
+        assertFalse(revocacionService.estaRevocado(claims(null)));
+        verifyNoInteractions(tokenRevocadoRepository, refreshTokenRepository);
+    }
+
+    @Test
+    @DisplayName("Debe publicar la revocación del refresh token invalidado")
+    void registrarRefreshTokenRevocado_ConJti_PublicaEvento() {
+        // Arrange
+        RefreshToken refreshToken = RefreshToken.builder()
+                .jti("refresh-1")
+                .fechaExpiracion(LocalDateTime.now().plusDays(7))
+                .build();
+
+        // Act
+        revocacionService.registrarRefreshTokenRevocado(refreshToken);
+
+        // Assert
+        verify(eventPublisher).publishEvent(new TokenRevocadoEvent("refresh-1", refreshToken.getFechaExpiracion()));
+    }
+
+    @Test
+    @DisplayName("Debe purgar en lotes hasta que un lote quede incompleto")
+    void purgarExpirados_VariosLotes_EliminaHastaLoteIncompleto() {
+        // Arrange
+        when(refreshTokenRepository.purgarExpirados(any(), eq(2))).thenReturn(2, 2, 1);
+        when(tokenRevocadoRepository.purgarExpirados(any(), eq(2))).thenReturn(0);
+
+        // Act
+        int eliminados = revocacionService.purgarExpirados();
+
+        // Assert
+        assertEquals(5, eliminados);
+        verify(refreshTokenRepository, times(3)).purgarExpirados(any(), eq(2));
+        verify(tokenRevocadoRepository, times(1)).purgarExpirados(any(), eq(2));
+    }
+
+    private Claims claims(String jti) {
+        return Jwts.claims()
+                .id(jti)
+                .expiration(new Date(System.currentTimeMillis() + 3600000))
+                .build();
+    }
+}
@@ -0,0 +1,220 @@
+package com.tesig.security;
+
+import com.tesig.dto.LoginEstadisticasDTO;
+import com.tesig.exception.DemasiadosIntentosException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitarios para VerificadorCredenciales.
+ */
+@ExtendWith(MockitoExtension.class)
+class VerificadorCredencialesTest {
+
+    @Mock
+    private AuthenticationManager authenticationManager;
+
+    private VerificadorCredenciales verificador;
+
+    @AfterEach
+    void tearDown() {
+        verificador.detener();
+    }
+
+    @Test
+    @DisplayName("Debe verificar las credenciales en el pool y registrar los tiempos")
+    void autenticar_CredencialesValidas_RetornaAutenticacion() {
+        // Arrange
+        verificador = crear(1, 5, 20, 5);
+        Authentication autenticado = new UsernamePasswordAuthenticationToken("tecnico@tesig.com", null, List.of());
+        when(authenticationManager.authenticate(any())).thenAnswer(invocation -> {
+            assertTrue(Thread.currentThread().getName().startsWith("verificacion-login-"));
+            return autenticado;
+        });
+
+        // Act
+        Authentication resultado = verificador.autenticar("tecnico@tesig.com", "clave", "10.0.0.1");
+
+        // Assert
+        assertSame(autenticado, resultado);
+        assertEquals(1L, verificador.getEstadisticas().getVerificaciones());
+    }
+
+    @Test
+    @DisplayName("Debe propagar las credenciales inválidas")
+    void autenticar_CredencialesInvalidas_LanzaBadCredentials() {
+        // Arrange
+        verificador = crear(1, 5, 20, 5);
+        when(authenticationManager.authenticate(any())).thenThrow(new BadCredentialsException("Bad credentials"));
+
+        // Act & Assert
+        assertThrows(BadCredentialsException.class,
+                () -> verificador.autenticar("tecnico@tesig.com", "incorrecta", "10.0.0.1"));
+    }
+
+    @Test
+    @DisplayName("Debe rechazar el exceso de intentos de una cuenta sin verificar la contraseña")
+    void autenticar_LimiteCuentaExcedido_RechazaSinVerificar() {
+        // Arrange
+        verificador = crear(1, 5, 20, 3);
+        when(authenticationManager.authenticate(any())).thenThrow(new BadCredentialsException("Bad credentials"));
+        for (int i = 0; i < 3; i++) {
+            String ip = "10.0.0." + i;
+            assertThrows(BadCredentialsException.class,
+                    () -> verificador.autenticar("Tecnico@tesig.com", "incorrecta", ip));
+        }
+
+        // Act
+        DemasiadosIntentosException ex = assertThrows(DemasiadosIntentosException.class,
+                () -> verificador.autenticar(" tecnico@tesig.com", "incorrecta", "10.0.0.9"));
+
+        // Assert
+        assertTrue(ex.getSegundosReintento() > 0);
+        verify(authenticationManager, times(3)).authenticate(any());
+        assertEquals(1L, verificador.getEstadisticas().getRechazadosPorCuenta());
+    }
+
+    @Test
+    @DisplayName("Los logins exitosos no deben agotar el límite de la cuenta")
+    void autenticar_LoginsExitosos_NoConsumenLimiteCuenta() {
+        // Arrange
+        verificador = crear(1, 5, 20, 2);
+        Authentication autenticado = new UsernamePasswordAuthenticationToken("tecnico@tesig.com", null, List.of());
+        when(authenticationManager.authenticate(any())).thenReturn(autenticado);
+        for (int i = 0; i < 5; i++) {
+            verificador.autenticar("tecnico@tesig.com", "clave", "10.0.0." + i);
+        }
+        when(authenticationManager.authenticate(any())).thenThrow(new BadCredentialsException("Bad credentials"));
+
+        // Act & Assert: la cubeta sigue completa para los intentos fallidos
+        assertThrows(BadCredentialsException.class,
+                () -> verificador.autenticar("tecnico@tesig.com", "incorrecta", "10.0.0.7"));
+        assertThrows(BadCredentialsException.class,
+                () -> verificador.autenticar("tecnico@tesig.com", "incorrecta", "10.0.0.8"));
+        assertThrows(DemasiadosIntentosException.class,
+                () -> verificador.autenticar("tecnico@tesig.com", "incorrecta", "10.0.0.9"));
+        assertEquals(0L, verificador.getEstadisticas().getRechazadosPorIp());
+    }
+
+    @Test
+    @DisplayName("Debe rechazar el exceso de intentos de una IP")
+    void autenticar_LimiteIpExcedido_Rechaza() {
+        // Arrange
+        verificador = crear(1, 5, 2, 20);
+        when(authenticationManager.authenticate(any())).thenThrow(new BadCredentialsException("Bad credentials"));
+        assertThrows(BadCredentialsException.class, () -> verificador.autenticar("a@tesig.com", "x", "10.0.0.1"));
+        assertThrows(BadCredentialsException.class, () -> verificador.autenticar("b@tesig.com", "x", "10.0.0.1"));
+
+        // Act & Assert
+        assertThrows(DemasiadosIntentosException.class,
+                () -> verificador.autenticar("c@tesig.com", "x", "10.0.0.1"));
+        assertEquals(1L, verificador.getEstadisticas().getRechazadosPorIp());
+    }
+
+    @Test
+    @DisplayName("Debe rechazar los intentos que no entran en la cola de verificación")
+    void autenticar_ColaLlena_RechazaPorCapacidad() throws Exception {
+        // Arrange
+        verificador = crear(1, 1, 20, 20);
+        CountDownLatch iniciada = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        when(authenticationManager.authenticate(any())).thenAnswer(invocation -> {
+            iniciada.countDown();
+            liberar.await();
+            return null;
+        });
+        CompletableFuture<Void> enHilo = CompletableFuture.runAsync(
+                () -> verificador.autenticar("a@tesig.com", "x", "10.0.0.1"));
+        assertTrue(iniciada.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Void> enCola = CompletableFuture.runAsync(
+                () -> verificador.autenticar("b@tesig.com", "x", "10.0.0.2"));
+        while (verificador.getEstadisticas().getEnCola() == 0) {
+            Thread.sleep(1);
+        }
+
+        // Act
+        assertThrows(DemasiadosIntentosException.class,
+                () -> verificador.autenticar("c@tesig.com", "x", "10.0.0.3"));
+        Thread.sleep(20);
+        liberar.countDown();
+        enHilo.get(5, TimeUnit.SECONDS);
+        enCola.get(5, TimeUnit.SECONDS);
+
+        // Assert
+        LoginEstadisticasDTO estadisticas = verificador.getEstadisticas();
+        assertEquals(1L, estadisticas.getRechazadosPorCapacidad());
+        assertEquals(2L, estadisticas.getVerificaciones());
+        assertTrue(estadisticas.getEsperaMaximaMs() >= 20);
+    }
+
+    @Test
+    @DisplayName("Un intento descartado por saturación antes de verificarse no debe consumir el límite de la cuenta")
+    void autenticar_TiempoMaximoEnCola_DevuelvePermisoCuenta() throws Exception {
+        // Arrange
+        verificador = crear(1, 5, 50, 20, 1);
+        CountDownLatch iniciada = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        when(authenticationManager.authenticate(any())).thenAnswer(invocation -> {
+            if ("a@tesig.com".equals(((Authentication) invocation.getArgument(0)).getName())) {
+                iniciada.countDown();
+                // Ocupa el hilo aunque su propio intento venza y lo interrumpa
+                while (true) {
+                    try {
+                        liberar.await();
+                        break;
+                    } catch (InterruptedException ignorada) {
+                        // Sigue esperando
+                    }
+                }
+            }
+            return new UsernamePasswordAuthenticationToken("tecnico@tesig.com", null, List.of());
+        });
+        CompletableFuture<Void> ocupada = CompletableFuture.runAsync(() -> {
+            try {
+                verificador.autenticar("a@tesig.com", "x", "10.0.0.1");
+            } catch (DemasiadosIntentosException ignorada) {
+                // El intento que ocupa el hilo también vence el tiempo máximo
+            }
+        });
+        assertTrue(iniciada.await(5, TimeUnit.SECONDS));
+
+        // Act: el intento queda en cola hasta vencer el tiempo máximo, sin verificarse
+        assertThrows(DemasiadosIntentosException.class,
+                () -> verificador.autenticar("tecnico@tesig.com", "clave", "10.0.0.2"));
+        liberar.countDown();
+        ocupada.get(5, TimeUnit.SECONDS);
+        Authentication resultado = verificador.autenticar("tecnico@tesig.com", "clave", "10.0.0.3");
+
+        // Assert
+        assertNotNull(resultado);
+        assertEquals(0L, verificador.getEstadisticas().getRechazadosPorCuenta());
+        verify(authenticationManager, times(2)).authenticate(any());
+    }
+
+    private VerificadorCredenciales crear(int hilos, int capacidadCola, int capacidadIp, int capacidadCuenta) {
+        return crear(hilos, capacidadCola, 5000, capacidadIp, capacidadCuenta);
+    }
+
+    private VerificadorCredenciales crear(int hilos, int capacidadCola, long tiempoMaximoMs,
+                                          int capacidadIp, int capacidadCuenta) {
+        return new VerificadorCredenciales(authenticationManager, hilos, capacidadCola, tiempoMaximoMs,
+                capacidadIp, 1, capacidadCuenta, 1, 1000);
+    }
+}
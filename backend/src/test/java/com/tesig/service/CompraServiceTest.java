@@ -9,6 +9,7 @@ import com.tesig.model.Compra;
 import com.tesig.model.CompraDetalle;
 import com.tesig.model.MovimientoInventario;
 import com.tesig.model.Pieza;
+import com.tesig.model.SerieDocumento;
 import com.tesig.repository.CompraRepository;
 import com.tesig.repository.MovimientoInventarioRepository;
 import com.tesig.repository.PiezaRepository;
@@ -31,6 +32,7 @@ import java.util.Optional;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 /**
@@ -51,6 +53,12 @@ class CompraServiceTest {
     @Mock
     private CompraMapper compraMapper;
 
+    @Mock
+    private IResumenFinancieroService resumenFinancieroService;
+
+    @Mock
+    private INumeroDocumentoService numeroDocumentoService;
+
     @InjectMocks
     private CompraServiceImpl compraService;
 
@@ -117,6 +125,8 @@ class CompraServiceTest {
     void crear_DatosValidos_CreaCompra() {
         // Arrange
         when(piezaRepository.findByIdAndNotDeleted(1L)).thenReturn(Optional.of(pieza));
+        when(numeroDocumentoService.generar(eq(SerieDocumento.COMPRA), any()))
+                .thenReturn("TES-CMP-20251118-0001");
         when(compraRepository.save(any(Compra.class))).thenReturn(compra);
         when(compraMapper.toDTO(any(Compra.class))).thenReturn(compraDTO);
 
@@ -127,6 +137,7 @@ class CompraServiceTest {
         assertNotNull(result);
         assertEquals("TES-CMP-20251118-0001", result.getCodigoCompra());
         verify(compraRepository).save(any(Compra.class));
+        verify(compraRepository, never()).findAll();
     }
 
     @Test
@@ -175,6 +186,7 @@ class CompraServiceTest {
         assertEquals(Compra.EstadoCompra.RECIBIDA, compra.getEstado());
         assertEquals(20, pieza.getStock()); // 10 + 10
         verify(movimientoRepository).save(any(MovimientoInventario.class));
+        verify(resumenFinancieroService).registrarCompraRecibida(compra);
     }
 
     @Test
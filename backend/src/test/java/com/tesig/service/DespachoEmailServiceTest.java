@@ -0,0 +1,222 @@
+package com.tesig.service;
+
+import com.tesig.model.EstadoNotificacionEmail;
+import com.tesig.model.NotificacionEmail;
+import com.tesig.model.TipoNotificacionEmail;
+import com.tesig.repository.NotificacionEmailRepository;
+import com.tesig.service.impl.DespachoEmailServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitarios para DespachoEmailService.
+ */
+@ExtendWith(MockitoExtension.class)
+class DespachoEmailServiceTest {
+
+    @Mock
+    private NotificacionEmailRepository notificacionRepository;
+
+    @Mock
+    private IEmailService emailService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private DespachoEmailServiceImpl despachoService;
+
+    @BeforeEach
+    void setUp() {
+        // 2 hilos, lotes de 10, 3 intentos, espera inicial 30 s, máxima 5 min, bloqueo 5 min,
+        // retención de enviadas 30 días, purga en lotes de 2
+        despachoService = new DespachoEmailServiceImpl(
+                notificacionRepository, emailService, transactionManager, 2, 10, 3, 30, 5, 5, 30, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReflectionTestUtils.invokeMethod(despachoService, "detener");
+    }
+
+    @Test
+    @DisplayName("Debe enviar las notificaciones reclamadas y marcarlas como enviadas")
+    void despacharPendientes_EnvioExitoso_MarcaEnviada() {
+        // Arrange
+        when(emailService.isEmailEnabled()).thenReturn(true);
+        when(notificacionRepository.reclamarPendientes(any(), any(), eq(10)))
+                .thenReturn(List.of(notificacion(1L, 1)));
+
+        // Act
+        int procesadas = despachoService.despacharPendientes();
+
+        // Assert
+        assertEquals(1, procesadas);
+        verify(emailService).enviarNotificaciones(argThat(lote -> lote.size() == 1 && lote.get(0).getId() == 1L));
+        verify(notificacionRepository).marcarEnviadas(eq(List.of(1L)), eq(EstadoNotificacionEmail.ENVIADA), any());
+        verify(notificacionRepository, never()).registrarFallo(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Debe reprogramar con espera el envío fallido que aún tiene intentos")
+    void despacharPendientes_EnvioFallido_ReprogramaPendiente() {
+        // Arrange
+        when(emailService.isEmailEnabled()).thenReturn(true);
+        when(notificacionRepository.reclamarPendientes(any(), any(), eq(10)))
+                .thenReturn(List.of(notificacion(1L, 2)));
+        when(emailService.enviarNotificaciones(anyList()))
+                .thenReturn(Map.of(1L, new RuntimeException("SMTP no disponible")));
+        LocalDateTime antes = LocalDateTime.now();
+
+        // Act
+        despachoService.despacharPendientes();
+
+        // Assert: segundo intento -> espera de 60 s
+        verify(notificacionRepository).registrarFallo(eq(1L), eq(EstadoNotificacionEmail.PENDIENTE),
+                argThat(proximo -> !proximo.isBefore(antes.plusSeconds(60))), anyString(), any());
+        verify(notificacionRepository, never()).marcarEnviadas(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Debe pasar a FALLIDA la notificación que agotó los intentos")
+    void despacharPendientes_IntentosAgotados_MarcaFallida() {
+        // Arrange
+        when(emailService.isEmailEnabled()).thenReturn(true);
+        when(notificacionRepository.reclamarPendientes(any(), any(), eq(10)))
+                .thenReturn(List.of(notificacion(1L, 3)));
+        when(emailService.enviarNotificaciones(anyList()))
+                .thenReturn(Map.of(1L, new RuntimeException("Buzón inexistente")));
+
+        // Act
+        despachoService.despacharPendientes();
+
+        // Assert
+        verify(notificacionRepository).registrarFallo(eq(1L), eq(EstadoNotificacionEmail.FALLIDA),
+                any(), contains("Buzón inexistente"), any());
+    }
+
+    @Test
+    @DisplayName("Debe repartir el lote en un grupo por hilo y registrar cada resultado")
+    void despacharPendientes_LoteMixto_RepartePorHiloYRegistraResultados() {
+        // Arrange
+        when(emailService.isEmailEnabled()).thenReturn(true);
+        when(notificacionRepository.reclamarPendientes(any(), any(), eq(10)))
+                .thenReturn(List.of(notificacion(1L, 1), notificacion(2L, 1), notificacion(3L, 1), notificacion(4L, 1)));
+        when(emailService.enviarNotificaciones(anyList())).thenAnswer(invocacion -> {
+            List<NotificacionEmail> grupo = invocacion.getArgument(0);
+            return grupo.stream().anyMatch(n -> n.getId() == 4L)
+                    ? Map.of(4L, new RuntimeException("Destinatario rechazado"))
+                    : Map.of();
+        });
+
+        // Act
+        int procesadas = despachoService.despacharPendientes();
+
+        // Assert
+        assertEquals(4, procesadas);
+        verify(emailService, times(2)).enviarNotificaciones(argThat(grupo -> grupo.size() == 2));
+        verify(notificacionRepository).registrarFallo(eq(4L), eq(EstadoNotificacionEmail.PENDIENTE),
+                any(), anyString(), any());
+    }
+
+    @Test
+    @DisplayName("No debe reclamar notificaciones si el email está deshabilitado")
+    void despacharPendientes_EmailDeshabilitado_NoReclama() {
+        // Arrange
+        when(emailService.isEmailEnabled()).thenReturn(false);
+
+        // Act
+        int procesadas = despachoService.despacharPendientes();
+
+        // Assert
+        assertEquals(0, procesadas);
+        verifyNoInteractions(notificacionRepository);
+    }
+
+    @Test
+    @DisplayName("La espera entre intentos debe crecer exponencialmente hasta el máximo")
+    void espera_CreceExponencialmenteHastaMaximo() {
+        // Act
+        Duration primera = ReflectionTestUtils.invokeMethod(despachoService, "espera", 1);
+        Duration tercera = ReflectionTestUtils.invokeMethod(despachoService, "espera", 3);
+        Duration decima = ReflectionTestUtils.invokeMethod(despachoService, "espera", 10);
+
+        // Assert
+        assertEquals(Duration.ofSeconds(30), primera);
+        assertEquals(Duration.ofSeconds(120), tercera);
+        assertEquals(Duration.ofMinutes(5), decima);
+    }
+
+    @Test
+    @DisplayName("La pasada periódica debe delegar el envío sin bloquear el hilo del scheduler")
+    void despacharPeriodicamente_SmtpLento_RetornaSinEsperarEnvio() throws Exception {
+        // Arrange
+        CountDownLatch enviando = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        when(emailService.isEmailEnabled()).thenReturn(true);
+        when(notificacionRepository.reclamarPendientes(any(), any(), eq(10)))
+                .thenReturn(List.of(notificacion(1L, 1)))
+                .thenReturn(List.of());
+        when(emailService.enviarNotificaciones(anyList())).thenAnswer(invocation -> {
+            enviando.countDown();
+            liberar.await();
+            return Map.of();
+        });
+
+        // Act
+        despachoService.despacharPeriodicamente();
+
+        // Assert: el envío sigue en curso en el hilo del despachador
+        assertTrue(enviando.await(5, TimeUnit.SECONDS));
+        verify(notificacionRepository, never()).marcarEnviadas(any(), any(), any());
+        liberar.countDown();
+        verify(notificacionRepository, timeout(5000))
+                .marcarEnviadas(eq(List.of(1L)), eq(EstadoNotificacionEmail.ENVIADA), any());
+    }
+
+    @Test
+    @DisplayName("Debe purgar por lotes las notificaciones enviadas antes de la retención")
+    void purgarEnviadas_VariosLotes_EliminaHastaLoteIncompleto() {
+        // Arrange
+        when(notificacionRepository.purgarEnviadas(any(), eq(2))).thenReturn(2, 2, 1);
+        LocalDateTime limiteEsperado = LocalDateTime.now().minusDays(30);
+
+        // Act
+        int eliminadas = despachoService.purgarEnviadas();
+
+        // Assert
+        assertEquals(5, eliminadas);
+        verify(notificacionRepository, times(3)).purgarEnviadas(
+                argThat(limite -> Duration.between(limiteEsperado, limite).abs().getSeconds() < 5), eq(2));
+    }
+
+    private NotificacionEmail notificacion(Long id, int intentos) {
+        return NotificacionEmail.builder()
+                .id(id)
+                .tipo(TipoNotificacionEmail.LISTO_PARA_ENTREGA)
+                .ticketId(10L)
+                .destinatario("cliente@mail.com")
+                .asunto("Asunto")
+                .contenido("<p>Hola</p>")
+                .estado(EstadoNotificacionEmail.ENVIANDO)
+                .intentos(intentos)
+                .build();
+    }
+}
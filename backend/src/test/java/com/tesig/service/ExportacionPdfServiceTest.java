@@ -0,0 +1,140 @@
+package com.tesig.service;
+
+import com.tesig.dto.DocumentoPdfDTO;
+import com.tesig.dto.ticket.ExportarDocumentosDTO;
+import com.tesig.exception.BusinessException;
+import com.tesig.model.EstadoTicket;
+import com.tesig.model.FormatoExportacionPdf;
+import com.tesig.model.Ticket;
+import com.tesig.model.TipoDocumentoPdf;
+import com.tesig.repository.TicketRepository;
+import com.tesig.service.impl.ExportacionPdfServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitarios para ExportacionPdfService.
+ */
+@ExtendWith(MockitoExtension.class)
+class ExportacionPdfServiceTest {
+
+    @Mock
+    private TicketRepository ticketRepository;
+
+    @Mock
+    private IPDFService pdfService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ExportacionPdfServiceImpl exportacionService;
+
+    @BeforeEach
+    void setUp() {
+        exportacionService = new ExportacionPdfServiceImpl(ticketRepository, pdfService, transactionManager, 2, 2, 3);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReflectionTestUtils.invokeMethod(exportacionService, "detener");
+    }
+
+    @Test
+    @DisplayName("Debe resolver los tickets con el filtro y el límite máximo")
+    void resolverTickets_ConFiltro_ConsultaIds() {
+        // Arrange
+        ExportarDocumentosDTO solicitud = ExportarDocumentosDTO.builder()
+                .tipo(TipoDocumentoPdf.TICKET)
+                .estado(EstadoTicket.LISTO_ENTREGA)
+                .fechaDesde(LocalDate.of(2024, 1, 1))
+                .fechaHasta(LocalDate.of(2024, 1, 31))
+                .build();
+        when(ticketRepository.findIdsParaExportacion(eq(EstadoTicket.LISTO_ENTREGA),
+                eq(LocalDate.of(2024, 1, 1).atStartOfDay()), eq(LocalDate.of(2024, 2, 1).atStartOfDay()),
+                isNull(), eq(Limit.of(4))))
+                .thenReturn(List.of(1L, 2L));
+
+        // Act
+        List<Long> ids = exportacionService.resolverTickets(solicitud);
+
+        // Assert
+        assertEquals(List.of(1L, 2L), ids);
+    }
+
+    @Test
+    @DisplayName("Debe rechazar exportaciones que superan el máximo")
+    void resolverTickets_SuperaMaximo_LanzaExcepcion() {
+        // Arrange
+        ExportarDocumentosDTO solicitud = ExportarDocumentosDTO.builder()
+                .tipo(TipoDocumentoPdf.TICKET)
+                .ticketIds(List.of(1L, 2L, 3L, 4L))
+                .build();
+
+        // Act & Assert
+        assertThrows(BusinessException.class, () -> exportacionService.resolverTickets(solicitud));
+        verify(ticketRepository, never()).findIdsParaExportacion(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Debe escribir un ZIP con los documentos en el orden solicitado")
+    void exportar_Zip_EscribeEntradasEnOrden() throws Exception {
+        // Arrange
+        when(ticketRepository.findByIdAndDeletedAtIsNull(anyLong())).thenAnswer(invocation -> {
+            Long id = invocation.getArgument(0);
+            if (id == 2L) {
+                return Optional.empty();
+            }
+            Ticket ticket = new Ticket();
+            ticket.setId(id);
+            ticket.setNumeroTicket("TKT-" + id);
+            return Optional.of(ticket);
+        });
+        when(pdfService.obtenerDocumento(any(Ticket.class), eq(TipoDocumentoPdf.TICKET))).thenAnswer(invocation -> {
+            Ticket ticket = invocation.getArgument(0);
+            byte[] contenido = ticket.getNumeroTicket().getBytes();
+            return DocumentoPdfDTO.builder()
+                    .contenido(new ByteArrayResource(contenido))
+                    .tamanio(contenido.length)
+                    .build();
+        });
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+
+        // Act
+        exportacionService.exportar(List.of(3L, 1L, 2L), TipoDocumentoPdf.TICKET, FormatoExportacionPdf.ZIP, salida);
+
+        // Assert
+        List<String> entradas = new ArrayList<>();
+        try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(salida.toByteArray()))) {
+            ZipEntry entrada;
+            while ((entrada = zip.getNextEntry()) != null) {
+                entradas.add(entrada.getName() + "=" + new String(zip.readAllBytes()));
+            }
+        }
+        assertEquals(List.of("Ticket-TKT-3.pdf=TKT-3", "Ticket-TKT-1.pdf=TKT-1"), entradas);
+    }
+}
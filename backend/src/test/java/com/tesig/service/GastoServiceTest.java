@@ -42,6 +42,9 @@ class GastoServiceTest {
     @Mock
     private GastoMapper gastoMapper;
 
+    @Mock
+    private IResumenFinancieroService resumenFinancieroService;
+
     @InjectMocks
     private GastoServiceImpl gastoService;
 
@@ -146,6 +149,8 @@ class GastoServiceTest {
         // Assert
         assertTrue(gasto.getDeleted());
         verify(gastoRepository).save(gasto);
+        verify(resumenFinancieroService).registrarGasto(
+                gasto.getFecha(), Gasto.CategoriaGasto.ARRIENDO, new BigDecimal("-500.00"));
     }
 
     @Test
@@ -0,0 +1,146 @@
+package com.tesig.service;
+
+import com.tesig.model.ConfiguracionEmpresa;
+import com.tesig.model.SerieDocumento;
+import com.tesig.repository.ConfiguracionEmpresaRepository;
+import com.tesig.repository.SecuenciaDocumentoRepository;
+import com.tesig.service.impl.NumeroDocumentoServiceImpl;
+import com.tesig.service.impl.SecuenciaServiceImpl;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests unitarios para NumeroDocumentoService.
+ */
+@ExtendWith(MockitoExtension.class)
+class NumeroDocumentoServiceTest {
+
+    @Mock
+    private ISecuenciaService secuenciaService;
+
+    @Mock
+    private ConfiguracionEmpresaRepository configuracionRepository;
+
+    @InjectMocks
+    private NumeroDocumentoServiceImpl numeroDocumentoService;
+
+    private final String fecha = LocalDate.now().format(DateTimeFormatter.ofPattern("yyyyMMdd"));
+
+    @Test
+    @DisplayName("Debe generar código de compra con formato TES-CMP-yyyyMMdd-NNNN")
+    void generar_Compra_FormatoCorrecto() {
+        // Arrange
+        when(configuracionRepository.findFirstActiveConfiguration()).thenReturn(Optional.empty());
+        when(secuenciaService.siguiente(eq("TES-CMP"), eq(LocalDate.now()), any())).thenReturn(12L);
+
+        // Act
+        String numero = numeroDocumentoService.generar(SerieDocumento.COMPRA);
+
+        // Assert
+        assertEquals("TES-CMP-" + fecha + "-0012", numero);
+    }
+
+    @Test
+    @DisplayName("Debe usar el código de empresa configurado y la serie indicada")
+    void generar_ConConfiguracion_UsaCodigoEmpresa() {
+        // Arrange
+        ConfiguracionEmpresa configuracion = ConfiguracionEmpresa.builder().codigoEmpresa("abc").build();
+        when(configuracionRepository.findFirstActiveConfiguration()).thenReturn(Optional.of(configuracion));
+        when(secuenciaService.siguiente(eq("ABC-GST"), any(), any())).thenReturn(1L);
+
+        // Act
+        String numero = numeroDocumentoService.generar(SerieDocumento.GASTO);
+
+        // Assert
+        assertEquals("ABC-GST-" + fecha + "-0001", numero);
+    }
+
+    @Test
+    @DisplayName("Debe continuar la numeración desde el último documento existente del día")
+    void generar_ConDocumentosPrevios_ContinuaSecuencia() {
+        // Arrange
+        when(configuracionRepository.findFirstActiveConfiguration()).thenReturn(Optional.empty());
+        when(secuenciaService.siguiente(eq("TES-CMP"), any(), any()))
+                .thenAnswer(invocation -> invocation.getArgument(2, LongSupplier.class).getAsLong() + 1);
+
+        // Act
+        String numero = numeroDocumentoService.generar(SerieDocumento.COMPRA,
+                patron -> patron.equals("TES-CMP-" + fecha + "-%")
+                        ? Optional.of("TES-CMP-" + fecha + "-0041")
+                        : Optional.empty());
+
+        // Assert
+        assertEquals("TES-CMP-" + fecha + "-0042", numero);
+    }
+
+    @Test
+    @Tag("benchmark")
+    @DisplayName("Benchmark: costo por código con el contador frente al conteo sobre todas las compras")
+    void benchmark_CostoPorCodigoSegunComprasExistentes(TestReporter reporter) {
+        // Arrange: contador en memoria en lugar del upsert, bloques de 100 valores
+        SecuenciaDocumentoRepository secuenciaRepository = mock(SecuenciaDocumentoRepository.class);
+        AtomicLong contador = new AtomicLong();
+        when(secuenciaRepository.reservar(any(), any(), anyLong(), anyInt()))
+                .thenAnswer(invocation -> contador.addAndGet(invocation.getArgument(3, Integer.class)));
+        when(configuracionRepository.findFirstActiveConfiguration()).thenReturn(Optional.empty());
+        int cantidad = 2_000;
+        String prefijoDia = "TES-CMP-" + fecha;
+        NumeroDocumentoServiceImpl calentamiento = new NumeroDocumentoServiceImpl(
+                new SecuenciaServiceImpl(secuenciaRepository, mock(PlatformTransactionManager.class), 100),
+                configuracionRepository);
+        for (int i = 0; i < cantidad; i++) {
+            calentamiento.generar(SerieDocumento.COMPRA);
+        }
+
+        for (int existentes : new int[]{1_000, 100_000}) {
+            List<String> codigos = IntStream.range(0, existentes)
+                    .mapToObj(i -> String.format("TES-CMP-20240101-%04d", i))
+                    .toList();
+            NumeroDocumentoServiceImpl servicio = new NumeroDocumentoServiceImpl(
+                    new SecuenciaServiceImpl(secuenciaRepository, mock(PlatformTransactionManager.class), 100),
+                    configuracionRepository);
+
+            // Act: comportamiento anterior (findAll y conteo del prefijo del día en Java)
+            long inicio = System.nanoTime();
+            long conteo = 0;
+            for (int i = 0; i < cantidad; i++) {
+                conteo += codigos.stream().filter(codigo -> codigo.startsWith(prefijoDia)).count() + 1;
+            }
+            double nsConteo = (System.nanoTime() - inicio) / (double) cantidad;
+
+            // Act: contador por prefijo y día
+            inicio = System.nanoTime();
+            for (int i = 0; i < cantidad; i++) {
+                servicio.generar(SerieDocumento.COMPRA);
+            }
+            double nsContador = (System.nanoTime() - inicio) / (double) cantidad;
+
+            assertEquals(cantidad, conteo);
+            reporter.publishEntry("Código de compra con " + existentes + " compras existentes",
+                    String.format("conteo %.0f ns/código, contador %.0f ns/código", nsConteo, nsContador));
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.tesig.service;
+
+import com.tesig.dto.RecordatorioRecogidaDTO;
+import com.tesig.service.impl.EmailServiceImpl;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.thymeleaf.IEngineConfiguration;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+import org.thymeleaf.templateresource.ITemplateResource;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests del renderizado de plantillas de email con un motor Thymeleaf real.
+ */
+class PlantillasEmailTest {
+
+    @Test
+    @DisplayName("Debe renderizar el recordatorio con los fragmentos compartidos")
+    void renderizarRecordatoriosRecogida_IncluyeFragmentos() {
+        // Arrange
+        EmailServiceImpl emailService = crearEmailService(true);
+
+        // Act
+        List<String> contenidos = emailService.renderizarRecordatoriosRecogida(recordatorios(2));
+
+        // Assert
+        assertEquals(2, contenidos.size());
+        String contenido = contenidos.get(1);
+        assertTrue(contenido.contains("TKT-2024-00001"));
+        assertTrue(contenido.contains("http://localhost:3000/consulta/TKT-2024-00001"));
+        assertTrue(contenido.contains("Horario de Atención"));
+        assertTrue(contenido.contains("El equipo de <span>TESIG</span>"));
+        assertTrue(contenido.contains("Este es un email automático"));
+        assertFalse(contenido.contains("th:replace"));
+        assertFalse(contenidos.get(0).contains("TKT-2024-00001"));
+    }
+
+    @Test
+    @DisplayName("Con cache, las plantillas deben resolverse en el primer render y no por cada mensaje")
+    void renderizarRecordatoriosRecogida_ConCache_NoResuelvePlantillasPorMensaje() {
+        // Arrange
+        List<RecordatorioRecogidaDTO> lote = recordatorios(20);
+        ResolverContador resolverSinCache = new ResolverContador(false);
+        ResolverContador resolverConCache = new ResolverContador(true);
+        EmailServiceImpl sinCache = crearEmailService(resolverSinCache);
+        EmailServiceImpl conCache = crearEmailService(resolverConCache);
+        conCache.renderizarRecordatoriosRecogida(lote.subList(0, 1));
+        int resolucionesPrimerRender = resolverConCache.total();
+
+        // Act
+        List<String> contenidosSinCache = sinCache.renderizarRecordatoriosRecogida(lote);
+        List<String> contenidosConCache = conCache.renderizarRecordatoriosRecogida(lote);
+
+        // Assert
+        assertEquals(contenidosSinCache, contenidosConCache);
+        assertTrue(resolucionesPrimerRender > 0);
+        assertEquals(resolucionesPrimerRender, resolverConCache.total());
+        assertEquals(resolucionesPrimerRender * lote.size(), resolverSinCache.total());
+    }
+
+    @Test
+    @Tag("benchmark")
+    @DisplayName("Benchmark: tiempo de renderizado por mensaje con y sin cache de plantillas")
+    void benchmark_RenderizadoConYSinCache(TestReporter reporter) {
+        // Arrange
+        List<RecordatorioRecogidaDTO> calentamiento = recordatorios(50);
+        List<RecordatorioRecogidaDTO> lote = recordatorios(300);
+        EmailServiceImpl sinCache = crearEmailService(false);
+        EmailServiceImpl conCache = crearEmailService(true);
+        sinCache.renderizarRecordatoriosRecogida(calentamiento);
+        conCache.renderizarRecordatoriosRecogida(calentamiento);
+
+        // Act
+        long inicio = System.nanoTime();
+        sinCache.renderizarRecordatoriosRecogida(lote);
+        double usSinCache = (System.nanoTime() - inicio) / 1_000.0 / lote.size();
+
+        inicio = System.nanoTime();
+        List<String> contenidos = conCache.renderizarRecordatoriosRecogida(lote);
+        double usConCache = (System.nanoTime() - inicio) / 1_000.0 / lote.size();
+
+        // Assert
+        assertEquals(lote.size(), contenidos.size());
+        reporter.publishEntry("Renderizado de " + lote.size() + " recordatorios",
+                String.format("sin cache %.0f us/mensaje, con cache %.0f us/mensaje", usSinCache, usConCache));
+    }
+
+    private EmailServiceImpl crearEmailService(boolean cache) {
+        return crearEmailService(new ResolverContador(cache));
+    }
+
+    private EmailServiceImpl crearEmailService(ClassLoaderTemplateResolver resolver) {
+        SpringTemplateEngine templateEngine = new SpringTemplateEngine();
+        templateEngine.setTemplateResolver(resolver);
+
+        EmailServiceImpl emailService = new EmailServiceImpl(null, templateEngine, null, null);
+        ReflectionTestUtils.setField(emailService, "appName", "TESIG");
+        ReflectionTestUtils.setField(emailService, "publicUrl", "http://localhost:3000");
+        ReflectionTestUtils.setField(emailService, "consultationPath", "/consulta");
+        return emailService;
+    }
+
+    private List<RecordatorioRecogidaDTO> recordatorios(int cantidad) {
+        return IntStream.range(0, cantidad)
+                .mapToObj(i -> RecordatorioRecogidaDTO.builder()
+                        .ticketId((long) i)
+                        .numeroTicket(String.format("TKT-2024-%05d", i))
+                        .tipoEquipo("Laptop")
+                        .nombreCliente("Cliente " + i)
+                        .emailCliente("cliente" + i + "@mail.com")
+                        .diasEspera(7 + i % 10)
+                        .umbralDias(7)
+                        .build())
+                .toList();
+    }
+
+    /**
+     * Resolver de plantillas del classpath que cuenta cuántas veces se lee cada plantilla.
+     */
+    private static class ResolverContador extends ClassLoaderTemplateResolver {
+
+        private final AtomicInteger resoluciones = new AtomicInteger();
+
+        ResolverContador(boolean cache) {
+            setPrefix("templates/");
+            setSuffix(".html");
+            setTemplateMode(TemplateMode.HTML);
+            setCharacterEncoding(StandardCharsets.UTF_8.name());
+            setCacheable(cache);
+        }
+
+        int total() {
+            return resoluciones.get();
+        }
+
+        @Override
+        protected ITemplateResource computeTemplateResource(IEngineConfiguration configuration, String ownerTemplate,
+                                                            String template, String resourceName,
+                                                            String characterEncoding,
+                                                            Map<String, Object> templateResolutionAttributes) {
+            resoluciones.incrementAndGet();
+            return super.computeTemplateResource(configuration, ownerTemplate, template, resourceName,
+                    characterEncoding, templateResolutionAttributes);
+        }
+    }
+}
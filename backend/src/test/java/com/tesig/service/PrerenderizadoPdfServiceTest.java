@@ -0,0 +1,116 @@
+package com.tesig.service;
+
+import com.tesig.dto.PrerenderizadoEstadisticasDTO;
+import com.tesig.event.TicketEstadoCambiadoEvent;
+import com.tesig.model.EstadoTicket;
+import com.tesig.model.Ticket;
+import com.tesig.model.TipoDocumentoPdf;
+import com.tesig.repository.TicketRepository;
+import com.tesig.service.impl.PrerenderizadoPdfServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitarios para PrerenderizadoPdfService.
+ */
+@ExtendWith(MockitoExtension.class)
+class PrerenderizadoPdfServiceTest {
+
+    @Mock
+    private TicketRepository ticketRepository;
+
+    @Mock
+    private IPDFService pdfService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private PrerenderizadoPdfServiceImpl prerenderizadoService;
+    private Ticket ticket;
+
+    @BeforeEach
+    void setUp() {
+        prerenderizadoService = new PrerenderizadoPdfServiceImpl(
+                ticketRepository, pdfService, transactionManager, true, 1, 10);
+
+        ticket = new Ticket();
+        ticket.setId(1L);
+        ticket.setNumeroTicket("TKT-2024-00001");
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReflectionTestUtils.invokeMethod(prerenderizadoService, "detener");
+    }
+
+    @Test
+    @DisplayName("Debe pre-renderizar el presupuesto al presupuestar el ticket")
+    void onTicketEstadoCambiado_Presupuestado_RenderizaPresupuesto() {
+        // Arrange
+        when(pdfService.isCacheDocumentosHabilitado()).thenReturn(true);
+        when(ticketRepository.findByIdAndDeletedAtIsNull(1L)).thenReturn(Optional.of(ticket));
+
+        // Act
+        prerenderizadoService.onTicketEstadoCambiado(evento(EstadoTicket.EN_DIAGNOSTICO, EstadoTicket.PRESUPUESTADO));
+
+        // Assert
+        verify(pdfService, timeout(2000)).obtenerDocumento(ticket, TipoDocumentoPdf.PRESUPUESTO);
+    }
+
+    @Test
+    @DisplayName("No debe pre-renderizar en estados sin documento asociado")
+    void onTicketEstadoCambiado_EstadoSinDocumento_NoRenderiza() {
+        // Act
+        prerenderizadoService.onTicketEstadoCambiado(evento(EstadoTicket.APROBADO, EstadoTicket.EN_REPARACION));
+
+        // Assert
+        verify(ticketRepository, never()).findByIdAndDeletedAtIsNull(any());
+        verify(pdfService, never()).obtenerDocumento(any(), any());
+    }
+
+    @Test
+    @DisplayName("Debe contar los fallos de generación")
+    void onTicketEstadoCambiado_ErrorAlGenerar_CuentaFallo() {
+        // Arrange
+        when(pdfService.isCacheDocumentosHabilitado()).thenReturn(true);
+        when(ticketRepository.findByIdAndDeletedAtIsNull(1L)).thenReturn(Optional.of(ticket));
+        when(pdfService.obtenerDocumento(ticket, TipoDocumentoPdf.COMPROBANTE_ENTREGA))
+                .thenThrow(new RuntimeException("Error al generar PDF"));
+
+        // Act
+        prerenderizadoService.onTicketEstadoCambiado(evento(EstadoTicket.LISTO_ENTREGA, EstadoTicket.ENTREGADO));
+        verify(pdfService, timeout(2000)).obtenerDocumento(ticket, TipoDocumentoPdf.COMPROBANTE_ENTREGA);
+        PrerenderizadoEstadisticasDTO estadisticas = esperarFallo();
+
+        // Assert
+        assertEquals(1L, estadisticas.getFallidos());
+        assertEquals(0L, estadisticas.getRenderizados());
+    }
+
+    private PrerenderizadoEstadisticasDTO esperarFallo() {
+        long limite = System.currentTimeMillis() + 2000;
+        PrerenderizadoEstadisticasDTO estadisticas = prerenderizadoService.getEstadisticas();
+        while (estadisticas.getFallidos() == 0 && System.currentTimeMillis() < limite) {
+            Thread.onSpinWait();
+            estadisticas = prerenderizadoService.getEstadisticas();
+        }
+        return estadisticas;
+    }
+
+    private TicketEstadoCambiadoEvent evento(EstadoTicket anterior, EstadoTicket nuevo) {
+        return new TicketEstadoCambiadoEvent(1L, "TKT-2024-00001", anterior, nuevo, null, null, null);
+    }
+}
@@ -0,0 +1,64 @@
+package com.tesig.service;
+
+import com.google.zxing.common.BitMatrix;
+import com.tesig.service.impl.QRCodeServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitarios para QRCodeService.
+ */
+class QRCodeServiceTest {
+
+    private static final String URL_CONSULTA = "http://localhost:3000/consulta/TKT-2024-00001";
+
+    private QRCodeServiceImpl qrCodeService;
+
+    @BeforeEach
+    void setUp() {
+        qrCodeService = new QRCodeServiceImpl(100);
+    }
+
+    @Test
+    @DisplayName("Debe reutilizar la matriz del mismo contenido")
+    void generarMatriz_MismoContenido_RetornaMatrizCacheada() {
+        // Act
+        BitMatrix primera = qrCodeService.generarMatriz(URL_CONSULTA);
+        BitMatrix segunda = qrCodeService.generarMatriz(URL_CONSULTA);
+
+        // Assert
+        assertSame(primera, segunda);
+        assertEquals(primera.getWidth(), primera.getHeight());
+        // Versión 4 (33 módulos) o mayor, más un módulo de margen por lado
+        assertTrue(primera.getWidth() >= 35);
+    }
+
+    @Test
+    @DisplayName("Debe generar un SVG con el tamaño de la matriz")
+    void generarQRCodeSVG_RetornaSvgVectorial() {
+        // Arrange
+        int modulos = qrCodeService.generarMatriz(URL_CONSULTA).getWidth();
+
+        // Act
+        String svg = qrCodeService.generarQRCodeSVG(URL_CONSULTA);
+
+        // Assert
+        assertTrue(svg.startsWith("<svg xmlns=\"http://www.w3.org/2000/svg\" viewBox=\"0 0 " + modulos + " " + modulos + "\""));
+        assertTrue(svg.contains("<path fill=\"#000\" d=\"M"));
+        assertTrue(svg.endsWith("</svg>"));
+    }
+
+    @Test
+    @DisplayName("Debe seguir generando el PNG para otros usos")
+    void generarQRCode_RetornaPng() {
+        // Act
+        byte[] png = qrCodeService.generarQRCode(URL_CONSULTA, 200, 200);
+
+        // Assert
+        assertEquals((byte) 0x89, png[0]);
+        assertEquals('P', png[1]);
+    }
+}
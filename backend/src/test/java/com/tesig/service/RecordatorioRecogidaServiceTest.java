@@ -0,0 +1,147 @@
+package com.tesig.service;
+
+import com.tesig.dto.RecordatorioRecogidaDTO;
+import com.tesig.repository.RecordatorioRecogidaRepository;
+import com.tesig.repository.TicketRepository;
+import com.tesig.repository.projection.TicketRecordatorioProjection;
+import com.tesig.service.impl.RecordatorioRecogidaServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitarios para RecordatorioRecogidaService.
+ */
+@ExtendWith(MockitoExtension.class)
+class RecordatorioRecogidaServiceTest {
+
+    @Mock
+    private TicketRepository ticketRepository;
+
+    @Mock
+    private RecordatorioRecogidaRepository recordatorioRepository;
+
+    @Mock
+    private IEmailService emailService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private RecordatorioRecogidaServiceImpl recordatorioService;
+
+    @BeforeEach
+    void setUp() {
+        // Umbrales 3 y 7 días, bloques de 2 tickets, 2 hilos de renderizado
+        recordatorioService = new RecordatorioRecogidaServiceImpl(ticketRepository, recordatorioRepository,
+                emailService, transactionManager, true, new int[]{3, 7}, 2, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReflectionTestUtils.invokeMethod(recordatorioService, "detener");
+    }
+
+    @Test
+    @DisplayName("Debe encolar y registrar el recordatorio del mayor umbral superado")
+    void procesarRecordatorios_TicketEnEspera_EncolaYRegistra() {
+        // Arrange
+        when(emailService.isEmailEnabled()).thenReturn(true);
+        when(ticketRepository.findParaRecordatorio(any(), eq(7), any()))
+                .thenReturn(List.of(ticket(1L, 10)));
+        when(ticketRepository.findParaRecordatorio(any(), eq(3), any())).thenReturn(List.of());
+        when(emailService.renderizarRecordatoriosRecogida(anyList())).thenAnswer(invocacion ->
+                ((List<?>) invocacion.getArgument(0)).stream().map(r -> "<p>Recordatorio</p>").toList());
+        when(emailService.encolarRecordatorioRecogida(any(), eq("<p>Recordatorio</p>"))).thenReturn(true);
+
+        // Act
+        int encolados = recordatorioService.procesarRecordatorios();
+
+        // Assert
+        assertEquals(1, encolados);
+        verify(emailService).encolarRecordatorioRecogida(argThat((RecordatorioRecogidaDTO r) ->
+                r.getTicketId() == 1L && r.getUmbralDias() == 7 && r.getDiasEspera() == 10), anyString());
+        verify(recordatorioRepository).registrar(eq(1L), eq(7), any());
+        verify(ticketRepository).completarFechaListoEntrega();
+    }
+
+    @Test
+    @DisplayName("Debe continuar con el siguiente bloque desde la posición del último ticket")
+    void procesarRecordatorios_BloqueCompleto_ContinuaPorCursor() {
+        // Arrange
+        TicketRecordatorioProjection ultimo = ticket(2L, 5);
+        when(emailService.isEmailEnabled()).thenReturn(true);
+        when(ticketRepository.findParaRecordatorio(any(), eq(7), any())).thenReturn(List.of());
+        when(ticketRepository.findParaRecordatorio(any(), eq(3), any()))
+                .thenReturn(List.of(ticket(1L, 6), ultimo));
+        when(ticketRepository.findParaRecordatorioSiguientes(any(), eq(3), eq(ultimo.getFechaListoEntrega()),
+                eq(2L), any())).thenReturn(List.of(ticket(3L, 4)));
+        when(emailService.renderizarRecordatoriosRecogida(anyList())).thenAnswer(invocacion ->
+                ((List<?>) invocacion.getArgument(0)).stream().map(r -> "<p>Recordatorio</p>").toList());
+        when(emailService.encolarRecordatorioRecogida(any(), anyString())).thenReturn(true);
+
+        // Act
+        int encolados = recordatorioService.procesarRecordatorios();
+
+        // Assert
+        assertEquals(3, encolados);
+        verify(recordatorioRepository, times(3)).registrar(anyLong(), eq(3), any());
+    }
+
+    @Test
+    @DisplayName("No debe registrar el recordatorio si falla el renderizado")
+    void procesarRecordatorios_ErrorRenderizado_NoRegistra() {
+        // Arrange
+        when(emailService.isEmailEnabled()).thenReturn(true);
+        when(ticketRepository.findParaRecordatorio(any(), eq(7), any()))
+                .thenReturn(List.of(ticket(1L, 8)));
+        when(ticketRepository.findParaRecordatorio(any(), eq(3), any())).thenReturn(List.of());
+        when(emailService.renderizarRecordatoriosRecogida(anyList())).thenThrow(new RuntimeException("Plantilla inválida"));
+
+        // Act
+        int encolados = recordatorioService.procesarRecordatorios();
+
+        // Assert
+        assertEquals(0, encolados);
+        verify(emailService, never()).encolarRecordatorioRecogida(any(), any());
+        verify(recordatorioRepository, never()).registrar(any(), anyInt(), any());
+    }
+
+    @Test
+    @DisplayName("No debe consultar tickets si el email está deshabilitado")
+    void procesarRecordatorios_EmailDeshabilitado_NoProcesa() {
+        // Arrange
+        when(emailService.isEmailEnabled()).thenReturn(false);
+
+        // Act
+        int encolados = recordatorioService.procesarRecordatorios();
+
+        // Assert
+        assertEquals(0, encolados);
+        verifyNoInteractions(ticketRepository, recordatorioRepository);
+    }
+
+    private TicketRecordatorioProjection ticket(Long id, int diasEspera) {
+        LocalDateTime fechaListo = LocalDateTime.now().minusDays(diasEspera).minusHours(1);
+        return new TicketRecordatorioProjection() {
+            public Long getId() { return id; }
+            public String getNumeroTicket() { return "TKT-2024-0000" + id; }
+            public String getTipoEquipo() { return "Laptop"; }
+            public String getNombreCliente() { return "Juan Pérez"; }
+            public String getEmailCliente() { return "juan@mail.com"; }
+            public LocalDateTime getFechaListoEntrega() { return fechaListo; }
+        };
+    }
+}
@@ -0,0 +1,118 @@
+package com.tesig.service;
+
+import com.tesig.event.DatosFinancierosModificadosEvent;
+import com.tesig.model.Compra;
+import com.tesig.model.Gasto;
+import com.tesig.model.ResumenFinancieroDiario;
+import com.tesig.model.Ticket;
+import com.tesig.repository.ConfiguracionEmpresaRepository;
+import com.tesig.repository.ResumenFinancieroDiarioRepository;
+import com.tesig.service.impl.ResumenFinancieroServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.springframework.context.ApplicationEventPublisher;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitarios para el mantenimiento incremental del resumen financiero diario.
+ */
+@ExtendWith(MockitoExtension.class)
+class ResumenFinancieroServiceTest {
+
+    @Mock
+    private ResumenFinancieroDiarioRepository resumenRepository;
+
+    @Mock
+    private ConfiguracionEmpresaRepository configuracionRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private ResumenFinancieroServiceImpl resumenFinancieroService;
+
+    private LocalDate hoy;
+    private ResumenFinancieroDiario resumen;
+
+    @BeforeEach
+    void setUp() {
+        hoy = LocalDate.now();
+        resumen = ResumenFinancieroDiario.builder()
+                .fecha(hoy)
+                .codigoSucursal("MAT")
+                .build();
+
+        when(configuracionRepository.findFirstActiveConfiguration()).thenReturn(Optional.empty());
+        when(resumenRepository.findForUpdate(hoy, "MAT")).thenReturn(Optional.of(resumen));
+    }
+
+    @Test
+    @DisplayName("Debe acumular los importes de un ticket entregado")
+    void registrarEntregaTicket_TicketEntregado_AcumulaIngresos() {
+        // Arrange
+        Ticket ticket = new Ticket();
+        ticket.setNumeroTicket("TES-MAT-20251118-0001");
+        ticket.setFechaEntrega(LocalDateTime.now());
+        ticket.setPresupuestoManoObra(new BigDecimal("100.00"));
+        ticket.setPresupuestoPiezas(new BigDecimal("50.00"));
+        ticket.setPresupuestoTotal(new BigDecimal("150.00"));
+        ticket.setDescuentoMonto(new BigDecimal("10.00"));
+        ticket.setTotalConDescuento(new BigDecimal("140.00"));
+
+        // Act
+        resumenFinancieroService.registrarEntregaTicket(ticket);
+
+        // Assert
+        verify(resumenRepository).insertarSiNoExiste(hoy, "MAT");
+        verify(resumenRepository).save(resumen);
+        assertEquals(new BigDecimal("100.00"), resumen.getIngresosManoObra());
+        assertEquals(new BigDecimal("50.00"), resumen.getIngresosPiezas());
+        assertEquals(new BigDecimal("10.00"), resumen.getDescuentos());
+        assertEquals(new BigDecimal("140.00"), resumen.getIngresosTotalFinal());
+        assertEquals(1, resumen.getTicketsEntregados());
+        verify(eventPublisher).publishEvent(any(DatosFinancierosModificadosEvent.class));
+    }
+
+    @Test
+    @DisplayName("Debe acumular el total de una compra recibida")
+    void registrarCompraRecibida_CompraRecibida_AcumulaCosto() {
+        // Arrange
+        Compra compra = new Compra();
+        compra.setFechaCompra(hoy);
+        compra.setTotal(new BigDecimal("850.00"));
+
+        // Act
+        resumenFinancieroService.registrarCompraRecibida(compra);
+
+        // Assert
+        assertEquals(new BigDecimal("850.00"), resumen.getComprasTotal());
+    }
+
+    @Test
+    @DisplayName("Debe acumular y revertir gastos por categoría")
+    void registrarGasto_MontoPositivoYNegativo_ActualizaCategoria() {
+        // Act
+        resumenFinancieroService.registrarGasto(hoy, Gasto.CategoriaGasto.ARRIENDO, new BigDecimal("500.00"));
+        resumenFinancieroService.registrarGasto(hoy, Gasto.CategoriaGasto.SERVICIOS_PUBLICOS, new BigDecimal("80.00"));
+        resumenFinancieroService.registrarGasto(hoy, Gasto.CategoriaGasto.ARRIENDO, new BigDecimal("-500.00"));
+
+        // Assert
+        assertEquals(new BigDecimal("80.00"), resumen.getGastosOperativos());
+        assertFalse(resumen.getGastosPorCategoria().containsKey(Gasto.CategoriaGasto.ARRIENDO));
+        assertEquals(new BigDecimal("80.00"), resumen.getGastosPorCategoria().get(Gasto.CategoriaGasto.SERVICIOS_PUBLICOS));
+        verify(resumenRepository, times(3)).save(any(ResumenFinancieroDiario.class));
+    }
+}
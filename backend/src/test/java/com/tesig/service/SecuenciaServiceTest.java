@@ -0,0 +1,110 @@
+package com.tesig.service;
+
+import com.tesig.repository.SecuenciaDocumentoRepository;
+import com.tesig.service.impl.SecuenciaServiceImpl;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitarios para la asignación de secuencias por prefijo y día.
+ */
+@ExtendWith(MockitoExtension.class)
+class SecuenciaServiceTest {
+
+    private static final String PREFIJO = "TES-MAT";
+
+    @Mock
+    private SecuenciaDocumentoRepository secuenciaRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final LocalDate hoy = LocalDate.of(2025, 11, 18);
+
+    @Test
+    @DisplayName("Sin bloques debe reservar un valor por llamada en la base de datos")
+    void siguiente_TamanioBloqueUno_ReservaCadaValor() {
+        // Arrange
+        SecuenciaServiceImpl secuenciaService = new SecuenciaServiceImpl(secuenciaRepository, transactionManager, 1);
+        when(secuenciaRepository.reservar(eq(PREFIJO), eq(hoy), anyLong(), eq(1)))
+                .thenReturn(1L, 2L);
+
+        // Act
+        long primero = secuenciaService.siguiente(PREFIJO, hoy, () -> 0L);
+        long segundo = secuenciaService.siguiente(PREFIJO, hoy, () -> 0L);
+
+        // Assert
+        assertEquals(1L, primero);
+        assertEquals(2L, segundo);
+        verify(secuenciaRepository, times(2)).reservar(eq(PREFIJO), eq(hoy), anyLong(), eq(1));
+    }
+
+    @Test
+    @DisplayName("Con bloques debe entregar valores desde memoria hasta agotar el bloque")
+    void siguiente_TamanioBloqueTres_UnaReservaPorBloque() {
+        // Arrange
+        SecuenciaServiceImpl secuenciaService = new SecuenciaServiceImpl(secuenciaRepository, transactionManager, 3);
+        when(secuenciaRepository.reservar(eq(PREFIJO), eq(hoy), anyLong(), eq(3)))
+                .thenReturn(3L, 9L);
+
+        // Act
+        long[] valores = new long[4];
+        for (int i = 0; i < valores.length; i++) {
+            valores[i] = secuenciaService.siguiente(PREFIJO, hoy, () -> 0L);
+        }
+
+        // Assert: segundo bloque [7, 9] porque otra instancia reservó [4, 6]
+        assertArrayEquals(new long[]{1L, 2L, 3L, 7L}, valores);
+        verify(secuenciaRepository, times(2)).reservar(eq(PREFIJO), eq(hoy), anyLong(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Debe consultar el último valor existente solo en la primera reserva")
+    void siguiente_PrimeraReserva_UsaUltimoExistente() {
+        // Arrange
+        SecuenciaServiceImpl secuenciaService = new SecuenciaServiceImpl(secuenciaRepository, transactionManager, 1);
+        AtomicInteger consultas = new AtomicInteger();
+        LongSupplier ultimoExistente = () -> {
+            consultas.incrementAndGet();
+            return 5L;
+        };
+        when(secuenciaRepository.reservar(PREFIJO, hoy, 5L, 1)).thenReturn(6L);
+        when(secuenciaRepository.reservar(PREFIJO, hoy, 0L, 1)).thenReturn(7L);
+
+        // Act
+        long primero = secuenciaService.siguiente(PREFIJO, hoy, ultimoExistente);
+        long segundo = secuenciaService.siguiente(PREFIJO, hoy, ultimoExistente);
+
+        // Assert
+        assertEquals(6L, primero);
+        assertEquals(7L, segundo);
+        assertEquals(1, consultas.get());
+    }
+
+    @Test
+    @DisplayName("Debe mantener secuencias independientes por día")
+    void siguiente_DiasDistintos_SecuenciasIndependientes() {
+        // Arrange
+        SecuenciaServiceImpl secuenciaService = new SecuenciaServiceImpl(secuenciaRepository, transactionManager, 1);
+        when(secuenciaRepository.reservar(eq(PREFIJO), eq(hoy), anyLong(), eq(1))).thenReturn(4L);
+        when(secuenciaRepository.reservar(eq(PREFIJO), eq(hoy.plusDays(1)), anyLong(), eq(1))).thenReturn(1L);
+
+        // Act & Assert
+        assertEquals(4L, secuenciaService.siguiente(PREFIJO, hoy, () -> 0L));
+        assertEquals(1L, secuenciaService.siguiente(PREFIJO, hoy.plusDays(1), () -> 0L));
+    }
+}
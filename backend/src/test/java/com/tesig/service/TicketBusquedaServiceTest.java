@@ -0,0 +1,149 @@
+package com.tesig.service;
+
+import com.tesig.dto.ticket.TicketBusquedaEstadisticasDTO;
+import com.tesig.dto.ticket.TicketBusquedaPageDTO;
+import com.tesig.exception.BusinessException;
+import com.tesig.repository.TicketRepository;
+import com.tesig.repository.projection.TicketBusquedaProjection;
+import com.tesig.service.impl.TicketBusquedaServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitarios para TicketBusquedaService.
+ */
+@ExtendWith(MockitoExtension.class)
+class TicketBusquedaServiceTest {
+
+    @Mock
+    private TicketRepository ticketRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private TicketBusquedaProjection resultado;
+
+    @InjectMocks
+    private TicketBusquedaServiceImpl ticketBusquedaService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(ticketBusquedaService, "trigramasHabilitados", true);
+        ReflectionTestUtils.setField(ticketBusquedaService, "tamanioMaximo", 50);
+        ReflectionTestUtils.setField(ticketBusquedaService, "umbralLentoMs", 100L);
+    }
+
+    @Test
+    @DisplayName("Con índices preparados debe buscar por trigramas con el patrón escapado")
+    void buscar_TrigramasDisponibles_UsaBusquedaPorTrigramas() {
+        // Arrange
+        ticketBusquedaService.prepararIndices();
+        when(ticketRepository.buscarPorTrigramas(eq("100%_hp"), eq("%100\\%\\_hp%"), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(resultado), PageRequest.of(0, 20), true));
+
+        // Act
+        TicketBusquedaPageDTO pagina = ticketBusquedaService.buscar("  100%_hp ", 0, 20);
+
+        // Assert
+        assertEquals(1, pagina.getContent().size());
+        assertTrue(pagina.isHasNext());
+        verify(jdbcTemplate, times(3)).execute(anyString());
+        verify(ticketRepository, never()).buscarPorCoincidencia(anyString(), any());
+    }
+
+    @Test
+    @DisplayName("Si no se pueden crear los índices debe usar búsqueda por coincidencia")
+    void buscar_SinExtension_UsaBusquedaPorCoincidencia() {
+        // Arrange
+        doThrow(new DataAccessResourceFailureException("permission denied"))
+                .when(jdbcTemplate).execute(anyString());
+        ticketBusquedaService.prepararIndices();
+        when(ticketRepository.buscarPorCoincidencia(eq("%laptop hp%"), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(), PageRequest.of(0, 20), false));
+
+        // Act
+        TicketBusquedaPageDTO pagina = ticketBusquedaService.buscar("Laptop HP", 0, 20);
+
+        // Assert
+        assertTrue(pagina.getContent().isEmpty());
+        assertEquals("COINCIDENCIA", ticketBusquedaService.getEstadisticas().getModo());
+        verify(ticketRepository, never()).buscarPorTrigramas(anyString(), anyString(), any());
+    }
+
+    @Test
+    @DisplayName("Debe reconstruir un índice que quedó inválido por una construcción concurrente fallida")
+    void prepararIndices_IndiceInvalido_LoEliminaYRecrea() {
+        // Arrange
+        when(jdbcTemplate.queryForList(anyString(), eq(Boolean.class), eq("idx_ticket_busqueda_trgm")))
+                .thenReturn(List.of(false));
+        when(jdbcTemplate.queryForList(anyString(), eq(Boolean.class), eq("idx_cliente_busqueda_trgm")))
+                .thenReturn(List.of(true));
+
+        // Act
+        ticketBusquedaService.prepararIndices();
+
+        // Assert
+        InOrder orden = inOrder(jdbcTemplate);
+        orden.verify(jdbcTemplate).execute("DROP INDEX CONCURRENTLY IF EXISTS idx_ticket_busqueda_trgm");
+        orden.verify(jdbcTemplate).execute(startsWith("CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_ticket_busqueda_trgm"));
+        verify(jdbcTemplate, never()).execute("DROP INDEX CONCURRENTLY IF EXISTS idx_cliente_busqueda_trgm");
+        assertEquals("TRIGRAMA", ticketBusquedaService.getEstadisticas().getModo());
+    }
+
+    @Test
+    @DisplayName("Debe acotar el tamaño de página al máximo configurado")
+    void buscar_TamanioExcesivo_AcotaPagina() {
+        // Arrange
+        when(ticketRepository.buscarPorCoincidencia(anyString(), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(), PageRequest.of(0, 50), false));
+
+        // Act
+        ticketBusquedaService.buscar("pantalla", 0, 10_000);
+
+        // Assert
+        verify(ticketRepository).buscarPorCoincidencia(anyString(), eq(PageRequest.of(0, 50)));
+    }
+
+    @Test
+    @DisplayName("Debe rechazar búsquedas vacías")
+    void buscar_TextoVacio_LanzaExcepcion() {
+        assertThrows(BusinessException.class, () -> ticketBusquedaService.buscar("   ", 0, 20));
+        verifyNoInteractions(ticketRepository);
+    }
+
+    @Test
+    @DisplayName("Debe registrar la latencia de cada búsqueda")
+    void getEstadisticas_TrasBusquedas_CuentaBusquedas() {
+        // Arrange
+        when(ticketRepository.buscarPorCoincidencia(anyString(), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(), PageRequest.of(0, 20), false));
+
+        // Act
+        ticketBusquedaService.buscar("dell", 0, 20);
+        ticketBusquedaService.buscar("lenovo", 0, 20);
+        TicketBusquedaEstadisticasDTO estadisticas = ticketBusquedaService.getEstadisticas();
+
+        // Assert
+        assertEquals(2, estadisticas.getBusquedas());
+        assertTrue(estadisticas.getTiempoMaximoMs() >= estadisticas.getUltimoTiempoMs());
+    }
+}
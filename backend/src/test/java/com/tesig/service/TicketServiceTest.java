@@ -1,5 +1,6 @@
 package com.tesig.service;
 
+import com.tesig.cache.EstadisticasTicketsEnVivo;
 import com.tesig.dto.ticket.*;
 import com.tesig.exception.ResourceNotFoundException;
 import com.tesig.mapper.TicketMapper;
@@ -18,6 +19,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -52,6 +54,15 @@ class TicketServiceTest {
     @Mock
     private IEmailService emailService;
 
+    @Mock
+    private IResumenFinancieroService resumenFinancieroService;
+
+    @Mock
+    private EstadisticasTicketsEnVivo estadisticasEnVivo;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private TicketServiceImpl ticketService;
 
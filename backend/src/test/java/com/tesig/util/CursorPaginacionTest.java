@@ -0,0 +1,103 @@
+package com.tesig.util;
+
+import com.tesig.dto.CursorPageDTO;
+import com.tesig.exception.BusinessException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitarios para CursorPaginacion.
+ */
+class CursorPaginacionTest {
+
+    @Test
+    @DisplayName("Debe codificar y decodificar un cursor de fecha y hora")
+    void codificar_FechaHora_RoundTrip() {
+        // Arrange
+        LocalDateTime createdAt = LocalDateTime.of(2025, 11, 18, 10, 30, 15, 123_000_000);
+
+        // Act
+        CursorPaginacion.Cursor cursor = CursorPaginacion.decodificar(CursorPaginacion.codificar(createdAt, 42L));
+
+        // Assert
+        assertEquals(createdAt, cursor.valorComoFechaHora());
+        assertEquals(42L, cursor.id());
+    }
+
+    @Test
+    @DisplayName("Debe conservar valores de texto que contienen el separador")
+    void codificar_TextoConSeparador_RoundTrip() {
+        // Act
+        CursorPaginacion.Cursor cursor = CursorPaginacion.decodificar(
+                CursorPaginacion.codificar("Pantalla | 15.6", 7L));
+
+        // Assert
+        assertEquals("Pantalla | 15.6", cursor.valor());
+        assertEquals(7L, cursor.id());
+    }
+
+    @Test
+    @DisplayName("Sin cursor debe retornar null (primera página)")
+    void decodificar_SinCursor_RetornaNull() {
+        assertNull(CursorPaginacion.decodificar(null));
+        assertNull(CursorPaginacion.decodificar(" "));
+    }
+
+    @Test
+    @DisplayName("Debe rechazar cursores mal formados")
+    void decodificar_CursorInvalido_LanzaExcepcion() {
+        assertThrows(BusinessException.class, () -> CursorPaginacion.decodificar("no-es-base64!"));
+        assertThrows(BusinessException.class,
+                () -> CursorPaginacion.decodificar(CursorPaginacion.codificar("2025-11-18", null)));
+        assertThrows(BusinessException.class,
+                () -> CursorPaginacion.decodificar(CursorPaginacion.codificar("texto", 1L)).valorComoFecha());
+    }
+
+    @Test
+    @DisplayName("Debe limitar el tamaño de página")
+    void normalizarTamanio_FueraDeRango_Ajusta() {
+        assertEquals(CursorPaginacion.TAMANIO_POR_DEFECTO, CursorPaginacion.normalizarTamanio(0));
+        assertEquals(CursorPaginacion.TAMANIO_MAXIMO, CursorPaginacion.normalizarTamanio(1000));
+        assertEquals(20, CursorPaginacion.normalizarTamanio(20));
+        assertEquals(21, CursorPaginacion.limiteConsulta(20).max());
+    }
+
+    @Test
+    @DisplayName("Con una fila extra debe indicar siguiente página y apuntar a la última entregada")
+    void construirPagina_FilaExtra_HasNextConCursor() {
+        // Arrange
+        List<LocalDate> filas = IntStream.rangeClosed(0, 3)
+                .mapToObj(i -> LocalDate.of(2025, 11, 18).minusDays(i))
+                .toList();
+
+        // Act
+        CursorPageDTO<String> pagina = CursorPaginacion.construirPagina(filas, 3, LocalDate::toString,
+                fecha -> CursorPaginacion.codificar(fecha, (long) fecha.getDayOfMonth()));
+
+        // Assert
+        assertTrue(pagina.isHasNext());
+        assertEquals(3, pagina.getContent().size());
+        assertEquals(LocalDate.of(2025, 11, 16),
+                CursorPaginacion.decodificar(pagina.getNextCursor()).valorComoFecha());
+    }
+
+    @Test
+    @DisplayName("Sin fila extra debe ser la última página")
+    void construirPagina_SinFilaExtra_UltimaPagina() {
+        // Act
+        CursorPageDTO<String> pagina = CursorPaginacion.construirPagina(List.of("a", "b"), 3,
+                valor -> valor, valor -> CursorPaginacion.codificar(valor, 1L));
+
+        // Assert
+        assertFalse(pagina.isHasNext());
+        assertNull(pagina.getNextCursor());
+        assertEquals(2, pagina.getContent().size());
+    }
+}
@@ -0,0 +1,87 @@
+package com.tesig.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitarios para FiltroBloom.
+ */
+class FiltroBloomTest {
+
+    private final Random aleatorio = new Random(42);
+
+    @Test
+    @DisplayName("No debe tener falsos negativos")
+    void puedeContener_ElementosAgregados_RetornaTrue() {
+        // Arrange
+        FiltroBloom filtro = new FiltroBloom(1000, 0.01);
+        List<String> jtis = jtis(1000);
+
+        // Act
+        jtis.forEach(filtro::agregar);
+
+        // Assert
+        assertTrue(jtis.stream().allMatch(filtro::puedeContener));
+    }
+
+    @Test
+    @DisplayName("La tasa de falsos positivos debe quedar cerca de la configurada")
+    void puedeContener_ElementosNoAgregados_TasaFalsosPositivosAcotada() {
+        // Arrange
+        FiltroBloom filtro = new FiltroBloom(10_000, 0.01);
+        jtis(10_000).forEach(filtro::agregar);
+
+        // Act
+        long falsosPositivos = jtis(100_000).stream().filter(filtro::puedeContener).count();
+
+        // Assert
+        assertTrue(falsosPositivos / 100_000.0 < 0.02);
+    }
+
+    @Test
+    @DisplayName("Debe admitir agregados concurrentes sin perder elementos")
+    void agregar_Concurrente_NoPierdeElementos() throws Exception {
+        // Arrange
+        FiltroBloom filtro = new FiltroBloom(40_000, 0.01);
+        ExecutorService hilos = Executors.newFixedThreadPool(4);
+        List<List<String>> partes = List.of(jtis(10_000), jtis(10_000), jtis(10_000), jtis(10_000));
+
+        // Act
+        try {
+            List<Future<?>> tareas = new ArrayList<>();
+            for (List<String> parte : partes) {
+                tareas.add(hilos.submit(() -> parte.forEach(filtro::agregar)));
+            }
+            for (Future<?> tarea : tareas) {
+                tarea.get();
+            }
+        } finally {
+            hilos.shutdownNow();
+        }
+
+        // Assert
+        assertTrue(partes.stream().flatMap(List::stream).allMatch(filtro::puedeContener));
+    }
+
+    /**
+     * Genera jtis con formato UUID a partir de una semilla fija, para que cada
+     * ejecución use las mismas claves. Llamadas sucesivas devuelven claves distintas.
+     */
+    private List<String> jtis(int cantidad) {
+        List<String> jtis = new ArrayList<>(cantidad);
+        for (int i = 0; i < cantidad; i++) {
+            jtis.add(new UUID(aleatorio.nextLong(), aleatorio.nextLong()).toString());
+        }
+        return jtis;
+    }
+}
@@ -0,0 +1,120 @@
+package com.tesig.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitarios para LimitadorTasa.
+ */
+class LimitadorTasaTest {
+
+    private final AtomicLong reloj = new AtomicLong(1_000_000_000L);
+
+    @Test
+    @DisplayName("Debe conceder la ráfaga completa y rechazar el exceso")
+    void intentarConsumir_RafagaAgotada_Rechaza() {
+        // Arrange
+        LimitadorTasa limitador = new LimitadorTasa(5, 5, 100, reloj::get);
+
+        // Act
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, limitador.intentarConsumir("10.0.0.1"));
+        }
+        long espera = limitador.intentarConsumir("10.0.0.1");
+
+        // Assert
+        assertEquals(TimeUnit.SECONDS.toNanos(12), espera);
+    }
+
+    @Test
+    @DisplayName("Debe recuperar permisos a la tasa configurada")
+    void intentarConsumir_TiempoTranscurrido_RecuperaPermisos() {
+        // Arrange
+        LimitadorTasa limitador = new LimitadorTasa(2, 6, 100, reloj::get);
+        limitador.intentarConsumir("cuenta");
+        limitador.intentarConsumir("cuenta");
+
+        // Act
+        reloj.addAndGet(TimeUnit.SECONDS.toNanos(10));
+        long concedido = limitador.intentarConsumir("cuenta");
+        long rechazado = limitador.intentarConsumir("cuenta");
+
+        // Assert
+        assertEquals(0, concedido);
+        assertTrue(rechazado > 0);
+    }
+
+    @Test
+    @DisplayName("Las claves deben tener cubetas independientes")
+    void intentarConsumir_OtraClave_NoAfectada() {
+        // Arrange
+        LimitadorTasa limitador = new LimitadorTasa(1, 1, 100, reloj::get);
+        limitador.intentarConsumir("10.0.0.1");
+
+        // Act & Assert
+        assertTrue(limitador.intentarConsumir("10.0.0.1") > 0);
+        assertEquals(0, limitador.intentarConsumir("10.0.0.2"));
+    }
+
+    @Test
+    @DisplayName("Devolver un permiso debe habilitar un nuevo consumo sin superar la capacidad")
+    void devolver_PermisoConsumido_LoRestituye() {
+        // Arrange
+        LimitadorTasa limitador = new LimitadorTasa(2, 1, 100, reloj::get);
+        limitador.intentarConsumir("cuenta");
+        limitador.intentarConsumir("cuenta");
+
+        // Act
+        limitador.devolver("cuenta");
+        limitador.devolver("cuenta");
+        limitador.devolver("cuenta");
+
+        // Assert
+        assertEquals(0, limitador.intentarConsumir("cuenta"));
+        assertEquals(0, limitador.intentarConsumir("cuenta"));
+        assertTrue(limitador.intentarConsumir("cuenta") > 0);
+    }
+
+    @Test
+    @DisplayName("Los consumos concurrentes no deben exceder la capacidad")
+    void intentarConsumir_Concurrente_NoExcedeCapacidad() throws Exception {
+        // Arrange
+        LimitadorTasa limitador = new LimitadorTasa(100, 1, 100, reloj::get);
+        ExecutorService hilos = Executors.newFixedThreadPool(8);
+        List<Future<Integer>> resultados = new ArrayList<>();
+
+        // Act
+        try {
+            for (int h = 0; h < 8; h++) {
+                resultados.add(hilos.submit(() -> {
+                    int concedidos = 0;
+                    for (int i = 0; i < 1000; i++) {
+                        if (limitador.intentarConsumir("cuenta") == 0) {
+                            concedidos++;
+                        }
+                    }
+                    return concedidos;
+                }));
+            }
+            int total = 0;
+            for (Future<Integer> resultado : resultados) {
+                total += resultado.get();
+            }
+
+            // Assert
+            assertEquals(100, total);
+        } finally {
+            hilos.shutdownNow();
+        }
+    }
+}
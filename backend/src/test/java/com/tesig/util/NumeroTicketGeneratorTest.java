@@ -3,6 +3,7 @@ package com.tesig.util;
 import com.tesig.model.ConfiguracionEmpresa;
 import com.tesig.repository.ConfiguracionEmpresaRepository;
 import com.tesig.repository.TicketRepository;
+import com.tesig.service.ISecuenciaService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -14,9 +15,11 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.Optional;
+import java.util.function.LongSupplier;
 
 import static org.junit.jupiter.api.Assertions.*;
-import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
 
 /**
@@ -31,6 +34,9 @@ class NumeroTicketGeneratorTest {
     @Mock
     private ConfiguracionEmpresaRepository configuracionRepository;
 
+    @Mock
+    private ISecuenciaService secuenciaService;
+
     @InjectMocks
     private NumeroTicketGenerator generator;
 
@@ -51,8 +57,8 @@ class NumeroTicketGeneratorTest {
         // Arrange
         when(configuracionRepository.findFirstActiveConfiguration())
                 .thenReturn(Optional.of(configuracion));
-        when(ticketRepository.existsByNumeroTicket(anyString()))
-                .thenReturn(false);
+        when(secuenciaService.siguiente(eq("TES-MAT"), eq(LocalDate.now()), any()))
+                .thenReturn(1L);
 
         // Act
         String numeroTicket = generator.generate();
@@ -60,6 +66,7 @@ class NumeroTicketGeneratorTest {
         // Assert
         assertNotNull(numeroTicket);
         assertTrue(numeroTicket.startsWith("TES-MAT-"));
+        assertTrue(numeroTicket.endsWith("-0001"));
 
         String fecha = LocalDate.now().format(DateTimeFormatter.ofPattern("yyyyMMdd"));
         assertTrue(numeroTicket.contains(fecha));
@@ -72,8 +79,8 @@ class NumeroTicketGeneratorTest {
         // Arrange
         when(configuracionRepository.findFirstActiveConfiguration())
                 .thenReturn(Optional.empty());
-        when(ticketRepository.existsByNumeroTicket(anyString()))
-                .thenReturn(false);
+        when(secuenciaService.siguiente(eq("TES-MAT"), any(), any()))
+                .thenReturn(1L);
 
         // Act
         String numeroTicket = generator.generate();
@@ -84,22 +91,22 @@ class NumeroTicketGeneratorTest {
     }
 
     @Test
-    @DisplayName("Debe incrementar secuencia cuando existe duplicado")
-    void generate_ConDuplicado_IncrementaSecuencia() {
+    @DisplayName("Debe continuar la numeración de tickets del día creados antes del contador")
+    void generate_ConTicketsPrevios_ContinuaSecuencia() {
         // Arrange
+        String fecha = LocalDate.now().format(DateTimeFormatter.ofPattern("yyyyMMdd"));
         when(configuracionRepository.findFirstActiveConfiguration())
                 .thenReturn(Optional.of(configuracion));
-        when(ticketRepository.existsByNumeroTicket(anyString()))
-                .thenReturn(true)
-                .thenReturn(true)
-                .thenReturn(false);
+        when(ticketRepository.findMaxNumeroTicketLike("TES-MAT-" + fecha + "-%"))
+                .thenReturn(Optional.of("TES-MAT-" + fecha + "-0002"));
+        when(secuenciaService.siguiente(eq("TES-MAT"), any(), any()))
+                .thenAnswer(invocation -> invocation.getArgument(2, LongSupplier.class).getAsLong() + 1);
 
         // Act
         String numeroTicket = generator.generate();
 
         // Assert
-        assertNotNull(numeroTicket);
-        assertTrue(numeroTicket.endsWith("-0003"));
+        assertEquals("TES-MAT-" + fecha + "-0003", numeroTicket);
     }
 
     @Test
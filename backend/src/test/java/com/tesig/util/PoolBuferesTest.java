@@ -0,0 +1,128 @@
+package com.tesig.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitarios para PoolBuferes.
+ */
+class PoolBuferesTest {
+
+    @Test
+    @DisplayName("Debe reutilizar el buffer sin mezclar el contenido de documentos anteriores")
+    void generar_VariasVeces_ReutilizaBufferLimpio() {
+        // Arrange
+        PoolBuferes pool = new PoolBuferes(1, 16, 1024);
+        List<OutputStream> usados = new ArrayList<>();
+
+        // Act
+        byte[] primero = pool.generar(salida -> {
+            usados.add(salida);
+            escribir(salida, new byte[]{1, 2, 3, 4});
+        });
+        byte[] segundo = pool.generar(salida -> {
+            usados.add(salida);
+            escribir(salida, new byte[]{9});
+        });
+
+        // Assert
+        assertArrayEquals(new byte[]{1, 2, 3, 4}, primero);
+        assertArrayEquals(new byte[]{9}, segundo);
+        assertSame(usados.get(0), usados.get(1));
+    }
+
+    @Test
+    @DisplayName("El resultado debe ser una copia independiente del buffer")
+    void generar_UsoPosterior_NoModificaResultadoAnterior() {
+        // Arrange
+        PoolBuferes pool = new PoolBuferes(1, 16, 1024);
+        byte[] primero = pool.generar(salida -> escribir(salida, new byte[]{1, 2, 3}));
+
+        // Act
+        pool.generar(salida -> escribir(salida, new byte[]{7, 7, 7}));
+
+        // Assert
+        assertArrayEquals(new byte[]{1, 2, 3}, primero);
+    }
+
+    @Test
+    @DisplayName("No debe devolver al pool un buffer que superó la capacidad máxima")
+    void generar_DocumentoGrande_NoReutilizaBuffer() {
+        // Arrange
+        PoolBuferes pool = new PoolBuferes(1, 16, 8);
+        List<OutputStream> usados = new ArrayList<>();
+
+        // Act
+        byte[] grande = pool.generar(salida -> {
+            usados.add(salida);
+            escribir(salida, new byte[32]);
+        });
+        pool.generar(salida -> {
+            usados.add(salida);
+            escribir(salida, new byte[]{1});
+        });
+
+        // Assert
+        assertEquals(32, grande.length);
+        assertNotSame(usados.get(0), usados.get(1));
+    }
+
+    @Test
+    @DisplayName("Debe liberar el buffer vacío cuando el escritor falla")
+    void generar_EscritorFalla_LiberaBufferLimpio() {
+        // Arrange
+        PoolBuferes pool = new PoolBuferes(1, 16, 1024);
+        List<OutputStream> usados = new ArrayList<>();
+
+        // Act
+        assertThrows(IllegalStateException.class, () -> pool.generar(salida -> {
+            usados.add(salida);
+            escribir(salida, new byte[]{5, 5, 5});
+            throw new IllegalStateException("Error al generar el documento");
+        }));
+        byte[] siguiente = pool.generar(salida -> {
+            usados.add(salida);
+            escribir(salida, new byte[]{1});
+        });
+
+        // Assert
+        assertArrayEquals(new byte[]{1}, siguiente);
+        assertSame(usados.get(0), usados.get(1));
+    }
+
+    @Test
+    @DisplayName("No debe retener más buffers que el tamaño del pool")
+    void generar_Anidado_RetieneHastaTamanioPool() {
+        // Arrange
+        PoolBuferes pool = new PoolBuferes(1, 16, 1024);
+        List<OutputStream> usados = new ArrayList<>();
+
+        // Act: dos generaciones simultáneas crean dos buffers, pero solo uno vuelve al pool
+        pool.generar(externa -> {
+            usados.add(externa);
+            pool.generar(interna -> usados.add(interna));
+        });
+        pool.generar(usados::add);
+        pool.generar(usados::add);
+
+        // Assert
+        assertNotSame(usados.get(0), usados.get(1));
+        assertSame(usados.get(2), usados.get(3));
+    }
+
+    private static void escribir(OutputStream salida, byte[] datos) {
+        try {
+            salida.write(datos);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
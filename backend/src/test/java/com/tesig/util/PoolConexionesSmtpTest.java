@@ -0,0 +1,197 @@
+package com.tesig.util;
+
+import jakarta.mail.Message;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.Session;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.InternetAddress;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de PoolConexionesSmtp contra un servidor SMTP en proceso.
+ */
+class PoolConexionesSmtpTest {
+
+    private ServidorSmtpPrueba servidor;
+    private Session session;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        servidor = new ServidorSmtpPrueba(0);
+        Properties propiedades = new Properties();
+        propiedades.put("mail.smtp.connectiontimeout", "2000");
+        propiedades.put("mail.smtp.timeout", "2000");
+        session = Session.getInstance(propiedades);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        servidor.close();
+    }
+
+    @Test
+    @DisplayName("Debe enviar varios lotes por una sola conexión")
+    void enviar_VariosLotes_ReutilizaConexion() throws Exception {
+        // Arrange
+        try (PoolConexionesSmtp pool = crearPool(servidor, 2, 100)) {
+
+            // Act
+            for (int lote = 0; lote < 5; lote++) {
+                Map<Integer, Exception> fallos = pool.enviar(mensajes(10, -1));
+                assertTrue(fallos.isEmpty());
+            }
+        }
+
+        // Assert
+        assertEquals(50, servidor.getMensajes());
+        assertEquals(1, servidor.getConexiones());
+    }
+
+    @Test
+    @DisplayName("Un destinatario rechazado solo debe fallar su mensaje")
+    void enviar_DestinatarioRechazado_FallaSoloEseMensaje() throws Exception {
+        // Arrange
+        Map<Integer, Exception> fallos;
+        try (PoolConexionesSmtp pool = crearPool(servidor, 1, 100)) {
+
+            // Act
+            fallos = pool.enviar(mensajes(5, 2));
+        }
+
+        // Assert
+        assertEquals(1, fallos.size());
+        assertInstanceOf(SendFailedException.class, fallos.get(2));
+        assertEquals(4, servidor.getMensajes());
+        assertEquals(1, servidor.getConexiones());
+    }
+
+    @Test
+    @DisplayName("Debe abrir una conexión nueva si el servidor cortó la sesión ociosa")
+    void enviar_SesionCortada_Reconecta() throws Exception {
+        // Arrange
+        try (PoolConexionesSmtp pool = crearPool(servidor, 1, 100)) {
+            pool.enviar(mensajes(3, -1));
+            servidor.cortarSesiones();
+
+            // Act
+            Map<Integer, Exception> fallos = pool.enviar(mensajes(3, -1));
+
+            // Assert
+            assertTrue(fallos.isEmpty());
+        }
+        assertEquals(6, servidor.getMensajes());
+        assertEquals(2, servidor.getConexiones());
+    }
+
+    @Test
+    @DisplayName("Debe reconectar al alcanzar el máximo de mensajes por conexión")
+    void enviar_MaximoMensajesPorConexion_Reconecta() throws Exception {
+        // Arrange
+        try (PoolConexionesSmtp pool = crearPool(servidor, 1, 3)) {
+
+            // Act
+            Map<Integer, Exception> fallos = pool.enviar(mensajes(7, -1));
+
+            // Assert
+            assertTrue(fallos.isEmpty());
+        }
+        assertEquals(7, servidor.getMensajes());
+        assertEquals(3, servidor.getConexiones());
+    }
+
+    @Test
+    @DisplayName("No debe abrir más conexiones que el tamaño del pool")
+    void enviar_EnviosConcurrentes_RespetaTamanioPool() throws Exception {
+        // Arrange
+        ExecutorService hilos = Executors.newFixedThreadPool(6);
+        try (PoolConexionesSmtp pool = crearPool(servidor, 2, 1000)) {
+            List<Future<Map<Integer, Exception>>> envios = new ArrayList<>();
+
+            // Act
+            for (int i = 0; i < 12; i++) {
+                envios.add(hilos.submit(() -> pool.enviar(mensajes(10, -1))));
+            }
+            for (Future<Map<Integer, Exception>> envio : envios) {
+                assertTrue(envio.get().isEmpty());
+            }
+        } finally {
+            hilos.shutdownNow();
+        }
+
+        // Assert
+        assertEquals(120, servidor.getMensajes());
+        assertTrue(servidor.getConexiones() <= 2);
+    }
+
+    @Test
+    @Tag("benchmark")
+    @DisplayName("Benchmark: mensajes por segundo con el pool y con una sesión por mensaje")
+    void benchmark_PoolVsSesionPorMensaje(TestReporter reporter) throws Exception {
+        // Arrange: cada sesión nueva cuesta 20 ms (handshake TLS + autenticación simulados)
+        int cantidad = 50;
+        try (ServidorSmtpPrueba servidorLento = new ServidorSmtpPrueba(20)) {
+
+            // Act: una sesión por mensaje (comportamiento de JavaMailSender.send por email)
+            long inicio = System.nanoTime();
+            for (MimeMessage mensaje : mensajes(cantidad, -1)) {
+                Transport transporte = session.getTransport("smtp");
+                transporte.connect("localhost", servidorLento.getPuerto(), null, null);
+                mensaje.saveChanges();
+                transporte.sendMessage(mensaje, mensaje.getAllRecipients());
+                transporte.close();
+            }
+            double porSesion = cantidad / ((System.nanoTime() - inicio) / 1e9);
+
+            // Act: pool de conexiones en lotes de 10
+            inicio = System.nanoTime();
+            try (PoolConexionesSmtp pool = crearPool(servidorLento, 1, 100)) {
+                for (int lote = 0; lote < cantidad / 10; lote++) {
+                    pool.enviar(mensajes(10, -1));
+                }
+            }
+            double conPool = cantidad / ((System.nanoTime() - inicio) / 1e9);
+
+            reporter.publishEntry("SMTP mensajes/s (sesión por mensaje)", String.format("%.0f", porSesion));
+            reporter.publishEntry("SMTP mensajes/s (pool)", String.format("%.0f", conPool));
+        }
+    }
+
+    private PoolConexionesSmtp crearPool(ServidorSmtpPrueba servidor, int tamanio, int mensajesPorConexion) {
+        return new PoolConexionesSmtp(session, "smtp", "localhost", servidor.getPuerto(), null, null,
+                tamanio, mensajesPorConexion, 30);
+    }
+
+    /**
+     * Crea mensajes de prueba; el de índice rechazado va a un destinatario que el servidor rechaza.
+     */
+    private List<MimeMessage> mensajes(int cantidad, int rechazado) throws MessagingException {
+        List<MimeMessage> mensajes = new ArrayList<>(cantidad);
+        for (int i = 0; i < cantidad; i++) {
+            MimeMessage mensaje = new MimeMessage(session);
+            mensaje.setFrom(new InternetAddress("taller@tesig.com"));
+            mensaje.setRecipient(Message.RecipientType.TO,
+                    new InternetAddress(i == rechazado ? "rechazado@mail.com" : "cliente" + i + "@mail.com"));
+            mensaje.setSubject("Ticket TKT-" + i);
+            mensaje.setText("<p>Su equipo está listo</p>", "UTF-8", "html");
+            mensajes.add(mensaje);
+        }
+        return mensajes;
+    }
+}
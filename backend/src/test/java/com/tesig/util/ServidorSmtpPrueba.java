@@ -0,0 +1,129 @@
+package com.tesig.util;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Servidor SMTP mínimo en proceso para tests.
+ *
+ * Acepta cualquier remitente, rechaza (550) los destinatarios que contienen
+ * "rechazado" y cuenta sesiones y mensajes recibidos. El retardo de conexión
+ * simula el costo del handshake TLS y la autenticación de un servidor real.
+ */
+class ServidorSmtpPrueba implements AutoCloseable {
+
+    private final ServerSocket serverSocket;
+    private final ExecutorService hilos = Executors.newCachedThreadPool(tarea -> {
+        Thread hilo = new Thread(tarea, "smtp-prueba");
+        hilo.setDaemon(true);
+        return hilo;
+    });
+    private final Set<Socket> sesiones = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger conexiones = new AtomicInteger();
+    private final AtomicInteger mensajes = new AtomicInteger();
+    private final long retardoConexionMs;
+
+    ServidorSmtpPrueba(long retardoConexionMs) throws IOException {
+        this.retardoConexionMs = retardoConexionMs;
+        this.serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        hilos.execute(this::aceptar);
+    }
+
+    int getPuerto() {
+        return serverSocket.getLocalPort();
+    }
+
+    int getConexiones() {
+        return conexiones.get();
+    }
+
+    int getMensajes() {
+        return mensajes.get();
+    }
+
+    /**
+     * Corta las sesiones abiertas, como un servidor que cierra las conexiones ociosas.
+     */
+    void cortarSesiones() throws IOException {
+        for (Socket socket : sesiones) {
+            socket.close();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        cortarSesiones();
+        hilos.shutdownNow();
+    }
+
+    private void aceptar() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                sesiones.add(socket);
+                conexiones.incrementAndGet();
+                hilos.execute(() -> atender(socket));
+            } catch (IOException e) {
+                return;
+            }
+        }
+    }
+
+    private void atender(Socket socket) {
+        try (socket;
+             BufferedReader entrada = new BufferedReader(
+                     new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII))) {
+            OutputStream salida = socket.getOutputStream();
+            if (retardoConexionMs > 0) {
+                Thread.sleep(retardoConexionMs);
+            }
+            responder(salida, "220 localhost ESMTP prueba");
+
+            String linea;
+            while ((linea = entrada.readLine()) != null) {
+                String comando = linea.toUpperCase();
+                if (comando.startsWith("EHLO") || comando.startsWith("HELO")) {
+                    responder(salida, "250 localhost");
+                } else if (comando.startsWith("RCPT") && comando.contains("RECHAZADO")) {
+                    responder(salida, "550 Destinatario inexistente");
+                } else if (comando.startsWith("DATA")) {
+                    responder(salida, "354 Fin con <CRLF>.<CRLF>");
+                    while ((linea = entrada.readLine()) != null && !linea.equals(".")) {
+                        // Cuerpo del mensaje
+                    }
+                    mensajes.incrementAndGet();
+                    responder(salida, "250 OK");
+                } else if (comando.startsWith("QUIT")) {
+                    responder(salida, "221 Adios");
+                    return;
+                } else {
+                    // MAIL, RCPT, RSET, NOOP
+                    responder(salida, "250 OK");
+                }
+            }
+        } catch (IOException e) {
+            // Sesión cortada
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            sesiones.remove(socket);
+        }
+    }
+
+    private static void responder(OutputStream salida, String respuesta) throws IOException {
+        salida.write((respuesta + "\r\n").getBytes(StandardCharsets.US_ASCII));
+        salida.flush();
+    }
+}